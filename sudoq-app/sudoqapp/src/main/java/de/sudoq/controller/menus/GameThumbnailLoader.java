@@ -0,0 +1,254 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.controller.menus;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.util.LruCache;
+import android.util.Log;
+import android.widget.ImageView;
+import de.sudoq.R;
+import de.sudoq.model.game.GameData;
+import de.sudoq.model.game.GameManager;
+import de.sudoq.model.game.GameThumbnail;
+import de.sudoq.model.sudoku.Constraint;
+import de.sudoq.model.sudoku.ConstraintType;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.SudokuBuilder;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+
+/**
+ * Lädt die Vorschaubilder der gespeicherten Spiele für die Liste in SudokuLoadingActivity. Die Bilder werden auf
+ * einem Hintergrundthread direkt in Listengröße aus den {@link GameThumbnail} Dateien und dem Sudokutyp gezeichnet und
+ * in einem LRU Cache gehalten. Fehlende Vorschaudateien älterer Spiele erzeugt dabei der GameManager. Der Hauptthread
+ * setzt nur fertige Bitmaps.
+ */
+public class GameThumbnailLoader {
+
+	private static final String LOG_TAG = GameThumbnailLoader.class.getSimpleName();
+
+	private static final int NO_FIELD_COLOR = 0xFFF5F5F5;
+	private static final int LINE_COLOR = 0xFF9E9E9E;
+	private static final int BLOCK_COLOR = Color.BLACK;
+	private static final int EMPTY_COLOR = Color.WHITE;
+	private static final int GIVEN_COLOR = 0xFFBDBDBD;
+	private static final int FILLED_COLOR = 0xFF80CBC4;
+
+	/** Attributes */
+
+	/**
+	 * Die Kantenlänge der Vorschaubilder in Pixeln
+	 */
+	private final int size;
+
+	/**
+	 * Die gezeichneten Bilder, nach Spiel-id und Zeitpunkt des letzten Spielens
+	 */
+	private final LruCache<String, Bitmap> cache;
+
+	/**
+	 * Die noch zu zeichnenden Bilder und die ImageView, die zuletzt auf sie wartet. Wird nur auf dem Hauptthread
+	 * verwendet.
+	 */
+	private final Map<String, ImageView> pending;
+
+	private final ExecutorService worker;
+
+	private final Handler mainThread;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt einen neuen Loader.
+	 *
+	 * @param context
+	 *            der Kontext, aus dem die Größe der Vorschaubilder gelesen wird
+	 */
+	public GameThumbnailLoader(Context context) {
+		size = context.getResources().getDimensionPixelSize(R.dimen.thumbnail_size);
+		// an eighth of the available memory, measured in kilobytes
+		int cacheSize = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8);
+		cache = new LruCache<String, Bitmap>(cacheSize) {
+			@Override
+			protected int sizeOf(String key, Bitmap bitmap) {
+				return Math.max(1, bitmap.getRowBytes() * bitmap.getHeight() / 1024);
+			}
+		};
+		pending = new HashMap<String, ImageView>();
+		worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "GameThumbnailLoader");
+				t.setDaemon(true);
+				t.setPriority(Thread.MIN_PRIORITY);
+				return t;
+			}
+		});
+		mainThread = new Handler(Looper.getMainLooper());
+	}
+
+	/** Methods */
+
+	/**
+	 * Zeigt das Vorschaubild des gegebenen Spiels in der gegebenen ImageView an. Ist es noch nicht gezeichnet, so wird
+	 * bis dahin der Platzhalter angezeigt. Muss auf dem Hauptthread aufgerufen werden.
+	 *
+	 * @param view
+	 *            die ImageView, die auch wiederverwendet werden darf
+	 * @param game
+	 *            das Spiel
+	 */
+	public void bind(ImageView view, GameData game) {
+		final String key = game.getId() + "@" + game.getPlayedAt().getTime();
+		view.setTag(key);
+		Bitmap bitmap = cache.get(key);
+		if (bitmap != null) {
+			view.setImageBitmap(bitmap);
+			return;
+		}
+		view.setImageResource(R.drawable.empty_sudoku);
+		if (pending.put(key, view) != null) {
+			return;
+		}
+
+		final int id = game.getId();
+		try {
+			worker.execute(new Runnable() {
+				public void run() {
+					Bitmap rendered = null;
+					try {
+						rendered = render(GameManager.getInstance().getThumbnail(id));
+					} catch (IOException e) {
+						Log.w(LOG_TAG, "no thumbnail for game " + id);
+					} catch (OutOfMemoryError e) {
+						Log.w(LOG_TAG, "out of memory rendering thumbnail of game " + id);
+					}
+					final Bitmap result = rendered;
+					mainThread.post(new Runnable() {
+						public void run() {
+							ImageView target = pending.remove(key);
+							if (result == null) {
+								return;
+							}
+							cache.put(key, result);
+							if (target != null && key.equals(target.getTag())) {
+								target.setImageBitmap(result);
+							}
+						}
+					});
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			pending.remove(key);
+		}
+	}
+
+	/**
+	 * Beendet den Hintergrundthread. Danach zeigt {@link #bind} nur noch bereits gezeichnete Bilder.
+	 */
+	public void shutdown() {
+		worker.shutdownNow();
+		cache.evictAll();
+	}
+
+	/**
+	 * Zeichnet die gegebene Vorschau in Listengröße. Felder werden nach ihrem Zustand eingefärbt, Blockgrenzen dicker
+	 * gezeichnet als die Linien innerhalb eines Blocks.
+	 */
+	private Bitmap render(GameThumbnail thumbnail) {
+		int w = thumbnail.getWidth();
+		int h = thumbnail.getHeight();
+		int cell = Math.max(1, size / Math.max(1, Math.max(w, h)));
+		int thin = cell >= 6 ? 1 : 0;
+		int thick = Math.max(1, cell / 8);
+		int[] blocks = blockMap(thumbnail);
+
+		Bitmap bitmap = Bitmap.createBitmap(cell * w + thick, cell * h + thick, Bitmap.Config.RGB_565);
+		Canvas canvas = new Canvas(bitmap);
+		canvas.drawColor(NO_FIELD_COLOR);
+		Paint paint = new Paint();
+
+		// the outline of every field, filled with the block colour and covered by the field itself
+		paint.setColor(BLOCK_COLOR);
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				if (thumbnail.getState(x, y) != GameThumbnail.NO_FIELD) {
+					canvas.drawRect(x * cell, y * cell, (x + 1) * cell + thick, (y + 1) * cell + thick, paint);
+				}
+			}
+		}
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				int state = thumbnail.getState(x, y);
+				if (state == GameThumbnail.NO_FIELD) {
+					continue;
+				}
+				int block = blocks[y * w + x];
+				int left = x > 0 && blocks[y * w + x - 1] == block ? 0 : thick;
+				int top = y > 0 && blocks[(y - 1) * w + x] == block ? 0 : thick;
+				boolean sameRight = x + 1 < w && blocks[y * w + x + 1] == block;
+				boolean sameBelow = y + 1 < h && blocks[(y + 1) * w + x] == block;
+				int x0 = x * cell + left;
+				int y0 = y * cell + top;
+				int x1 = (x + 1) * cell - (sameRight ? thin : 0);
+				int y1 = (y + 1) * cell - (sameBelow ? thin : 0);
+
+				paint.setColor(LINE_COLOR);
+				if (sameRight && thin > 0) {
+					canvas.drawRect(x1, y0, x1 + thin, y1, paint);
+				}
+				if (sameBelow && thin > 0) {
+					canvas.drawRect(x0, y1, x1, y1 + thin, paint);
+				}
+				paint.setColor(state == GameThumbnail.GIVEN ? GIVEN_COLOR : state == GameThumbnail.FILLED ? FILLED_COLOR
+						: EMPTY_COLOR);
+				canvas.drawRect(x0, y0, x1, y1, paint);
+			}
+		}
+		return bitmap;
+	}
+
+	/**
+	 * Gibt für jede Position der Vorschau den Index ihres Blocks zurück, -1 für Positionen ohne Block. Der Typ kommt
+	 * aus dem geteilten Cache und wird daher nicht erneut geladen.
+	 */
+	private static int[] blockMap(GameThumbnail thumbnail) {
+		int w = thumbnail.getWidth();
+		int[] blocks = new int[w * thumbnail.getHeight()];
+		Arrays.fill(blocks, -1);
+		SudokuType type = SudokuBuilder.createType(thumbnail.getType());
+		if (type == null) {
+			return blocks;
+		}
+		int index = 0;
+		for (Constraint c : type) {
+			if (c.getType() == ConstraintType.BLOCK) {
+				for (Position p : c) {
+					if (p.getX() < w && p.getY() < thumbnail.getHeight()) {
+						blocks[p.getY() * w + p.getX()] = index;
+					}
+				}
+				index++;
+			}
+		}
+		return blocks;
+	}
+}
@@ -14,6 +14,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 import android.view.Menu;
 import android.content.Intent;
@@ -27,7 +28,9 @@ import android.widget.Toast;
 import de.sudoq.R;
 import de.sudoq.controller.SudoqActivitySherlock;
 import de.sudoq.model.files.FileManager;
+import de.sudoq.model.files.TemplateArchive;
 import de.sudoq.model.profile.Profile;
+import de.sudoq.model.sudoku.SudokuPack;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
 
@@ -149,7 +152,7 @@ public class SplashActivity extends SudoqActivitySherlock {
 				boolean foundSudokusinAssetfolder = false;
 				String[] l = getAssets().list("");
 				for(String s: l)
-					if (s.equals(HEAD_DIRECTORY))
+					if (s.equals(HEAD_DIRECTORY) || s.equals(TemplateArchive.FILE_NAME))
 						foundSudokusinAssetfolder = true;
 				if(!foundSudokusinAssetfolder){
 					String msg =  "This app will probably crash once you try to start a new sudoku. "+
@@ -256,7 +259,12 @@ public class SplashActivity extends SudoqActivitySherlock {
 	 * ersten Start.
 	 */
 	private class Initialization extends AsyncTask<Void, Void, Void> {
-		
+
+		/**
+		 * Der Puffer für alle Kopiervorgänge
+		 */
+		private final byte[] buffer = new byte[64 * 1024];
+
 		@Override
 		public void onPostExecute(Void v) {
 			SharedPreferences settings = getSharedPreferences("Prefs", 0);
@@ -266,9 +274,16 @@ public class SplashActivity extends SudoqActivitySherlock {
 		}
 
 		/**
-		 * Kopiert alle Sudoku Vorlagen.
+		 * Kopiert alle Sudoku Vorlagen. Liegt ein gepacktes Archiv in den
+		 * Assets, wird nur dieses entpackt, sonst wird jede Vorlage einzeln
+		 * kopiert. Der Gradle-Build packt die Vorlagen immer und lässt das
+		 * ungepackte Verzeichnis aus dem APK weg.
 		 */
 		private void copyAssets() {
+			String[] top = getSubfiles("");
+			if (top != null && Arrays.asList(top).contains(TemplateArchive.FILE_NAME) && extractArchive())
+				return;
+
 			/* sudoku types*/
 			SudokuTypes[] types = SudokuTypes.values();
 			
@@ -292,6 +307,14 @@ public class SplashActivity extends SudoqActivitySherlock {
 				copyFile(sourceType + t.toString() + ".xml",
 						 targetType + t.toString() + ".xml");
 
+				/* a packed store replaces the single template files of its type */
+				String pack = t.toString() + SudokuPack.FILE_SUFFIX;
+				String[] typeFiles = getSubfiles(HEAD_DIRECTORY + File.separator + t.toString());
+				if (typeFiles != null && Arrays.asList(typeFiles).contains(pack)) {
+					copyFile(sourceType + pack, targetType + pack);
+					continue;
+				}
+
 				for (Complexity c : Complexity.playableValues()) {
 
 					String sourceComplexity = sourceType + c.toString() + File.separator;
@@ -306,7 +329,23 @@ public class SplashActivity extends SudoqActivitySherlock {
 			}
 		}
 
-				/* get all files/directories in relPath */
+		/**
+		 * Entpackt das Archiv aller Vorlagen in das sudokus-Verzeichnis.
+		 * 
+		 * @return true, falls das Archiv vollständig entpackt wurde
+		 */
+		private boolean extractArchive() {
+			try {
+				int count = TemplateArchive.extract(getAssets().open(TemplateArchive.FILE_NAME), FileManager.getSudokuDir());
+				Log.d(LOG_TAG, count + " templates extracted");
+				return true;
+			} catch (IOException e) {
+				Log.e(LOG_TAG, "could not extract templates, copying them one by one: " + e.getMessage());
+				return false;
+			}
+		}
+
+		/* get all files/directories in relPath */
 		private String[] getSubfiles(String relPath) {
 			String[] files = null;
 			try {
@@ -355,7 +394,6 @@ public class SplashActivity extends SudoqActivitySherlock {
 		 *             Fehler auftritt
 		 */
 		private void copyFileOnStreamLevel(InputStream in, OutputStream out) throws IOException {
-			byte[] buffer = new byte[1024];
 			int read;
 			while ((read = in.read(buffer)) != -1) {
 				out.write(buffer, 0, read);
@@ -56,6 +56,11 @@ public class SudokuLoadingActivity extends SudoqListActivity implements OnItemCl
 
 	private SudokuLoadingAdapter adapter;
 
+	/**
+	 * Lädt die Vorschaubilder der Spiele im Hintergrund, lebt so lange wie die Activity
+	 */
+	private GameThumbnailLoader thumbnails;
+
 	private List<GameData> games;
 
 	protected static MenuItem menuDeleteFinished;
@@ -162,8 +167,7 @@ public class SudokuLoadingActivity extends SudoqListActivity implements OnItemCl
 	@Override
 	public boolean onPrepareOptionsMenu(Menu menu) {
 		super.onPrepareOptionsMenu(menu);
-		List<GameData> gamesList = GameManager.getInstance().getGameList();
-		boolean noGames = gamesList.isEmpty();
+		boolean noGames = GameManager.getInstance().getGameCount() == 0;
 		
 		menu.findItem(R.id.action_sudokuloading_delete_finished).setVisible(!noGames);
 		menu.findItem(R.id.action_sudokuloading_delete_all     ).setVisible(!noGames);
@@ -180,6 +184,18 @@ public class SudokuLoadingActivity extends SudoqListActivity implements OnItemCl
 		//setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
 	}
 
+	/**
+	 * Wird aufgerufen, falls die Activity beendet wird. Beendet das Laden der
+	 * Vorschaubilder.
+	 */
+	@Override
+	public void onDestroy() {
+		if (thumbnails != null) {
+			thumbnails.shutdown();
+		}
+		super.onDestroy();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -261,7 +277,10 @@ public class SudokuLoadingActivity extends SudoqListActivity implements OnItemCl
 	private void initialiseGames() {
 		games = GameManager.getInstance().getGameList();
 		// initialize ArrayAdapter for the profile names and set it
-		adapter = new SudokuLoadingAdapter(this, games);
+		if (thumbnails == null) {
+			thumbnails = new GameThumbnailLoader(this);
+		}
+		adapter = new SudokuLoadingAdapter(this, games, thumbnails);
 		setListAdapter(adapter);
 		getListView().setOnItemClickListener(this);
 		getListView().setOnItemLongClickListener(this);
@@ -7,19 +7,12 @@
  */
 package de.sudoq.controller.menus;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.TimeZone;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
-import android.graphics.Matrix;
-import android.util.Log;
 import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -28,19 +21,16 @@ import android.widget.ArrayAdapter;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
-import android.widget.Toast;
 import de.sudoq.R;
-import de.sudoq.model.files.FileManager;
 import de.sudoq.model.game.GameData;
 
 /**
  * Adapter für die Anzeige aller Spiele des Spielers
  */
 public class SudokuLoadingAdapter extends ArrayAdapter<GameData> {
-	private static final float THUMBNAIL_SIZE = 0.5f;
-	private static final String LOG_TAG = SudokuLoadingAdapter.class.getSimpleName();
 	private final Context context;
 	private final List<GameData> gameDatas;
+	private final GameThumbnailLoader thumbnails;
 
 	/**
 	 * Erzeugt einen neuen SudokuLoadingAdpater mit den gegebenen Parametern
@@ -49,11 +39,14 @@ public class SudokuLoadingAdapter extends ArrayAdapter<GameData> {
 	 *            der Applikationskontext
 	 * @param games
 	 *            die Liste der games
+	 * @param thumbnails
+	 *            der Loader für die Vorschaubilder
 	 */
-	public SudokuLoadingAdapter(Context context, List<GameData> games) {
+	public SudokuLoadingAdapter(Context context, List<GameData> games, GameThumbnailLoader thumbnails) {
 		super(context, R.layout.sudokuloadingitem, games);
 		this.context = context;
 		this.gameDatas = games;
+		this.thumbnails = thumbnails;
 	}
 
 	/**
@@ -61,38 +54,24 @@ public class SudokuLoadingAdapter extends ArrayAdapter<GameData> {
 	 */
 	@Override
 	public View getView(int position, View convertView, ViewGroup parent) {
-		LayoutInflater inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-		View rowView = inflater.inflate(R.layout.sudokuloadingitem, parent, false);
+		View rowView = convertView;
+		if (rowView == null) {
+			LayoutInflater inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+			rowView = inflater.inflate(R.layout.sudokuloadingitem, parent, false);
+
+			//Setting Layout of the ImageView
+			LinearLayout.LayoutParams visibleLayoutParams = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+			visibleLayoutParams.gravity = Gravity.CENTER;
+			rowView.findViewById(R.id.sudoku_loading_item_thumbnail).setLayoutParams(visibleLayoutParams);
+		}
 		ImageView thumbnail       = (ImageView) rowView.findViewById(R.id.sudoku_loading_item_thumbnail);
 		TextView sudokuType       = (TextView)  rowView.findViewById(R.id.type_label);
 		TextView sudokuComplexity = (TextView)  rowView.findViewById(R.id.complexity_label);
 		TextView sudokuTime       = (TextView)  rowView.findViewById(R.id.time_label);
 		TextView sudokuState      = (TextView)  rowView.findViewById(R.id.state_label);
 
-		File currentThumbnailFile = FileManager.getGameThumbnailFile(gameDatas.get(position).getId());
-		try {
-			Bitmap currentThumbnailBitmap = BitmapFactory.decodeStream(new FileInputStream(currentThumbnailFile));
-			int thumbnailWidth = currentThumbnailBitmap.getWidth();
-			int thumbnailHeight = currentThumbnailBitmap.getHeight();
-
-			Matrix matrix = new Matrix();//identity matrix
-			matrix.postScale(THUMBNAIL_SIZE, THUMBNAIL_SIZE);//scaled matrix
-			
-			Bitmap resizedBitmap = Bitmap.createBitmap(currentThumbnailBitmap, 0, 0, thumbnailWidth, thumbnailHeight, matrix, false);
+		thumbnails.bind(thumbnail, gameDatas.get(position));
 
-			//Setting Layout of the ImageView
-			LinearLayout.LayoutParams visibleLayoutParams = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT);
-			visibleLayoutParams.gravity = Gravity.CENTER;
-			thumbnail.setLayoutParams(visibleLayoutParams);
-			thumbnail.setImageBitmap(resizedBitmap);
-			
-		} catch (FileNotFoundException e) {
-			Log.w(LOG_TAG, this.context.getString(R.string.error_thumbnail_load));
-		} catch (OutOfMemoryError e) {
-			Toast.makeText(context, context.getString(R.string.toast_stop_that), Toast.LENGTH_LONG).show();
-			((SudokuLoadingActivity) context).finish();
-		}
-		
 		sudokuType.      setText(Utility.      type2string(getContext(), gameDatas.get(position).getType()));
 		sudokuComplexity.setText(Utility.complexity2string(getContext(), gameDatas.get(position).getComplexity()));
 
@@ -113,6 +92,9 @@ public class SudokuLoadingAdapter extends ArrayAdapter<GameData> {
 			
 		}else{
 			sudokuState.setText("");
+			sudokuType.      setTextColor(Color.BLACK);
+			sudokuComplexity.setTextColor(Color.BLACK);
+			sudokuTime.      setTextColor(Color.BLACK);
 		}
 
 		return rowView;
@@ -7,7 +7,10 @@
  */
 package de.sudoq.controller.sudoku;
 
-import java.util.Hashtable;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -15,19 +18,42 @@ import android.graphics.Paint;
 import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.view.View;
+import de.sudoq.view.SudokuFieldView;
 
 /**
  * Stellt eine Klasse zur Verfügung, welche für Animationen bzw. Markierungen
- * von Feldern zuständig ist.
+ * von Feldern zuständig ist. Die Paints jeder Markierung werden einmal
+ * angelegt und beim Zeichnen nur noch in der Textgröße angepasst.
  */
 public class FieldViewPainter {
 	/** Attributes */
 
 	/**
-	 * Mappt ein Field auf einen Animation-Wert, welcher beschreibt, wie das
-	 * Feld zu zeichnen ist
+	 * Mappt eine View auf einen Animation-Wert, welcher beschreibt, wie die
+	 * View zu zeichnen ist
 	 */
-	private Hashtable<View, FieldViewStates> markings;
+	private Map<View, FieldViewStates> markings;
+
+	/**
+	 * Die Animation-Werte der SudokuFieldViews, nach der id ihres Feldes
+	 */
+	private FieldViewStates[] fieldMarkings;
+
+	/**
+	 * Die vorbereiteten Paints je Animation-Wert
+	 */
+	private final Map<FieldViewStates, Style> styles;
+
+	/**
+	 * Das Paint zum Verdunkeln eines Feldes
+	 */
+	private final Paint darkenPaint;
+
+	/**
+	 * Das Rechteck für Hintergrund und Inneres, wird bei jedem Zeichnen neu
+	 * gesetzt
+	 */
+	private final RectF rect;
 
 	/**
 	 * Die Singleton-Instanz des Handlers
@@ -40,7 +66,33 @@ public class FieldViewPainter {
 	 * Privater Konstruktor, da diese Klasse statisch ist.
 	 */
 	private FieldViewPainter() {
-		this.markings = new Hashtable<View, FieldViewStates>();
+		this.markings = new HashMap<View, FieldViewStates>();
+		this.fieldMarkings = new FieldViewStates[0];
+		this.darkenPaint = new Paint();
+		this.darkenPaint.setARGB(60, 0, 0, 0);
+		this.rect = new RectF();
+
+		int selectedInput = Color.rgb(255, 100, 100);
+		int selectedFixed = Color.rgb(220, 220, 255);
+		int fixedText = Color.rgb(0, 100, 0);
+		int background = Color.rgb(250, 250, 250);
+		this.styles = new EnumMap<FieldViewStates, Style>(FieldViewStates.class);
+		this.styles.put(FieldViewStates.SELECTED_INPUT_BORDER, new Style(Color.DKGRAY, selectedInput, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.SELECTED_INPUT, new Style(selectedInput, null, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.SELECTED_INPUT_WRONG, new Style(selectedInput, null, true, Color.RED, false));
+		this.styles.put(FieldViewStates.SELECTED_NOTE_BORDER, new Style(Color.DKGRAY, Color.YELLOW, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.SELECTED_NOTE, new Style(Color.YELLOW, null, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.SELECTED_NOTE_WRONG, new Style(Color.YELLOW, null, true, Color.RED, false));
+		this.styles.put(FieldViewStates.SELECTED_FIXED, new Style(selectedFixed, null, true, fixedText, true));
+		this.styles.put(FieldViewStates.CONNECTED, new Style(selectedFixed, null, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.CONNECTED_WRONG, new Style(selectedFixed, null, true, Color.RED, false));
+		this.styles.put(FieldViewStates.FIXED, new Style(background, null, true, fixedText, true));
+		this.styles.put(FieldViewStates.DEFAULT_BORDER, new Style(Color.DKGRAY, background, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.DEFAULT_WRONG, new Style(background, null, true, Color.RED, false));
+		this.styles.put(FieldViewStates.DEFAULT, new Style(background, null, true, Color.BLACK, false));
+		this.styles.put(FieldViewStates.CONTROLS, new Style(Color.rgb(40, 40, 40), null, false, null, false));
+		this.styles.put(FieldViewStates.KEYBOARD, new Style(Color.rgb(230, 230, 230), Color.rgb(40, 40, 40), false, null, false));
+		this.styles.put(FieldViewStates.SUDOKU, new Style(Color.rgb(200, 200, 200), null, false, null, false));
 	}
 
 	/**
@@ -59,9 +111,9 @@ public class FieldViewPainter {
 	/** Methods */
 
 	/**
-	 * Bemalt das spezifizierte Canvas entsprechend der in der Hashtable für das
-	 * spezifizierte Feld eingetragenen Animation. Ist eines der beiden
-	 * Argumente null, so wird nichts getan.
+	 * Bemalt das spezifizierte Canvas entsprechend der für die spezifizierte
+	 * View eingetragenen Animation. Ist eines der beiden Argumente null, so
+	 * wird nichts getan.
 	 * 
 	 * @param canvas
 	 *            Das Canvas, welches bemalt werden soll
@@ -76,200 +128,76 @@ public class FieldViewPainter {
 	 *            Verdunkelt das Feld
 	 */
 	public void markField(Canvas canvas, View field, String symbol, boolean justText, boolean darken) {
-		FieldViewStates fieldState = this.markings.get(field);
-		if (fieldState != null && !justText) {
-			switch (fieldState) {
-			case SELECTED_INPUT_BORDER:
-				drawBackground(canvas, field, Color.DKGRAY, true, darken);
-				drawInner(canvas, field, Color.rgb(255, 100, 100), true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case SELECTED_INPUT:
-				drawBackground(canvas, field, Color.rgb(255, 100, 100), true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case SELECTED_INPUT_WRONG:
-				drawBackground(canvas, field, Color.rgb(255, 100, 100), true, darken);
-				drawText(canvas, field, Color.RED, false, symbol);
-				break;
-			case SELECTED_NOTE_BORDER:
-				drawBackground(canvas, field, Color.DKGRAY, true, darken);
-				drawInner(canvas, field, Color.YELLOW, true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case SELECTED_NOTE:
-				drawBackground(canvas, field, Color.YELLOW, true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case SELECTED_NOTE_WRONG:
-				drawBackground(canvas, field, Color.YELLOW, true, darken);
-				drawText(canvas, field, Color.RED, false, symbol);
-				break;
-			case SELECTED_FIXED:
-				drawBackground(canvas, field, Color.rgb(220, 220, 255), true, darken);
-				drawText(canvas, field, Color.rgb(0, 100, 0), true, symbol);
-				break;
-			case CONNECTED:
-				drawBackground(canvas, field, Color.rgb(220, 220, 255), true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case CONNECTED_WRONG:
-				drawBackground(canvas, field, Color.rgb(220, 220, 255), true, darken);
-				drawText(canvas, field, Color.RED, false, symbol);
-				break;
-			case FIXED:
-				drawBackground(canvas, field, Color.rgb(250, 250, 250), true, darken);
-				drawText(canvas, field, Color.rgb(0, 100, 0), true, symbol);
-				break;
-			case DEFAULT_BORDER:
-				drawBackground(canvas, field, Color.DKGRAY, true, darken);
-				drawInner(canvas, field, Color.rgb(250, 250, 250), true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case DEFAULT_WRONG:
-				drawBackground(canvas, field, Color.rgb(250, 250, 250), true, darken);
-				drawText(canvas, field, Color.RED, false, symbol);
-				break;
-			case DEFAULT:
-				drawBackground(canvas, field, Color.rgb(250, 250, 250), true, darken);
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case CONTROLS:
-				drawBackground(canvas, field, Color.rgb(40, 40, 40), false, darken);
-				// drawInner(canvas, field, Color.rgb(40, 40, 40), false);
-				break;
-			case KEYBOARD:
-				drawBackground(canvas, field, Color.rgb(230, 230, 230), false, darken);
-				drawInner(canvas, field, Color.rgb(40, 40, 40), false, darken);
-				break;
-			case SUDOKU:
-				drawBackground(canvas, field, Color.rgb(200, 200, 200), false, darken);
-				// drawInner(canvas, field, Color.LTGRAY, false);
-				break;
-			}
-		} else if (fieldState != null) {
-			switch (fieldState) {
-			case SELECTED_INPUT_BORDER:
-			case SELECTED_INPUT:
-			case SELECTED_NOTE_BORDER:
-			case SELECTED_NOTE:
-			case CONNECTED:
-			case DEFAULT_BORDER:
-			case DEFAULT:
-				drawText(canvas, field, Color.BLACK, false, symbol);
-				break;
-			case SELECTED_INPUT_WRONG:
-			case SELECTED_NOTE_WRONG:
-			case DEFAULT_WRONG:
-			case CONNECTED_WRONG:
-				drawText(canvas, field, Color.RED, false, symbol);
-				break;
-			case SELECTED_FIXED:
-			case FIXED:
-				drawText(canvas, field, Color.rgb(0, 100, 0), true, symbol);
-				break;
-			}
-		}
+		paint(canvas, this.markings.get(field), field.getWidth(), field.getHeight(), symbol, justText, darken);
 	}
 
 	/**
-	 * Zeichnet den Hintergrund.
+	 * Bemalt das spezifizierte Canvas entsprechend der für die spezifizierte
+	 * SudokuFieldView eingetragenen Animation.
 	 * 
 	 * @param canvas
-	 *            Das Canvas
+	 *            Das Canvas, welches bemalt werden soll
 	 * @param field
-	 *            Das Field, das gezeichnet wird
-	 * @param color
-	 *            Die Hintergrundfarbe
-	 * @param round
-	 *            Gibt an, ob die Ecken rund gezeichnet werden sollen
+	 *            Die FieldView, anhand deren Animation-Einstellung das Canvas
+	 *            bemalt werden soll
+	 * @param symbol
+	 *            Das Symbol das gezeichnet werden soll
+	 * @param justText
+	 *            Definiert, dass nur Text geschrieben wird
 	 * @param darken
-	 *            Gibt an, ob das Feld verdunkelt werden soll
+	 *            Verdunkelt das Feld
 	 */
-	private void drawBackground(Canvas canvas, View field, int color, boolean round, boolean darken) {
-		Paint mainPaint = new Paint();
-		Paint darkenPaint = null;
-		if (darken) {
-			darkenPaint = new Paint();
-			darkenPaint.setARGB(60, 0, 0, 0);
+	public void markField(Canvas canvas, SudokuFieldView field, String symbol, boolean justText, boolean darken) {
+		int id = field.getField().getId();
+		FieldViewStates fieldState = id < this.fieldMarkings.length ? this.fieldMarkings[id] : null;
+		paint(canvas, fieldState, field.getWidth(), field.getHeight(), symbol, justText, darken);
+	}
+
+	private void paint(Canvas canvas, FieldViewStates fieldState, int width, int height, String symbol, boolean justText, boolean darken) {
+		if (fieldState == null) {
+			return;
 		}
-		mainPaint.setColor(color);
-		RectF rect = new RectF(0, 0, field.getWidth(), field.getHeight());
-		if (round) {
-			canvas.drawRoundRect(rect, field.getWidth() / 20.0f, field.getHeight() / 20.0f, mainPaint);
-			if (darken) {
-				canvas.drawRoundRect(rect, field.getWidth() / 20.0f, field.getHeight() / 20.0f, darkenPaint);
-			}
-		} else {
-			canvas.drawRect(rect, mainPaint);
-			if (darken) {
-				canvas.drawRect(rect, darkenPaint);
+		Style style = this.styles.get(fieldState);
+		if (!justText) {
+			this.rect.set(0, 0, width, height);
+			drawRect(canvas, style.background, style.round, darken, width, height);
+			if (style.inner != null) {
+				this.rect.set(2, 2, width - 2, height - 2);
+				drawRect(canvas, style.inner, style.round, darken, width, height);
 			}
 		}
+		if (style.text != null) {
+			style.text.setTextSize(Math.min(height * 3 / 4, width * 3 / 4));
+			canvas.drawText(symbol, width / 2, height / 2 + Math.min(height / 4, width / 4), style.text);
+		}
 	}
 
 	/**
-	 * Malt den inneren Bereich (lässt einen Rahmen).
+	 * Zeichnet das aktuelle Rechteck.
 	 * 
 	 * @param canvas
 	 *            Das Canvas
-	 * @param field
-	 *            Das Field, das gezeichnet wird
-	 * @param color
-	 *            Die Farbe
+	 * @param paint
+	 *            Das Paint der Farbe
 	 * @param round
 	 *            Gibt an, ob die Ecken rund gezeichnet werden sollen
 	 * @param darken
 	 *            Gibt an, ob das Feld verdunkelt werden soll
 	 */
-	private void drawInner(Canvas canvas, View field, int color, boolean round, boolean darken) {
-		Paint mainPaint = new Paint();
-		Paint darkenPaint = null;
-		if (darken) {
-			darkenPaint = new Paint();
-			darkenPaint.setARGB(60, 0, 0, 0);
-		}
-		mainPaint.setColor(color);
-		RectF rect = new RectF(2, 2, field.getWidth() - 2, field.getHeight() - 2);
+	private void drawRect(Canvas canvas, Paint paint, boolean round, boolean darken, int width, int height) {
 		if (round) {
-			canvas.drawRoundRect(rect, field.getWidth() / 20.0f, field.getHeight() / 20.0f, mainPaint);
+			canvas.drawRoundRect(this.rect, width / 20.0f, height / 20.0f, paint);
 			if (darken) {
-				canvas.drawRoundRect(rect, field.getWidth() / 20.0f, field.getHeight() / 20.0f, darkenPaint);
+				canvas.drawRoundRect(this.rect, width / 20.0f, height / 20.0f, this.darkenPaint);
 			}
 		} else {
-			canvas.drawRect(rect, mainPaint);
+			canvas.drawRect(this.rect, paint);
 			if (darken) {
-				canvas.drawRect(rect, darkenPaint);
+				canvas.drawRect(this.rect, this.darkenPaint);
 			}
 		}
 	}
 
-	/**
-	 * Schreibt den Text
-	 * 
-	 * @param canvas
-	 *            Das Canvas
-	 * @param field
-	 *            Das Field, das gezeichnet wird
-	 * @param color
-	 *            Die Farbe des Textes
-	 * @param bold
-	 *            Definiert, ob der Text fett ist
-	 * @param symbol
-	 *            Das Symbol, welches geschrieben wird
-	 */
-	private void drawText(Canvas canvas, View field, int color, boolean bold, String symbol) {
-		Paint paint = new Paint();
-		paint.setColor(color);
-		if (bold) {
-			paint.setTypeface(Typeface.DEFAULT_BOLD);
-		}
-		paint.setAntiAlias(true);
-		paint.setTextSize(Math.min(field.getHeight() * 3 / 4, field.getWidth() * 3 / 4));
-		paint.setTextAlign(Paint.Align.CENTER);
-		canvas.drawText(symbol + "", field.getWidth() / 2, field.getHeight() / 2 + Math.min(field.getHeight() / 4, field.getWidth() / 4), paint);
-	}
-
 	/**
 	 * Setzt die spezifizierte Animation für das spezifizierte Feld, sodass beim
 	 * Aufruf der markField Methode für dieses Feld die übergebene Animation auf
@@ -285,11 +213,64 @@ public class FieldViewPainter {
 		this.markings.put(field, marking);
 	}
 
+	/**
+	 * Setzt die spezifizierte Animation für die spezifizierte SudokuFieldView.
+	 * 
+	 * @param field
+	 *            Die FieldView für die Animation eingetragen werden soll
+	 * @param marking
+	 *            Die Animation die eingetragen werden soll
+	 */
+	public void setMarking(SudokuFieldView field, FieldViewStates marking) {
+		int id = field.getField().getId();
+		if (id >= this.fieldMarkings.length) {
+			FieldViewStates[] grown = new FieldViewStates[Math.max(id + 1, 2 * this.fieldMarkings.length)];
+			System.arraycopy(this.fieldMarkings, 0, grown, 0, this.fieldMarkings.length);
+			this.fieldMarkings = grown;
+		}
+		this.fieldMarkings[id] = marking;
+	}
+
 	/**
 	 * Löscht alle hinzugefügten Markierungen auf Default.
 	 */
 	public void flushMarkings() {
 		this.markings.clear();
+		Arrays.fill(this.fieldMarkings, null);
+	}
+
+	/**
+	 * Die Paints einer Animation: Hintergrund, optional ein Inneres mit Rahmen
+	 * und der Text, falls einer geschrieben wird.
+	 */
+	private static class Style {
+		private final Paint background;
+		private final Paint inner;
+		private final boolean round;
+		private final Paint text;
+
+		private Style(int background, Integer inner, boolean round, Integer text, boolean bold) {
+			this.background = new Paint();
+			this.background.setColor(background);
+			if (inner != null) {
+				this.inner = new Paint();
+				this.inner.setColor(inner);
+			} else {
+				this.inner = null;
+			}
+			this.round = round;
+			if (text != null) {
+				this.text = new Paint();
+				this.text.setColor(text);
+				if (bold) {
+					this.text.setTypeface(Typeface.DEFAULT_BOLD);
+				}
+				this.text.setAntiAlias(true);
+				this.text.setTextAlign(Paint.Align.CENTER);
+			} else {
+				this.text = null;
+			}
+		}
 	}
 
 }
@@ -24,15 +24,12 @@ import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.gesture.GestureOverlayView;
 import android.gesture.GestureStore;
-import android.graphics.Bitmap;
-import android.graphics.Bitmap.CompressFormat;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.os.Handler;
 import android.util.Log;
 import android.view.Gravity;
 import android.view.View;
-import android.view.View.MeasureSpec;
 import android.view.View.OnClickListener;
 import android.view.ViewGroup.LayoutParams;
 import android.view.ViewTreeObserver;
@@ -51,6 +48,7 @@ import de.sudoq.model.files.FileManager;
 import de.sudoq.model.game.Assistances;
 import de.sudoq.model.game.Game;
 import de.sudoq.model.game.GameManager;
+import de.sudoq.model.game.GameSaveService;
 import de.sudoq.model.profile.Profile;
 import de.sudoq.model.sudoku.Field;
 import de.sudoq.view.FullScrollLayout;
@@ -427,7 +425,6 @@ public class SudokuActivity extends SudoqActivitySherlock implements OnClickList
 		this.sudokuScrollView = (FullScrollLayout) findViewById(R.id.sudoku_field);
 		this.sudokuView = new SudokuLayout(this);
 		Log.d(LOG_TAG, "Inflated sudoku layout");
-		this.sudokuView.setGravity(Gravity.CENTER);
 		this.sudokuScrollView.addView(this.sudokuView);
 
 		Buttons.redoButton = (ImageButton) findViewById(R.id.button_sudoku_redo);
@@ -539,36 +536,24 @@ public class SudokuActivity extends SudoqActivitySherlock implements OnClickList
 	@Override
 	public void onPause() {
 		this.timeHandler.removeCallbacks(timeUpdate);
-		GameManager.getInstance().save(this.game);
-
-		float prevZoomFactor = this.sudokuScrollView.getZoomFactor();
-		sudokuView.setDrawingCacheEnabled(true);
-		sudokuScrollView.resetZoom();
-		
-		// Restoring measurements after zomming out.
-		this.sudokuView.measure(MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED), MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
-		this.sudokuView.layout(0, 0, this.sudokuView.getMeasuredWidth(), this.sudokuView.getMeasuredHeight());
-		this.sudokuView.buildDrawingCache(true);
-		Bitmap sudokuCapture = sudokuView.getDrawingCache();
-		try {
-			if (sudokuCapture != null) {
-				sudokuCapture.compress(CompressFormat.PNG, 100, new FileOutputStream(FileManager.getGameThumbnailFile(Profile.getInstance().getCurrentGame())));
-			} else {
-				Log.d(LOG_TAG, getString(R.string.error_thumbnail_get));
-			}
-		} catch (FileNotFoundException e) {
-			Log.w(LOG_TAG, getString(R.string.error_thumbnail_saved));
-		}
-
-		this.sudokuScrollView.setZoomFactor(prevZoomFactor);
-
 		if (finished) {
 			Profile.getInstance().setCurrentGame(Profile.NO_GAME);
-			Profile.getInstance().saveChanges();
 		}
+		GameSaveService.getInstance().requestSave(this.game);
+
 		super.onPause();
 	}
 
+	/**
+	 * Wird aufgerufen, falls die Activity nicht mehr sichtbar ist. Wartet, bis
+	 * alle Speichervorgänge im Hintergrund geschrieben sind.
+	 */
+	@Override
+	public void onStop() {
+		GameSaveService.getInstance().flush();
+		super.onStop();
+	}
+
 	/**
 	 * Wird aufgerufen, falls die "Zurück"-Taste gedrückt wird.
 	 */
@@ -589,7 +574,7 @@ public class SudokuActivity extends SudoqActivitySherlock implements OnClickList
 	@Override
 	public void finish() {
 		if (this.game != null) {
-			GameManager.getInstance().save(this.game);
+			GameSaveService.getInstance().requestSave(this.game);
 		}
 		super.finish();
 		overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
@@ -835,6 +820,7 @@ public class SudokuActivity extends SudoqActivitySherlock implements OnClickList
 		private String offset = "";
 		public void run() {
 			game.addTime(1);
+			GameSaveService.getInstance().saveIfDue(game);
 			
 			//getSupportActionBar().
 			final TextView timeView    = (TextView) findViewById (R.id.time);
@@ -25,7 +25,6 @@ import de.sudoq.R;
 import de.sudoq.model.game.Assistances;
 import de.sudoq.model.game.Game;
 import de.sudoq.model.profile.Profile;
-import de.sudoq.model.sudoku.Constraint;
 import de.sudoq.model.sudoku.Field;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
@@ -236,18 +235,11 @@ public class UserInteractionMediator implements OnGesturePerformedListener, Inpu
 						listener.onDeleteEntry(this.sudokuView.getCurrentFieldView().getField());
 					} else {
 						int number = Symbol.getInstance().getAbstract(prediction.name);
-						int save = this.sudokuView.getCurrentFieldView().getField().getCurrentValue();
 						if (number >= this.game.getSudoku().getSudokuType().getNumberOfSymbols())
 							number = -1;
-						if (number != -1 && this.game.isAssistanceAvailable(Assistances.restrictCandidates)) {
-							this.sudokuView.getCurrentFieldView().getField().setCurrentValue(number, false);
-							for (Constraint c : this.game.getSudoku().getSudokuType()) {
-								if (!c.isSaturated(this.game.getSudoku())) {
-									number = -2;
-									break;
-								}
-							}
-							this.sudokuView.getCurrentFieldView().getField().setCurrentValue(save, false);
+						if (number != -1 && this.game.isAssistanceAvailable(Assistances.restrictCandidates)
+								&& !this.game.isCandidate(this.sudokuView.getCurrentFieldView().getField(), number)) {
+							number = -2;
 						}
 						if (number != -1 && number != -2) {
 							listener.onAddEntry(this.sudokuView.getCurrentFieldView().getField(), number);
@@ -276,32 +268,21 @@ public class UserInteractionMediator implements OnGesturePerformedListener, Inpu
 		/* only if assistance 'input assistance' if enabled */
 		if (this.game.isAssistanceAvailable(Assistances.restrictCandidates)) {
 			
-			/* save val of current view */
-			int save = currentField.getCurrentValue();
-			
 			/* iterate over all symbols e.g. 0-8 */
 			for (int i = 0; i < type.getNumberOfSymbols(); i++) {
-				/* set fieldval to current symbol */
-				currentField.setCurrentValue(i, false);
-				/* for every constraint */
-				for (Constraint c : type) {
-					/* if constraint not satisfied -> disable*/
-					boolean constraintViolated =! c.isSaturated(this.game.getSudoku());
-					
-					/* Github Issue #116
-					 * it would be stupid if we were in the mode where notes are set 
-					 * and would disable a note that has been set.
-					 * Because then, it can't be unset by the user*/
-					boolean noteNotSet = ! (noteMode && currentField.isNoteSet(i));
-					
-					if (constraintViolated && noteNotSet) {
-						this.virtualKeyboard.disableButton(i);
-						break;
-					}
+				/* a symbol some neighbour already holds is no candidate */
+				boolean constraintViolated = !this.game.isCandidate(currentField, i);
+				
+				/* Github Issue #116
+				 * it would be stupid if we were in the mode where notes are set 
+				 * and would disable a note that has been set.
+				 * Because then, it can't be unset by the user*/
+				boolean noteNotSet = ! (noteMode && currentField.isNoteSet(i));
+				
+				if (constraintViolated && noteNotSet) {
+					this.virtualKeyboard.disableButton(i);
 				}
-				currentField.setCurrentValue(Field.EMPTYVAL, false);
 			}
-			currentField.setCurrentValue(save, false);
 			
 		}
 	}
@@ -0,0 +1,190 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.view;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import android.graphics.Path;
+import de.sudoq.model.sudoku.Constraint;
+import de.sudoq.model.sudoku.ConstraintType;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+
+/**
+ * Die Lage der Blockgrenzen eines Sudokutyps. Für jede Position eines Blocks
+ * wird einmal festgehalten, an welchen Seiten sie am Rand ihres Blocks liegt,
+ * welche Ecken gerundet und welche Lücken zum Nachbarfeld geschlossen werden.
+ * Daraus wird für eine Feldgröße ein Path gebaut, der beim Zeichnen nur noch
+ * skaliert und gefüllt wird.
+ */
+final class BlockBorders {
+	/** Attributes */
+
+	private static final int LEFT = 1;
+	private static final int RIGHT = 1 << 1;
+	private static final int TOP = 1 << 2;
+	private static final int BOTTOM = 1 << 3;
+
+	/**
+	 * Lücken an den Ecken, die zum Nachbarfeld hin geschlossen werden
+	 */
+	private static final int FILL_RIGHT_DOWN = 1 << 4;
+	private static final int FILL_BOTTOM_RIGHT = 1 << 5;
+	private static final int FILL_LEFT_UP = 1 << 6;
+	private static final int FILL_TOP_LEFT = 1 << 7;
+
+	/**
+	 * Die bereits berechneten Grenzen je Sudokutyp
+	 */
+	private static final Map<SudokuType, BlockBorders> cache = new WeakHashMap<SudokuType, BlockBorders>();
+
+	/**
+	 * Spalte, Zeile und Randflags jeder Blockposition
+	 */
+	private final int[] xs;
+	private final int[] ys;
+	private final int[] flags;
+
+	/** Constructors */
+
+	private BlockBorders(SudokuType type) {
+		int count = 0;
+		for (Constraint c : type) {
+			if (c.getType().equals(ConstraintType.BLOCK)) {
+				count += c.getSize();
+			}
+		}
+		xs = new int[count];
+		ys = new int[count];
+		flags = new int[count];
+
+		int i = 0;
+		for (Constraint c : type) {
+			if (!c.getType().equals(ConstraintType.BLOCK)) {
+				continue;
+			}
+			Set<Position> block = new HashSet<Position>(c.getPositions());
+			for (Position p : c) {
+				int x = p.getX();
+				int y = p.getY();
+				/* blocks can be squiggly, so every neighbour has to be looked up */
+				boolean isLeft = x == 0 || !block.contains(Position.get(x - 1, y));
+				boolean isRight = !block.contains(Position.get(x + 1, y));
+				boolean isTop = y == 0 || !block.contains(Position.get(x, y - 1));
+				boolean isBottom = !block.contains(Position.get(x, y + 1));
+				boolean belowRightMember = block.contains(Position.get(x + 1, y + 1));
+				boolean aboveLeftMember = x > 0 && y > 0 && block.contains(Position.get(x - 1, y - 1));
+
+				int f = 0;
+				if (isLeft)
+					f |= LEFT;
+				if (isRight)
+					f |= RIGHT;
+				if (isTop)
+					f |= TOP;
+				if (isBottom)
+					f |= BOTTOM;
+				/* a field on the right border closes the edge to its neighbour below, unless a corner follows */
+				if (isRight && !isBottom && !belowRightMember)
+					f |= FILL_RIGHT_DOWN;
+				if (isBottom && !isRight && !belowRightMember)
+					f |= FILL_BOTTOM_RIGHT;
+				if (isLeft && !isTop && !aboveLeftMember)
+					f |= FILL_LEFT_UP;
+				if (isTop && !isLeft && !aboveLeftMember)
+					f |= FILL_TOP_LEFT;
+
+				xs[i] = x;
+				ys[i] = y;
+				flags[i] = f;
+				i++;
+			}
+		}
+	}
+
+	/** Methods */
+
+	/**
+	 * Gibt die Blockgrenzen des spezifizierten Sudokutyps zurück. Sie werden
+	 * nur beim ersten Aufruf je Typ berechnet.
+	 *
+	 * @param type
+	 *            Der Sudokutyp
+	 * @return Die Blockgrenzen
+	 */
+	static BlockBorders of(SudokuType type) {
+		synchronized (cache) {
+			BlockBorders borders = cache.get(type);
+			if (borders == null) {
+				borders = new BlockBorders(type);
+				cache.put(type, borders);
+			}
+			return borders;
+		}
+	}
+
+	/**
+	 * Ersetzt den Inhalt des spezifizierten Paths durch die Blockgrenzen für
+	 * die spezifizierte Feldgröße. Die Koordinaten beginnen beim ersten Feld,
+	 * ohne den Rand der View. Der Path wird gefüllt gezeichnet.
+	 *
+	 * @param path
+	 *            Der zu füllende Path
+	 * @param fieldSize
+	 *            Die Größe eines Feldes in Pixeln
+	 * @param spacing
+	 *            Der Abstand zwischen zwei Feldern, zugleich die Dicke der
+	 *            Grenzen
+	 */
+	void fillPath(Path path, int fieldSize, int spacing) {
+		path.reset();
+		if (spacing <= 0) {
+			return;
+		}
+		float r = fieldSize / 20.0f;
+		int step = fieldSize + spacing;
+		for (int i = 0; i < flags.length; i++) {
+			int f = flags[i];
+			float left = xs[i] * step;
+			float top = ys[i] * step;
+			float right = left + fieldSize;
+			float bottom = top + fieldSize;
+
+			if ((f & LEFT) != 0)
+				path.addRect(left - spacing, top + r, left, bottom - r, Path.Direction.CW);
+			if ((f & RIGHT) != 0)
+				path.addRect(right, top + r, right + spacing, bottom - r, Path.Direction.CW);
+			if ((f & TOP) != 0)
+				path.addRect(left + r, top - spacing, right - r, top, Path.Direction.CW);
+			if ((f & BOTTOM) != 0)
+				path.addRect(left + r, bottom, right - r, bottom + spacing, Path.Direction.CW);
+
+			/* corners of a block are rounded */
+			if ((f & (LEFT | TOP)) == (LEFT | TOP))
+				path.addCircle(left + r, top + r, r + spacing, Path.Direction.CW);
+			if ((f & (RIGHT | TOP)) == (RIGHT | TOP))
+				path.addCircle(right - r, top + r, r + spacing, Path.Direction.CW);
+			if ((f & (LEFT | BOTTOM)) == (LEFT | BOTTOM))
+				path.addCircle(left + r, bottom - r, r + spacing, Path.Direction.CW);
+			if ((f & (RIGHT | BOTTOM)) == (RIGHT | BOTTOM))
+				path.addCircle(right - r, bottom - r, r + spacing, Path.Direction.CW);
+
+			if ((f & FILL_RIGHT_DOWN) != 0)
+				path.addRect(right, bottom - r, right + spacing, bottom + spacing + r, Path.Direction.CW);
+			if ((f & FILL_BOTTOM_RIGHT) != 0)
+				path.addRect(right - r, bottom, right + spacing + r, bottom + spacing, Path.Direction.CW);
+			if ((f & FILL_LEFT_UP) != 0)
+				path.addRect(left - spacing, top - spacing - r, left, top + r, Path.Direction.CW);
+			if ((f & FILL_TOP_LEFT) != 0)
+				path.addRect(left - r - spacing, top - spacing, left + r, top, Path.Direction.CW);
+		}
+	}
+}
@@ -8,8 +8,9 @@
 package de.sudoq.view;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
-import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -22,20 +23,31 @@ import de.sudoq.controller.sudoku.ObservableFieldInteraction;
 import de.sudoq.controller.sudoku.Symbol;
 import de.sudoq.model.ModelChangeListener;
 import de.sudoq.model.game.Game;
-import de.sudoq.model.sudoku.Constraint;
 import de.sudoq.model.sudoku.ConstraintType;
 import de.sudoq.model.sudoku.Field;
-import de.sudoq.model.sudoku.Position;
 
 /**
  * Diese Subklasse des von der Android API bereitgestellten Views stellt ein
  * einzelnes Feld innerhalb eines Sudokus dar. Es erweitert den Android View um
- * Funktionalität zur Benutzerinteraktion und Färben.
+ * Funktionalität zur Benutzerinteraktion und Färben. Die View hängt nicht im
+ * View-Baum, sondern wird vom SudokuLayout auf dessen Canvas gezeichnet.
  */
 public class SudokuFieldView extends View implements ModelChangeListener<Field>, ObservableFieldInteraction {
 
 	/** Attributes */
 
+	/**
+	 * Das Paint der Notizen, geteilt von allen Feldern, die nur auf dem
+	 * UI-Thread gezeichnet werden
+	 */
+	private static final Paint notePaint = new Paint();
+
+	static {
+		notePaint.setAntiAlias(true);
+		notePaint.setTextAlign(Paint.Align.CENTER);
+		notePaint.setColor(Color.BLACK);
+	}
+
 	/**
 	 * Das Feld, das von diesem View representiert wird
 	 * 
@@ -57,7 +69,7 @@ public class SudokuFieldView extends View implements ModelChangeListener<Field>,
 	 * Eine Liste von Feldern, die mit diesem in Verbindung stehen und markiert
 	 * werden, falls dieses Feld ausgewählt wird
 	 */
-	private ArrayList<SudokuFieldView> connectedFields;
+	private Set<SudokuFieldView> connectedFields;
 
 	/**
 	 * Das Symbol was in diesem Feld steht
@@ -89,14 +101,19 @@ public class SudokuFieldView extends View implements ModelChangeListener<Field>,
 	 */
 	private Game game;
 
+	/**
+	 * Das SudokuLayout, das diese View zeichnet
+	 */
+	private SudokuLayout layout;
+
 	/** Constructors */
 
 	/**
 	 * Erstellt einen SudokuFieldView und initialisiert die Attribute der
 	 * Klasse.
 	 * 
-	 * @param context
-	 *            der Applikationskontext
+	 * @param layout
+	 *            das SudokuLayout, das diese View zeichnet
 	 * @param game
 	 *            Das Game zu dieser View
 	 * @param field
@@ -107,28 +124,22 @@ public class SudokuFieldView extends View implements ModelChangeListener<Field>,
 	 * @throws IllegalArgumentException
 	 *             Wird geworfen, falls eines der Argumente null ist
 	 */
-	public SudokuFieldView(Context context, Game game, Field field, boolean markWrongSymbol) {
-		super(context);
+	public SudokuFieldView(SudokuLayout layout, Game game, Field field, boolean markWrongSymbol) {
+		super(layout.getContext());
+		this.layout = layout;
 		this.markWrongSymbol = markWrongSymbol;
 		this.field = field;
 		this.symbol = Symbol.getInstance().getMapping(this.field.getCurrentValue());
 		this.game = game;
 
 		this.fieldSelectListener = new ArrayList<FieldInteractionListener>();
-		this.connectedFields = new ArrayList<SudokuFieldView>();
+		this.connectedFields = new LinkedHashSet<SudokuFieldView>();
 		this.selected = false;
 		this.connected = false;
 		this.noteMode = false;
 		this.isInExtraConstraint = false;
 
-		ArrayList<Constraint> constraints = game.getSudoku().getSudokuType().getConstraints();
-		for (int i = 0; i < constraints.size(); i++) {
-			if (constraints.get(i).getType().equals(ConstraintType.EXTRA) &&
-					constraints.get(i).includes(game.getSudoku().getPosition(field.getId()))) {
-				this.isInExtraConstraint = true;
-				break;
-			}
-		}
+		this.isInExtraConstraint = game.getSudoku().getConflictIndex().isIn(field, ConstraintType.EXTRA);
 
 		updateMarking();
 	}
@@ -165,16 +176,13 @@ public class SudokuFieldView extends View implements ModelChangeListener<Field>,
 	 *            Das Canvas in das gezeichnet werde nsoll
 	 */
 	private void drawNotes(Canvas canvas) {
-		Paint notePaint = new Paint();
-		notePaint.setAntiAlias(true);
-		int noteTextSize = getHeight() / Symbol.getInstance().getRasterSize();
+		Symbol symbols = Symbol.getInstance();
+		int rasterSize = symbols.getRasterSize();
+		int noteTextSize = getHeight() / rasterSize;
 		notePaint.setTextSize(noteTextSize);
-		notePaint.setTextAlign(Paint.Align.CENTER);
-		notePaint.setColor(Color.BLACK);
-		for (int i = 0; i < Symbol.getInstance().getNumberOfSymbols(); i++) {
+		for (int i = 0; i < symbols.getNumberOfSymbols(); i++) {
 			if (this.field.isNoteSet(i)) {
-				String note = Symbol.getInstance().getMapping(i);
-				canvas.drawText(note + "", (i % Symbol.getInstance().getRasterSize()) * noteTextSize + noteTextSize / 2, (i / Symbol.getInstance().getRasterSize()) * noteTextSize + noteTextSize, notePaint);
+				canvas.drawText(symbols.getMapping(i), (i % rasterSize) * noteTextSize + noteTextSize / 2, (i / rasterSize) * noteTextSize + noteTextSize, notePaint);
 			}
 		}
 	}
@@ -242,7 +250,7 @@ public class SudokuFieldView extends View implements ModelChangeListener<Field>,
 	 *            Die View, die mit dieser verbunden werden soll
 	 */
 	public void addConnectedField(SudokuFieldView view) {
-		if (view != null && !this.connectedFields.contains(view)) {
+		if (view != null) {
 			this.connectedFields.add(view);
 		}
 	}
@@ -340,37 +348,19 @@ public class SudokuFieldView extends View implements ModelChangeListener<Field>,
 				FieldViewPainter.getInstance().setMarking(this, FieldViewStates.FIXED);
 			}
 		}
-		invalidate();
+		this.layout.invalidateField(this);
 	}
 
 	/**
 	 * Gibt true zurück, falls der Wert dieses Feldes die Constraints verletzt.
 	 * Überprüft werden nur UniqueConstraints. Befindet sich das Feld in einem
-	 * anderen ConstraintTyp wird immer fals ezurückgegeben.
+	 * anderen ConstraintTyp wird immer true zurückgegeben.
 	 * 
 	 * @return true, falls der Wert dieses Feldes die UniqueConstraints verletzt
 	 *         oder sich in einem anderen ConstraintTyp befindet, false sonst
 	 */
 	private boolean checkConstraint() {
-		ArrayList<Constraint> constraints = this.game.getSudoku().getSudokuType().getConstraints();
-		ArrayList<Position> positions;
-		for (int i = 0; i < constraints.size(); i++) {
-			if (constraints.get(i).includes(this.game.getSudoku().getPosition(this.field.getId()))) {
-				if (constraints.get(i).hasUniqueBehavior()) {
-					positions = constraints.get(i).getPositions();
-					for (int k = 0; k < positions.size(); k++) {
-						if (positions.get(k) != this.game.getSudoku().getPosition(this.field.getId())
-								&& this.game.getSudoku().getField(positions.get(k)).getCurrentValue() == this.field.getCurrentValue()) {
-							return true;
-						}
-					}
-				} else {
-					return true;
-				}
-			}
-		}
-
-		return false;
+		return this.game.getSudoku().getConflictIndex().isInConflict(this.field);
 	}
 
 	/**
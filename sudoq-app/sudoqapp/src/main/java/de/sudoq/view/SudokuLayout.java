@@ -7,22 +7,22 @@
  */
 package de.sudoq.view;
 
-import java.util.ArrayList;
-
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
 import android.util.Log;
 import android.view.MotionEvent;
-import android.widget.RelativeLayout;
+import android.view.View;
 import de.sudoq.controller.sudoku.FieldInteractionListener;
 import de.sudoq.controller.sudoku.FieldViewPainter;
 import de.sudoq.controller.sudoku.ObservableFieldInteraction;
 import de.sudoq.controller.sudoku.SudokuActivity;
 import de.sudoq.model.game.Assistances;
 import de.sudoq.model.game.Game;
-import de.sudoq.model.sudoku.Constraint;
+import de.sudoq.model.sudoku.ConflictIndex;
 import de.sudoq.model.sudoku.ConstraintType;
 import de.sudoq.model.sudoku.Field;
 import de.sudoq.model.sudoku.Position;
@@ -31,9 +31,13 @@ import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
 import de.sudoq.model.sudoku.sudokuTypes.TypeBasic;
 
 /**
- * Eine View als RealativeLayout, die eine Sudoku-Anzeige verwaltet.
+ * Eine View, die eine Sudoku-Anzeige verwaltet. Das ganze Sudoku wird auf ein
+ * einziges Canvas gezeichnet, die SudokuFieldViews sind keine Kinder dieser
+ * View, sondern zeichnen nur ihr Feld an die von hier berechnete Stelle.
+ * Berührungen werden über die Feldgröße auf die Felder abgebildet, Änderungen
+ * eines Feldes zeichnen nur dessen Rechteck neu.
  */
-public class SudokuLayout extends RelativeLayout implements ObservableFieldInteraction, ZoomableView {
+public class SudokuLayout extends View implements ObservableFieldInteraction, ZoomableView {
 	/**
 	 * Das Log-Tag für den LogCat
 	 */
@@ -86,6 +90,25 @@ public class SudokuLayout extends RelativeLayout implements ObservableFieldInter
 	 */
 	private static int spacing = 2;
 
+	/**
+	 * Der Clip-Bereich beim Zeichnen, wiederverwendet
+	 */
+	private final Rect clip = new Rect();
+
+	/**
+	 * Die Blockgrenzen des Sudokutyps
+	 */
+	private BlockBorders borders;
+
+	/**
+	 * Die Blockgrenzen ohne Zoom und die Feldgröße, für die der Path gebaut
+	 * wurde
+	 */
+	private final Path borderPath = new Path();
+	private int borderFieldSize = -1;
+
+	private final Paint borderPaint = new Paint();
+
 	/**
 	 * Instanziiert eine neue SudokuView in dem spezifizierten Kontext.
 	 * 
@@ -100,9 +123,13 @@ public class SudokuLayout extends RelativeLayout implements ObservableFieldInter
 		this.defaultFieldViewSize = 40;
 		this.zoomFactor = 1.0f;
 		// this.currentFieldViewSize = this.defaultFieldViewSize;
-		this.setWillNotDraw(false);
+		this.borders = BlockBorders.of(this.game.getSudoku().getSudokuType());
+		this.borderPaint.setColor(Color.BLACK);
+		this.borderPaint.setStyle(Paint.Style.FILL);
+		this.borderPaint.setAntiAlias(true);
 
 		inflateSudoku();
+		layoutFieldViews();
 	}
 
 	/**
@@ -110,48 +137,23 @@ public class SudokuLayout extends RelativeLayout implements ObservableFieldInter
 	 */
 	private void inflateSudoku() {
 		FieldViewPainter.getInstance().flushMarkings();
-		this.removeAllViews();
 
 		Sudoku sudoku = this.game.getSudoku();
 		SudokuType sudokuType = sudoku.getSudokuType();
-		this.sudokuFieldViews = new SudokuFieldView[sudokuType.getSize().getX() + 1][sudokuType.getSize().getY() + 1];
-		for (int x = 0; x <= sudokuType.getSize().getX(); x++) {
-			for (int y = 0; y <= sudokuType.getSize().getY(); y++) {
-				Field field = sudoku.getField(Position.get(x, y));
-				if (field != null) {
-					RelativeLayout.LayoutParams params = new RelativeLayout.LayoutParams((int) this.getCurrentFieldViewSize(), (int) this.defaultFieldViewSize);
-					params.topMargin = (y * (int) this.getCurrentFieldViewSize()) + y;
-					params.leftMargin = (x * (int) this.getCurrentFieldViewSize()) + x;
-					this.sudokuFieldViews[x][y] = new SudokuFieldView(context, game, field, this.game.isAssistanceAvailable(Assistances.markWrongSymbol));
-					field.registerListener(this.sudokuFieldViews[x][y]);
-					this.addView(this.sudokuFieldViews[x][y], params);
-				} else if (sudoku.getSudokuType().getSize().getX() == x && sudoku.getSudokuType().getSize().getY() == y) {
-					RelativeLayout.LayoutParams params = new RelativeLayout.LayoutParams((int) this.getCurrentFieldViewSize(), (int) this.defaultFieldViewSize);
-					params.topMargin = ((y - 1) * (int) this.getCurrentFieldViewSize()) + (y - 1) + getCurrentTopMargin();
-					params.leftMargin = ((x - 1) * (int) this.getCurrentFieldViewSize()) + (x - 1) + getCurrentLeftMargin();
-					this.sudokuFieldViews[x][y] = new SudokuFieldView(context, game, this.game.getSudoku().getField(Position.get(x - 1, y - 1)), this.game.isAssistanceAvailable(Assistances.markWrongSymbol));
-					this.addView(this.sudokuFieldViews[x][y], params);
-					this.sudokuFieldViews[x][y].setVisibility(INVISIBLE);
-				}
-			}
+		this.sudokuFieldViews = new SudokuFieldView[sudokuType.getSize().getX()][sudokuType.getSize().getY()];
+		for (Position p : sudokuType.getValidPositions()) {
+			Field field = sudoku.getField(p);
+			this.sudokuFieldViews[p.getX()][p.getY()] = new SudokuFieldView(this, game, field, this.game.isAssistanceAvailable(Assistances.markWrongSymbol));
+			field.registerListener(this.sudokuFieldViews[p.getX()][p.getY()]);
 		}
 
-		ArrayList<Constraint> allConstraints = this.game.getSudoku().getSudokuType().getConstraints();
-		ArrayList<Position> positions;
 		if (this.game.isAssistanceAvailable(Assistances.markRowColumn)) {
-			for (int constrNum = 0; constrNum < allConstraints.size(); constrNum++) {
-				if (allConstraints.get(constrNum).getType().equals(ConstraintType.LINE)) {
-					positions = allConstraints.get(constrNum).getPositions();
-					for (int i = 0; i < positions.size(); i++) {
-						for (int k = 0; k < positions.size(); k++) {
-							if (i != k){
-								Position pos_i = positions.get(i);
-								Position pos_k = positions.get(k);
-								this.sudokuFieldViews[pos_i.getX()][pos_i.getY()].addConnectedField(
-										this.sudokuFieldViews[pos_k.getX()][pos_k.getY()]);
-							}
-						}
-					}
+			ConflictIndex index = sudoku.getConflictIndex();
+			for (Position p : sudokuType.getValidPositions()) {
+				SudokuFieldView view = this.sudokuFieldViews[p.getX()][p.getY()];
+				for (Field peer : index.getPeers(view.getField(), ConstraintType.LINE)) {
+					Position q = sudoku.getPosition(peer.getId());
+					view.addConnectedField(this.sudokuFieldViews[q.getX()][q.getY()]);
 				}
 			}
 		}
@@ -191,201 +193,122 @@ public class SudokuLayout extends RelativeLayout implements ObservableFieldInter
 	 * Aktualisiert die Sudoku-Anzeige bzw. der enthaltenen Felder.
 	 */
 	private void refresh() {
-		if (this.sudokuFieldViews != null) {
-			Position typeSize = this.game.getSudoku().getSudokuType().getSize();
-			//Iterate over all positions within the size 
-			//and one more! why do we go 0 to limit, why <= ?
-			for (    int x = 0; x <= typeSize.getX(); x++) {
-				for (int y = 0; y <= typeSize.getY(); y++) {
-					if (game.getSudoku().getField(Position.get(x, y)) != null) {
-						//Position is not null. This check is important for samurai sudokus 
-						RelativeLayout.LayoutParams params = (RelativeLayout.LayoutParams) this.sudokuFieldViews[x][y].getLayoutParams();
-						params.width  = (int) this.getCurrentFieldViewSize();
-						params.height = (int) this.getCurrentFieldViewSize();
-						params.topMargin =  (int) (getCurrentTopMargin()  + (y * (this.getCurrentFieldViewSize() + getCurrentSpacing())));
-						params.leftMargin = (int) (getCurrentLeftMargin() + (x * (this.getCurrentFieldViewSize() + getCurrentSpacing())));
-						this.sudokuFieldViews[x][y].setLayoutParams(params);
-						this.sudokuFieldViews[x][y].invalidate();
-					} else if (x == typeSize.getX() && 
-							   y == typeSize.getY() ) {
-						//both x and y are over the limit. Why do we go there?
-						RelativeLayout.LayoutParams params = new RelativeLayout.LayoutParams((int) this.getCurrentFieldViewSize(), (int) this.defaultFieldViewSize);
-						params.width  = (int) this.getCurrentFieldViewSize();
-						params.height = (int) this.getCurrentFieldViewSize();
-						params.topMargin =  (int) (2 * getCurrentTopMargin()  + ((y - 1) * (this.getCurrentFieldViewSize() + getCurrentSpacing())));
-						params.leftMargin = (int) (2 * getCurrentLeftMargin() + ((x - 1) * (this.getCurrentFieldViewSize() + getCurrentSpacing())));
-						this.sudokuFieldViews[x][y].setLayoutParams(params);
-						this.sudokuFieldViews[x][y].invalidate();
-					}
-				}
+		layoutFieldViews();
+		requestLayout();
+		invalidate();
+	}
+
+	/**
+	 * Setzt die Größe aller FieldViews auf die aktuelle Feldgröße. Da sie nicht
+	 * in dieser View hängen, löst das kein Layout aus.
+	 */
+	private void layoutFieldViews() {
+		int size = getCurrentFieldViewSize();
+		for (Position p : this.game.getSudoku().getSudokuType().getValidPositions()) {
+			SudokuFieldView view = this.sudokuFieldViews[p.getX()][p.getY()];
+			if (view.getWidth() != size || view.getHeight() != size) {
+				view.layout(0, 0, size, size);
 			}
 		}
-		invalidate();
 	}
 
+	/**
+	 * Gibt den Abstand vom linken Rand bis zur Spalte x zurück.
+	 */
+	private int getFieldLeft(int x) {
+		return getCurrentLeftMargin() + x * (getCurrentFieldViewSize() + getCurrentSpacing());
+	}
+
+	/**
+	 * Gibt den Abstand vom oberen Rand bis zur Zeile y zurück.
+	 */
+	private int getFieldTop(int y) {
+		return getCurrentTopMargin() + y * (getCurrentFieldViewSize() + getCurrentSpacing());
+	}
+
+	/**
+	 * Zeichnet das Rechteck der spezifizierten FieldView neu. Wird von der
+	 * FieldView aufgerufen, wenn sich ihre Markierung oder ihr Feld ändert.
+	 * 
+	 * @param view
+	 *            Die geänderte FieldView
+	 */
+	void invalidateField(SudokuFieldView view) {
+		Position p = this.game.getSudoku().getPosition(view.getField().getId());
+		int left = getFieldLeft(p.getX());
+		int top = getFieldTop(p.getY());
+		invalidate(left, top, left + getCurrentFieldViewSize(), top + getCurrentFieldViewSize());
+	}
+
+	/**
+	 * Die Größe entspricht dem Sudoku in der aktuellen Zoomstufe samt Rand auf
+	 * beiden Seiten.
+	 */
 	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		Position typeSize = this.game.getSudoku().getSudokuType().getSize();
+		int width = 2 * getCurrentLeftMargin() + typeSize.getX() * (getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing();
+		int height = 2 * getCurrentTopMargin() + typeSize.getY() * (getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing();
+		setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+	}
+
 	/**
-	 * Draws all black borders for the sudoku, nothing else
-	 * Fields have to be drawn after this method
-	 * No insight on the coordinate-wise workings, unsure about the 'i's.
+	 * Zeichnet die Blockgrenzen und danach alle Felder, die im neu zu
+	 * zeichnenden Bereich liegen.
 	 */
+	@Override
 	protected void onDraw(Canvas canvas) {
 		super.onDraw(canvas);
-		float edgeRadius = getCurrentFieldViewSize() / 20.0f;
-		Paint paint = new Paint();
-		paint.setColor(Color.BLACK);
-		for (Constraint c: this.game.getSudoku().getSudokuType()) {
-			if (c.getType().equals(ConstraintType.BLOCK)) {
-				for (Position p: c) {
-					/* determine whether the position p is in the (right|left|top|bottom) border of its block constraint.
-					 * test for 0 to avoid illegalArgExc for neg. vals
-					 * careful when trying to optimize this definition: blocks can be squiggly (every additional compound to row/col but extra as in hypersudoku is s.th. different)
-					 * */
-					boolean isLeft   = p.getX() == 0 || !c.includes(Position.get(p.getX() - 1, p.getY()    ));
-					boolean isRight  =                  !c.includes(Position.get(p.getX() + 1, p.getY()    ));
-					boolean isTop    = p.getY() == 0 || !c.includes(Position.get(p.getX(),     p.getY() - 1));
-					boolean isBottom =                  !c.includes(Position.get(p.getX(),     p.getY() + 1));
-					/* apparently:
-					 *   00 10 20 30 ...  
-					 *   01 11
-					 *   02    xy
-					 *   .
-					 *   .
-					 * */
-					
-					
-					for (int i = 1; i <= getCurrentSpacing(); i++) {//?
-						//deklariert hier, weil wir es nicht früher brauchen, effizienter wäre weiter oben
-						int fieldSizeAndSpacing = this.getCurrentFieldViewSize() + getCurrentSpacing();
-						/* these first 4 seem similar. drawing the black line around?*/
-						/* fields that touch the edge: Paint your edge but leave space at the corners*/
-						//paint.setColor(Color.TRANSPARENT);
-
-						if (isLeft) {
-							float startX = getCurrentLeftMargin() + p.getX() * (int) (fieldSizeAndSpacing) - i;
-							float stopX = startX;
-							
-							float startY = getCurrentTopMargin()  +  p.getY()      * (int) (fieldSizeAndSpacing) + edgeRadius;
-							float stopY  = getCurrentTopMargin()  + (p.getY() + 1) * (int) (fieldSizeAndSpacing) - edgeRadius - getCurrentSpacing();
-							canvas.drawLine(startX, startY,	stopX, stopY, paint);
-						}
-						if (isRight) {
-							float startX = getCurrentLeftMargin() + (p.getX() + 1) * (int) (fieldSizeAndSpacing) - getCurrentSpacing() - 1 + i;
-							float stopX  = startX;
-							
-							float startY = getCurrentTopMargin()  +  p.getY()      * (int) (fieldSizeAndSpacing) + edgeRadius;
-							float stopY  = getCurrentTopMargin()  + (p.getY() + 1) * (int) (fieldSizeAndSpacing) - edgeRadius - getCurrentSpacing();
-							canvas.drawLine(startX, startY,	stopX, stopY, paint);
-						}
-						if (isTop) {
-							float startX = getCurrentLeftMargin() +  p.getX()      * (int) (fieldSizeAndSpacing) + edgeRadius;
-							float stopX  = getCurrentLeftMargin() + (p.getX() + 1) * (int) (fieldSizeAndSpacing) - edgeRadius - getCurrentSpacing();
-							
-							float startY = getCurrentTopMargin()  + p.getY() * (int) (fieldSizeAndSpacing) - i;
-							float stopY  = startY;
-							canvas.drawLine(startX, startY,	stopX, stopY, paint);
-						}
-						if (isBottom) {
-							float startX = getCurrentLeftMargin() +  p.getX()      * (int) (fieldSizeAndSpacing) + edgeRadius;
-							float stopX  = getCurrentLeftMargin() + (p.getX() + 1) * (int) (fieldSizeAndSpacing) - edgeRadius - getCurrentSpacing();
-							float startY = getCurrentTopMargin()  + (p.getY() + 1) * (int) (fieldSizeAndSpacing) - getCurrentSpacing() - 1 + i;
-							float stopY  = startY;
-							canvas.drawLine(startX, startY,	stopX, stopY, paint);
-						}
-
-						/* Fields at corners of their block draw a circle for a round circumference*/
-						/*TopLeft*/
-						if (isLeft && isTop) {
-							//paint.setColor(Color.MAGENTA);
-							canvas.drawCircle(
-									getCurrentLeftMargin() + p.getX() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									getCurrentTopMargin()  + p.getY() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									edgeRadius + i, 
-									paint);
-						}	
-						
-						/* Top Right*/
-						if (isRight && isTop) {
-							//paint.setColor(Color.BLUE);
-							canvas.drawCircle(
-									getCurrentLeftMargin() + (p.getX() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - edgeRadius,
-									getCurrentTopMargin()  + p.getY()       * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									edgeRadius + i, 
-									paint);
-						}
-
-						/*Bottom Left*/
-						if (isLeft && isBottom) {
-							//paint.setColor(Color.CYAN);
-							canvas.drawCircle(
-									getCurrentLeftMargin() + p.getX() *       (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									getCurrentTopMargin()  + (p.getY() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - edgeRadius - getCurrentSpacing(),
-									edgeRadius + i, 
-									paint);
-						}
-						
-						/*BottomRight*/
-						if (isRight && isBottom) {
-							//paint.setColor(Color.RED);
-							canvas.drawCircle(
-									getCurrentLeftMargin() + (p.getX() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - edgeRadius - getCurrentSpacing(),
-									getCurrentTopMargin()  + (p.getY() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - edgeRadius - getCurrentSpacing(),
-									edgeRadius + i, 
-									paint);
-						}
-						
-						
-						
-						/*Now filling the edges*/
-						boolean belowRightMember = c.includes(Position.get(p.getX() + 1, p.getY() + 1));
-						/*For a field on the right border, fill edge to neighbour below 
-						 * 
-						 * !isBottom excludes:      corner to the left -> no neighbour directly below i.e. unwanted filling
-						 *  3rd condition excludes: corner to the right-> member below right          i.e. unwanted filling
-						 * 
-						 * */
-						if (isRight && !isBottom && !belowRightMember) {
-							canvas.drawLine(
-									getCurrentLeftMargin() + (p.getX() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - 1 + i,
-									getCurrentTopMargin()  + (p.getY() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - edgeRadius,
-									getCurrentLeftMargin() + (p.getX() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - 1 + i,
-									getCurrentTopMargin()  + (p.getY() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									paint);
-						}
-						/*For a field at the bottom, fill edge to right neighbour */
-						if (isBottom && !isRight && !belowRightMember) {
-							canvas.drawLine(
-									getCurrentLeftMargin() + (p.getX() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - edgeRadius - getCurrentSpacing(),
-									getCurrentTopMargin()  + (p.getY() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - 1 + i,
-									getCurrentLeftMargin() + (p.getX() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									getCurrentTopMargin()  + (p.getY() + 1) * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - 1 + i,
-									paint);
-						}
-						
-						/*For a field on the left border, fill edge to upper neighbour*/
-						if (isLeft && !isTop && (p.getX() == 0 || !c.includes(Position.get(p.getX() - 1, p.getY() - 1)))) {
-							canvas.drawLine(
-									getCurrentLeftMargin() + p.getX() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - i,
-									getCurrentTopMargin()  + p.getY() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - getCurrentSpacing() - edgeRadius,
-									getCurrentLeftMargin() + p.getX() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - i,
-									getCurrentTopMargin()  + p.getY() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									paint);
-						}
-						/*For a field at the top fill to the left*/
-						if (isTop && !isLeft && (p.getY() == 0 || !c.includes(Position.get(p.getX() - 1, p.getY() - 1)))) {
-							canvas.drawLine(
-									getCurrentLeftMargin() + p.getX() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - edgeRadius - getCurrentSpacing(),
-									getCurrentTopMargin()  + p.getY() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - i,
-									getCurrentLeftMargin() + p.getX() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) + edgeRadius,
-									getCurrentTopMargin()  + p.getY() * (int) (this.getCurrentFieldViewSize() + getCurrentSpacing()) - i,
-									paint);
-						}
-					}
+		drawBorders(canvas);
+
+		int size = getCurrentFieldViewSize();
+		int step = size + getCurrentSpacing();
+		if (size <= 0) {
+			return;
+		}
+		Position typeSize = this.game.getSudoku().getSudokuType().getSize();
+		canvas.getClipBounds(this.clip);
+		int minX = Math.max(0, (this.clip.left - getCurrentLeftMargin()) / step);
+		int minY = Math.max(0, (this.clip.top - getCurrentTopMargin()) / step);
+		int maxX = Math.min(typeSize.getX() - 1, (this.clip.right - getCurrentLeftMargin()) / step);
+		int maxY = Math.min(typeSize.getY() - 1, (this.clip.bottom - getCurrentTopMargin()) / step);
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				SudokuFieldView view = this.sudokuFieldViews[x][y];
+				if (view != null) {
+					int save = canvas.save();
+					canvas.translate(getFieldLeft(x), getFieldTop(y));
+					view.onDraw(canvas);
+					canvas.restoreToCount(save);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Zeichnet die schwarzen Blockgrenzen, danach müssen die Felder gezeichnet
+	 * werden. Der Path wird ohne Zoom gebaut und beim Zeichnen so skaliert,
+	 * dass er auf den Feldern der aktuellen Zoomstufe liegt. Neu gebaut wird er
+	 * nur, wenn sich die Feldgröße ohne Zoom ändert.
+	 */
+	private void drawBorders(Canvas canvas) {
+		if (getCurrentFieldViewSize() <= 0 || getCurrentSpacing() <= 0) {
+			return;
+		}
+		if (this.defaultFieldViewSize != this.borderFieldSize) {
+			this.borders.fillPath(this.borderPath, this.defaultFieldViewSize, spacing);
+			this.borderFieldSize = this.defaultFieldViewSize;
+		}
+		/* scale by the step between fields, so the borders stay aligned with the rounded field positions */
+		int step = getCurrentFieldViewSize() + getCurrentSpacing();
+		float scale = (float) step / (this.defaultFieldViewSize + spacing);
+		int save = canvas.save();
+		canvas.translate(getCurrentLeftMargin(), getCurrentTopMargin());
+		canvas.scale(scale, scale);
+		canvas.drawPath(this.borderPath, this.borderPaint);
+		canvas.restoreToCount(save);
+	}
+
 	/**
 	 * Zoom so heraus, dass ein diese View optimal in ein Layout der
 	 * spezifizierte Größe passt
@@ -415,12 +338,46 @@ public class SudokuLayout extends RelativeLayout implements ObservableFieldInter
 	}
 
 	/**
-	 * Touch-Events werden nicht verarbeitet.
+	 * Benachrichtigt beim Aufsetzen die Listener der berührten FieldView. Die
+	 * Events werden nicht verbraucht, damit das umgebende Layout scrollen und
+	 * zoomen kann.
 	 */
 	@Override
 	public boolean onTouchEvent(MotionEvent event) {
+		if (event.getAction() == MotionEvent.ACTION_DOWN) {
+			SudokuFieldView view = getFieldViewAt(event.getX(), event.getY());
+			if (view != null) {
+				view.notifyListener();
+			}
+		}
 		return false;
+	}
 
+	/**
+	 * Gibt die FieldView an den spezifizierten Koordinaten dieser View zurück.
+	 * 
+	 * @param x
+	 *            Die x-Koordinate
+	 * @param y
+	 *            Die y-Koordinate
+	 * @return Die FieldView oder null, falls dort kein Feld, sondern Rand oder
+	 *         Abstand liegt
+	 */
+	public SudokuFieldView getFieldViewAt(float x, float y) {
+		int size = getCurrentFieldViewSize();
+		int step = size + getCurrentSpacing();
+		float left = x - getCurrentLeftMargin();
+		float top = y - getCurrentTopMargin();
+		if (size <= 0 || left < 0 || top < 0) {
+			return null;
+		}
+		int column = (int) (left / step);
+		int row = (int) (top / step);
+		Position typeSize = this.game.getSudoku().getSudokuType().getSize();
+		if (column >= typeSize.getX() || row >= typeSize.getY() || left - column * step >= size || top - row * step >= size) {
+			return null;
+		}
+		return this.sudokuFieldViews[column][row];
 	}
 
 	/**
@@ -0,0 +1,333 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.view.actionTree;
+
+import java.util.ArrayList;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Paint.Style;
+import android.graphics.Rect;
+import android.view.MotionEvent;
+import android.view.View;
+import de.sudoq.controller.sudoku.ActionTreeNavListener;
+import de.sudoq.model.actionTree.ActionTree;
+import de.sudoq.model.actionTree.ActionTreeElement;
+import de.sudoq.model.actionTree.ActionTreeLayout;
+import de.sudoq.model.game.GameStateHandler;
+import de.sudoq.view.ZoomableView;
+
+/**
+ * Zeichnet den Aktionsbaum eines Spiels auf einen einzigen Canvas. Die
+ * Rasterkoordinaten der Elemente kommen aus dem {@link ActionTreeLayout} des
+ * Baumes, um eine Rasterzelle als Rand verschoben. Gezeichnet werden nur die
+ * Elemente und Linien, die im sichtbaren Ausschnitt liegen, Berührungen werden
+ * über das Raster dem Element zugeordnet.
+ */
+public class ActionTreeView extends View implements ZoomableView {
+	/** Attributes */
+
+	/**
+	 * Die Standardfarbe der Elemente
+	 */
+	public static final int DEFAULT_COLOR = 0xFFFFAD00;
+
+	public static final int WRONG_COLOR = 0xFFCC1F1F;
+
+	public static final int CORRECT_COLOR = 0xFF1FCC1F;
+
+	/**
+	 * Die Farbe für das aktive Element
+	 */
+	public static final int ACTIVE_COLOR = 0xFFFF4B00;
+
+	/**
+	 * Die Größe des Rasters in Pixeln ohne Zoom
+	 */
+	private static final int RASTER_SIZE = 70;
+
+	/**
+	 * Die Größe des intern verwendeten Rasters in Pixeln
+	 */
+	private int rasterSize = RASTER_SIZE;
+
+	private final GameStateHandler stateHandler;
+
+	private final ActionTree actionTree;
+
+	/**
+	 * Ob die Tiefe des Baumes nach unten (Hochformat) oder nach rechts
+	 * (Querformat) abgetragen wird
+	 */
+	private final boolean portrait;
+
+	/**
+	 * Die Objekte, die auf die Auswahl eines Elements reagieren sollen
+	 */
+	private final ArrayList<ActionTreeNavListener> actionTreeNavListener;
+
+	private final Paint elementPaint;
+	private final Paint bookmarkPaint;
+	private final Paint branchPaint;
+	private final Paint activePaint;
+	private final Paint linePaint;
+
+	private final Rect clip = new Rect();
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt die View zum Aktionsbaum des spezifizierten StateHandlers.
+	 *
+	 * @param context
+	 *            Der Kontext, in dem die View angezeigt wird
+	 * @param stateHandler
+	 *            Der StateHandler des Spiels
+	 * @param portrait
+	 *            true, falls das Gerät im Hochformat ist
+	 */
+	public ActionTreeView(Context context, GameStateHandler stateHandler, boolean portrait) {
+		super(context);
+		this.stateHandler = stateHandler;
+		this.actionTree = stateHandler.getActionTree();
+		this.portrait = portrait;
+		this.actionTreeNavListener = new ArrayList<ActionTreeNavListener>();
+
+		elementPaint = new Paint();
+		bookmarkPaint = new Paint();
+		bookmarkPaint.setAntiAlias(true);
+		branchPaint = new Paint();
+		branchPaint.setStyle(Style.STROKE);
+		branchPaint.setStrokeWidth(8);
+		branchPaint.setAntiAlias(true);
+		activePaint = new Paint();
+		activePaint.setColor(ACTIVE_COLOR);
+		activePaint.setStyle(Style.STROKE);
+		activePaint.setAntiAlias(true);
+		linePaint = new Paint();
+		linePaint.setStrokeWidth(5);
+		linePaint.setStyle(Style.STROKE);
+		linePaint.setColor(DEFAULT_COLOR);
+		linePaint.setAlpha(180);
+		linePaint.setAntiAlias(true);
+	}
+
+	/** Methods */
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		ActionTreeLayout layout = actionTree.getLayout();
+		int depth = (layout.getColumnCount() + 2) * rasterSize;
+		int breadth = (layout.getRowCount() + 2) * rasterSize;
+		setMeasuredDimension(resolveSize(portrait ? breadth : depth, widthMeasureSpec),
+				resolveSize(portrait ? depth : breadth, heightMeasureSpec));
+	}
+
+	/**
+	 * Zeichnet die Linien und Elemente im sichtbaren Ausschnitt.
+	 *
+	 * @param canvas
+	 *            Das Canvas Objekt auf das gezeichnet wird
+	 */
+	@Override
+	protected void onDraw(Canvas canvas) {
+		super.onDraw(canvas);
+		ActionTreeLayout layout = actionTree.getLayout();
+		canvas.getClipBounds(clip);
+		int r = rasterSize;
+		// the layout starts at 0, the view keeps one raster cell as margin
+		int firstColumn = Math.max(0, (portrait ? clip.top : clip.left) / r - 1);
+		int lastColumn = Math.min(layout.getColumnCount() - 1, (portrait ? clip.bottom : clip.right) / r - 1);
+		int firstRow = (portrait ? clip.left : clip.top) / r - 1;
+		int lastRow = (portrait ? clip.right : clip.bottom) / r - 1;
+
+		// lines end at their child, so one more column reaches into the view
+		for (int column = Math.max(1, firstColumn); column <= lastColumn + 1; column++) {
+			for (int i = layout.indexOf(column, firstRow); i < layout.getColumnSize(column); i++) {
+				ActionTreeElement element = layout.getElement(column, i);
+				ActionTreeElement parent = element.getParent();
+				// parents of a column are ordered like their children
+				if (layout.getRow(parent) > lastRow) {
+					break;
+				}
+				canvas.drawLine(getElementLeft(parent) + r / 2, getElementTop(parent) + r / 2, getElementLeft(element)
+						+ r / 2, getElementTop(element) + r / 2, linePaint);
+			}
+		}
+
+		ActionTreeElement active = stateHandler.getCurrentState();
+		for (int column = firstColumn; column <= lastColumn; column++) {
+			for (int i = layout.indexOf(column, firstRow); i < layout.getColumnSize(column); i++) {
+				ActionTreeElement element = layout.getElement(column, i);
+				if (layout.getRow(element) > lastRow) {
+					break;
+				}
+				drawElement(canvas, element, element == active);
+			}
+		}
+	}
+
+	/**
+	 * Zeichnet das spezifizierte Element in seine Rasterzelle: die Aktion als
+	 * Quadrat, darüber Lesezeichen, Verzweigung und die Markierung des aktiven
+	 * Elements.
+	 */
+	private void drawElement(Canvas canvas, ActionTreeElement element, boolean active) {
+		int size = rasterSize - 2;
+		int left = getElementLeft(element);
+		int top = getElementTop(element);
+		int centerX = left + size / 2;
+		int centerY = top + size / 2;
+		int color = DEFAULT_COLOR;
+		if (element.isCorrect()) {
+			color = CORRECT_COLOR;
+		}
+		if (element.isMistake()) {
+			color = WRONG_COLOR;
+		}
+
+		elementPaint.setColor(color);
+		int rectSize = (int) ((float) size / 3);
+		canvas.drawRect(left + rectSize, top + rectSize, left + size - rectSize, top + size - rectSize, elementPaint);
+
+		if (element.isMarked()) {
+			bookmarkPaint.setColor(color);
+			canvas.drawCircle(centerX, centerY, (int) (((float) size / 6) * 1.42), bookmarkPaint);
+		}
+		if (element.isSplitUp()) {
+			branchPaint.setColor(color);
+			canvas.drawCircle(centerX, centerY, (int) ((float) size / 3), branchPaint);
+		}
+		if (active) {
+			activePaint.setStrokeWidth((int) ((float) size * 0.1));
+			canvas.drawCircle(centerX, centerY, (int) ((float) size / 2.1), activePaint);
+		}
+	}
+
+	/**
+	 * Gibt den linken Rand der Rasterzelle des spezifizierten Elements zurück.
+	 *
+	 * @param element
+	 *            Ein Element des Aktionsbaumes
+	 * @return Der linke Rand in Pixeln
+	 */
+	public int getElementLeft(ActionTreeElement element) {
+		ActionTreeLayout layout = actionTree.getLayout();
+		return ((portrait ? layout.getRow(element) : layout.getColumn(element)) + 1) * rasterSize;
+	}
+
+	/**
+	 * Gibt den oberen Rand der Rasterzelle des spezifizierten Elements zurück.
+	 *
+	 * @param element
+	 *            Ein Element des Aktionsbaumes
+	 * @return Der obere Rand in Pixeln
+	 */
+	public int getElementTop(ActionTreeElement element) {
+		ActionTreeLayout layout = actionTree.getLayout();
+		return ((portrait ? layout.getColumn(element) : layout.getRow(element)) + 1) * rasterSize;
+	}
+
+	/**
+	 * Gibt die Größe einer Rasterzelle in Pixeln zurück.
+	 *
+	 * @return Die Größe einer Rasterzelle
+	 */
+	public int getRasterSize() {
+		return rasterSize;
+	}
+
+	/**
+	 * Gibt das Element zurück, in dessen Rasterzelle der spezifizierte Punkt
+	 * liegt.
+	 *
+	 * @param x
+	 *            Die x-Koordinate in Pixeln
+	 * @param y
+	 *            Die y-Koordinate in Pixeln
+	 * @return Das Element oder null, falls dort keines liegt
+	 */
+	public ActionTreeElement getElementAt(float x, float y) {
+		if (x < 0 || y < 0) {
+			return null;
+		}
+		int column = (int) ((portrait ? y : x) / rasterSize) - 1;
+		int row = (int) ((portrait ? x : y) / rasterSize) - 1;
+		return actionTree.getLayout().getElementAt(column, row);
+	}
+
+	/**
+	 * Benachrichtigt die Listener, falls ein Element berührt wird.
+	 *
+	 * @param motionEvent
+	 *            Das Event, das von der API generiert wird
+	 * @return true, falls ein Element berührt wurde
+	 */
+	@Override
+	public boolean onTouchEvent(MotionEvent motionEvent) {
+		if (motionEvent.getAction() != MotionEvent.ACTION_DOWN) {
+			return true;
+		}
+		ActionTreeElement element = getElementAt(motionEvent.getX(), motionEvent.getY());
+		if (element == null) {
+			return false;
+		}
+		for (ActionTreeNavListener listener : this.actionTreeNavListener) {
+			listener.onLoadState(element);
+		}
+		return true;
+	}
+
+	/**
+	 * Erlaubt die Registrierung von Listenern
+	 *
+	 * @param actionTreeNavListener
+	 *            der zu registrierende Listener
+	 */
+	public void registerActionTreeNavListener(ActionTreeNavListener actionTreeNavListener) {
+		this.actionTreeNavListener.add(actionTreeNavListener);
+	}
+
+	/**
+	 * Erlaubt die deregistrierung von Listenern
+	 *
+	 * @param actionTreeNavListener
+	 *            der zu deregistrierende Listener
+	 */
+	public void removeActionTreeNavListener(ActionTreeNavListener actionTreeNavListener) {
+		this.actionTreeNavListener.remove(actionTreeNavListener);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean zoom(float factor) {
+		rasterSize = Math.max(2, (int) (factor * RASTER_SIZE));
+		requestLayout();
+		invalidate();
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public float getMinZoomFactor() {
+		return 0.2f;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public float getMaxZoomFactor() {
+		return 2.0f;
+	}
+}
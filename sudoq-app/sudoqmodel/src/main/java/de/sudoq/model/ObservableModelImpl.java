@@ -8,10 +8,17 @@
 package de.sudoq.model;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Eine Default Implementierung fuer das ObservableModel Interface
+ * Eine Default Implementierung fuer das ObservableModel Interface. Zwischen
+ * {@link #beginBatch()} und {@link #endBatch()} werden die Benachrichtigungen
+ * gesammelt und am Ende einmal je geändertem Objekt verschickt. Listener des
+ * Modells selbst, etwa Indizes, werden mit
+ * {@link #registerImmediateListener(ModelChangeListener)} registriert und auch
+ * während eines Batches sofort benachrichtigt.
  * 
  * @param <T>
  *            der sich aendernde Typ
@@ -22,15 +29,110 @@ public abstract class ObservableModelImpl<T> implements ObservableModel<T> {
 	private List<ModelChangeListener<T>> listeners = new ArrayList<ModelChangeListener<T>>();
 
 	/**
-	 * {@inheritDoc}
+	 * Die Listener, die auch während eines Batches sofort benachrichtigt werden
+	 */
+	private List<ModelChangeListener<T>> immediateListeners = new ArrayList<ModelChangeListener<T>>();
+
+	/**
+	 * Die Schachtelungstiefe der offenen Batches
+	 */
+	private int batchDepth;
+
+	/**
+	 * Die während eines Batches geänderten Objekte, jedes nur einmal und in der
+	 * Reihenfolge ihrer ersten Änderung
+	 */
+	private List<T> pending;
+	private Map<T, Boolean> pendingSet;
+
+	/**
+	 * {@inheritDoc} Die sofort zu benachrichtigenden Listener erhalten die
+	 * Änderung immer zuerst. Ist danach ein Batch offen, wird das Objekt für
+	 * die übrigen Listener nur vorgemerkt. Ein sofort benachrichtigter Listener
+	 * darf dabei selbst einen Batch beginnen.
 	 */
 	@Override
 	public void notifyListeners(T obj) {
+		for (int i = 0; i < immediateListeners.size(); i++) {
+			immediateListeners.get(i).onModelChanged(obj);
+		}
+		if (batchDepth > 0) {
+			if (pendingSet.put(obj, Boolean.TRUE) == null) {
+				pending.add(obj);
+			}
+			return;
+		}
+		notifyDeferredListeners(obj);
+	}
+
+	/**
+	 * Benachrichtigt die Listener, die nicht sofort benachrichtigt werden.
+	 * 
+	 * @param obj
+	 *            das geänderte Objekt
+	 */
+	protected void notifyDeferredListeners(T obj) {
 		for (int i = 0; i < listeners.size(); i++) {
 			listeners.get(i).onModelChanged(obj);
 		}
 	}
 
+	/**
+	 * Verschickt am Ende des äußersten Batches die gesammelten
+	 * Benachrichtigungen, einmal je geändertem Objekt. Unterklassen können sie
+	 * hier weiter zusammenfassen.
+	 * 
+	 * @param changed
+	 *            die geänderten Objekte in der Reihenfolge ihrer ersten
+	 *            Änderung, nie leer
+	 */
+	protected void notifyBatchChanges(List<T> changed) {
+		for (T obj : changed) {
+			notifyDeferredListeners(obj);
+		}
+	}
+
+	/**
+	 * Beginnt einen Batch. Bis zum zugehörigen {@link #endBatch()} werden die
+	 * Listener nicht benachrichtigt. Batches dürfen geschachtelt werden, erst
+	 * das Ende des äußersten verschickt die Benachrichtigungen.
+	 */
+	public void beginBatch() {
+		if (batchDepth++ == 0 && pending == null) {
+			pending = new ArrayList<T>();
+			pendingSet = new IdentityHashMap<T, Boolean>();
+		}
+	}
+
+	/**
+	 * Beendet einen Batch. Endet damit der äußerste, werden die Listener einmal
+	 * für jedes zwischenzeitlich geänderte Objekt benachrichtigt.
+	 * 
+	 * @throws IllegalStateException
+	 *             Wird geworfen, falls kein Batch offen ist
+	 */
+	public void endBatch() {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("no batch open");
+		}
+		if (--batchDepth > 0 || pending.isEmpty()) {
+			return;
+		}
+		List<T> changed = pending;
+		pending = new ArrayList<T>();
+		pendingSet.clear();
+		notifyBatchChanges(changed);
+	}
+
+	/**
+	 * Gibt zurück, ob gerade ein Batch offen ist.
+	 * 
+	 * @return true, falls die Benachrichtigungen gesammelt werden
+	 */
+	public boolean isInBatch() {
+		return batchDepth > 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -44,11 +146,30 @@ public abstract class ObservableModelImpl<T> implements ObservableModel<T> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Registriert einen Listener, der auch während eines Batches sofort
+	 * benachrichtigt wird. Gedacht für Listener, die das Modell selbst aktuell
+	 * halten und jederzeit abgefragt werden können.
+	 * 
+	 * @param listener
+	 *            der Listener
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls der Listener null ist
+	 */
+	public void registerImmediateListener(ModelChangeListener<T> listener) {
+		if (listener != null) {
+			immediateListeners.add(listener);
+		} else {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	/**
+	 * {@inheritDoc} Das gilt auch für sofort benachrichtigte Listener.
 	 */
 	@Override
 	public void removeListener(ModelChangeListener<T> listener) {
 		listeners.remove(listener);
+		immediateListeners.remove(listener);
 	}
 
 }
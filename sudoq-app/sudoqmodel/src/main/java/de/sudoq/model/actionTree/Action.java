@@ -60,6 +60,15 @@ public abstract class Action {
 	 */
 	abstract public void undo();
 
+	/**
+	 * Gibt die Differenz zurück, um die diese Action das Feld verändert.
+	 * 
+	 * @return die Differenz
+	 */
+	public int getDiff() {
+		return diff;
+	}
+
 	/**
 	 * Gibt die id des von dieser Action bearbeiteten Feldes zurück.
 	 * 
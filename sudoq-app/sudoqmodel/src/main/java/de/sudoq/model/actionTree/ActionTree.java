@@ -8,10 +8,10 @@
 package de.sudoq.model.actionTree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Stack;
 
 import de.sudoq.model.ModelChangeListener;
 import de.sudoq.model.ObservableModelImpl;
@@ -32,6 +32,14 @@ public class ActionTree extends ObservableModelImpl<ActionTreeElement> implement
 	 * Zaehlt die Elemente um jedem Element eine eindeutige id zu geben.
 	 */
 	private int idCounter;
+	/**
+	 * Alle Elemente des Baumes, indiziert über ihre id
+	 */
+	private ActionTreeElement[] elements;
+	/**
+	 * Die Rasterkoordinaten der Elemente, bei Bedarf erzeugt
+	 */
+	private ActionTreeLayout layout;
 
 	/** Constructors */
 
@@ -41,6 +49,7 @@ public class ActionTree extends ObservableModelImpl<ActionTreeElement> implement
 	public ActionTree() {
 		idCounter = 1;
 		rootElement = null;
+		elements = new ActionTreeElement[16];
 	}
 
 	/** Methods */
@@ -83,6 +92,7 @@ public class ActionTree extends ObservableModelImpl<ActionTreeElement> implement
 		if(!redundandAction)
 		{
 			ate = new ActionTreeElement(idCounter, action, mountingElement);
+			index(ate);
 			idCounter++;
 		}
 		
@@ -100,46 +110,89 @@ public class ActionTree extends ObservableModelImpl<ActionTreeElement> implement
 	
 
 	/**
-	 * Diese Methode durchsucht den Baum nach dem Element mit der gegebenen id.
-	 * Gegebenenfalls wird es zurückgegeben, andernfalls null.
+	 * Fügt ein gespeichertes Element mit der gegebenen id direkt unter dem
+	 * gegebenen Elternelement in den Baum ein. Anders als bei
+	 * {@link #add(Action, ActionTreeElement)} wird nicht nach einem gleichen
+	 * Geschwisterelement gesucht und es werden keine Listener benachrichtigt.
+	 * Die Elemente müssen in aufsteigender Reihenfolge ihrer ids
+	 * wiederhergestellt werden.
 	 * 
 	 * @param id
-	 *            Die id des zu suchenden Elements
-	 * @return Das gefundene Element oder null
+	 *            Die gespeicherte id des Elements
+	 * @param action
+	 *            Die Aktion des Elements
+	 * @param parent
+	 *            Das Elternelement, welches bereits Teil des Baumes ist
+	 * @return Das neue Element
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die id bereits vergeben ist, die Aktion
+	 *             null ist oder parent null ist, obwohl der Baum nicht leer ist
 	 */
-	public ActionTreeElement getElement(int id) {
-		if (id < idCounter && id >= 1) {
-			ActionTreeElement currentElement = rootElement;
-			Stack<ActionTreeElement> otherPaths = new Stack<ActionTreeElement>();
+	public ActionTreeElement restore(int id, Action action, ActionTreeElement parent) {
+		if (id < idCounter || (rootElement != null && parent == null))
+			throw new IllegalArgumentException("cannot restore element " + id);
 
-			// earlier while (currentElement != null) but since an element will
-			// be found since the id range fits we can go with while true
-			while (true) {
-				if (currentElement.getId() == id) {
-					return currentElement;
-				}
+		ActionTreeElement ate = new ActionTreeElement(id, action, parent);
+		index(ate);
+		idCounter = id + 1;
+		if (rootElement == null) {
+			rootElement = ate;
+		}
+		dropLayout();
+		return ate;
+	}
 
-				for (int i = currentElement.getChildrenList().size() - 1; i >= 0; i--) {
-					if (currentElement.getChildrenList().get(i).getId() <= id) {
-						otherPaths.push(currentElement.getChildrenList().get(i));
-					}
-				}
+	/**
+	 * Gibt die Rasterkoordinaten der Elemente dieses Baumes zurück. Sie werden
+	 * beim ersten Aufruf berechnet und danach bei jedem
+	 * {@link #add(Action, ActionTreeElement)} fortgeschrieben.
+	 * 
+	 * @return das Layout des Baumes
+	 */
+	public ActionTreeLayout getLayout() {
+		if (layout == null) {
+			layout = new ActionTreeLayout(this);
+			registerImmediateListener(layout);
+		}
+		return layout;
+	}
 
-				currentElement = otherPaths.pop();
-				// if (!otherPaths.empty()) {
-				// currentElement = otherPaths.pop();
-				// } else {
-				// this will never be reached cause in the beginning we check
-				// that the searched id exists in this tree, so we can always
-				// pop
-				// currentElement = null;
-				// }
-			}
+	/**
+	 * Verwirft das Layout, nachdem Elemente ohne Benachrichtigung eingefügt
+	 * wurden.
+	 */
+	private void dropLayout() {
+		if (layout != null) {
+			removeListener(layout);
+			layout = null;
 		}
+	}
 
+	/**
+	 * Gibt das Element mit der gegebenen id zurück, falls es im Baum existiert,
+	 * andernfalls null.
+	 * 
+	 * @param id
+	 *            Die id des zu suchenden Elements
+	 * @return Das gefundene Element oder null
+	 */
+	public ActionTreeElement getElement(int id) {
+		if (id < idCounter && id >= 1) {
+			return elements[id];
+		}
 		return null;
 	}
 
+	/**
+	 * Nimmt das gegebene Element in den Index über die ids auf.
+	 */
+	private void index(ActionTreeElement ate) {
+		if (ate.getId() >= elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(elements.length * 2, ate.getId() + 1));
+		}
+		elements[ate.getId()] = ate;
+	}
+
 	/**
 	 * Gibt die Anzahl der Elemente im Baum zurück
 	 * 
@@ -204,62 +257,79 @@ public class ActionTree extends ObservableModelImpl<ActionTreeElement> implement
 			return new LinkedList<ActionTreeElement>();
 		}
 
-		// Ways from Start or End Element to the tree root
-		LinkedList<ActionTreeElement> startToRoot = new LinkedList<ActionTreeElement>();
-		LinkedList<ActionTreeElement> endToRoot = new LinkedList<ActionTreeElement>();
-
-		ActionTreeElement current, other;
-		boolean path; // is start or end current
-		if (start.getId() > end.getId()) {
-			current = start;
-			other = end;
-			path = true;
-		} else {
-			current = end;
-			other = start;
-			path = false;
+		ActionTreeElement lca = findLowestCommonAncestor(start, end);
+		if (lca == null) {
+			return null;
 		}
 
-		while (startToRoot.isEmpty() || endToRoot.isEmpty()
-				|| (startToRoot.getLast() != endToRoot.getLast()
-				&& (startToRoot.getLast().getParent() != null
-				|| endToRoot.getLast().getParent() != null))) {
-
-			while (current != null && (other == null || current.getId() >= other.getId())) {
-				(path ? startToRoot : endToRoot).addLast(current);
-				current = current.getParent();
-			}
-
-			ActionTreeElement tmp = current;
-			current = other;
-			other = tmp;
-			path = !path;
+		int length = start.getDepth() + end.getDepth() - 2 * lca.getDepth() + 1;
+		List<ActionTreeElement> way = new ArrayList<ActionTreeElement>(length);
+		for (ActionTreeElement current = start; current != lca; current = current.getParent()) {
+			way.add(current);
 		}
-
-		// nodes not in the same tree?
-		if (startToRoot.getLast() != endToRoot.getLast()) {
-			return null;
+		way.add(lca);
+		for (int depth = lca.getDepth() + 1; depth <= end.getDepth(); depth++) {
+			way.add(findAncestor(end, depth));
 		}
+		return way;
+	}
 
-		// remove elements which are in both paths
-		while (!startToRoot.isEmpty() && !endToRoot.isEmpty() && startToRoot.getLast() == endToRoot.getLast()) {
-			startToRoot.removeLast();
-			endToRoot.removeLast();
+	/**
+	 * Gibt den tiefsten gemeinsamen Vorfahren der beiden gegebenen Elemente
+	 * zurück. Ist eines der Elemente Vorfahre des anderen, so ist es selbst
+	 * das Ergebnis. Die Suche nutzt die Tiefe und die Sprungvorfahren der
+	 * Elemente und benötigt logarithmisch viele Schritte, ohne Objekte
+	 * anzulegen.
+	 * 
+	 * @param a
+	 *            das erste Element
+	 * @param b
+	 *            das zweite Element
+	 * @return der tiefste gemeinsame Vorfahre oder null, falls die Elemente in
+	 *         verschiedenen Baeumen sind
+	 * @throws NullPointerException
+	 *             falls a oder b null sind
+	 */
+	static public ActionTreeElement findLowestCommonAncestor(ActionTreeElement a, ActionTreeElement b) {
+		if (a.getDepth() > b.getDepth()) {
+			a = findAncestor(a, b.getDepth());
+		} else {
+			b = findAncestor(b, a.getDepth());
 		}
 
-		// readd the last removed element
-		if (!startToRoot.isEmpty()) { // its itself a split up point
-			startToRoot.add(startToRoot.getLast().getParent());
-		} else { // its start itself
-			startToRoot.add(start);
-		}
-		// add the end-root way backwards
-		while (!endToRoot.isEmpty()) {
-			startToRoot.add(endToRoot.getLast());
-			endToRoot.removeLast();
+		// a and b have the same depth, so do their jump ancestors
+		while (a != b) {
+			if (a.getParent() == null) {
+				return null;
+			}
+			if (a.getJump() != b.getJump()) {
+				a = a.getJump();
+				b = b.getJump();
+			} else {
+				a = a.getParent();
+				b = b.getParent();
+			}
 		}
+		return a;
+	}
 
-		return startToRoot;
+	/**
+	 * Gibt den Vorfahren des gegebenen Elements mit der gegebenen Tiefe zurück.
+	 * Über die Sprungvorfahren werden dazu logarithmisch viele Schritte
+	 * benötigt, so dass ein Weg nach unten ohne Zwischenspeicher abgelaufen
+	 * werden kann.
+	 * 
+	 * @param ate
+	 *            das Element
+	 * @param depth
+	 *            die Tiefe des gesuchten Vorfahren, höchstens die Tiefe von ate
+	 * @return der Vorfahre
+	 */
+	static public ActionTreeElement findAncestor(ActionTreeElement ate, int depth) {
+		while (ate.getDepth() > depth) {
+			ate = ate.getJump().getDepth() >= depth ? ate.getJump() : ate.getParent();
+		}
+		return ate;
 	}
 
 	/**
@@ -38,6 +38,16 @@ public class ActionTreeElement extends ObservableModelImpl<ActionTreeElement> im
 	 * Die Liste aller Kindelemente dieses Elements
 	 */
 	private ArrayList<ActionTreeElement> following;
+	/**
+	 * Der Abstand dieses Elements zur Wurzel
+	 */
+	private int depth;
+	/**
+	 * Ein Vorfahre dieses Elements, über den beim Suchen von Vorfahren größere Sprünge gemacht werden können. Die
+	 * Sprungweiten folgen einem schief-binären Muster, sodass jeder Vorfahre in logarithmisch vielen Schritten
+	 * erreicht wird. Die Wurzel verweist auf sich selbst.
+	 */
+	private ActionTreeElement jump;
 	/**
 	 * Gibt an ob der Zustand im Baum markiert ist.
 	 */
@@ -112,6 +122,16 @@ public class ActionTreeElement extends ObservableModelImpl<ActionTreeElement> im
 			this.previous = parent;
 			if (previous != null) {
 				parent.addChild(this);
+				depth = parent.depth + 1;
+				ActionTreeElement j = parent.jump;
+				if (parent.depth - j.depth == j.depth - j.jump.depth) {
+					jump = j.jump;
+				} else {
+					jump = parent;
+				}
+			} else {
+				depth = 0;
+				jump = this;
 			}
 
 			following = new ArrayList<ActionTreeElement>();
@@ -179,6 +199,33 @@ public class ActionTreeElement extends ObservableModelImpl<ActionTreeElement> im
 		return previous;
 	}
 
+	/**
+	 * Gibt die Aktion dieses Elements zurück.
+	 * 
+	 * @return die Aktion
+	 */
+	public Action getAction() {
+		return action;
+	}
+
+	/**
+	 * Gibt den Abstand dieses Elements zur Wurzel zurück.
+	 * 
+	 * @return Die Tiefe dieses Elements, 0 für die Wurzel
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Gibt den Sprungvorfahren dieses Elements zurück.
+	 * 
+	 * @return Der Sprungvorfahre, für die Wurzel sie selbst
+	 */
+	ActionTreeElement getJump() {
+		return jump;
+	}
+
 	/**
 	 * Gibt die Liste aller Kindelemente zurück.
 	 * 
@@ -214,6 +261,14 @@ public class ActionTreeElement extends ObservableModelImpl<ActionTreeElement> im
 		marked = true;
 		notifyListeners(this);
 	}
+
+	/**
+	 * Entfernt die Markierung dieses Elements
+	 */
+	public void unmark() {
+		marked = false;
+		notifyListeners(this);
+	}
 	
 	/**
 	 * Markiert diesen Zug als Fehler
@@ -0,0 +1,296 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.actionTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import de.sudoq.model.ModelChangeListener;
+
+/**
+ * Die Rasterkoordinaten der Elemente eines Aktionsbaumes. Die Spalte eines
+ * Elements ist seine Tiefe. Eine Kette ohne Verzweigung liegt in einer Zeile,
+ * die Teilbäume einer Verzweigung liegen untereinander, jeder Teilbaum belegt
+ * so viele Zeilen wie er Blätter hat.
+ *
+ * Jedes Element speichert seine Zeile nur relativ zum Elternelement, die
+ * absolute Zeile ergibt sich aus den Zweigen auf dem Weg zur Wurzel. Ein neues
+ * Element verschiebt daher nur die später angelegten Geschwister seiner
+ * Vorfahren und kostet höchstens O(Tiefe).
+ */
+public class ActionTreeLayout implements ModelChangeListener<ActionTreeElement> {
+	/** Attributes */
+
+	private final ActionTree tree;
+
+	/**
+	 * Die Anzahl der Zeilen des Teilbaumes unter jedem Element, nach id. 0 für
+	 * ein noch nicht platziertes Element.
+	 */
+	private int[] leaves;
+
+	/**
+	 * Die Zeile jedes Elements relativ zu seinem Elternelement, nach id
+	 */
+	private int[] offsets;
+
+	/**
+	 * Der nächste Vorfahre jedes Elements, der nicht das erste Kind seines
+	 * Elternelements ist, oder die Wurzel, nach id. Er liegt in derselben Zeile
+	 * und ändert sich nie, da Kinder nur angehängt werden.
+	 */
+	private int[] anchors;
+
+	/**
+	 * Die ids der Elemente je Spalte, aufsteigend nach Zeile. Diese Reihenfolge
+	 * bleibt beim Verschieben erhalten.
+	 */
+	private int[][] columns;
+	private int[] columnSizes;
+
+	/**
+	 * Die Anzahl der belegten Spalten
+	 */
+	private int columnCount;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt das Layout für die bereits vorhandenen Elemente des gegebenen
+	 * Baumes. Es muss noch beim Baum als Listener registriert werden, siehe
+	 * {@link ActionTree#getLayout()}.
+	 *
+	 * @param tree
+	 *            der Aktionsbaum
+	 */
+	ActionTreeLayout(ActionTree tree) {
+		this.tree = tree;
+		int size = tree.getSize() + 1;
+		leaves = new int[size];
+		offsets = new int[size];
+		anchors = new int[size];
+		columns = new int[16][];
+		columnSizes = new int[16];
+		// parents have smaller ids than their children and siblings are ordered by id
+		for (int id = 1; id < size; id++) {
+			place(tree.getElement(id));
+		}
+	}
+
+	/** Methods */
+
+	/**
+	 * Platziert das gegebene Element, sofern es neu ist. Ein erstes Kind setzt
+	 * die Kette seines Elternelements fort. Jedes weitere Kind belegt eine neue
+	 * Zeile unter seinen Geschwistern, wodurch die Vorfahren eine Zeile mehr
+	 * belegen und deren spätere Geschwister eine Zeile nach unten rücken.
+	 */
+	private void place(ActionTreeElement element) {
+		int id = element.getId();
+		if (id >= leaves.length) {
+			int length = Math.max(leaves.length * 2, id + 1);
+			leaves = Arrays.copyOf(leaves, length);
+			offsets = Arrays.copyOf(offsets, length);
+			anchors = Arrays.copyOf(anchors, length);
+		}
+		if (leaves[id] != 0) {
+			return;
+		}
+
+		ActionTreeElement parent = element.getParent();
+		leaves[id] = 1;
+		if (parent == null) {
+			anchors[id] = id;
+		} else if (parent.getChildrenList().get(0) == element) {
+			anchors[id] = anchors[parent.getId()];
+		} else {
+			anchors[id] = id;
+			offsets[id] = leaves[parent.getId()];
+			for (ActionTreeElement a = parent; a != null; a = a.getParent()) {
+				leaves[a.getId()]++;
+				if (a.getParent() != null) {
+					shiftSiblingsAfter(a);
+				}
+			}
+		}
+		insertIntoColumn(element);
+	}
+
+	/**
+	 * Rückt die bereits platzierten Geschwister hinter dem gegebenen Element
+	 * eine Zeile nach unten. Ihre Teilbäume folgen über die relativen Zeilen.
+	 */
+	private void shiftSiblingsAfter(ActionTreeElement element) {
+		ArrayList<ActionTreeElement> siblings = element.getParent().getChildrenList();
+		for (int i = siblings.size() - 1; i >= 0; i--) {
+			ActionTreeElement sibling = siblings.get(i);
+			if (sibling == element) {
+				return;
+			}
+			int id = sibling.getId();
+			if (id < leaves.length && leaves[id] != 0) {
+				offsets[id]++;
+			}
+		}
+	}
+
+	/**
+	 * Sortiert das gegebene Element nach seiner Zeile in seine Spalte ein.
+	 */
+	private void insertIntoColumn(ActionTreeElement element) {
+		int column = element.getDepth();
+		if (column >= columns.length) {
+			int length = Math.max(columns.length * 2, column + 1);
+			columns = Arrays.copyOf(columns, length);
+			columnSizes = Arrays.copyOf(columnSizes, length);
+		}
+		int[] ids = columns[column];
+		int count = columnSizes[column];
+		if (ids == null) {
+			ids = new int[4];
+		} else if (count == ids.length) {
+			ids = Arrays.copyOf(ids, count * 2);
+		}
+		int index = indexOf(column, getRow(element));
+		System.arraycopy(ids, index, ids, index + 1, count - index);
+		ids[index] = element.getId();
+		columns[column] = ids;
+		columnSizes[column] = count + 1;
+		columnCount = Math.max(columnCount, column + 1);
+	}
+
+	/**
+	 * Gibt die Spalte des gegebenen Elements zurück, das ist seine Tiefe.
+	 *
+	 * @param element
+	 *            ein Element des Baumes
+	 * @return die Spalte, beginnend bei 0
+	 */
+	public int getColumn(ActionTreeElement element) {
+		return element.getDepth();
+	}
+
+	/**
+	 * Gibt die Zeile des gegebenen Elements zurück. Die Kosten hängen nur von
+	 * der Anzahl der Zweige auf dem Weg zur Wurzel ab, in denen das Element
+	 * nicht im ersten Kind liegt.
+	 *
+	 * @param element
+	 *            ein Element des Baumes
+	 * @return die Zeile, beginnend bei 0
+	 */
+	public int getRow(ActionTreeElement element) {
+		int row = 0;
+		ActionTreeElement anchor = tree.getElement(anchors[element.getId()]);
+		while (anchor.getParent() != null) {
+			row += offsets[anchor.getId()];
+			anchor = tree.getElement(anchors[anchor.getParent().getId()]);
+		}
+		return row;
+	}
+
+	/**
+	 * Gibt die Anzahl der belegten Spalten zurück.
+	 *
+	 * @return die Anzahl der Spalten, 0 für einen leeren Baum
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Gibt die Anzahl der belegten Zeilen zurück.
+	 *
+	 * @return die Anzahl der Zeilen, 0 für einen leeren Baum
+	 */
+	public int getRowCount() {
+		ActionTreeElement root = tree.getRoot();
+		return root == null ? 0 : leaves[root.getId()];
+	}
+
+	/**
+	 * Gibt die Anzahl der Elemente in der gegebenen Spalte zurück.
+	 *
+	 * @param column
+	 *            die Spalte
+	 * @return die Anzahl der Elemente
+	 */
+	public int getColumnSize(int column) {
+		return column >= 0 && column < columnCount ? columnSizes[column] : 0;
+	}
+
+	/**
+	 * Gibt das Element an der gegebenen Stelle der gegebenen Spalte zurück. Die
+	 * Elemente einer Spalte sind aufsteigend nach ihrer Zeile sortiert.
+	 *
+	 * @param column
+	 *            die Spalte
+	 * @param index
+	 *            die Stelle, kleiner als {@link #getColumnSize(int)}
+	 * @return das Element
+	 */
+	public ActionTreeElement getElement(int column, int index) {
+		return tree.getElement(columns[column][index]);
+	}
+
+	/**
+	 * Gibt die Stelle des ersten Elements der gegebenen Spalte zurück, dessen
+	 * Zeile nicht kleiner als die gegebene ist.
+	 *
+	 * @param column
+	 *            die Spalte
+	 * @param row
+	 *            die Zeile
+	 * @return die Stelle, {@link #getColumnSize(int)} falls es keines gibt
+	 */
+	public int indexOf(int column, int row) {
+		int low = 0;
+		int high = getColumnSize(column);
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (getRow(getElement(column, mid)) < row) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gibt das Element an der gegebenen Rasterposition zurück.
+	 *
+	 * @param column
+	 *            die Spalte
+	 * @param row
+	 *            die Zeile
+	 * @return das Element oder null, falls dort keines liegt
+	 */
+	public ActionTreeElement getElementAt(int column, int row) {
+		int index = indexOf(column, row);
+		if (index < getColumnSize(column)) {
+			ActionTreeElement element = getElement(column, index);
+			if (getRow(element) == row) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Platziert ein neu hinzugefügtes Element. Ein wiederverwendetes Element
+	 * ist bereits platziert und verschiebt nichts.
+	 *
+	 * @param element
+	 *            das hinzugefügte oder wiederverwendete Element
+	 */
+	@Override
+	public void onModelChanged(ActionTreeElement element) {
+		place(element);
+	}
+}
@@ -7,13 +7,20 @@
  */
 package de.sudoq.model.files;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Random;
 
 import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.SudokuBinaryFormat;
+import de.sudoq.model.sudoku.SudokuPack;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
 import de.sudoq.model.xml.XmlHelper;
@@ -38,6 +45,13 @@ public final class FileManager {
 
 	private static int currentProfileId = -1;
 
+	/**
+	 * Die bereits geöffneten Sudoku-Vorräte
+	 */
+	private static final Map<SudokuTypes, SudokuPack> packs = new EnumMap<SudokuTypes, SudokuPack>(SudokuTypes.class);
+
+	private static final Random random = new Random();
+
 	/** Methods */
 
 	/**
@@ -251,6 +265,19 @@ public final class FileManager {
 		return new File(getGamesDir(), "game_" + id + ".xml");
 	}
 
+	/**
+	 * Gibt das Journal eines Games des aktuellen Profils anhand seiner ID
+	 * zurueck. Es enthaelt die Aenderungen seit dem letzten Schreiben der XML
+	 * Datei.
+	 * 
+	 * @param id
+	 *            ID des Games
+	 * @return File, welcher auf die Journaldatei des Games zeigt
+	 */
+	public static File getGameJournalFile(int id) {
+		return new File(getGamesDir(), "game_" + id + ".journal");
+	}
+
 	/**
 	 * Loescht falls existierend das Spiel mit der gegebenen id des aktuellen
 	 * Profils
@@ -261,16 +288,97 @@ public final class FileManager {
 	 */
 	public static boolean deleteGame(int id) {
 		boolean game = getGameFile(id).delete();
-		return game && getGameThumbnailFile(id).delete();
+		getGameJournalFile(id).delete();
+		getGameThumbnailDataFile(id).delete();
+		getGameThumbnailFile(id).delete();
+		return game;
 	}
 
 	/**
-	 * Gibt die naechste verfuegbare ID fuer ein Game zurueck
+	 * Gibt die naechste verfuegbare ID fuer ein Game zurueck. Die IDs steigen
+	 * monoton, auch die IDs geloeschter Spiele werden nicht erneut vergeben.
+	 * Die zuletzt vergebene ID wird dazu im Profil vermerkt.
 	 * 
 	 * @return naechste verfuegbare ID
 	 */
-	public static int getNextFreeGameId() {
-		return getGamesDir().list().length + 1;
+	public static synchronized int getNextFreeGameId() {
+		int last = readLastGameId();
+		String[] names = getGamesDir().list();
+		if (names != null) {
+			// profiles of older versions have no record of the last id
+			for (String name : names) {
+				last = Math.max(last, gameIdOf(name));
+			}
+		}
+		int id = last + 1;
+		writeLastGameId(id);
+		return id;
+	}
+
+	/**
+	 * Gibt die Datei zurueck, in der die zuletzt vergebene Game ID des
+	 * aktuellen Profils steht
+	 */
+	private static File getLastGameIdFile() {
+		return new File(getCurrentProfileDir(), "last_game_id");
+	}
+
+	/**
+	 * Liest die zuletzt vergebene Game ID des aktuellen Profils, 0 falls
+	 * keine vermerkt ist
+	 */
+	private static int readLastGameId() {
+		File file = getLastGameIdFile();
+		if (!file.exists()) {
+			return 0;
+		}
+		try {
+			BufferedReader in = new BufferedReader(new FileReader(file));
+			try {
+				String line = in.readLine();
+				return line == null ? 0 : Integer.parseInt(line.trim());
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return 0;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Vermerkt die zuletzt vergebene Game ID des aktuellen Profils. Scheitert
+	 * das Schreiben, verhindern die vorhandenen Game Dateien weiterhin eine
+	 * doppelte Vergabe.
+	 */
+	private static void writeLastGameId(int id) {
+		try {
+			FileWriter out = new FileWriter(getLastGameIdFile());
+			try {
+				out.write(Integer.toString(id));
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			// the game files still hold the highest id
+		}
+	}
+
+	/**
+	 * Gibt die ID zurueck, zu der die Datei mit dem gegebenen Namen im
+	 * Game-Verzeichnis gehoert, 0 falls sie zu keinem Game gehoert
+	 */
+	private static int gameIdOf(String name) {
+		if (!name.startsWith("game_")) {
+			return 0;
+		}
+		int end = name.indexOf('.');
+		try {
+			return Integer.parseInt(end < 0 ? name.substring(5) : name.substring(5, end));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
 	}
 
 	// Thumbnails
@@ -288,6 +396,20 @@ public final class FileManager {
 				Integer.toString(gameID) + ".png");
 	}
 
+	/**
+	 * Gibt die Vorschaudatei des Games mit der gegebenen ID zurueck. Sie
+	 * enthaelt den Zustand der Felder, aus dem das Vorschaubild gezeichnet
+	 * wird.
+	 * 
+	 * @param gameID
+	 *            ID des Games
+	 * @return File, welcher auf die Vorschaudatei des Games zeigt
+	 * @see de.sudoq.model.game.GameThumbnail
+	 */
+	public static File getGameThumbnailDataFile(int gameID) {
+		return new File(getGamesDir(), "game_" + gameID + ".thumb");
+	}
+
 	// Sudokus
 
 	/**
@@ -324,6 +446,18 @@ public final class FileManager {
 		return new File(getSudokuDir(sudoku).getAbsolutePath() + File.separator + "sudoku_" + getFreeSudokuIdFor(sudoku) + ".xml");
 	}
 
+	/**
+	 * Gibt ein freies File fuer das gegebene Sudoku im Binaerformat zurueck
+	 * 
+	 * @param sudoku
+	 *            das zu speichernde Sudoku
+	 * @return File, welcher auf die Datei des Sudokus zeigt
+	 * @see SudokuBinaryFormat
+	 */
+	public static File getNewSudokuBinaryFile(Sudoku sudoku) {
+		return new File(getSudokuDir(sudoku).getAbsolutePath() + File.separator + "sudoku_" + getFreeSudokuIdFor(sudoku) + SudokuBinaryFormat.FILE_SUFFIX);
+	}
+
 	/**
 	 * Loescht das uebergebene Sudoku von der Platte
 	 * 
@@ -348,14 +482,65 @@ public final class FileManager {
 	 */
 	public static File getRandomSudoku(SudokuTypes type, Complexity complexity) {
 		File dir = getSudokuDir(type, complexity);
-		if (dir.list().length > 0) {
-			String fileName = dir.list()[new Random().nextInt(dir.list().length)];
-			return new File(dir.getAbsolutePath() + File.separator + fileName);
+		String[] fileNames = dir.list();
+		if (fileNames != null && fileNames.length > 0) {
+			return new File(dir, fileNames[random.nextInt(fileNames.length)]);
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Gibt die Datei des Sudoku-Vorrats fuer den gegebenen Typ zurueck
+	 * 
+	 * @param type
+	 *            der Typ des Vorrats
+	 * @return die Datei des Vorrats
+	 * @see SudokuPack
+	 */
+	public static File getSudokuPackFile(SudokuTypes type) {
+		return new File(sudokus.getAbsolutePath() + File.separator + type.toString(), type.toString() + SudokuPack.FILE_SUFFIX);
+	}
+
+	/**
+	 * Gibt den geoeffneten Sudoku-Vorrat fuer den gegebenen Typ zurueck. Ein
+	 * Vorrat wird nur einmal geoeffnet und danach wiederverwendet. Existiert
+	 * fuer den Typ ein Vorrat, so ersetzt er die einzelnen Sudoku-Dateien des
+	 * Typs.
+	 * 
+	 * @param type
+	 *            der Typ des Vorrats
+	 * @return der Vorrat oder null, falls fuer den Typ keiner existiert
+	 * @throws IllegalArgumentException
+	 *             falls der Vorrat nicht geoeffnet werden kann
+	 */
+	public static SudokuPack getSudokuPack(SudokuTypes type) {
+		File file = getSudokuPackFile(type);
+		synchronized (packs) {
+			SudokuPack pack = packs.get(type);
+			if (pack != null && pack.getFile().equals(file) && file.exists())
+				return pack;
+			if (pack != null) {
+				// the sudoku directory changed or the file is gone, release the old handle
+				packs.remove(type);
+				try {
+					pack.close();
+				} catch (IOException e) {
+					// the old pack is no longer used either way
+				}
+			}
+			if (!file.exists())
+				return null;
+			try {
+				pack = new SudokuPack(file, type);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Could not open sudoku pack " + file, e);
+			}
+			packs.put(type, pack);
+			return pack;
+		}
+	}
+
 
 	/**
 	 * Gibt den die Sudokus mit den gegebenen Parametern enthaltennden Ordner
@@ -383,14 +568,33 @@ public final class FileManager {
 	}
 
 	/**
-	 * Gibt die zum gegebenen Sudoku gehoerende Datei zurueck
+	 * Gibt die zum gegebenen Sudoku gehoerende Datei zurueck. Liegt das Sudoku
+	 * nur im Binaerformat vor, so wird diese Datei zurueckgegeben.
 	 * 
 	 * @param s
 	 *            das Sudoku
 	 * @return das File
 	 */
 	public static File getSudokuFile(Sudoku s) {
-		return new File(getSudokuDir(s).getAbsolutePath(), "sudoku_" + s.getId() + ".xml");
+		File xml = new File(getSudokuDir(s).getAbsolutePath(), "sudoku_" + s.getId() + ".xml");
+		if (!xml.exists()) {
+			File binary = getSudokuBinaryFile(s);
+			if (binary.exists())
+				return binary;
+		}
+		return xml;
+	}
+
+	/**
+	 * Gibt die zum gegebenen Sudoku gehoerende Datei im Binaerformat zurueck
+	 * 
+	 * @param s
+	 *            das Sudoku
+	 * @return das File
+	 * @see SudokuBinaryFormat
+	 */
+	public static File getSudokuBinaryFile(Sudoku s) {
+		return new File(getSudokuDir(s).getAbsolutePath(), "sudoku_" + s.getId() + SudokuBinaryFormat.FILE_SUFFIX);
 	}
 
 	 /**
@@ -410,15 +614,11 @@ public final class FileManager {
 	 * @return nächste verfügbare Sudoku ID
 	 */
 	private static int getFreeSudokuIdFor(Sudoku sudoku) {
-		ArrayList<Integer> numbers = new ArrayList<Integer>();
+		BitSet numbers = new BitSet();
 		for (String s : getSudokuDir(sudoku).list()) {
-			numbers.add(Integer.parseInt(s.substring(7, s.length() - 4)));
-		}
-		int i = 1;
-		while (numbers.contains(i)) {
-			i++;
+			numbers.set(Integer.parseInt(s.substring(7, s.length() - 4)));
 		}
-		return i;
+		return numbers.nextClearBit(1);
 	}
 
 	/**
@@ -0,0 +1,174 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.files;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Ein gepacktes Archiv aller Sudoku-Vorlagen. Statt beim ersten Start jede
+ * Vorlage einzeln aus den Assets zu kopieren, wird nur dieses eine Archiv
+ * gelesen und in einem Durchlauf mit großem Puffer in das sudokus-Verzeichnis
+ * entpackt.
+ */
+public final class TemplateArchive {
+	/** Attributes */
+
+	/**
+	 * Der Name des Archivs in den Assets
+	 */
+	public static final String FILE_NAME = "sudokus.zip";
+
+	/**
+	 * Die Puffergröße beim Lesen und Schreiben
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private TemplateArchive() {
+	}
+
+	/** Methods */
+
+	/**
+	 * Entpackt das Archiv aus dem gegebenen Stream in das gegebene Verzeichnis.
+	 * Bestehende Dateien werden überschrieben. Der Stream wird geschlossen.
+	 *
+	 * @param in
+	 *            der Stream des Archivs
+	 * @param targetDir
+	 *            das sudokus-Verzeichnis
+	 * @return die Anzahl der entpackten Dateien
+	 * @throws IOException
+	 *             falls das Archiv fehlerhaft ist oder eine Datei nicht
+	 *             geschrieben werden kann
+	 */
+	public static int extract(InputStream in, File targetDir) throws IOException {
+		String root = targetDir.getCanonicalPath() + File.separator;
+		Set<File> createdDirs = new HashSet<File>();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int count = 0;
+		ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+		try {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				File target = new File(targetDir, entry.getName());
+				if (!target.getCanonicalPath().startsWith(root)) {
+					throw new IOException("entry outside of target directory: " + entry.getName());
+				}
+				if (entry.isDirectory()) {
+					mkdirs(target, createdDirs);
+					continue;
+				}
+				mkdirs(target.getParentFile(), createdDirs);
+				OutputStream out = new FileOutputStream(target);
+				try {
+					int read;
+					while ((read = zip.read(buffer)) != -1) {
+						out.write(buffer, 0, read);
+					}
+				} finally {
+					out.close();
+				}
+				count++;
+			}
+		} finally {
+			zip.close();
+		}
+		return count;
+	}
+
+	private static void mkdirs(File dir, Set<File> createdDirs) throws IOException {
+		if (createdDirs.add(dir) && !dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("could not create " + dir);
+		}
+	}
+
+	/**
+	 * Packt alle Dateien unterhalb des gegebenen sudokus-Verzeichnisses in das
+	 * gegebene Archiv. Die Pfade im Archiv sind relativ zum Verzeichnis.
+	 *
+	 * @param sudokuDir
+	 *            das sudokus-Verzeichnis
+	 * @param archive
+	 *            die zu schreibende Archivdatei
+	 * @return die Anzahl der gepackten Dateien
+	 * @throws IOException
+	 *             falls eine Datei nicht gelesen oder das Archiv nicht
+	 *             geschrieben werden kann
+	 */
+	public static int pack(File sudokuDir, File archive) throws IOException {
+		ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(archive), BUFFER_SIZE));
+		try {
+			return pack(sudokuDir, "", zip, new byte[BUFFER_SIZE], archive.getCanonicalFile());
+		} finally {
+			zip.close();
+		}
+	}
+
+	private static int pack(File dir, String prefix, ZipOutputStream zip, byte[] buffer, File archive) throws IOException {
+		File[] files = dir.listFiles();
+		if (files == null) {
+			return 0;
+		}
+		// a fixed order keeps the archive reproducible
+		Arrays.sort(files);
+		int count = 0;
+		for (File f : files) {
+			String name = prefix + f.getName();
+			if (f.isDirectory()) {
+				count += pack(f, name + "/", zip, buffer, archive);
+				continue;
+			}
+			if (f.getCanonicalFile().equals(archive)) {
+				continue;
+			}
+			zip.putNextEntry(new ZipEntry(name));
+			InputStream in = new FileInputStream(f);
+			try {
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					zip.write(buffer, 0, read);
+				}
+			} finally {
+				in.close();
+			}
+			zip.closeEntry();
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Packt das spezifizierte sudokus-Verzeichnis in das spezifizierte Archiv,
+	 * z.B. die Assets der App nach assets/sudokus.zip.
+	 *
+	 * @param args
+	 *            &lt;sudokuDir&gt; &lt;archiv&gt;
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: TemplateArchive <sudokuDir> <archive>");
+			System.exit(1);
+		}
+		File archive = new File(args[1]);
+		int count = pack(new File(args[0]), archive);
+		System.out.println(count + " files, " + archive.length() + " bytes");
+	}
+}
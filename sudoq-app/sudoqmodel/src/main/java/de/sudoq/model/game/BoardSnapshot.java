@@ -0,0 +1,84 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.game;
+
+import de.sudoq.model.sudoku.Field;
+
+/**
+ * Eine kompakte Momentaufnahme der Werte und Notizen aller Felder eines Sudokus. Die Notizen eines Feldes werden als
+ * Bitmaske in so vielen ints abgelegt, wie für die Symbole nötig sind.
+ */
+final class BoardSnapshot {
+	/** Attributes */
+
+	/**
+	 * Der aktuelle Wert jedes Feldes, in der Reihenfolge des Feld-Arrays
+	 */
+	private final int[] values;
+
+	/**
+	 * Die Notizen jedes Feldes, je Feld {@link #words} ints
+	 */
+	private final int[] notes;
+
+	/**
+	 * Die Anzahl der ints je Feld in {@link #notes}
+	 */
+	private final int words;
+
+	/** Constructors */
+
+	/**
+	 * Hält den aktuellen Zustand der gegebenen Felder fest.
+	 *
+	 * @param fields
+	 *            die Felder des Sudokus, beim Wiederherstellen in derselben Reihenfolge
+	 */
+	BoardSnapshot(Field[] fields) {
+		int symbols = 0;
+		for (Field f : fields) {
+			symbols = Math.max(symbols, f.getNumberOfValues());
+		}
+		words = (symbols + 31) / 32;
+		values = new int[fields.length];
+		notes = new int[fields.length * words];
+		for (int i = 0; i < fields.length; i++) {
+			Field f = fields[i];
+			values[i] = f.getCurrentValue();
+			for (int s = 0; s < f.getNumberOfValues(); s++) {
+				if (f.isNoteSet(s)) {
+					notes[i * words + s / 32] |= 1 << (s % 32);
+				}
+			}
+		}
+	}
+
+	/** Methods */
+
+	/**
+	 * Stellt den festgehaltenen Zustand der gegebenen Felder wieder her. Nur Felder, deren Wert oder Notizen
+	 * abweichen, werden verändert und benachrichtigen ihre Listener.
+	 *
+	 * @param fields
+	 *            die Felder in derselben Reihenfolge wie bei der Aufnahme
+	 */
+	void restore(Field[] fields) {
+		for (int i = 0; i < fields.length; i++) {
+			Field f = fields[i];
+			if (f.getCurrentValue() != values[i]) {
+				f.setCurrentValue(values[i]);
+			}
+			for (int s = 0; s < f.getNumberOfValues(); s++) {
+				boolean set = (notes[i * words + s / 32] & (1 << (s % 32))) != 0;
+				if (f.isNoteSet(s) != set) {
+					f.toggleNote(s);
+				}
+			}
+		}
+	}
+}
@@ -7,30 +7,33 @@
  */
 package de.sudoq.model.game;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import de.sudoq.model.actionTree.Action;
+import de.sudoq.model.actionTree.ActionTree;
 import de.sudoq.model.actionTree.ActionTreeElement;
 import de.sudoq.model.actionTree.NoteActionFactory;
 import de.sudoq.model.actionTree.SolveAction;
 import de.sudoq.model.actionTree.SolveActionFactory;
-import de.sudoq.model.sudoku.Constraint;
 import de.sudoq.model.sudoku.Field;
-import de.sudoq.model.sudoku.Position;
 import de.sudoq.model.sudoku.Sudoku;
 import de.sudoq.model.sudoku.SudokuManager;
+import de.sudoq.model.xml.PullXmlable;
 import de.sudoq.model.xml.XmlAttribute;
+import de.sudoq.model.xml.XmlPullReader;
 import de.sudoq.model.xml.XmlTree;
-import de.sudoq.model.xml.Xmlable;
 
 /**
  * Diese Klasse repräsentiert ein Sudoku-Spiel. Bezüglich der Controller stellt das Game eine Fassade dar.
  */
-public class Game implements Xmlable {
+public class Game implements PullXmlable {
     /** Attributes */
 
     /**
@@ -68,6 +71,11 @@ public class Game implements Xmlable {
      */
     private boolean finished;
 
+    /**
+     * Das Journal, an das die Änderungen seit dem letzten Schnappschuss angehängt werden
+     */
+    private GameJournal journal;
+
     /** Constructors */
 
     /**
@@ -93,6 +101,8 @@ public class Game implements Xmlable {
         this.sudoku = sudoku;
         this.time = 0;
         stateHandler = new GameStateHandler();
+        stateHandler.enableCheckpoints(sudoku);
+        journal = new GameJournal(0);
     }
 
     /**
@@ -142,6 +152,31 @@ public class Game implements Xmlable {
         return this.time;
     }
 
+    /**
+     * Setzt Zeit, Hilfestellungskosten und Beendet-Status auf die beim Speichern ins Journal geschriebenen Werte.
+     * 
+     * @param time
+     *            die Zeit in Sekunden
+     * @param assistancesCost
+     *            die Hilfestellungskosten
+     * @param finished
+     *            ob das Spiel beendet ist
+     */
+    void restoreProgress(int time, int assistancesCost, boolean finished) {
+        this.time = time;
+        this.assistancesCost = assistancesCost;
+        this.finished = finished;
+    }
+
+    /**
+     * Gibt das Journal dieses Spiels zurück.
+     * 
+     * @return das Journal
+     */
+    GameJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Gibt den Highscorewert des Spiels zurück
      * 
@@ -194,6 +229,7 @@ public class Game implements Xmlable {
         } else {
             getCurrentState().markWrong();
         }
+        stateHandler.recordMarkChange(getCurrentState());
 
         return correct;
     }
@@ -227,17 +263,44 @@ public class Game implements Xmlable {
         if (this.finished)
             return;
 
-        this.stateHandler.addAndExecute(action);
+        // the action and the notes it adjusts reach the views as one change per field
+        beginBatch();
+        try {
+            this.stateHandler.addAndExecute(action);
 
-        updateNotes(sudoku.getField(action.getFieldId()));
+            updateNotes(sudoku.getField(action.getFieldId()));
+        } finally {
+            endBatch();
+        }
 
         if (isFinished())
             this.finished = true;
     }
 
     /**
-     * Updatet die Notizen in den Constraints des spezifizierten Feldes so, dass der spezifizierte Wert aus diesen
-     * gelöscht wird. Dies wird nur ausgeführt, falls die entsprechende Hilfestellung im Game aktiviert ist.
+     * Beginnt einen Batch auf dem Sudoku und dem GameStateHandler, sodass ein Zug mit allen Folgeaktionen die Views
+     * nur einmal je geändertem Feld und einmal für den Aktionsbaum erreicht.
+     */
+    private void beginBatch() {
+        sudoku.beginBatch();
+        stateHandler.beginBatch();
+    }
+
+    /**
+     * Beendet den mit {@link #beginBatch()} begonnenen Batch.
+     */
+    private void endBatch() {
+        try {
+            stateHandler.endBatch();
+        } finally {
+            sudoku.endBatch();
+        }
+    }
+
+    /**
+     * Updatet die Notizen des spezifizierten Feldes und seiner Nachbarn so, dass der spezifizierte Wert aus diesen
+     * gelöscht wird. Dies wird nur ausgeführt, falls die entsprechende Hilfestellung im Game aktiviert ist. Die Nachbarn
+     * kommen aus dem Konfliktindex des Sudokus, sodass nur sie und nicht alle Constraints durchlaufen werden.
      * 
      * @param field
      *            Das Field, welches modifiziert wurde
@@ -246,20 +309,34 @@ public class Game implements Xmlable {
         if (!this.isAssistanceAvailable(Assistances.autoAdjustNotes))
             return;
 
-        Position editedPos = sudoku.getPosition(field.getId());
         int value = field.getCurrentValue();
+        NoteActionFactory factory = new NoteActionFactory();
 
-        for (Constraint c : this.sudoku.getSudokuType()) {
-            if (c.includes(editedPos)) {
-                for (Position changePos : c) {
-                    if (this.sudoku.getField(changePos).isNoteSet(value)) {
-                        this.addAndExecute(new NoteActionFactory().createAction(value, this.sudoku.getField(changePos)));
-                    }
-                }
+        if (field.isNoteSet(value)) {
+            this.addAndExecute(factory.createAction(value, field));
+        }
+        for (Field peer : this.sudoku.getConflictIndex().getPeers(field)) {
+            if (peer.isNoteSet(value)) {
+                this.addAndExecute(factory.createAction(value, peer));
             }
         }
     }
 
+    /**
+     * Gibt zurück, ob das spezifizierte Symbol in das spezifizierte Feld eingetragen werden kann, ohne dass ein Nachbar
+     * dasselbe Symbol trägt. Die Abfrage nutzt die laufend gezählten Symbole des Konfliktindex und durchläuft weder
+     * Constraints noch Nachbarn.
+     * 
+     * @param field
+     *            Das Feld
+     * @param symbol
+     *            Das Symbol
+     * @return true, falls das Symbol ein Kandidat des Feldes ist
+     */
+    public boolean isCandidate(Field field, int symbol) {
+        return this.sudoku.getConflictIndex().isCandidate(field, symbol);
+    }
+
     /**
      * Führt alle nötigen Aktionen aus, damit das Sudoku nach Ausführung dieser Methode wieder im gleichen Zustand wie
      * nach der ersten Ausführung der gegebenen Aktion ist. Ist das übergebene Element null, so wird eine
@@ -271,14 +348,24 @@ public class Game implements Xmlable {
      *             Wird geworfen, falls das übergebene ActionTreeElement null ist
      */
     public void goToState(ActionTreeElement ate) {
-        stateHandler.goToState(ate);
+        beginBatch();
+        try {
+            stateHandler.goToState(ate);
+        } finally {
+            endBatch();
+        }
     }
 
     /**
      * Macht die letzte Aktion rückgängig. Ein Schritt rückwärts in der Versionshistorie.
      */
     public void undo() {
-        stateHandler.undo();
+        beginBatch();
+        try {
+            stateHandler.undo();
+        } finally {
+            endBatch();
+        }
     }
 
     /**
@@ -286,7 +373,12 @@ public class Game implements Xmlable {
      * Schritt rückwärts erfolgte über undo(), wird dieses undo rückgängig gemacht.
      */
     public void redo() {
-        stateHandler.redo();
+        beginBatch();
+        try {
+            stateHandler.redo();
+        } finally {
+            endBatch();
+        }
     }
 
     /**
@@ -305,6 +397,13 @@ public class Game implements Xmlable {
         stateHandler.markCurrentState();
     }
 
+    /**
+     * Entfernt die Markierung des aktuellen Zustands
+     */
+    public void unmarkCurrentState() {
+        stateHandler.unmarkCurrentState();
+    }
+
     /**
      * Überprüft, ob das gegebene ActionTreeElement markiert ist.
      * 
@@ -389,11 +488,16 @@ public class Game implements Xmlable {
         }
 
         Random rnd = new Random();
-        while (!unsolvedFields.isEmpty()) {
-            int nr = rnd.nextInt(unsolvedFields.size());
-            this.addAndExecute(new SolveActionFactory().createAction(unsolvedFields.get(nr).getSolution(),
-                    unsolvedFields.get(nr)));
-            unsolvedFields.remove(nr);
+        beginBatch();
+        try {
+            while (!unsolvedFields.isEmpty()) {
+                int nr = rnd.nextInt(unsolvedFields.size());
+                this.addAndExecute(new SolveActionFactory().createAction(unsolvedFields.get(nr).getSolution(),
+                        unsolvedFields.get(nr)));
+                unsolvedFields.remove(nr);
+            }
+        } finally {
+            endBatch();
         }
 
         this.assistancesCost += Integer.MAX_VALUE / 80;
@@ -410,21 +514,67 @@ public class Game implements Xmlable {
      */
     public void goToLastCorrectState() {
         this.assistancesCost += 3;
-        while (!this.checkSudokuValidity()) {
-            undo();
-        }
+        goToState(findLastCorrectState());
         getCurrentState().markCorrect();
+        stateHandler.recordMarkChange(getCurrentState());
     }
-    
+
+    /**
+     * Sucht vom aktuellen Zustand rückwärts den ersten Zustand ohne falsch belegte Felder, ohne das Sudoku zu
+     * verändern. Die Werte der Felder werden dazu über die Differenzen der Lösungsaktionen zurückgerechnet und die
+     * Anzahl der falsch belegten Felder mitgezählt, sodass jeder Schritt nur ein Feld betrachtet. Die durchlaufenen
+     * fehlerhaften Zustände werden als falsch markiert.
+     * 
+     * @return der gefundene Zustand, höchstens bis zur Wurzel
+     */
+    private ActionTreeElement findLastCorrectState() {
+        int wrong = 0;
+        for (Field f : this.sudoku) {
+            if (!f.isNotWrong()) {
+                wrong++;
+            }
+        }
+
+        Map<Field, Integer> values = new HashMap<Field, Integer>();
+        ActionTreeElement state = getCurrentState();
+        while (wrong > 0 && state.getParent() != null) {
+            state.markWrong();
+            stateHandler.recordMarkChange(state);
+
+            Action action = state.getAction();
+            Field field = sudoku.getField(action.getFieldId());
+            if (action instanceof SolveAction && field != null && field.isEditable()) {
+                Integer known = values.get(field);
+                int value = known == null ? field.getCurrentValue() : known;
+                int previous = value - action.getDiff();
+                if (isWrong(field, value))
+                    wrong--;
+                if (isWrong(field, previous))
+                    wrong++;
+                values.put(field, previous);
+            }
+            state = state.getParent();
+        }
+        return state;
+    }
+
+    /**
+     * Gibt zurück, ob der spezifizierte Wert im spezifizierten Feld falsch ist.
+     */
+    private static boolean isWrong(Field field, int value) {
+        return value != Field.EMPTYVAL && value != field.getSolution();
+    }
+
     /**
      * Geht zurück zum letzten Lesezeichen im Aktionsbaum. Ist der aktuelle Zustand bereits mit einem Lesezeichen versehen, so wird
      * nichts getan. Befindet sich vor dem aktuellen Zustand kein markierter Zustand, so wird zum Wurzelzustand zurückgegangen.
      */
     public void goToLastBookmark() {
-        while (!this.stateHandler.getCurrentState().equals(this.stateHandler.getActionTree().getRoot()) 
-        		&& !this.stateHandler.getCurrentState().isMarked()) {
-            undo();
+        ActionTreeElement target = this.stateHandler.getCurrentState();
+        while (target.getParent() != null && !target.isMarked()) {
+            target = target.getParent();
         }
+        goToState(target);
     }
 
 
@@ -482,6 +632,7 @@ public class Game implements Xmlable {
         representation.addAttribute(new XmlAttribute("finished", "" + finished));
         representation.addAttribute(new XmlAttribute("time", "" + time));
         representation.addAttribute(new XmlAttribute("currentTurnId", "" + getCurrentState().getId()));
+        representation.addAttribute(new XmlAttribute("journal", "" + journal.getGeneration()));
         representation.addChild(this.gameSettings.toXmlTree());
         representation.addAttribute(new XmlAttribute("assistancesCost", "" + this.assistancesCost));
 
@@ -505,17 +656,14 @@ public class Game implements Xmlable {
      * {@inheritDoc}
      */
     public void fillFromXml(XmlTree xmlTreeRepresentation) {
-
-        id = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("id"));
-        time = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("time"));
-        int currentStateId = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("currentTurnId"));
+        int currentStateId = initFromXml(xmlTreeRepresentation.getAttributeValue("id"),
+                xmlTreeRepresentation.getAttributeValue("time"), xmlTreeRepresentation.getAttributeValue("currentTurnId"),
+                xmlTreeRepresentation.getAttributeValue("journal"), xmlTreeRepresentation.getAttributeValue("assistancesCost"));
 
         // Problems:
         // - What about corrupt files? is the game validated after it has been
         // filled?
 
-        this.assistancesCost = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("assistancesCost"));
-
         for (XmlTree sub : xmlTreeRepresentation) {
             if (sub.getName().equals("sudoku")) {
                 sudoku = SudokuManager.getEmptySudokuToFillWithXml();
@@ -525,46 +673,117 @@ public class Game implements Xmlable {
             	gameSettings.fillFromXml(sub);
             }
         }
-        stateHandler = new GameStateHandler();
 
+        // Rebuild the tree from the stored parent ids without executing anything, then apply only the path from the
+        // root to the current state. The actions are stored in ascending id order, so parents always come first.
         for (XmlTree sub : xmlTreeRepresentation) {
             if (sub.getName().equals("action")) {
-                int diff = Integer.parseInt(sub.getAttributeValue(ActionTreeElement.DIFF));
-
-                // put the action to the parent action
-                goToState(stateHandler.getActionTree().getElement(
-                        Integer.parseInt(sub.getAttributeValue(ActionTreeElement.PARENT))));
-                // if(!sub.getAttributeValue(ActionTreeElement.PARENT).equals(""))
-                // is not necessary since the root action comes from the gsh so
-                // every element has e parent
-
-                int field_id = Integer.parseInt(sub.getAttributeValue(ActionTreeElement.FIELD_ID));
-
-                if (sub.getAttributeValue(ActionTreeElement.ACTION_TYPE).equals(SolveAction.class.getSimpleName())) {
-                    this.stateHandler.addAndExecute(new SolveActionFactory().createAction(sudoku.getField(field_id)
-                            .getCurrentValue() + diff, sudoku.getField(field_id)));
-                } else { // if(sub.getAttributeValue(ActionTreeElement.ACTION_TYPE).equals(NoteAction.class.getSimpleName()))
-                    this.stateHandler.addAndExecute(new NoteActionFactory().createAction(diff,
-                            sudoku.getField(field_id)));
-                }
-
-                if (Boolean.parseBoolean(sub.getAttributeValue(ActionTreeElement.MARKED))) {
-                    markCurrentState();
-                }
-                String s = sub.getAttributeValue(ActionTreeElement.MISTAKE);
-                if (s != null && Boolean.parseBoolean(s)) {
-                    getCurrentState().markWrong();
-                }
-                s = sub.getAttributeValue(ActionTreeElement.CORRECT);
-                if (s != null && Boolean.parseBoolean(s)) {
-                    getCurrentState().markCorrect();
-                }
+                restoreActionFromXml(sub.getAttributeValue(ActionTreeElement.ID), sub.getAttributeValue(ActionTreeElement.PARENT),
+                        sub.getAttributeValue(ActionTreeElement.DIFF), sub.getAttributeValue(ActionTreeElement.FIELD_ID),
+                        sub.getAttributeValue(ActionTreeElement.ACTION_TYPE), sub.getAttributeValue(ActionTreeElement.MARKED),
+                        sub.getAttributeValue(ActionTreeElement.MISTAKE), sub.getAttributeValue(ActionTreeElement.CORRECT));
+            }
+        }
+
+        finishFromXml(xmlTreeRepresentation.getAttributeValue("finished"), currentStateId);
+    }
+
+    /**
+     * {@inheritDoc} Das Sudoku muss in der Datei vor den Aktionen stehen, wie es {@link #toXmlTree()} schreibt.
+     */
+    public void fillFromXml(XmlPullReader reader) throws IOException {
+        int currentStateId = initFromXml(reader.getAttributeValue("id"), reader.getAttributeValue("time"),
+                reader.getAttributeValue("currentTurnId"), reader.getAttributeValue("journal"),
+                reader.getAttributeValue("assistancesCost"));
+        String finished = reader.getAttributeValue("finished");
+
+        int depth = reader.getDepth();
+        while (reader.nextChild(depth)) {
+            if (reader.getName().equals("sudoku")) {
+                sudoku = SudokuManager.getEmptySudokuToFillWithXml();
+                sudoku.fillFromXml(reader);
+            } else if (reader.getName().equals("gameSettings")) {
+                gameSettings = new GameSettings();
+                gameSettings.fillFromXml(reader.readTree());
+            } else if (reader.getName().equals("action")) {
+                if (sudoku == null)
+                    throw new IllegalArgumentException("action before sudoku");
+                restoreActionFromXml(reader.getAttributeValue(ActionTreeElement.ID),
+                        reader.getAttributeValue(ActionTreeElement.PARENT), reader.getAttributeValue(ActionTreeElement.DIFF),
+                        reader.getAttributeValue(ActionTreeElement.FIELD_ID),
+                        reader.getAttributeValue(ActionTreeElement.ACTION_TYPE),
+                        reader.getAttributeValue(ActionTreeElement.MARKED),
+                        reader.getAttributeValue(ActionTreeElement.MISTAKE),
+                        reader.getAttributeValue(ActionTreeElement.CORRECT));
             }
         }
 
-        finished = Boolean.parseBoolean(xmlTreeRepresentation.getAttributeValue("finished"));
-        goToState(stateHandler.getActionTree().getElement(currentStateId));
+        finishFromXml(finished, currentStateId);
+    }
+
+    /**
+     * Übernimmt beim Laden die Attribute des Wurzelelements und legt einen neuen GameStateHandler an.
+     * 
+     * @return die id des aktuellen Zustands
+     */
+    private int initFromXml(String id, String time, String currentTurnId, String journalGeneration, String assistancesCost) {
+        this.id = Integer.parseInt(id);
+        this.time = Integer.parseInt(time);
+        journal = new GameJournal(journalGeneration == null ? 0 : Integer.parseInt(journalGeneration));
+        this.assistancesCost = Integer.parseInt(assistancesCost);
+        sudoku = null;
+        stateHandler = new GameStateHandler();
+        return Integer.parseInt(currentTurnId);
+    }
+
+    /**
+     * Fügt beim Laden eine gespeicherte Aktion in den Baum ein, ohne sie auszuführen.
+     */
+    private void restoreActionFromXml(String id, String parentId, String diffValue, String fieldId, String type,
+            String marked, String mistake, String correct) {
+        ActionTree actionTree = stateHandler.getActionTree();
+        int elementId = Integer.parseInt(id);
+        int diff = Integer.parseInt(diffValue);
+        Field field = sudoku.getField(Integer.parseInt(fieldId));
+        ActionTreeElement parent = actionTree.getElement(Integer.parseInt(parentId));
+        if (parent == null || field == null)
+            throw new IllegalArgumentException("corrupt action " + elementId);
+
+        Action action;
+        if (type.equals(SolveAction.class.getSimpleName())) {
+            // the field is still in its initial state, so this yields exactly the stored diff
+            action = new SolveActionFactory().createAction(field.getCurrentValue() + diff, field);
+        } else { // if(type.equals(NoteAction.class.getSimpleName()))
+            action = new NoteActionFactory().createAction(diff, field);
+        }
+        ActionTreeElement ate = actionTree.restore(elementId, action, parent);
+
+        if (Boolean.parseBoolean(marked)) {
+            ate.mark();
+        }
+        if (mistake != null && Boolean.parseBoolean(mistake)) {
+            ate.markWrong();
+        }
+        if (correct != null && Boolean.parseBoolean(correct)) {
+            ate.markCorrect();
+        }
+    }
 
+    /**
+     * Schließt das Laden ab, indem der gespeicherte aktuelle Zustand hergestellt wird.
+     */
+    private void finishFromXml(String finished, int currentStateId) {
+        this.finished = Boolean.parseBoolean(finished);
+        ActionTreeElement current = stateHandler.getActionTree().getElement(currentStateId);
+        if (current == null)
+            throw new IllegalArgumentException("corrupt current turn " + currentStateId);
+        stateHandler.enableCheckpoints(sudoku);
+        beginBatch();
+        try {
+            stateHandler.restoreState(current);
+        } finally {
+            endBatch();
+        }
     }
 
     /**
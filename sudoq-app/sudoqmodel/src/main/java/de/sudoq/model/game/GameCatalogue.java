@@ -0,0 +1,356 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.XmlAttribute;
+import de.sudoq.model.xml.XmlPullReader;
+import de.sudoq.model.xml.XmlTree;
+
+/**
+ * Die Spieleliste eines Profils im Speicher. Sie wird einmal aus der games.xml des Profils geladen, ist nach Spiel-id
+ * indiziert und hält ihre sortierten Sichten bei jeder Änderung aktuell, statt die Datei bei jedem Zugriff erneut zu
+ * lesen. Änderungen werden über eine Versionsnummer verfolgt, damit die Datei verzögert geschrieben werden kann.
+ *
+ * Nicht threadsicher, der Aufrufer muss den Zugriff synchronisieren.
+ */
+class GameCatalogue {
+	/** Attributes */
+
+	static final String GAMES = "games";
+	static final String GAME = "game";
+	static final String ID = "id";
+	static final String FINISHED = "finished";
+	static final String PLAYED_AT = "played_at";
+	static final String SUDOKU_TYPE = "sudoku_type";
+	static final String COMPLEXITY = "complexity";
+
+	/**
+	 * Ordnet wie {@link GameData#compareTo}, bei gleichem Datum nach id, damit keine zwei Spiele gleich sind
+	 */
+	private static final Comparator<GameData> ORDER = new Comparator<GameData>() {
+		public int compare(GameData a, GameData b) {
+			int c = a.compareTo(b);
+			if (c != 0) {
+				return c;
+			}
+			return a.getId() < b.getId() ? -1 : (a.getId() == b.getId() ? 0 : 1);
+		}
+	};
+
+	/**
+	 * Die Datei, aus der die Liste stammt
+	 */
+	private final File file;
+
+	/**
+	 * Die Spiele nach id
+	 */
+	private final Map<Integer, GameData> games;
+
+	/**
+	 * Alle Spiele und die Spiele je Sudokutyp, aufsteigend nach {@link #ORDER}
+	 */
+	private final TreeSet<GameData> sorted;
+	private final Map<SudokuTypes, TreeSet<GameData>> sortedByType;
+
+	/**
+	 * Die Version der Liste im Speicher und die zuletzt geschriebene Version
+	 */
+	private long version;
+	private long writtenVersion;
+
+	/**
+	 * Änderungszeit und Länge der Datei, als sie zuletzt gelesen oder geschrieben wurde
+	 */
+	private long fileModified;
+	private long fileLength;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt eine leere Liste zur gegebenen Datei.
+	 *
+	 * @param file
+	 *            die games.xml Datei
+	 */
+	GameCatalogue(File file) {
+		this.file = file;
+		games = new HashMap<Integer, GameData>();
+		sorted = new TreeSet<GameData>(ORDER);
+		sortedByType = new EnumMap<SudokuTypes, TreeSet<GameData>>(SudokuTypes.class);
+	}
+
+	/** Methods */
+
+	/**
+	 * Lädt die Liste aus der gegebenen games.xml Datei.
+	 *
+	 * @param file
+	 *            die games.xml Datei
+	 * @return die geladene Liste
+	 * @throws IOException
+	 *             falls die Datei nicht gelesen werden kann oder fehlerhaft ist
+	 */
+	static GameCatalogue load(File file) throws IOException {
+		GameCatalogue catalogue = new GameCatalogue(file);
+		SimpleDateFormat format = new SimpleDateFormat(GameData.dateFormat);
+		XmlPullReader reader = XmlPullReader.open(file);
+		try {
+			int depth = reader.getDepth();
+			while (reader.nextChild(depth)) {
+				try {
+					catalogue.add(new GameData(reader.getIntAttribute(ID), format.parse(reader.getAttributeValue(PLAYED_AT)).getTime(),
+							Boolean.parseBoolean(reader.getAttributeValue(FINISHED)),
+							SudokuTypes.values()[reader.getIntAttribute(SUDOKU_TYPE)],
+							Complexity.values()[reader.getIntAttribute(COMPLEXITY)]));
+				} catch (ParseException e) {
+					throw new IOException("invalid date in " + file);
+				} catch (RuntimeException e) {
+					throw new IOException("invalid game entry in " + file);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		catalogue.markWritten(catalogue.version);
+		return catalogue;
+	}
+
+	/**
+	 * Gibt zurück, ob diese Liste zur gegebenen Datei gehört und die Datei seit dem letzten Lesen oder Schreiben nicht
+	 * von außen verändert wurde. Solange Änderungen noch nicht geschrieben sind, gilt die Liste im Speicher.
+	 *
+	 * @param f
+	 *            die games.xml Datei des aktuellen Profils
+	 * @return true, falls die Liste weiter verwendet werden kann
+	 */
+	boolean isCurrentFor(File f) {
+		if (!file.equals(f)) {
+			return false;
+		}
+		return isDirty() || (file.lastModified() == fileModified && file.length() == fileLength && file.exists());
+	}
+
+	/**
+	 * Gibt das Spiel mit der gegebenen id zurück.
+	 *
+	 * @param id
+	 *            die id
+	 * @return die Daten des Spiels oder null, falls es nicht in der Liste ist
+	 */
+	GameData get(int id) {
+		return games.get(id);
+	}
+
+	/**
+	 * Fügt das gegebene Spiel hinzu oder ersetzt den Eintrag mit derselben id.
+	 *
+	 * @param data
+	 *            die Daten des Spiels
+	 */
+	void put(GameData data) {
+		remove(data.getId());
+		add(data);
+	}
+
+	/**
+	 * Aktualisiert Datum und Status des Spiels mit der gegebenen id. Ist es nicht in der Liste, passiert nichts.
+	 *
+	 * @param id
+	 *            die id des Spiels
+	 * @param playedAt
+	 *            der neue Zeitpunkt in Millisekunden
+	 * @param finished
+	 *            ob das Spiel beendet ist
+	 */
+	void update(int id, long playedAt, boolean finished) {
+		GameData old = games.get(id);
+		if (old != null) {
+			put(new GameData(id, playedAt, finished, old.getType(), old.getComplexity()));
+		}
+	}
+
+	/**
+	 * Entfernt das Spiel mit der gegebenen id.
+	 *
+	 * @param id
+	 *            die id des Spiels
+	 * @return die entfernten Daten oder null, falls das Spiel nicht in der Liste war
+	 */
+	GameData remove(int id) {
+		GameData old = games.remove(id);
+		if (old != null) {
+			sorted.remove(old);
+			TreeSet<GameData> ofType = sortedByType.get(old.getType());
+			if (ofType != null) {
+				ofType.remove(old);
+			}
+			version++;
+		}
+		return old;
+	}
+
+	private void add(GameData data) {
+		games.put(data.getId(), data);
+		sorted.add(data);
+		if (data.getType() != null) {
+			TreeSet<GameData> ofType = sortedByType.get(data.getType());
+			if (ofType == null) {
+				ofType = new TreeSet<GameData>(ORDER);
+				sortedByType.put(data.getType(), ofType);
+			}
+			ofType.add(data);
+		}
+		version++;
+	}
+
+	/**
+	 * Gibt die Anzahl der Spiele zurück.
+	 *
+	 * @return die Anzahl
+	 */
+	int size() {
+		return games.size();
+	}
+
+	/**
+	 * Gibt alle Spiele in beliebiger Reihenfolge zurück. Die Sammlung darf während des Iterierens nicht verändert
+	 * werden.
+	 *
+	 * @return die Spiele
+	 */
+	Collection<GameData> getAll() {
+		return games.values();
+	}
+
+	/**
+	 * Gibt die Spiele sortiert zurück, zuerst die nicht beendeten, darin jeweils die zuletzt gespielten zuerst.
+	 *
+	 * @return eine neue Liste der Spiele
+	 */
+	List<GameData> list() {
+		return new ArrayList<GameData>(sorted.descendingSet());
+	}
+
+	/**
+	 * Gibt die beendeten oder die nicht beendeten Spiele zurück, die zuletzt gespielten zuerst.
+	 *
+	 * @param finished
+	 *            true für die beendeten, false für die nicht beendeten Spiele
+	 * @return eine neue Liste der Spiele
+	 */
+	List<GameData> list(boolean finished) {
+		List<GameData> list = new ArrayList<GameData>();
+		// the order puts finished games first, so each group is one contiguous run
+		Iterator<GameData> it = finished ? sorted.iterator() : sorted.descendingIterator();
+		while (it.hasNext()) {
+			GameData data = it.next();
+			if (data.isFinished() != finished) {
+				break;
+			}
+			list.add(data);
+		}
+		if (finished) {
+			Collections.reverse(list);
+		}
+		return list;
+	}
+
+	/**
+	 * Gibt die Spiele des gegebenen Sudokutyps in der Reihenfolge von {@link #list()} zurück.
+	 *
+	 * @param type
+	 *            der Sudokutyp
+	 * @return eine neue Liste der Spiele
+	 */
+	List<GameData> list(SudokuTypes type) {
+		TreeSet<GameData> ofType = sortedByType.get(type);
+		if (ofType == null) {
+			return new ArrayList<GameData>();
+		}
+		return new ArrayList<GameData>(ofType.descendingSet());
+	}
+
+	/**
+	 * Gibt die aktuelle Version der Liste zurück. Sie ändert sich mit jeder Änderung.
+	 *
+	 * @return die Version
+	 */
+	long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gibt zurück, ob die Liste Änderungen enthält, die noch nicht geschrieben sind.
+	 *
+	 * @return true, falls noch geschrieben werden muss
+	 */
+	boolean isDirty() {
+		return version != writtenVersion;
+	}
+
+	/**
+	 * Vermerkt, dass die gegebene Version in die Datei geschrieben wurde.
+	 *
+	 * @param written
+	 *            die geschriebene Version
+	 */
+	void markWritten(long written) {
+		if (written > writtenVersion) {
+			writtenVersion = written;
+		}
+		fileModified = file.lastModified();
+		fileLength = file.length();
+	}
+
+	/**
+	 * Gibt die Datei der Liste zurück.
+	 *
+	 * @return die games.xml Datei
+	 */
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Erzeugt die XmlTree Darstellung der Liste im Format der games.xml.
+	 *
+	 * @return der XmlTree
+	 */
+	XmlTree toXmlTree() {
+		SimpleDateFormat format = new SimpleDateFormat(GameData.dateFormat);
+		XmlTree tree = new XmlTree(GAMES);
+		for (GameData data : sorted) {
+			XmlTree game = new XmlTree(GAME);
+			game.addAttribute(new XmlAttribute(ID, Integer.toString(data.getId())));
+			game.addAttribute(new XmlAttribute(SUDOKU_TYPE, Integer.toString(data.getType().ordinal())));
+			game.addAttribute(new XmlAttribute(COMPLEXITY, Integer.toString(data.getComplexity().ordinal())));
+			game.addAttribute(new XmlAttribute(PLAYED_AT, format.format(data.getPlayedAt())));
+			game.addAttribute(new XmlAttribute(FINISHED, Boolean.toString(data.isFinished())));
+			tree.addChild(game);
+		}
+		return tree;
+	}
+}
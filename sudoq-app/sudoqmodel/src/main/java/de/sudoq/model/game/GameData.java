@@ -59,6 +59,28 @@ public class GameData implements Comparable<GameData> {
 
 	}
 
+	/**
+	 * Erzeugt ein GameData Objekt mit den gegebenen Paramtern zurück
+	 * 
+	 * @param id
+	 *            die id des Spiels
+	 * @param playedAt
+	 *            der Zeitpunkt in Millisekunden, als es zuletzt gespielt wurde
+	 * @param finished
+	 *            ob es beendet ist
+	 * @param type
+	 *            der Typ des zugehörigen Sudokus
+	 * @param complexity
+	 *            die Schwierigkeit des zugehörigen Sudokus
+	 */
+	GameData(int id, long playedAt, boolean finished, SudokuTypes type, Complexity complexity) {
+		this.id = id;
+		this.playedAt = new Date(playedAt);
+		this.finished = finished;
+		this.type = type;
+		this.complexity = complexity;
+	}
+
 	/**
 	 * Gibt die Schwierigkeit des zum Spiel gehörenden Sudokus zurück
 	 * 
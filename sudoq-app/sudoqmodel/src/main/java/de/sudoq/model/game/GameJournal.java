@@ -0,0 +1,326 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.game;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import de.sudoq.model.actionTree.Action;
+import de.sudoq.model.actionTree.ActionTree;
+import de.sudoq.model.actionTree.ActionTreeElement;
+import de.sudoq.model.actionTree.NoteActionFactory;
+import de.sudoq.model.actionTree.SolveAction;
+import de.sudoq.model.actionTree.SolveActionFactory;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.Field;
+
+/**
+ * Ein Journal, das die Änderungen eines Spiels seit dem letzten vollständigen Speichern als binäres Protokoll
+ * festhält. Das XML des Spiels dient als Schnappschuss, das Journal enthält die seitdem hinzugekommenen Züge,
+ * geänderte Markierungen und den jeweils letzten Zustand. Ein Speichervorgang kostet so nur die Züge seit dem letzten
+ * Speichern. Wird das Journal länger als der Baum selbst, wird ein neuer Schnappschuss geschrieben und das Journal
+ * geleert.
+ *
+ * Schnappschuss und Journal tragen eine gemeinsame Generationsnummer. Ein Journal, dessen Generation nicht zum
+ * Schnappschuss passt, stammt von einem unterbrochenen Kompaktieren und wird ignoriert; ein abgeschnittener letzter
+ * Eintrag wird ebenso verworfen.
+ */
+class GameJournal {
+	/** Attributes */
+
+	/**
+	 * Kennung am Anfang jeder Journaldatei ("SQJ" und die Formatversion)
+	 */
+	private static final int MAGIC = 0x53514A01;
+
+	private static final byte ACTION = 1;
+	private static final byte MARKS = 2;
+	private static final byte STATE = 3;
+
+	private static final byte MARKED = 1;
+	private static final byte MISTAKE = 2;
+	private static final byte CORRECT = 4;
+
+	/**
+	 * Mindestanzahl an Einträgen, ab der kompaktiert wird
+	 */
+	static final int MIN_COMPACTION_RECORDS = 512;
+
+	/**
+	 * Die Generation des zugehörigen Schnappschusses
+	 */
+	private int generation;
+
+	/**
+	 * Gibt an, ob die Journaldatei zum Schnappschuss passt und an sie angehängt werden darf
+	 */
+	private volatile boolean open;
+
+	/**
+	 * Die höchste bereits gespeicherte Element-id
+	 */
+	private int savedId;
+
+	/**
+	 * Die Anzahl der Einträge seit dem letzten Schnappschuss
+	 */
+	private int records;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt ein Journal zu einem Schnappschuss der gegebenen Generation. Bis zum Aufruf von {@link #start} oder
+	 * {@link #replay} werden keine Einträge gesammelt.
+	 *
+	 * @param generation
+	 *            die Generation des Schnappschusses
+	 */
+	GameJournal(int generation) {
+		this.generation = generation;
+	}
+
+	/** Methods */
+
+	/**
+	 * Gibt die Generation des zugehörigen Schnappschusses zurück.
+	 *
+	 * @return die Generation
+	 */
+	int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Erhöht die Generation. Muss vor dem Schreiben eines neuen Schnappschusses aufgerufen werden, damit das alte
+	 * Journal danach nicht mehr angewendet wird.
+	 */
+	void nextGeneration() {
+		generation++;
+		open = false;
+	}
+
+	/**
+	 * Beginnt ein leeres Journal für das gegebene Spiel, dessen Schnappschuss gerade erstellt wurde.
+	 *
+	 * @param game
+	 *            das Spiel
+	 * @return der Kopf der neuen Journaldatei
+	 */
+	byte[] start(Game game) {
+		game.getStateHandler().takeMarkChanges();
+		savedId = game.getStateHandler().getActionTree().getSize();
+		records = 0;
+		open = true;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(8);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(generation);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Sammelt die Änderungen des gegebenen Spiels seit dem letzten Aufruf als Journaleinträge. Ist das Journal nicht
+	 * beschreibbar oder lohnt sich ein Kompaktieren, wird null zurückgegeben; dann muss ein Schnappschuss erstellt
+	 * werden.
+	 *
+	 * @param game
+	 *            das zu speichernde Spiel
+	 * @return die anzuhängenden Einträge oder null, falls ein Schnappschuss nötig ist
+	 */
+	byte[] collect(Game game) {
+		ActionTree tree = game.getStateHandler().getActionTree();
+		if (!open || records > Math.max(MIN_COMPACTION_RECORDS, tree.getSize())) {
+			return null;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			for (int id = savedId + 1; id <= tree.getSize(); id++) {
+				ActionTreeElement ate = tree.getElement(id);
+				out.writeByte(ACTION);
+				out.writeInt(id);
+				out.writeInt(ate.getParent().getId());
+				out.writeByte(ate.getAction() instanceof SolveAction ? 0 : 1);
+				out.writeInt(ate.getAction().getFieldId());
+				out.writeInt(ate.getAction().getDiff());
+				out.writeByte(getMarks(ate));
+				records++;
+			}
+			for (ActionTreeElement ate : game.getStateHandler().takeMarkChanges()) {
+				if (ate.getId() <= savedId) {
+					out.writeByte(MARKS);
+					out.writeInt(ate.getId());
+					out.writeByte(getMarks(ate));
+					records++;
+				}
+			}
+			out.writeByte(STATE);
+			out.writeInt(game.getCurrentState().getId());
+			out.writeInt(game.getTime());
+			out.writeInt(game.getAssistancesCost());
+			out.writeBoolean(game.isFinished());
+			records++;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		savedId = tree.getSize();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Verwirft das Journal, z.B. weil das Schreiben fehlgeschlagen ist. Beim nächsten Speichern wird dann ein
+	 * Schnappschuss erstellt.
+	 */
+	void invalidate() {
+		open = false;
+	}
+
+	/**
+	 * Schreibt die gegebenen Bytes in die Journaldatei des Spiels mit der gegebenen id.
+	 *
+	 * @param gameId
+	 *            die id des Spiels
+	 * @param bytes
+	 *            die zu schreibenden Bytes
+	 * @param append
+	 *            true, um anzuhängen, false um die Datei neu zu beginnen
+	 * @throws IOException
+	 *             falls das Schreiben fehlschlägt
+	 */
+	static void write(int gameId, byte[] bytes, boolean append) throws IOException {
+		FileOutputStream out = new FileOutputStream(FileManager.getGameJournalFile(gameId), append);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Wendet das Journal auf das gegebene, gerade aus seinem Schnappschuss geladene Spiel an. Passt das Journal nicht
+	 * zum Schnappschuss oder ist es beschädigt, so wird beim nächsten Speichern ein neuer Schnappschuss geschrieben.
+	 * Gültige Einträge vor einer beschädigten Stelle bleiben angewendet.
+	 *
+	 * @param game
+	 *            das geladene Spiel
+	 */
+	void replay(Game game) {
+		GameStateHandler stateHandler = game.getStateHandler();
+		ActionTree tree = stateHandler.getActionTree();
+		savedId = tree.getSize();
+		records = 0;
+		open = false;
+
+		File file = FileManager.getGameJournalFile(game.getId());
+		if (!file.exists()) {
+			return;
+		}
+
+		ActionTreeElement target = null;
+		int time = 0;
+		int cost = 0;
+		boolean finished = false;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (in.readInt() != MAGIC || in.readInt() != generation) {
+					return;
+				}
+				boolean valid = true;
+				int tag;
+				while (valid && (tag = in.read()) != -1) {
+					if (tag == ACTION) {
+						int id = in.readInt();
+						ActionTreeElement parent = tree.getElement(in.readInt());
+						boolean solve = in.readByte() == 0;
+						Field field = game.getSudoku().getField(in.readInt());
+						int diff = in.readInt();
+						byte marks = in.readByte();
+						if (id <= tree.getSize() || parent == null || field == null) {
+							valid = false;
+						} else {
+							Action action = solve ? new SolveActionFactory().createAction(field.getCurrentValue() + diff, field)
+									: new NoteActionFactory().createAction(diff, field);
+							setMarks(tree.restore(id, action, parent), marks);
+						}
+					} else if (tag == MARKS) {
+						ActionTreeElement ate = tree.getElement(in.readInt());
+						byte marks = in.readByte();
+						if (ate == null) {
+							valid = false;
+						} else {
+							setMarks(ate, marks);
+						}
+					} else if (tag == STATE) {
+						target = tree.getElement(in.readInt());
+						time = in.readInt();
+						cost = in.readInt();
+						finished = in.readBoolean();
+						valid = target != null;
+					} else {
+						valid = false;
+					}
+					records++;
+				}
+				open = valid;
+			} finally {
+				in.close();
+			}
+		} catch (EOFException e) {
+			// truncated last record, everything before it is applied
+		} catch (IOException e) {
+			// unreadable journal, the snapshot alone is used
+		}
+
+		if (target != null) {
+			if (target != stateHandler.getCurrentState()) {
+				stateHandler.goToState(target);
+			}
+			game.restoreProgress(time, cost, finished);
+		}
+		stateHandler.takeMarkChanges();
+		savedId = tree.getSize();
+	}
+
+	private static byte getMarks(ActionTreeElement ate) {
+		return (byte) ((ate.isMarked() ? MARKED : 0) | (ate.isMistake() ? MISTAKE : 0) | (ate.isCorrect() ? CORRECT : 0));
+	}
+
+	/**
+	 * Übernimmt die Markierungen eines Eintrags. Ein Eintrag trägt immer alle Markierungen des Elements, eine fehlende
+	 * Lesezeichenmarkierung wird daher entfernt. Fehler- und Korrektheitsmarkierungen werden im Modell nie entfernt.
+	 */
+	private static void setMarks(ActionTreeElement ate, byte marks) {
+		boolean marked = (marks & MARKED) != 0;
+		if (marked && !ate.isMarked()) {
+			ate.mark();
+		} else if (!marked && ate.isMarked()) {
+			ate.unmark();
+		}
+		if ((marks & MISTAKE) != 0) {
+			ate.markWrong();
+		}
+		if ((marks & CORRECT) != 0) {
+			ate.markCorrect();
+		}
+	}
+}
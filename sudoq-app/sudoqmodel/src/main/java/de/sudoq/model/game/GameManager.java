@@ -9,9 +9,7 @@ package de.sudoq.model.game;
 
 import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 import de.sudoq.model.files.FileManager;
@@ -21,9 +19,9 @@ import de.sudoq.model.sudoku.SudokuManager;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
 import de.sudoq.model.xml.GameXmlHandler;
-import de.sudoq.model.xml.XmlAttribute;
 import de.sudoq.model.xml.XmlHandler;
 import de.sudoq.model.xml.XmlHelper;
+import de.sudoq.model.xml.XmlPullReader;
 import de.sudoq.model.xml.XmlTree;
 
 /**
@@ -33,12 +31,6 @@ import de.sudoq.model.xml.XmlTree;
 public class GameManager {
 	/** Attributes */
 
-	private static final String ID = "id";
-	private static final String FINISHED = "finished";
-	private static final String PLAYED_AT = "played_at";
-	private static final String SUDOKU_TYPE = "sudoku_type";
-	private static final String COMPLEXITY = "complexity";
-
 	/**
 	 * Die einzige GameManager Instanz
 	 */
@@ -46,6 +38,31 @@ public class GameManager {
 
 	private XmlHandler<Game> xmlHandler;
 
+	/**
+	 * Sperre für das Lesen und Verändern der Spieleliste
+	 */
+	private final Object gamesLock = new Object();
+
+	/**
+	 * Die Spieleliste des aktuellen Profils, wird beim ersten Zugriff geladen
+	 */
+	private GameCatalogue catalogue;
+
+	/**
+	 * Gibt an, ob das Schreiben der Spieleliste bereits im Hintergrund ansteht
+	 */
+	private boolean catalogueWriteScheduled;
+
+	/**
+	 * Sperre, die das Schreiben der Spieleliste serialisiert
+	 */
+	private final Object catalogueWriteLock = new Object();
+
+	/**
+	 * Sperre, die das Schreiben von Speichervorgängen serialisiert
+	 */
+	private final Object writeLock = new Object();
+
 	/** Constructors */
 
 	/**
@@ -93,16 +110,18 @@ public class GameManager {
 		Game game = new Game(FileManager.getNextFreeGameId(), sudoku);
 		game.setAssistances(assists);
 		xmlHandler.saveAsXml(game);
+		try {
+			GameJournal.write(game.getId(), game.getJournal().start(game), false);
+		} catch (IOException e) {
+			game.getJournal().invalidate();
+		}
+		writeThumbnail(game.getId(), GameThumbnail.capture(sudoku).toBytes());
 
-		XmlTree games = getGamesXml();
-		XmlTree gameTree = new XmlTree("game");
-		gameTree.addAttribute(new XmlAttribute(ID, Integer.toString(game.getId())));
-		gameTree.addAttribute(new XmlAttribute(SUDOKU_TYPE, Integer.toString(game.getSudoku().getSudokuType().getEnumType().ordinal())));
-		gameTree.addAttribute(new XmlAttribute(COMPLEXITY, Integer.toString(game.getSudoku().getComplexity().ordinal())));
-		gameTree.addAttribute(new XmlAttribute(PLAYED_AT, new SimpleDateFormat(GameData.dateFormat).format(new Date())));
-
-		games.addChild(gameTree);
-		saveGamesFile(games);
+		synchronized (gamesLock) {
+			getCatalogue().put(new GameData(game.getId(), System.currentTimeMillis(), false, game.getSudoku().getSudokuType().getEnumType(),
+					game.getSudoku().getComplexity()));
+		}
+		saveCatalogueLater();
 
 		return game;
 	}
@@ -121,12 +140,63 @@ public class GameManager {
 	 */
 	public Game load(int id) {
 		if (id <= 0) throw new IllegalArgumentException("unvalid id");
+		GameSaveService.getInstance().flush();
 		Game game = new Game();
 		// throws IllegalArgumentException
 		new GameXmlHandler(id).createObjectFromXml(game);
+		game.getJournal().replay(game);
 		return game;
 	}
 
+	/**
+	 * Gibt die Vorschau des Spiels mit der gegebenen ID zurück. Fehlt ihre
+	 * Datei, etwa bei Spielen aus älteren Versionen, die nur ein PNG Bild
+	 * haben, so wird die Vorschau aus dem zuletzt geschriebenen XML des Spiels
+	 * erzeugt und gespeichert. Das alte Bild wird dann nicht mehr gebraucht.
+	 * Das Spiel wird dazu nicht geladen, Journal und ausstehende
+	 * Speichervorgänge bleiben unberührt; Züge aus dem Journal fehlen in so
+	 * einer Vorschau bis zum nächsten Speichern. Darf auf einem
+	 * Hintergrundthread aufgerufen werden.
+	 * 
+	 * @param id
+	 *            die Id des Spiels
+	 * @return die Vorschau
+	 * @throws IOException
+	 *             falls weder die Vorschau noch das Spiel gelesen werden kann
+	 */
+	public GameThumbnail getThumbnail(int id) throws IOException {
+		// resolve all files at once in case the profile changes meanwhile
+		File file = FileManager.getGameThumbnailDataFile(id);
+		File gameFile = FileManager.getGameFile(id);
+		File image = FileManager.getGameThumbnailFile(id);
+		if (file.exists()) {
+			return GameThumbnail.read(file);
+		}
+		// a save writes its thumbnail under the same lock, it must not be overwritten
+		synchronized (writeLock) {
+			if (file.exists()) {
+				return GameThumbnail.read(file);
+			}
+			Game game = new Game();
+			XmlPullReader reader = XmlPullReader.open(gameFile);
+			try {
+				game.fillFromXml(reader);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("game " + id + " can not be read: " + e.getMessage());
+			} finally {
+				reader.close();
+			}
+			GameThumbnail thumbnail = GameThumbnail.capture(game.getSudoku());
+			try {
+				GameThumbnail.write(thumbnail.toBytes(), file);
+				image.delete();
+			} catch (IOException e) {
+				// it is built again next time
+			}
+			return thumbnail;
+		}
+	}
+
 	/**
 	 * Gibt die nach Zeit und ob beendet oder nicht sortierte Liste aller Spiele
 	 * des aktuellen Spielers zurück
@@ -134,42 +204,142 @@ public class GameManager {
 	 * @return die Liste
 	 */
 	public List<GameData> getGameList() {
-		List<GameData> list = new ArrayList<GameData>();
-		for (XmlTree game : getGamesXml()) {
-			list.add(new GameData(
-					Integer.parseInt(game.getAttributeValue(ID)),
-					game.getAttributeValue(PLAYED_AT), Boolean.parseBoolean(game.getAttributeValue(FINISHED)),
-					SudokuTypes.values()[Integer.parseInt(game.getAttributeValue(SUDOKU_TYPE))],
-					Complexity.values()[Integer.parseInt(game.getAttributeValue(COMPLEXITY))]));
+		synchronized (gamesLock) {
+			return getCatalogue().list();
+		}
+	}
+
+	/**
+	 * Gibt die beendeten oder die nicht beendeten Spiele des aktuellen Spielers
+	 * zurück, die zuletzt gespielten zuerst
+	 * 
+	 * @param finished
+	 *            true für die beendeten, false für die nicht beendeten Spiele
+	 * @return die Liste
+	 */
+	public List<GameData> getGameList(boolean finished) {
+		synchronized (gamesLock) {
+			return getCatalogue().list(finished);
+		}
+	}
 
+	/**
+	 * Gibt die Spiele des aktuellen Spielers mit dem gegebenen Sudokutyp in
+	 * der Reihenfolge von {@link #getGameList()} zurück
+	 * 
+	 * @param type
+	 *            der Sudokutyp
+	 * @return die Liste
+	 */
+	public List<GameData> getGameList(SudokuTypes type) {
+		synchronized (gamesLock) {
+			return getCatalogue().list(type);
 		}
-		java.util.Collections.sort(list);
-		java.util.Collections.reverse(list);
-		return list;
 	}
 
 	/**
-	 * Speichert ein gegebenes Game in XML.
+	 * Gibt die Anzahl der Spiele des aktuellen Spielers zurück
+	 * 
+	 * @return die Anzahl
+	 */
+	public int getGameCount() {
+		synchronized (gamesLock) {
+			return getCatalogue().size();
+		}
+	}
+
+	/**
+	 * Speichert ein gegebenes Game. Normalerweise werden nur die Änderungen
+	 * seit dem letzten Speichern an das Journal des Spiels angehängt; ist das
+	 * Journal zu lang geworden, wird das vollständige XML neu geschrieben.
+	 * Noch ausstehende Speichervorgänge des {@link GameSaveService} werden
+	 * vorher abgeschlossen.
 	 * 
 	 * @param game
 	 *            Das zu speichernde Game.
 	 */
 	public void save(Game game) {
-		xmlHandler.saveAsXml(game);
-		XmlTree games = getGamesXml();
-		// boolean passed = false;
-		for (XmlTree g : games) {
-			if (Integer.parseInt(g.getAttributeValue(ID)) == game.getId()) {
-				// TODO anpassen
-				g.updateAttribute(new XmlAttribute(PLAYED_AT, new SimpleDateFormat(GameData.dateFormat).format(new Date())));
-				g.updateAttribute(new XmlAttribute(FINISHED, Boolean.toString(game.isFinished())));
-				// passed = true;
-				break;
+		GameSaveService.getInstance().flush();
+		write(capture(game, false));
+		Profile.getInstance().saveChanges();
+	}
+
+	/**
+	 * Erfasst den Inhalt eines Speichervorgangs des gegebenen Spiels. Muss auf
+	 * dem Thread aufgerufen werden, der das Spiel verändert, das Schreiben mit
+	 * {@link #write} kann danach auf einem beliebigen Thread geschehen.
+	 * 
+	 * @param game
+	 *            das zu speichernde Spiel
+	 * @param withProfile
+	 *            ob auch das aktuelle Profil gespeichert werden soll
+	 * @return der Speichervorgang
+	 */
+	GameSave capture(Game game, boolean withProfile) {
+		GameJournal journal = game.getJournal();
+		byte[] bytes = journal.collect(game);
+		XmlTree snapshot = null;
+		if (bytes == null) {
+			journal.nextGeneration();
+			snapshot = game.toXmlTree();
+			bytes = journal.start(game);
+		}
+		GameSave save = new GameSave(game.getId(), journal, snapshot, bytes, game.isFinished());
+		save.thumbnail = GameThumbnail.capture(game.getSudoku()).toBytes();
+		if (withProfile) {
+			Profile profile = Profile.getInstance();
+			save.profile = profile.toXmlTree();
+			save.profileFile = FileManager.getProfileXmlFor(profile.getCurrentProfileID());
+		}
+		return save;
+	}
+
+	/**
+	 * Schreibt einen erfassten Speichervorgang. Ein neuer Schnappschuss wird
+	 * atomar geschrieben, bevor das zugehörige Journal neu begonnen wird.
+	 * Schlägt das Schreiben fehl, wird beim nächsten Speichern ein vollständiger
+	 * Schnappschuss geschrieben.
+	 * 
+	 * @param save
+	 *            der Speichervorgang
+	 * @throws IllegalStateException
+	 *             falls das Schreiben fehlschlägt
+	 */
+	void write(GameSave save) {
+		synchronized (writeLock) {
+			try {
+				if (save.snapshot != null) {
+					new XmlHelper().saveXmlAtomically(save.snapshot, FileManager.getGameFile(save.gameId));
+				}
+				GameJournal.write(save.gameId, save.journalBytes.toByteArray(), save.snapshot == null);
+				if (save.profile != null) {
+					new XmlHelper().saveXmlAtomically(save.profile, save.profileFile);
+				}
+			} catch (IOException e) {
+				save.journal.invalidate();
+				throw new IllegalStateException("Game " + save.gameId + " could not be saved", e);
 			}
+			writeThumbnail(save.gameId, save.thumbnail);
+		}
+		synchronized (gamesLock) {
+			getCatalogue().update(save.gameId, System.currentTimeMillis(), save.finished);
+		}
+		saveCatalogueLater();
+	}
+
+	/**
+	 * Schreibt die Vorschau eines Spiels. Eine fehlende Vorschau verhindert
+	 * das Laden nicht, deshalb werden Schreibfehler ignoriert.
+	 */
+	private void writeThumbnail(int gameId, byte[] thumbnail) {
+		if (thumbnail == null) {
+			return;
+		}
+		try {
+			GameThumbnail.write(thumbnail, FileManager.getGameThumbnailDataFile(gameId));
+		} catch (IOException e) {
+			// the list shows a placeholder instead
 		}
-		// assert passed : "Broken games";
-		Profile.getInstance().saveChanges();
-		saveGamesFile(games);
 	}
 
 	/**
@@ -181,18 +351,23 @@ public class GameManager {
 	 *             Falls die Liste inkonsistent ist
 	 */
 	public void updateGamesList() {
-		XmlTree games = getGamesXml();
-		XmlTree newGames = new XmlTree(games.getName());
-		// int counter = 0;
-		for (XmlTree g : games) {
-			if (FileManager.getGameFile(Integer.parseInt(g.getAttributeValue(ID))).exists()) {
-				newGames.addChild(g);
-				// counter++;
+		synchronized (gamesLock) {
+			removeMissingGames();
+		}
+		saveCatalogue();
+	}
+
+	private void removeMissingGames() {
+		GameCatalogue games = getCatalogue();
+		List<Integer> missing = new ArrayList<Integer>();
+		for (GameData g : games.getAll()) {
+			if (!FileManager.getGameFile(g.getId()).exists()) {
+				missing.add(g.getId());
 			}
 		}
-		// assert counter == FileManager.getGamesDir().list().length :
-		// "Inconsistent games list";
-		saveGamesFile(newGames);
+		for (int id : missing) {
+			games.remove(id);
+		}
 	}
 
 	/**
@@ -203,43 +378,111 @@ public class GameManager {
 	 *            die id des zu loeschenden Spiels
 	 */
 	public void deleteGame(int id) {
+		GameSaveService.getInstance().flush();
 		if (id == Profile.getInstance().getCurrentGame()) {
 			Profile.getInstance().setCurrentGame(Profile.NO_GAME);
 			Profile.getInstance().saveChanges();//save 'currentGameID' in xml (otherwise menu will offer 'continue')
 		}
 		FileManager.deleteGame(id);
-		updateGamesList();
+		synchronized (gamesLock) {
+			getCatalogue().remove(id);
+		}
+		saveCatalogueLater();
 	}
 
 	/**
 	 * Loescht alle fertigen Spiele aus dem Speicher und aus der Spieleliste
 	 */
 	public void deleteFinishedGames() {
-		XmlTree games = getGamesXml();
-		for (XmlTree g : games) {
-			if (Boolean.parseBoolean(g.getAttributeValue(FINISHED))) {
-				FileManager.deleteGame(Integer.parseInt(g.getAttributeValue(ID)));
+		GameSaveService.getInstance().flush();
+		synchronized (gamesLock) {
+			for (GameData g : getCatalogue().list(true)) {
+				FileManager.deleteGame(g.getId());
 			}
+			removeMissingGames();
 		}
-		updateGamesList();
+		saveCatalogue();
 	}
 
-	private void saveGamesFile(XmlTree games) {
-		try {
-			new XmlHelper().saveXml(games, FileManager.getGamesFile());
-		} catch (IOException e) {
-			throw new IllegalStateException("Profil broken", e);
+	/**
+	 * Gibt die Spieleliste des aktuellen Profils zurück und lädt sie, falls
+	 * sich das Profil geändert hat oder die Datei von außen verändert wurde.
+	 * Muss mit gamesLock aufgerufen werden.
+	 */
+	private GameCatalogue getCatalogue() {
+		File gamesFile = FileManager.getGamesFile();
+		if (catalogue == null || !catalogue.isCurrentFor(gamesFile)) {
+			if (catalogue != null && catalogue.isDirty() && !catalogue.getFile().equals(gamesFile)) {
+				// the profile changed before the list of the previous one was written
+				try {
+					new XmlHelper().saveXmlAtomically(catalogue.toXmlTree(), catalogue.getFile());
+				} catch (IOException e) {
+					// the previous profile keeps its older list
+				}
+			}
+			try {
+				catalogue = GameCatalogue.load(gamesFile);
+			} catch (IOException e) {
+				catalogue = null;
+				throw new IllegalStateException("Profil broken", e);
+			}
 		}
+		return catalogue;
 	}
 
-	private XmlTree getGamesXml() {
-		try {
-			File gf = FileManager.getGamesFile();
-			boolean ex = gf.exists();
-			Profile p = Profile.getInstance();
-			return new XmlHelper().loadXml(gf);
-		} catch (IOException e) {
-			throw new IllegalStateException("Profil broken", e);
+	/**
+	 * Schreibt die Spieleliste im Hintergrund. Mehrere Änderungen vor dem
+	 * Schreiben werden zu einem Schreibvorgang zusammengefasst.
+	 */
+	private void saveCatalogueLater() {
+		synchronized (gamesLock) {
+			if (catalogueWriteScheduled) {
+				return;
+			}
+			catalogueWriteScheduled = true;
+		}
+		GameSaveService.getInstance().execute(new Runnable() {
+			public void run() {
+				synchronized (gamesLock) {
+					catalogueWriteScheduled = false;
+				}
+				try {
+					saveCatalogue();
+				} catch (IllegalStateException e) {
+					// the list stays dirty and is written with the next change
+				}
+			}
+		});
+	}
+
+	/**
+	 * Schreibt die Spieleliste sofort, falls sie ungeschriebene Änderungen
+	 * enthält.
+	 * 
+	 * @throws IllegalStateException
+	 *             falls das Schreiben fehlschlägt
+	 */
+	private void saveCatalogue() {
+		synchronized (catalogueWriteLock) {
+			GameCatalogue games;
+			XmlTree tree;
+			long version;
+			synchronized (gamesLock) {
+				games = getCatalogue();
+				if (!games.isDirty()) {
+					return;
+				}
+				tree = games.toXmlTree();
+				version = games.getVersion();
+			}
+			try {
+				new XmlHelper().saveXmlAtomically(tree, games.getFile());
+			} catch (IOException e) {
+				throw new IllegalStateException("Profil broken", e);
+			}
+			synchronized (gamesLock) {
+				games.markWritten(version);
+			}
 		}
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import de.sudoq.model.xml.XmlTree;
+
+/**
+ * Der Inhalt eines Speichervorgangs eines Spiels, der auf dem Thread des Spiels erfasst und danach unabhängig vom
+ * Spiel geschrieben werden kann. Mehrere noch nicht geschriebene Speichervorgänge desselben Spiels lassen sich zu
+ * einem zusammenfassen.
+ */
+class GameSave {
+	/** Attributes */
+
+	/**
+	 * Die id des gespeicherten Spiels
+	 */
+	final int gameId;
+
+	/**
+	 * Das Journal des Spiels, das bei einem Schreibfehler verworfen wird
+	 */
+	final GameJournal journal;
+
+	/**
+	 * Der neue Schnappschuss oder null, falls nur an das Journal angehängt wird
+	 */
+	XmlTree snapshot;
+
+	/**
+	 * Die in das Journal zu schreibenden Bytes. Ist ein Schnappschuss gesetzt, beginnen sie mit dem Kopf eines neuen
+	 * Journals.
+	 */
+	final ByteArrayOutputStream journalBytes;
+
+	/**
+	 * Ob das Spiel beendet ist
+	 */
+	boolean finished;
+
+	/**
+	 * Die Bytes der Vorschau des Spiels
+	 */
+	byte[] thumbnail;
+
+	/**
+	 * Das zu speichernde Profil und seine Datei
+	 */
+	XmlTree profile;
+	File profileFile;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt einen neuen Speichervorgang.
+	 *
+	 * @param gameId
+	 *            die id des Spiels
+	 * @param journal
+	 *            das Journal des Spiels
+	 * @param snapshot
+	 *            der Schnappschuss oder null
+	 * @param journalBytes
+	 *            die Journaleinträge
+	 * @param finished
+	 *            ob das Spiel beendet ist
+	 */
+	GameSave(int gameId, GameJournal journal, XmlTree snapshot, byte[] journalBytes, boolean finished) {
+		this.gameId = gameId;
+		this.journal = journal;
+		this.snapshot = snapshot;
+		this.journalBytes = new ByteArrayOutputStream(journalBytes.length);
+		this.journalBytes.write(journalBytes, 0, journalBytes.length);
+		this.finished = finished;
+	}
+
+	/** Methods */
+
+	/**
+	 * Fasst diesen noch nicht geschriebenen Speichervorgang mit einem späteren desselben Spiels zusammen. Ein späterer
+	 * Schnappschuss ersetzt alles Bisherige, spätere Journaleinträge werden angehängt.
+	 *
+	 * @param later
+	 *            der spätere Speichervorgang
+	 */
+	void merge(GameSave later) {
+		if (later.snapshot != null) {
+			snapshot = later.snapshot;
+			journalBytes.reset();
+		}
+		byte[] bytes = later.journalBytes.toByteArray();
+		journalBytes.write(bytes, 0, bytes.length);
+		finished = later.finished;
+		thumbnail = later.thumbnail;
+		if (later.profile != null) {
+			profile = later.profile;
+			profileFile = later.profileFile;
+		}
+	}
+}
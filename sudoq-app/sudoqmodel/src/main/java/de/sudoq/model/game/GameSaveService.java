@@ -0,0 +1,189 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.game;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Speichert Spiele im Hintergrund. Der Inhalt eines Speichervorgangs wird auf dem aufrufenden Thread erfasst, was dank
+ * des Journals nur die Änderungen seit dem letzten Speichern kostet; das Schreiben übernimmt ein einzelner
+ * Hintergrundthread. Wird ein Spiel erneut gespeichert, bevor sein letzter Speichervorgang geschrieben wurde, so werden
+ * beide zu einem Schreibvorgang zusammengefasst. Sie setzt das Singleton Pattern um.
+ */
+public class GameSaveService {
+	/** Attributes */
+
+	/**
+	 * Der Standardabstand zwischen zwei automatischen Speichervorgängen in Millisekunden
+	 */
+	public static final long DEFAULT_INTERVAL = 5000;
+
+	/**
+	 * Die einzige GameSaveService Instanz
+	 */
+	private static GameSaveService instance;
+
+	/**
+	 * Der Thread, der die Speichervorgänge schreibt
+	 */
+	private final ExecutorService worker;
+
+	/**
+	 * Die noch nicht geschriebenen Speichervorgänge, nach Spiel-id
+	 */
+	private final Map<Integer, GameSave> pending;
+
+	/**
+	 * Der Abstand zwischen zwei automatischen Speichervorgängen in Millisekunden
+	 */
+	private long interval;
+
+	/**
+	 * Die id des zuletzt gespeicherten Spiels und der Zeitpunkt, zu dem dies geschah
+	 */
+	private int lastGameId;
+	private long lastSave;
+
+	/** Constructors */
+
+	private GameSaveService() {
+		worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "GameSaveService");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		pending = new HashMap<Integer, GameSave>();
+		interval = DEFAULT_INTERVAL;
+		lastGameId = -1;
+	}
+
+	/** Methods */
+
+	/**
+	 * Gibt die einzige GameSaveService Instanz zurück.
+	 *
+	 * @return Der GameSaveService
+	 */
+	public static synchronized GameSaveService getInstance() {
+		if (instance == null) {
+			instance = new GameSaveService();
+		}
+		return instance;
+	}
+
+	/**
+	 * Setzt den Abstand, in dem {@link #saveIfDue} speichert.
+	 *
+	 * @param millis
+	 *            der Abstand in Millisekunden
+	 * @throws IllegalArgumentException
+	 *             falls millis negativ ist
+	 */
+	public synchronized void setInterval(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("negative interval");
+		}
+		interval = millis;
+	}
+
+	/**
+	 * Speichert das gegebene Spiel im Hintergrund. Muss auf dem Thread aufgerufen werden, der das Spiel verändert. Das
+	 * aktuelle Profil wird mitgespeichert.
+	 *
+	 * @param game
+	 *            das zu speichernde Spiel
+	 */
+	public void requestSave(Game game) {
+		GameSave save = GameManager.getInstance().capture(game, true);
+		final int id = game.getId();
+		synchronized (this) {
+			lastGameId = id;
+			lastSave = System.currentTimeMillis();
+			GameSave queued = pending.get(id);
+			if (queued != null) {
+				queued.merge(save);
+				return;
+			}
+			pending.put(id, save);
+		}
+		worker.execute(new Runnable() {
+			public void run() {
+				GameSave save;
+				synchronized (GameSaveService.this) {
+					save = pending.remove(id);
+				}
+				try {
+					GameManager.getInstance().write(save);
+				} catch (RuntimeException e) {
+					// the journal is invalidated, the next save writes a snapshot
+				}
+			}
+		});
+	}
+
+	/**
+	 * Speichert das gegebene Spiel im Hintergrund, falls es seit dem eingestellten Abstand nicht gespeichert wurde.
+	 * Gedacht für einen regelmäßigen Aufruf auf dem Thread des Spiels, z.B. beim Aktualisieren der Spielzeit, damit bei
+	 * einem Absturz höchstens wenige Sekunden verloren gehen.
+	 *
+	 * @param game
+	 *            das Spiel
+	 * @return true, falls gespeichert wurde
+	 */
+	public boolean saveIfDue(Game game) {
+		synchronized (this) {
+			if (lastGameId == game.getId() && System.currentTimeMillis() - lastSave < interval) {
+				return false;
+			}
+		}
+		requestSave(game);
+		return true;
+	}
+
+	/**
+	 * Führt die gegebene Schreibaufgabe nach allen bisher angeforderten Speichervorgängen im Hintergrund aus.
+	 *
+	 * @param task
+	 *            die Aufgabe
+	 */
+	void execute(Runnable task) {
+		worker.execute(task);
+	}
+
+	/**
+	 * Wartet, bis alle bisher angeforderten Speichervorgänge geschrieben sind.
+	 */
+	public void flush() {
+		Future<?> done = worker.submit(new Runnable() {
+			public void run() {
+			}
+		});
+		boolean interrupted = false;
+		while (true) {
+			try {
+				done.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -7,6 +7,8 @@
  */
 package de.sudoq.model.game;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
 
@@ -15,14 +17,25 @@ import de.sudoq.model.actionTree.Action;
 import de.sudoq.model.actionTree.ActionTree;
 import de.sudoq.model.actionTree.ActionTreeElement;
 import de.sudoq.model.sudoku.Field;
+import de.sudoq.model.sudoku.Sudoku;
 
 /**
  * Diese Klasse verwaltet den Zustand eines Spiels durch einen ActionTree und stellt Funktionalität für die Verwaltung
  * des Zustandes zur Verfügung.
+ *
+ * Kennt der Handler die Felder des Sudokus, so hält er für jedes erreichte Element, dessen Tiefe ein Vielfaches von
+ * {@link #CHECKPOINT_INTERVAL} ist, eine Momentaufnahme des Spielfelds fest. Ein weiter Sprung im Baum stellt dann die
+ * nächste Momentaufnahme auf dem Weg zum Ziel her und führt nur die restlichen Aktionen aus.
  */
 public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 	/** Attributes */
 
+	/**
+	 * Der Abstand in Zügen zwischen zwei Momentaufnahmen. Das Herstellen einer Momentaufnahme wird beim Planen eines
+	 * Sprunges wie ebenso viele einzelne Schritte gewertet.
+	 */
+	static final int CHECKPOINT_INTERVAL = 32;
+
 	/**
 	 * Die Datenstruktur um die Züge und ihre Abfolge zu speichern
 	 */
@@ -42,6 +55,21 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 	 */
 	private boolean locked;
 
+	/**
+	 * Die Elemente, deren Markierungen sich seit dem letzten Speichern geändert haben
+	 */
+	private List<ActionTreeElement> markChanges;
+
+	/**
+	 * Die Felder des Sudokus, null solange keine Momentaufnahmen gemacht werden
+	 */
+	private Field[] board;
+
+	/**
+	 * Die Momentaufnahmen nach der id ihres Elements
+	 */
+	private BoardSnapshot[] checkpoints;
+
 	/** Constructors */
 
 	/**
@@ -50,6 +78,7 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 	public GameStateHandler() {
 		actionTree = new ActionTree();
 		undoStack = new Stack<ActionTreeElement>();
+		markChanges = new ArrayList<ActionTreeElement>();
 
 		currentState = actionTree.add(new Action(0, new Field(-1, 1)) {
 			// Empty Action - do nothing
@@ -65,6 +94,94 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 		locked = false;
 	}
 
+	/**
+	 * {@inheritDoc} Der Batch umfasst auch den ActionTree.
+	 */
+	@Override
+	public void beginBatch() {
+		super.beginBatch();
+		actionTree.beginBatch();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void endBatch() {
+		actionTree.endBatch();
+		super.endBatch();
+	}
+
+	/**
+	 * {@inheritDoc} Die Listener erhalten einmal den dann aktuellen Zustand, statt jeden Zwischenzustand.
+	 */
+	@Override
+	protected void notifyBatchChanges(List<ActionTreeElement> changed) {
+		notifyDeferredListeners(currentState);
+	}
+
+	/**
+	 * Aktiviert die Momentaufnahmen für die Felder des gegebenen Sudokus. Das Sudoku muss sich im Zustand des aktuellen
+	 * Elements befinden und darf danach nur noch über diesen Handler verändert werden.
+	 * 
+	 * @param sudoku
+	 *            das Sudoku, auf dessen Feldern die Aktionen arbeiten
+	 */
+	void enableCheckpoints(Sudoku sudoku) {
+		List<Field> fields = new ArrayList<Field>();
+		for (Field f : sudoku) {
+			fields.add(f);
+		}
+		board = fields.toArray(new Field[fields.size()]);
+		checkpoints = new BoardSnapshot[actionTree.getSize() + 1];
+		checkpoint(currentState);
+	}
+
+	/**
+	 * Hält den aktuellen Zustand des Spielfelds fest, falls das gegebene Element auf einer Tiefe für Momentaufnahmen
+	 * liegt und noch keine hat. Das Spielfeld muss sich im Zustand des Elements befinden.
+	 */
+	private void checkpoint(ActionTreeElement element) {
+		if (board == null || element.getDepth() % CHECKPOINT_INTERVAL != 0) {
+			return;
+		}
+		int id = element.getId();
+		if (id >= checkpoints.length) {
+			checkpoints = Arrays.copyOf(checkpoints, Math.max(checkpoints.length * 2, id + 1));
+		}
+		if (checkpoints[id] == null) {
+			checkpoints[id] = new BoardSnapshot(board);
+		}
+	}
+
+	/**
+	 * Sucht den tiefsten Vorfahren des Ziels (oder das Ziel selbst) mit einer Momentaufnahme, von dem aus das Ziel
+	 * günstiger erreicht wird als über einen Weg der gegebenen Länge.
+	 * 
+	 * @return das Element oder null, falls sich keine Momentaufnahme lohnt
+	 */
+	private ActionTreeElement findCheckpoint(ActionTreeElement target, int pathLength) {
+		if (board == null) {
+			return null;
+		}
+		ActionTreeElement e = target;
+		for (int i = target.getDepth() % CHECKPOINT_INTERVAL; i > 0; i--) {
+			e = e.getParent();
+		}
+		while (target.getDepth() - e.getDepth() + CHECKPOINT_INTERVAL < pathLength) {
+			if (e.getId() < checkpoints.length && checkpoints[e.getId()] != null) {
+				return e;
+			}
+			if (e.getDepth() == 0) {
+				return null;
+			}
+			for (int i = 0; i < CHECKPOINT_INTERVAL; i++) {
+				e = e.getParent();
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Die Methode gibt den ActionTree zurück.
 	 * 
@@ -98,6 +215,7 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 
 			currentState = actionTree.add(action, currentState);
 			currentState.execute();
+			checkpoint(currentState);
 			notifyListeners(currentState);
 
 			locked = false;
@@ -106,7 +224,8 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 
 	/**
 	 * Führt alle nötigen Aktionen aus, damit das Sudoku nach Ausführung dieser Methode wieder im gleichen Zustand wie
-	 * nach der ersten Ausführung der gegebenen Aktion ist.
+	 * nach der ersten Ausführung der gegebenen Aktion ist. Ist der Weg über den gemeinsamen Vorfahren lang, wird
+	 * stattdessen die nächste Momentaufnahme oberhalb des Ziels hergestellt und von dort aus weitergegangen.
 	 * 
 	 * @param target
 	 *            Das ActionTreeElement in dessen Zustand das Sudoku überführt werden soll
@@ -115,39 +234,76 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 	 */
 	public void goToState(ActionTreeElement target) {
 		locked = true;
-		boolean onlyUndo = true;
-
-		List<ActionTreeElement> listWay = ActionTree.findPath(currentState, target);
-		ActionTreeElement[] way = new ActionTreeElement[listWay.size()];
-		listWay.toArray(way);
-
-		for (int i = 1; i < way.length; i++) {
-			if (way[i - 1].getParent() == way[i]) {
-				way[i - 1].undo();
-				if (way[i].isSplitUp()) {
-					undoStack.push(way[i - 1]);
-				}
-
-			} else {
-				onlyUndo = false;
-				if (i - 2 >= 0 && way[i - 2].getParent() != way[i - 1]) {
-					way[i - 1].execute();
-				}
-				if (way[i] == target) {
-					target.execute();
-				}
+
+		ActionTreeElement lca = ActionTree.findLowestCommonAncestor(currentState, target);
+		int up = currentState.getDepth() - lca.getDepth();
+		int down = target.getDepth() - lca.getDepth();
+		ActionTreeElement checkpoint = findCheckpoint(target, up + down);
+
+		// undo up to the common ancestor, the undo stack records the way back in either case
+		for (ActionTreeElement e = currentState; e != lca; e = e.getParent()) {
+			if (checkpoint == null) {
+				e.undo();
+			}
+			if (e.getParent().isSplitUp()) {
+				undoStack.push(e);
 			}
 		}
 
-		if (!onlyUndo) {
+		ActionTreeElement from = lca;
+		if (checkpoint != null) {
+			checkpoints[checkpoint.getId()].restore(board);
+			from = checkpoint;
+		}
+
+		// redo down to the target
+		redoDown(from, target);
+		if (down > 0) {
 			undoStack.clear();
 		}
+
+		currentState = target;
+		notifyListeners(currentState);
+
+		locked = false;
+	}
+
+	/**
+	 * Überführt das Sudoku vom Zustand der Wurzel in den Zustand des gegebenen Elements, indem nur die Aktionen auf dem
+	 * Weg von der Wurzel zu target ausgeführt werden. Dient dem Wiederherstellen eines gespeicherten Spiels, dessen
+	 * Baum mit {@link ActionTree#restore} aufgebaut wurde.
+	 * 
+	 * @param target
+	 *            Das ActionTreeElement in dessen Zustand das Sudoku überführt werden soll
+	 * @throws IllegalStateException
+	 *             falls der aktuelle Zustand nicht die Wurzel ist
+	 */
+	void restoreState(ActionTreeElement target) {
+		if (currentState != actionTree.getRoot())
+			throw new IllegalStateException("restoring requires the root state");
+		locked = true;
+
+		redoDown(currentState, target);
+
+		undoStack.clear();
 		currentState = target;
 		notifyListeners(currentState);
 
 		locked = false;
 	}
 
+	/**
+	 * Führt die Aktionen unterhalb von from bis einschließlich to von oben nach unten aus. from muss ein Vorfahre von
+	 * to sein.
+	 */
+	private void redoDown(ActionTreeElement from, ActionTreeElement to) {
+		for (int depth = from.getDepth() + 1; depth <= to.getDepth(); depth++) {
+			ActionTreeElement step = ActionTree.findAncestor(to, depth);
+			step.execute();
+			checkpoint(step);
+		}
+	}
+
 	/**
 	 * Gibt zurück, ob die letzte Aktion rückgängig gemacht werden kann
 	 * 
@@ -167,6 +323,7 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 		if (currentState.getParent() != null) {
 			ActionTreeElement oldElement = currentState;
 			currentState = currentState.undo();
+			checkpoint(currentState);
 
 			if (currentState.isSplitUp()) {
 				undoStack.push(oldElement);
@@ -199,12 +356,14 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 			if (!undoStack.empty()) {
 				currentState = undoStack.pop();
 				currentState.execute();
+				checkpoint(currentState);
 				notifyListeners(currentState);
 			}
 		} else {
 			if (currentState.getChildren().hasNext()) {
 				currentState = currentState.getChildren().next();
 				currentState.execute();
+				checkpoint(currentState);
 				notifyListeners(currentState);
 			}
 		}
@@ -217,6 +376,39 @@ public class GameStateHandler extends ObservableModelImpl<ActionTreeElement> {
 	 */
 	public void markCurrentState() {
 		currentState.mark();
+		recordMarkChange(currentState);
+	}
+
+	/**
+	 * Entfernt die Markierung des aktuellen Zustands
+	 */
+	public void unmarkCurrentState() {
+		currentState.unmark();
+		recordMarkChange(currentState);
+	}
+
+	/**
+	 * Vermerkt, dass sich die Markierungen des gegebenen Elements geändert haben, damit sie beim nächsten Speichern
+	 * in das Journal geschrieben werden.
+	 * 
+	 * @param ate
+	 *            das geänderte Element
+	 */
+	void recordMarkChange(ActionTreeElement ate) {
+		if (markChanges.isEmpty() || markChanges.get(markChanges.size() - 1) != ate) {
+			markChanges.add(ate);
+		}
+	}
+
+	/**
+	 * Gibt die seit dem letzten Aufruf geänderten Elemente zurück und vergisst sie.
+	 * 
+	 * @return die Elemente mit geänderten Markierungen
+	 */
+	List<ActionTreeElement> takeMarkChanges() {
+		List<ActionTreeElement> changes = markChanges;
+		markChanges = new ArrayList<ActionTreeElement>();
+		return changes;
 	}
 
 	/**
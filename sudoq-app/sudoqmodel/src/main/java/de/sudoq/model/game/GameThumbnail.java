@@ -0,0 +1,217 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.game;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import de.sudoq.model.sudoku.Field;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+/**
+ * Eine Vorschau eines Spiels, die nur den Zustand der Felder festhält: ob eine Position ein Feld hat und ob dieses
+ * vorgegeben, leer oder ausgefüllt ist. Sie wird beim Speichern aus dem Sudoku erfasst und mit zwei Bit je Position
+ * gespeichert, sodass eine Liste gespeicherter Spiele ihre Vorschaubilder ohne Laden der Spiele und in beliebiger
+ * Auflösung zeichnen kann.
+ */
+public class GameThumbnail {
+	/** Attributes */
+
+	/**
+	 * Kennung am Anfang jeder Vorschaudatei ("SQT" und die Formatversion)
+	 */
+	private static final int MAGIC = 0x53515401;
+
+	/**
+	 * Die Zustände einer Position
+	 */
+	public static final int NO_FIELD = 0;
+	public static final int EMPTY = 1;
+	public static final int GIVEN = 2;
+	public static final int FILLED = 3;
+
+	/**
+	 * Der Typ des Sudokus
+	 */
+	private final SudokuTypes type;
+
+	/**
+	 * Breite und Höhe des Sudokus
+	 */
+	private final int width;
+	private final int height;
+
+	/**
+	 * Die Zustände der Positionen, zeilenweise mit zwei Bit je Position
+	 */
+	private final byte[] cells;
+
+	/** Constructors */
+
+	private GameThumbnail(SudokuTypes type, int width, int height, byte[] cells) {
+		this.type = type;
+		this.width = width;
+		this.height = height;
+		this.cells = cells;
+	}
+
+	/** Methods */
+
+	/**
+	 * Erfasst die Vorschau des gegebenen Sudokus.
+	 *
+	 * @param sudoku
+	 *            das Sudoku
+	 * @return die Vorschau
+	 */
+	public static GameThumbnail capture(Sudoku sudoku) {
+		Position size = sudoku.getSudokuType().getSize();
+		GameThumbnail thumbnail = new GameThumbnail(sudoku.getSudokuType().getEnumType(), size.getX(), size.getY(),
+				new byte[(size.getX() * size.getY() + 3) / 4]);
+		for (int y = 0; y < thumbnail.height; y++) {
+			for (int x = 0; x < thumbnail.width; x++) {
+				Field f = sudoku.getField(Position.get(x, y));
+				int state;
+				if (f == null) {
+					state = NO_FIELD;
+				} else if (!f.isEditable()) {
+					state = GIVEN;
+				} else if (f.isEmpty()) {
+					state = EMPTY;
+				} else {
+					state = FILLED;
+				}
+				int i = y * thumbnail.width + x;
+				thumbnail.cells[i >> 2] |= state << ((i & 3) << 1);
+			}
+		}
+		return thumbnail;
+	}
+
+	/**
+	 * Gibt den Typ des Sudokus zurück.
+	 *
+	 * @return der Typ
+	 */
+	public SudokuTypes getType() {
+		return type;
+	}
+
+	/**
+	 * Gibt die Breite des Sudokus in Feldern zurück.
+	 *
+	 * @return die Breite
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gibt die Höhe des Sudokus in Feldern zurück.
+	 *
+	 * @return die Höhe
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gibt den Zustand der gegebenen Position zurück.
+	 *
+	 * @param x
+	 *            die Spalte
+	 * @param y
+	 *            die Zeile
+	 * @return {@link #NO_FIELD}, {@link #EMPTY}, {@link #GIVEN} oder {@link #FILLED}
+	 * @throws IllegalArgumentException
+	 *             falls die Position außerhalb des Sudokus liegt
+	 */
+	public int getState(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			throw new IllegalArgumentException("position out of range: " + x + ", " + y);
+		}
+		int i = y * width + x;
+		return (cells[i >> 2] >> ((i & 3) << 1)) & 3;
+	}
+
+	/**
+	 * Gibt die gespeicherte Darstellung dieser Vorschau zurück.
+	 *
+	 * @return die Bytes der Vorschaudatei
+	 */
+	byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(12 + cells.length);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			out.writeShort(type.ordinal());
+			out.writeShort(width);
+			out.writeShort(height);
+			out.write(cells);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Schreibt die gegebene Vorschau in die gegebene Datei.
+	 *
+	 * @param bytes
+	 *            die Bytes aus {@link #toBytes()}
+	 * @param file
+	 *            die Vorschaudatei
+	 * @throws IOException
+	 *             falls das Schreiben fehlschlägt
+	 */
+	static void write(byte[] bytes, File file) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Liest eine Vorschau aus der gegebenen Datei.
+	 *
+	 * @param file
+	 *            die Vorschaudatei
+	 * @return die Vorschau
+	 * @throws IOException
+	 *             falls die Datei fehlt, nicht gelesen werden kann oder keine gültige Vorschau enthält
+	 */
+	public static GameThumbnail read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("not a thumbnail: " + file);
+			}
+			int type = in.readShort();
+			int width = in.readShort();
+			int height = in.readShort();
+			if (type < 0 || type >= SudokuTypes.values().length || width < 0 || height < 0) {
+				throw new IOException("invalid thumbnail: " + file);
+			}
+			byte[] cells = new byte[(width * height + 3) / 4];
+			in.readFully(cells);
+			return new GameThumbnail(SudokuTypes.values()[type], width, height, cells);
+		} finally {
+			in.close();
+		}
+	}
+}
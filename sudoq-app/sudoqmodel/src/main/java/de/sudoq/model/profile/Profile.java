@@ -15,18 +15,19 @@ import de.sudoq.model.files.FileManager;
 import de.sudoq.model.game.GameSettings;
 import de.sudoq.model.game.Assistances;
 import de.sudoq.model.xml.ProfileXmlHandler;
+import de.sudoq.model.xml.PullXmlable;
 import de.sudoq.model.xml.XmlAttribute;
 import de.sudoq.model.xml.XmlHandler;
 import de.sudoq.model.xml.XmlHelper;
+import de.sudoq.model.xml.XmlPullReader;
 import de.sudoq.model.xml.XmlTree;
-import de.sudoq.model.xml.Xmlable;
 
 /**
  * Diese statische Klasse ist ein Wrapper für das aktuell geladene und durch
  * SharedPreferences von der Android-API verwaltete Spielerprofil.
  * 
  */
-public class Profile extends ObservableModelImpl<Profile> implements Xmlable {
+public class Profile extends ObservableModelImpl<Profile> implements PullXmlable {
 	/** Attributes */
 
 	public  static final int    INITIAL_TIME_RECORD = 5999;
@@ -437,6 +438,28 @@ public class Profile extends ObservableModelImpl<Profile> implements Xmlable {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public void fillFromXml(XmlPullReader reader) throws IOException {
+		setCurrentGame(reader.getIntAttribute("currentGame"));
+		setName(reader.getAttributeValue("name"));
+
+		int[] statistics = new int[Statistics.values().length];
+		for (Statistics stat : Statistics.values()) {
+			statistics[stat.ordinal()] = reader.getIntAttribute(stat.name());
+		}
+		this.statistics = statistics;
+
+		int depth = reader.getDepth();
+		while (reader.nextChild(depth)) {
+			if (reader.getName().equals("gameSettings")) {
+				gameSettings = new GameSettings();
+				gameSettings.fillFromXml(reader.readTree());
+			}
+		}
+	}
+
 	private void saveProfilesFile(XmlTree profiles) {
 		try {
 			new XmlHelper().saveXml(profiles, FileManager.getProfilesFile());
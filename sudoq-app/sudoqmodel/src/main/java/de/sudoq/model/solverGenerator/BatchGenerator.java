@@ -0,0 +1,503 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.solverGenerator;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.solverGenerator.solver.ComplexityRelation;
+import de.sudoq.model.solverGenerator.solver.Solver;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.SudokuBinaryFormat;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.SudokuXmlHandler;
+
+/**
+ * Ein Kommandozeilenwerkzeug, welches ohne die App einen Sudoku-Vorrat
+ * (sudokus/&lt;typ&gt;/&lt;schwierigkeit&gt;/sudoku_N.xml) füllt. Für jede
+ * Kombination aus Sudokutyp und Schwierigkeit wird die gewünschte Anzahl an
+ * Sudokus parallel auf allen Prozessorkernen generiert und im Format des
+ * {@link SudokuXmlHandler}s oder, mit -binary, im {@link SudokuBinaryFormat}
+ * gespeichert. Im Anschluss werden Durchsatz und die
+ * Verteilung der Schwierigkeitswerte ausgegeben.
+ * 
+ * <pre>
+ * BatchGenerator &lt;sudokuDir&gt; &lt;anzahl&gt; [typ ...] [schwierigkeit ...] [-j threads] [-t sekunden] [-binary]
+ * </pre>
+ * 
+ * Das Verzeichnis muss die Typdateien (&lt;typ&gt;/&lt;typ&gt;.xml) bereits
+ * enthalten. Werden keine Typen oder Schwierigkeiten angegeben, so werden alle
+ * Typen bzw. alle spielbaren Schwierigkeiten generiert.
+ * 
+ * Abgebrochene Generierungen werden bis zu {@link #MAX_ATTEMPTS} Mal
+ * wiederholt. Fehlen danach noch Sudokus, so endet das Programm mit dem
+ * Rückgabewert 2.
+ */
+public class BatchGenerator {
+	/** Attributes */
+
+	/**
+	 * Die maximale Anzahl an Versuchen, ein einzelnes Sudoku zu generieren
+	 */
+	public static final int MAX_ATTEMPTS = 5;
+
+	/**
+	 * Die Anzahl der zu generierenden Sudokus je Typ und Schwierigkeit
+	 */
+	private final int count;
+
+	/**
+	 * Die zu generierenden Sudokutypen
+	 */
+	private final List<SudokuTypes> types;
+
+	/**
+	 * Die zu generierenden Schwierigkeiten
+	 */
+	private final List<Complexity> complexities;
+
+	/**
+	 * Die Anzahl gleichzeitig laufender Generierungen
+	 */
+	private final int threads;
+
+	/**
+	 * Die maximale Dauer einer einzelnen Generierung in Millisekunden
+	 */
+	private final long timeLimit;
+
+	/**
+	 * Die Ergebnisse je Typ und Schwierigkeit, in der Reihenfolge der Ausgabe
+	 */
+	private final List<Result> results;
+
+	/**
+	 * Gibt an, ob die Sudokus im Binärformat gespeichert werden
+	 */
+	private boolean binary;
+
+	/**
+	 * Die maximale Anzahl an Validierungen einer einzelnen Generierung
+	 */
+	private long iterationLimit = Generator.NO_LIMIT;
+
+	/**
+	 * Synchronisiert das Speichern, da der FileManager freie Sudoku-Ids nicht
+	 * threadsicher vergibt
+	 */
+	private final Object saveLock = new Object();
+
+	/** Constructors */
+
+	/**
+	 * Instanziiert einen neuen BatchGenerator. Der FileManager muss bereits auf
+	 * das zu füllende Sudoku-Verzeichnis initialisiert sein.
+	 * 
+	 * @param count
+	 *            Die Anzahl der Sudokus je Typ und Schwierigkeit
+	 * @param types
+	 *            Die zu generierenden Sudokutypen
+	 * @param complexities
+	 *            Die zu generierenden Schwierigkeiten
+	 * @param threads
+	 *            Die Anzahl gleichzeitig laufender Generierungen
+	 * @param timeLimit
+	 *            Die maximale Dauer einer Generierung in Millisekunden oder
+	 *            {@link Generator#NO_LIMIT}
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls count oder threads kleiner 1 oder eine
+	 *             der Listen leer ist
+	 */
+	public BatchGenerator(int count, List<SudokuTypes> types, List<Complexity> complexities, int threads, long timeLimit) {
+		if (count < 1 || threads < 1 || types.isEmpty() || complexities.isEmpty())
+			throw new IllegalArgumentException("nothing to generate");
+		this.count = count;
+		this.types = types;
+		this.complexities = complexities;
+		this.threads = threads;
+		this.timeLimit = timeLimit;
+		this.results = new ArrayList<Result>();
+	}
+
+	/** Methods */
+
+	/**
+	 * Legt fest, ob die Sudokus statt als XML im Binärformat gespeichert
+	 * werden.
+	 * 
+	 * @param binary
+	 *            true, falls im Binärformat gespeichert werden soll
+	 * @see SudokuBinaryFormat
+	 */
+	public void setBinary(boolean binary) {
+		this.binary = binary;
+	}
+
+	/**
+	 * Legt die maximale Anzahl an Validierungen einer einzelnen Generierung
+	 * fest.
+	 * 
+	 * @param validations
+	 *            Die maximale Anzahl an Validierungen oder
+	 *            {@link Generator#NO_LIMIT}
+	 * @see Generator#setIterationLimit(long)
+	 */
+	public void setIterationLimit(long validations) {
+		this.iterationLimit = validations;
+	}
+
+	/**
+	 * Generiert und speichert alle Sudokus und blockiert, bis alle
+	 * Generierungen beendet sind.
+	 * 
+	 * @return Die Ergebnisse je Typ und Schwierigkeit
+	 * @throws InterruptedException
+	 *             Wird geworfen, falls der aufrufende Thread unterbrochen wird
+	 */
+	public List<Result> run() throws InterruptedException {
+		// Position caches its instances lazily, initialise it before the workers start
+		Position.get(0, 0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (SudokuTypes type : types) {
+			for (Complexity complexity : complexities) {
+				new File(FileManager.getSudokuDir(), type.toString() + File.separator + complexity.toString()).mkdirs();
+				Result result = new Result(type, complexity, count);
+				results.add(result);
+				for (int i = 0; i < count; i++) {
+					executor.execute(new Job(result));
+				}
+			}
+		}
+		executor.shutdown();
+		while (!executor.awaitTermination(1, TimeUnit.SECONDS))
+			;
+		return results;
+	}
+
+	/**
+	 * Gibt zurück, ob für jede Kombination aus Typ und Schwierigkeit die
+	 * gewünschte Anzahl an Sudokus generiert wurde.
+	 * 
+	 * @return true, falls keine Sudokus fehlen
+	 */
+	public boolean isComplete() {
+		for (Result r : results) {
+			if (r.getMissing() > 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gibt die Ergebnisse sowie den Durchsatz auf dem spezifizierten Stream
+	 * aus.
+	 * 
+	 * @param out
+	 *            Der Stream für die Ausgabe
+	 * @param millis
+	 *            Die Gesamtdauer der Generierung in Millisekunden
+	 */
+	public void printReport(PrintStream out, long millis) {
+		int generated = 0;
+		int failed = 0;
+		int missing = 0;
+		for (Result r : results) {
+			out.println(r);
+			generated += r.getGenerated();
+			failed += r.getFailed();
+			missing += r.getMissing();
+		}
+		double seconds = Math.max(millis, 1) / 1000.0;
+		out.println(String.format("%d sudokus generated, %d failed, %d missing, %d threads, %.1f s, %.2f sudokus/s",
+				generated, failed, missing, threads, seconds, generated / seconds));
+	}
+
+	/**
+	 * Speichert das spezifizierte Sudoku unter der nächsten freien Id.
+	 */
+	private void save(Sudoku sudoku) {
+		synchronized (saveLock) {
+			if (binary)
+				SudokuBinaryFormat.save(sudoku);
+			else
+				new SudokuXmlHandler().saveAsXml(sudoku);
+		}
+	}
+
+	/**
+	 * Generiert ein einzelnes Sudoku, ermittelt dessen Schwierigkeitswert und
+	 * speichert es. Abgebrochene Generierungen werden bis zu
+	 * {@link #MAX_ATTEMPTS} Mal wiederholt.
+	 */
+	private class Job implements Runnable, GeneratorProgressCallback {
+
+		private final Result result;
+		private Sudoku sudoku;
+		private GenerationFailure failure;
+		private boolean done;
+
+		Job(Result result) {
+			this.result = result;
+		}
+
+		public void run() {
+			long start = System.currentTimeMillis();
+			for (int attempt = 0; attempt < MAX_ATTEMPTS && sudoku == null; attempt++) {
+				if (!generate())
+					return;
+				if (sudoku == null)
+					result.addFailure(failure);
+			}
+			if (sudoku == null)
+				return;
+			Solver solver = new Solver(sudoku);
+			ComplexityRelation rel = solver.validate(null, false);
+			save(sudoku);
+			result.addSudoku(solver.getComplexityValue(), rel, System.currentTimeMillis() - start);
+		}
+
+		/**
+		 * Startet eine Generierung und wartet auf deren Ende.
+		 * 
+		 * @return false, falls der Thread unterbrochen wurde
+		 */
+		private boolean generate() {
+			synchronized (this) {
+				failure = null;
+				done = false;
+			}
+			Generator generator = new Generator();
+			generator.setTimeLimit(timeLimit);
+			generator.setIterationLimit(iterationLimit);
+			generator.startGeneration(result.type, result.complexity, this);
+			synchronized (this) {
+				while (!done) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		public synchronized void generationFinished(Sudoku sudoku) {
+			this.sudoku = sudoku;
+			this.done = true;
+			notifyAll();
+		}
+
+		public void generationProgress(GenerationHandle handle, int definedFields, ComplexityRelation lastRelation) {
+		}
+
+		public synchronized void generationFailed(GenerationHandle handle, GenerationFailure reason) {
+			this.failure = reason;
+			this.done = true;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Die gesammelten Ergebnisse für eine Kombination aus Typ und
+	 * Schwierigkeit.
+	 */
+	public static class Result {
+
+		private final SudokuTypes type;
+		private final Complexity complexity;
+		private final int count;
+		private final List<Integer> complexityValues = new ArrayList<Integer>();
+		private final Map<GenerationFailure, Integer> failures = new EnumMap<GenerationFailure, Integer>(
+				GenerationFailure.class);
+		private int notSaturated;
+		private int failed;
+		private long millis;
+
+		Result(SudokuTypes type, Complexity complexity, int count) {
+			this.type = type;
+			this.complexity = complexity;
+			this.count = count;
+		}
+
+		synchronized void addSudoku(int complexityValue, ComplexityRelation rel, long millis) {
+			complexityValues.add(complexityValue);
+			if (rel != ComplexityRelation.CONSTRAINT_SATURATION)
+				notSaturated++;
+			this.millis += millis;
+		}
+
+		synchronized void addFailure(GenerationFailure reason) {
+			if (reason == null)
+				reason = GenerationFailure.ERROR;
+			Integer n = failures.get(reason);
+			failures.put(reason, n == null ? 1 : n + 1);
+			failed++;
+		}
+
+		/**
+		 * Gibt die Anzahl der generierten Sudokus zurück.
+		 * 
+		 * @return Die Anzahl der generierten Sudokus
+		 */
+		public synchronized int getGenerated() {
+			return complexityValues.size();
+		}
+
+		/**
+		 * Gibt die Anzahl der abgebrochenen Generierungen zurück.
+		 * 
+		 * @return Die Anzahl der abgebrochenen Generierungen
+		 */
+		public synchronized int getFailed() {
+			return failed;
+		}
+
+		/**
+		 * Gibt die Anzahl der aus dem spezifizierten Grund abgebrochenen
+		 * Generierungen zurück.
+		 * 
+		 * @param reason
+		 *            Der Grund des Abbruchs
+		 * @return Die Anzahl der aus diesem Grund abgebrochenen Generierungen
+		 */
+		public synchronized int getFailed(GenerationFailure reason) {
+			Integer n = failures.get(reason);
+			return n == null ? 0 : n;
+		}
+
+		/**
+		 * Gibt die Anzahl der Sudokus zurück, die auch nach
+		 * {@link BatchGenerator#MAX_ATTEMPTS} Versuchen nicht generiert werden
+		 * konnten.
+		 * 
+		 * @return Die Anzahl der fehlenden Sudokus
+		 */
+		public synchronized int getMissing() {
+			return count - complexityValues.size();
+		}
+
+		/**
+		 * Gibt die sortierten Schwierigkeitswerte der generierten Sudokus
+		 * zurück.
+		 * 
+		 * @return Die sortierten Schwierigkeitswerte
+		 */
+		public synchronized List<Integer> getComplexityValues() {
+			List<Integer> sorted = new ArrayList<Integer>(complexityValues);
+			Collections.sort(sorted);
+			return sorted;
+		}
+
+		/**
+		 * Gibt eine Zeile mit Anzahl, Abbruchgründen, mittlerer Dauer und den
+		 * Quartilen der Schwierigkeitswerte zurück.
+		 */
+		@Override
+		public synchronized String toString() {
+			List<Integer> values = getComplexityValues();
+			StringBuilder sb = new StringBuilder();
+			sb.append(type).append(' ').append(complexity).append(": ");
+			sb.append(values.size()).append(" generated, ").append(failed).append(" failed");
+			if (!failures.isEmpty())
+				sb.append(' ').append(failures);
+			if (getMissing() > 0)
+				sb.append(", ").append(getMissing()).append(" missing");
+			if (!values.isEmpty()) {
+				sb.append(", ").append(millis / values.size()).append(" ms avg");
+				sb.append(", complexity min/q1/median/q3/max ");
+				int n = values.size() - 1;
+				sb.append(values.get(0)).append('/').append(values.get(n / 4)).append('/');
+				sb.append(values.get(n / 2)).append('/').append(values.get(3 * n / 4)).append('/');
+				sb.append(values.get(n));
+			}
+			if (notSaturated > 0)
+				sb.append(", ").append(notSaturated).append(" outside of constraint");
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Startet die Generierung von der Kommandozeile.
+	 * 
+	 * @param args
+	 *            &lt;sudokuDir&gt; &lt;anzahl&gt; [typ ...] [schwierigkeit ...]
+	 *            [-j threads] [-t sekunden] [-binary]
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length < 2) {
+			System.err.println("usage: BatchGenerator <sudokuDir> <count> [type ...] [complexity ...] [-j threads] [-t seconds] [-binary]");
+			System.exit(1);
+		}
+		File sudokuDir = new File(args[0]);
+		int count = Integer.parseInt(args[1]);
+		List<SudokuTypes> types = new ArrayList<SudokuTypes>();
+		List<Complexity> complexities = new ArrayList<Complexity>();
+		int threads = Runtime.getRuntime().availableProcessors();
+		long timeLimit = Generator.NO_LIMIT;
+		boolean binary = false;
+
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].equals("-j")) {
+				threads = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-t")) {
+				timeLimit = Long.parseLong(args[++i]) * 1000;
+			} else if (args[i].equals("-binary")) {
+				binary = true;
+			} else if (isEnumConstant(SudokuTypes.class, args[i])) {
+				types.add(SudokuTypes.valueOf(args[i]));
+			} else if (isEnumConstant(Complexity.class, args[i])) {
+				complexities.add(Complexity.valueOf(args[i]));
+			} else {
+				throw new IllegalArgumentException("unknown argument: " + args[i]);
+			}
+		}
+		if (types.isEmpty())
+			types.addAll(Arrays.asList(SudokuTypes.values()));
+		if (complexities.isEmpty())
+			for (Complexity c : Complexity.playableValues())
+				complexities.add(c);
+
+		FileManager.initialize(new File(System.getProperty("java.io.tmpdir")), sudokuDir);
+
+		BatchGenerator batch = new BatchGenerator(count, types, complexities, threads, timeLimit);
+		batch.setBinary(binary);
+		long start = System.currentTimeMillis();
+		batch.run();
+		batch.printReport(System.out, System.currentTimeMillis() - start);
+		if (!batch.isComplete()) {
+			System.err.println("not all sudokus could be generated");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Überprüft, ob der spezifizierte Name eine Konstante des Enums ist.
+	 */
+	private static <E extends Enum<E>> boolean isEnumConstant(Class<E> enumType, String name) {
+		for (E e : enumType.getEnumConstants()) {
+			if (e.name().equals(name))
+				return true;
+		}
+		return false;
+	}
+}
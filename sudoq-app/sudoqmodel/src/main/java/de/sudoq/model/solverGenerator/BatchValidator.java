@@ -0,0 +1,527 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.solverGenerator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.solverGenerator.solver.ComplexityRelation;
+import de.sudoq.model.solverGenerator.solver.Solver;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.PositionMap;
+import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.SudokuBinaryFormat;
+import de.sudoq.model.sudoku.SudokuBuilder;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.XmlPullReader;
+
+/**
+ * Ein Kommandozeilenwerkzeug, welches einen Sudoku-Vorrat ohne die App
+ * überprüft. Jedes Sudoku unterhalb eines sudokus-Verzeichnisses oder jede
+ * Zeile einer Textdatei (ein Sudoku je Zeile) wird parallel vom {@link Solver}
+ * validiert; gespeicherte Sudokus dürfen im XML- oder im Binärformat vorliegen.
+ * Für jedes Sudoku wird eine Zeile ausgegeben, die Eindeutigkeit,
+ * die {@link ComplexityRelation} zur angegebenen Schwierigkeit, den
+ * Schwierigkeitswert, das Histogramm der Lösungstechniken und die benötigte
+ * Zeit enthält. Die Zeilen erscheinen in der Reihenfolge der Eingabe, sodass
+ * zwei Läufe, etwa vor und nach einer Änderung der Gewichte im Solver, mit
+ * diff verglichen werden können.
+ * 
+ * <pre>
+ * BatchValidator &lt;sudokuDir&gt; [gridDatei] [-j threads] [-type typ] [-c schwierigkeit] [-notime]
+ * </pre>
+ * 
+ * In einer Textdatei steht jedes Zeichen einer Zeile für ein Feld, zeilenweise
+ * von links oben nach rechts unten. Die Symbole sind 1-9 und danach A-Z, leere
+ * Felder werden durch 0 oder . dargestellt. Leere Zeilen und Zeilen, die mit #
+ * beginnen, werden übersprungen. Das sudokus-Verzeichnis wird auch dann für die
+ * Typdefinitionen benötigt.
+ */
+public class BatchValidator {
+	/** Attributes */
+
+	/**
+	 * Die Anzahl der Sudokus, die höchstens gleichzeitig auf ihre Ausgabe
+	 * warten, je Thread
+	 */
+	private static final int PENDING_PER_THREAD = 64;
+
+	/**
+	 * Die Anzahl gleichzeitig laufender Validierungen
+	 */
+	private final int threads;
+
+	/**
+	 * Gibt an, ob die benötigte Zeit mit ausgegeben werden soll
+	 */
+	private final boolean timed;
+
+	/**
+	 * Der Stream für die Ergebniszeilen
+	 */
+	private final PrintStream out;
+
+	/**
+	 * Die Anzahl der Sudokus je Ergebnis
+	 */
+	private final Map<ComplexityRelation, Integer> relations;
+
+	/**
+	 * Die Anzahl der nicht eindeutig lösbaren Sudokus
+	 */
+	private int ambiguous;
+
+	/**
+	 * Die Anzahl der nicht lesbaren Sudokus
+	 */
+	private int malformed;
+
+	/** Constructors */
+
+	/**
+	 * Instanziiert einen neuen BatchValidator. Der FileManager muss bereits auf
+	 * das Sudoku-Verzeichnis initialisiert sein.
+	 * 
+	 * @param threads
+	 *            Die Anzahl gleichzeitig laufender Validierungen
+	 * @param timed
+	 *            Gibt an, ob die benötigte Zeit je Sudoku ausgegeben wird
+	 * @param out
+	 *            Der Stream für die Ergebniszeilen
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls threads kleiner 1 oder out null ist
+	 */
+	public BatchValidator(int threads, boolean timed, PrintStream out) {
+		if (threads < 1 || out == null)
+			throw new IllegalArgumentException();
+		this.threads = threads;
+		this.timed = timed;
+		this.out = out;
+		this.relations = new EnumMap<ComplexityRelation, Integer>(ComplexityRelation.class);
+	}
+
+	/** Methods */
+
+	/**
+	 * Validiert alle Sudokus eines sudokus-Verzeichnisses in der Form
+	 * &lt;typ&gt;/&lt;schwierigkeit&gt;/sudoku_N.xml.
+	 * 
+	 * @param sudokuDir
+	 *            Das sudokus-Verzeichnis
+	 * @throws InterruptedException
+	 *             Wird geworfen, falls der aufrufende Thread unterbrochen wird
+	 */
+	public void validateDirectory(File sudokuDir) throws InterruptedException {
+		Position.get(0, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		LinkedList<Future<String>> pending = new LinkedList<Future<String>>();
+		try {
+			for (String type : sortedList(sudokuDir)) {
+				File typeDir = new File(sudokuDir, type);
+				if (!typeDir.isDirectory())
+					continue;
+				for (String complexity : sortedList(typeDir)) {
+					File complexityDir = new File(typeDir, complexity);
+					if (!complexityDir.isDirectory())
+						continue;
+					for (String name : sortedList(complexityDir)) {
+						if (name.startsWith("sudoku_")
+								&& (name.endsWith(".xml") || name.endsWith(SudokuBinaryFormat.FILE_SUFFIX))) {
+							String id = type + "/" + complexity + "/" + name;
+							submit(executor, pending, new FileJob(id, new File(complexityDir, name)));
+						}
+					}
+				}
+			}
+			drain(pending, 0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Validiert alle Sudokus einer Textdatei mit einem Sudoku je Zeile.
+	 * 
+	 * @param gridFile
+	 *            Die Textdatei
+	 * @param type
+	 *            Der Typ aller Sudokus der Datei
+	 * @param complexity
+	 *            Die Schwierigkeit, gegen die validiert werden soll
+	 * @throws IOException
+	 *             Wird geworfen, falls die Datei nicht gelesen werden kann
+	 * @throws InterruptedException
+	 *             Wird geworfen, falls der aufrufende Thread unterbrochen wird
+	 */
+	public void validateGridFile(File gridFile, SudokuTypes type, Complexity complexity) throws IOException,
+			InterruptedException {
+		Position.get(0, 0);
+		SudokuType sudokuType = SudokuBuilder.createType(type);
+		List<Position> positions = gridPositions(sudokuType);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		LinkedList<Future<String>> pending = new LinkedList<Future<String>>();
+		BufferedReader reader = new BufferedReader(new FileReader(gridFile));
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("#"))
+					continue;
+				submit(executor, pending, new GridJob("line " + lineNumber, sudokuType, positions, complexity, line));
+			}
+			drain(pending, 0);
+		} finally {
+			reader.close();
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gibt eine Zusammenfassung der bisher validierten Sudokus auf dem
+	 * spezifizierten Stream aus.
+	 * 
+	 * @param summary
+	 *            Der Stream für die Zusammenfassung
+	 * @param millis
+	 *            Die Gesamtdauer der Validierung in Millisekunden
+	 */
+	public void printSummary(PrintStream summary, long millis) {
+		int total = malformed;
+		for (Map.Entry<ComplexityRelation, Integer> e : relations.entrySet()) {
+			summary.println(e.getKey() + ": " + e.getValue());
+			total += e.getValue();
+		}
+		double seconds = Math.max(millis, 1) / 1000.0;
+		summary.println(String.format("%d sudokus, %d ambiguous, %d malformed, %d threads, %.1f s, %.2f sudokus/s",
+				total, ambiguous, malformed, threads, seconds, total / seconds));
+	}
+
+	/**
+	 * Reiht die spezifizierte Validierung ein und gibt bereits fertige
+	 * Ergebnisse aus, sobald zu viele auf ihre Ausgabe warten.
+	 */
+	private void submit(ExecutorService executor, LinkedList<Future<String>> pending, Callable<String> job)
+			throws InterruptedException {
+		pending.add(executor.submit(job));
+		drain(pending, threads * PENDING_PER_THREAD);
+	}
+
+	/**
+	 * Gibt die Ergebnisse in der Reihenfolge der Eingabe aus, bis höchstens
+	 * noch keep Validierungen ausstehen.
+	 */
+	private void drain(LinkedList<Future<String>> pending, int keep) throws InterruptedException {
+		while (pending.size() > keep) {
+			try {
+				out.println(pending.removeFirst().get());
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Validiert das spezifizierte Sudoku und gibt die zugehörige Ergebniszeile
+	 * zurück. Die Spalten sind durch Tabulatoren getrennt: Bezeichner,
+	 * Schwierigkeit, Eindeutigkeit, ComplexityRelation, Schwierigkeitswert,
+	 * Histogramm der Lösungstechniken und optional die Dauer in Millisekunden.
+	 * 
+	 * @param id
+	 *            Der Bezeichner des Sudokus in der Ausgabe
+	 * @param sudoku
+	 *            Das zu validierende Sudoku
+	 * @param timed
+	 *            Gibt an, ob die Dauer angehängt werden soll
+	 * @return Die Ergebniszeile
+	 */
+	static String validate(String id, Sudoku sudoku, boolean timed) {
+		return evaluate(id, sudoku, timed).line;
+	}
+
+	/**
+	 * Validiert das spezifizierte Sudoku und gibt das Ergebnis zusammen mit
+	 * der Ergebniszeile zurück, siehe {@link #validate(String, Sudoku, boolean)}.
+	 */
+	private static Result evaluate(String id, Sudoku sudoku, boolean timed) {
+		long start = System.currentTimeMillis();
+		Solver solver = new Solver(sudoku);
+		ComplexityRelation rel = solver.validate(null, false);
+		int complexityValue = solver.getComplexityValue();
+		StringBuilder histogram = new StringBuilder();
+		for (Map.Entry<String, Integer> e : solver.getHelperHistogram().entrySet()) {
+			if (e.getValue() > 0) {
+				if (histogram.length() > 0)
+					histogram.append(',');
+				histogram.append(e.getKey()).append('=').append(e.getValue());
+			}
+		}
+		boolean unique = solver.hasUniqueSolution();
+
+		StringBuilder sb = new StringBuilder(id);
+		sb.append('\t').append(sudoku.getComplexity());
+		sb.append('\t').append(unique ? "unique" : "ambiguous");
+		sb.append('\t').append(rel);
+		sb.append('\t').append(complexityValue);
+		sb.append('\t').append(histogram.length() > 0 ? histogram : "-");
+		if (timed)
+			sb.append('\t').append(System.currentTimeMillis() - start).append(" ms");
+		return new Result(rel, unique, sb.toString());
+	}
+
+	/**
+	 * Erzeugt ein Sudoku aus einer Zeile einer Textdatei.
+	 * 
+	 * @param type
+	 *            Der Typ des Sudokus
+	 * @param positions
+	 *            Die Positionen des Typs in der Reihenfolge der Zeichen
+	 * @param line
+	 *            Die Zeile mit einem Zeichen je Feld
+	 * @return Das Sudoku mit den Vorgaben der Zeile
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die Zeile nicht zum Typ passt
+	 */
+	static Sudoku parseGrid(SudokuType type, List<Position> positions, String line) {
+		if (line.length() != positions.size())
+			throw new IllegalArgumentException("expected " + positions.size() + " fields, found " + line.length());
+		PositionMap<Integer> solutions = new PositionMap<Integer>(type.getSize());
+		PositionMap<Boolean> setValues = new PositionMap<Boolean>(type.getSize());
+		for (int i = 0; i < line.length(); i++) {
+			char c = Character.toUpperCase(line.charAt(i));
+			int value;
+			if (c == '0' || c == '.')
+				continue;
+			else if (c >= '1' && c <= '9')
+				value = c - '1';
+			else if (c >= 'A' && c <= 'Z')
+				value = c - 'A' + 9;
+			else
+				throw new IllegalArgumentException("illegal symbol: " + c);
+			if (value >= type.getNumberOfSymbols())
+				throw new IllegalArgumentException("illegal symbol: " + c);
+			solutions.put(positions.get(i), value);
+			setValues.put(positions.get(i), true);
+		}
+		return new Sudoku(type, solutions, setValues);
+	}
+
+	/**
+	 * Gibt die Positionen aller Felder des spezifizierten Typs zeilenweise
+	 * von links oben nach rechts unten zurück.
+	 * 
+	 * @param type
+	 *            Der Sudokutyp
+	 * @return Die Positionen aller Felder
+	 */
+	static List<Position> gridPositions(SudokuType type) {
+		Sudoku empty = new Sudoku(type);
+		List<Position> positions = new ArrayList<Position>();
+		for (int y = 0; y < type.getSize().getY(); y++) {
+			for (int x = 0; x < type.getSize().getX(); x++) {
+				Position p = Position.get(x, y);
+				if (empty.getField(p) != null)
+					positions.add(p);
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Zählt das Ergebnis einer Ergebniszeile für die Zusammenfassung.
+	 */
+	private synchronized void count(ComplexityRelation rel, boolean unique) {
+		Integer n = relations.get(rel);
+		relations.put(rel, n == null ? 1 : n + 1);
+		if (!unique)
+			ambiguous++;
+	}
+
+	/**
+	 * Zählt ein nicht lesbares Sudoku für die Zusammenfassung.
+	 */
+	private synchronized void countMalformed() {
+		malformed++;
+	}
+
+	/**
+	 * Validiert ein Sudoku und zählt dessen Ergebnis.
+	 */
+	private String validateAndCount(String id, Sudoku sudoku) {
+		Result result = evaluate(id, sudoku, timed);
+		count(result.relation, result.unique);
+		return result.line;
+	}
+
+	/**
+	 * Gibt die Ergebniszeile für ein nicht lesbares Sudoku zurück.
+	 */
+	private String malformed(String id, Exception e) {
+		countMalformed();
+		return id + "\tmalformed\t" + e.getMessage();
+	}
+
+	/**
+	 * Gibt die sortierten Einträge des spezifizierten Verzeichnisses zurück.
+	 */
+	private static List<String> sortedList(File dir) {
+		String[] names = dir.list();
+		if (names == null)
+			return new ArrayList<String>();
+		Arrays.sort(names);
+		return Arrays.asList(names);
+	}
+
+	/**
+	 * Validiert ein im XML- oder Binärformat gespeichertes Sudoku.
+	 */
+	private class FileJob implements Callable<String> {
+
+		private final String id;
+		private final File file;
+
+		FileJob(String id, File file) {
+			this.id = id;
+			this.file = file;
+		}
+
+		public String call() {
+			Sudoku sudoku;
+			try {
+				if (SudokuBinaryFormat.isBinaryFile(file)) {
+					sudoku = SudokuBinaryFormat.load(file);
+				} else {
+					SudokuTypes type = SudokuTypes.valueOf(file.getParentFile().getParentFile().getName());
+					sudoku = new Sudoku(SudokuBuilder.createType(type));
+					XmlPullReader reader = XmlPullReader.open(file);
+					try {
+						sudoku.fillFromXml(reader);
+					} finally {
+						reader.close();
+					}
+				}
+			} catch (Exception e) {
+				return malformed(id, e);
+			}
+			return validateAndCount(id, sudoku);
+		}
+	}
+
+	/**
+	 * Das Ergebnis der Validierung eines Sudokus
+	 */
+	private static class Result {
+
+		private final ComplexityRelation relation;
+		private final boolean unique;
+		private final String line;
+
+		Result(ComplexityRelation relation, boolean unique, String line) {
+			this.relation = relation;
+			this.unique = unique;
+			this.line = line;
+		}
+	}
+
+	/**
+	 * Validiert eine Zeile einer Textdatei.
+	 */
+	private class GridJob implements Callable<String> {
+
+		private final String id;
+		private final SudokuType type;
+		private final List<Position> positions;
+		private final Complexity complexity;
+		private final String line;
+
+		GridJob(String id, SudokuType type, List<Position> positions, Complexity complexity, String line) {
+			this.id = id;
+			this.type = type;
+			this.positions = positions;
+			this.complexity = complexity;
+			this.line = line;
+		}
+
+		public String call() {
+			Sudoku sudoku;
+			try {
+				sudoku = parseGrid(type, positions, line);
+			} catch (IllegalArgumentException e) {
+				return malformed(id, e);
+			}
+			sudoku.setComplexity(complexity);
+			return validateAndCount(id, sudoku);
+		}
+	}
+
+	/**
+	 * Startet die Validierung von der Kommandozeile. Die Ergebniszeilen werden
+	 * auf der Standardausgabe, die Zusammenfassung auf der Fehlerausgabe
+	 * ausgegeben.
+	 * 
+	 * @param args
+	 *            &lt;sudokuDir&gt; [gridDatei] [-j threads] [-type typ] [-c
+	 *            schwierigkeit] [-notime]
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 1) {
+			System.err.println("usage: BatchValidator <sudokuDir> [gridFile] [-j threads] [-type type] [-c complexity] [-notime]");
+			System.exit(1);
+		}
+		File sudokuDir = new File(args[0]);
+		File gridFile = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		SudokuTypes type = SudokuTypes.standard9x9;
+		Complexity complexity = Complexity.infernal;
+		boolean timed = true;
+
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-j")) {
+				threads = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-type")) {
+				type = SudokuTypes.valueOf(args[++i]);
+			} else if (args[i].equals("-c")) {
+				complexity = Complexity.valueOf(args[++i]);
+			} else if (args[i].equals("-notime")) {
+				timed = false;
+			} else if (gridFile == null) {
+				gridFile = new File(args[i]);
+			} else {
+				throw new IllegalArgumentException("unknown argument: " + args[i]);
+			}
+		}
+
+		FileManager.initialize(new File(System.getProperty("java.io.tmpdir")), sudokuDir);
+
+		BatchValidator validator = new BatchValidator(threads, timed, System.out);
+		long start = System.currentTimeMillis();
+		if (gridFile == null)
+			validator.validateDirectory(sudokuDir);
+		else
+			validator.validateGridFile(gridFile, type, complexity);
+		validator.printSummary(System.err, System.currentTimeMillis() - start);
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.solverGenerator;
+
+/**
+ * Ein Enum, das die Gründe beschreibt, aus denen eine Generierung ohne
+ * Ergebnis abgebrochen wurde.
+ * 
+ * @see GeneratorProgressCallback#generationFailed(GenerationHandle, GenerationFailure)
+ */
+public enum GenerationFailure {
+	/**
+	 * Die Generierung wurde über {@link GenerationHandle#cancel()} abgebrochen
+	 */
+	CANCELLED,
+
+	/**
+	 * Das Zeitbudget der Generierung wurde überschritten
+	 */
+	TIME_LIMIT_EXCEEDED,
+
+	/**
+	 * Die maximale Anzahl an Validierungen wurde überschritten
+	 */
+	ITERATION_LIMIT_EXCEEDED,
+
+	/**
+	 * Während der Generierung ist ein unerwarteter Fehler aufgetreten
+	 */
+	ERROR
+}
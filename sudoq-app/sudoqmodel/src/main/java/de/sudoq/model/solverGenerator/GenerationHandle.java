@@ -0,0 +1,185 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.solverGenerator;
+
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+/**
+ * Ein Handle auf eine laufende Generierung des {@link Generator}s. Über dieses
+ * kann die Generierung abgebrochen und ihr Fortschritt abgefragt werden.
+ * Zusätzlich hält es das Zeit- und Validierungsbudget, das beim Start der
+ * Generierung festgelegt wurde.
+ */
+public class GenerationHandle {
+	/** Attributes */
+
+	/**
+	 * Der Typ des zu generierenden Sudokus
+	 */
+	private final SudokuTypes type;
+
+	/**
+	 * Die Schwierigkeit des zu generierenden Sudokus
+	 */
+	private final Complexity complexity;
+
+	/**
+	 * Die maximale Dauer der Generierung in Millisekunden oder
+	 * {@link Generator#NO_LIMIT}
+	 */
+	private final long timeLimit;
+
+	/**
+	 * Die maximale Anzahl an Validierungen oder {@link Generator#NO_LIMIT}
+	 */
+	private final long iterationLimit;
+
+	/**
+	 * Der Startzeitpunkt der Generierung
+	 */
+	private final long startTime;
+
+	/**
+	 * Die Anzahl der bisher durchgeführten Validierungen
+	 */
+	private volatile int validations;
+
+	/**
+	 * Gibt an, ob die Generierung abgebrochen werden soll
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Gibt an, ob die Generierung beendet ist, egal ob erfolgreich oder nicht
+	 */
+	private volatile boolean finished;
+
+	/** Constructors */
+
+	/**
+	 * Instanziiert ein neues Handle. Der Startzeitpunkt wird auf den aktuellen
+	 * Zeitpunkt gesetzt.
+	 * 
+	 * @param type
+	 *            Der Typ des zu generierenden Sudokus
+	 * @param complexity
+	 *            Die Schwierigkeit des zu generierenden Sudokus
+	 * @param timeLimit
+	 *            Die maximale Dauer in Millisekunden oder
+	 *            {@link Generator#NO_LIMIT}
+	 * @param iterationLimit
+	 *            Die maximale Anzahl an Validierungen oder
+	 *            {@link Generator#NO_LIMIT}
+	 */
+	GenerationHandle(SudokuTypes type, Complexity complexity, long timeLimit, long iterationLimit) {
+		this.type = type;
+		this.complexity = complexity;
+		this.timeLimit = timeLimit;
+		this.iterationLimit = iterationLimit;
+		this.startTime = System.currentTimeMillis();
+	}
+
+	/** Methods */
+
+	/**
+	 * Bricht die Generierung ab. Der Generator beendet sie beim nächsten
+	 * Prüfpunkt und ruft, falls vorhanden, generationFailed mit
+	 * {@link GenerationFailure#CANCELLED} auf. Ist die Generierung bereits
+	 * beendet, so passiert nichts.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Gibt zurück, ob die Generierung abgebrochen wurde.
+	 * 
+	 * @return true, falls cancel aufgerufen wurde, false andernfalls
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Gibt zurück, ob die Generierung beendet ist. Dies ist sowohl nach einer
+	 * erfolgreichen als auch nach einer abgebrochenen Generierung der Fall.
+	 * 
+	 * @return true, falls die Generierung beendet ist, false andernfalls
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Gibt die Anzahl der bisher durchgeführten Validierungen zurück.
+	 * 
+	 * @return Die Anzahl der Validierungen
+	 */
+	public int getValidations() {
+		return validations;
+	}
+
+	/**
+	 * Gibt die seit Start der Generierung vergangene Zeit in Millisekunden
+	 * zurück.
+	 * 
+	 * @return Die vergangene Zeit in Millisekunden
+	 */
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	/**
+	 * Gibt den Typ des zu generierenden Sudokus zurück.
+	 * 
+	 * @return Der Sudokutyp
+	 */
+	public SudokuTypes getType() {
+		return type;
+	}
+
+	/**
+	 * Gibt die Schwierigkeit des zu generierenden Sudokus zurück.
+	 * 
+	 * @return Die Schwierigkeit
+	 */
+	public Complexity getComplexity() {
+		return complexity;
+	}
+
+	/**
+	 * Zählt eine durchgeführte Validierung.
+	 */
+	void countValidation() {
+		validations++;
+	}
+
+	/**
+	 * Markiert die Generierung als beendet.
+	 */
+	void setFinished() {
+		finished = true;
+	}
+
+	/**
+	 * Überprüft, ob die Generierung fortgesetzt werden darf.
+	 * 
+	 * @return null, falls die Generierung fortgesetzt werden darf, andernfalls
+	 *         der Grund für den Abbruch
+	 */
+	GenerationFailure checkBudget() {
+		if (cancelled || Thread.currentThread().isInterrupted())
+			return GenerationFailure.CANCELLED;
+		if (timeLimit != Generator.NO_LIMIT && getElapsedTime() > timeLimit)
+			return GenerationFailure.TIME_LIMIT_EXCEEDED;
+		if (iterationLimit != Generator.NO_LIMIT && validations >= iterationLimit)
+			return GenerationFailure.ITERATION_LIMIT_EXCEEDED;
+		return null;
+	}
+}
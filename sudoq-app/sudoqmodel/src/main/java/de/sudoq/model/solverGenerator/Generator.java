@@ -41,8 +41,23 @@ import de.sudoq.model.sudoku.sudokuTypes.TypeStandard;
 public class Generator {
 	/** Attributes */
 
+	/**
+	 * Wert für Zeit- und Validierungsbudget, der keine Beschränkung bedeutet
+	 */
+	public static final long NO_LIMIT = -1;
+
 	private Random random;
 
+	/**
+	 * Die maximale Dauer einer Generierung in Millisekunden
+	 */
+	private long timeLimit = NO_LIMIT;
+
+	/**
+	 * Die maximale Anzahl an Validierungen während einer Generierung
+	 */
+	private long iterationLimit = NO_LIMIT;
+
 	/** Constructors */
 
 	/**
@@ -79,19 +94,74 @@ public class Generator {
 	 *         hinzugefügt werden konnte, false andernfalls
 	 */
 	public boolean generate(SudokuTypes type, Complexity complexity, GeneratorCallback callbackObject) {
+		return startGeneration(type, complexity, callbackObject) != null;
+	}
+
+	/**
+	 * Startet wie {@link #generate(SudokuTypes, Complexity, GeneratorCallback)}
+	 * die Generierung eines Sudokus in einem eigenen Thread und gibt ein Handle
+	 * zurück, über welches die Generierung abgebrochen werden kann. Die
+	 * Generierung wird mit dem aktuell gesetzten Zeit- und Validierungsbudget
+	 * ausgeführt. Wird eines davon überschritten, so wird die Generierung
+	 * abgebrochen. Ist das Callback-Objekt ein {@link GeneratorProgressCallback},
+	 * so wird es über den Fortschritt und über einen Abbruch benachrichtigt.
+	 * 
+	 * @param type
+	 *            Der SudokuTypes-Enum Wert, aus welchem ein Sudoku erstellt und
+	 *            generiert werden soll
+	 * @param complexity
+	 *            Die Komplexität des zu erstellenden Sudokus
+	 * @param callbackObject
+	 *            Das Objekt, dessen Callback-Methoden aufgerufen werden sollen
+	 * @return Das Handle der gestarteten Generierung oder null, falls eines der
+	 *         Argumente null ist
+	 */
+	public GenerationHandle startGeneration(SudokuTypes type, Complexity complexity, GeneratorCallback callbackObject) {
 		if (type == null || complexity == null || callbackObject == null)
-			return false;
+			return null;
 
 		// Create sudoku
 		Sudoku sudoku = new SudokuBuilder(type).createSudoku();
 		sudoku.setComplexity(complexity);
 
-		new Thread(new SudokuGeneration(sudoku, callbackObject, random)).start();
+		GenerationHandle handle = new GenerationHandle(type, complexity, timeLimit, iterationLimit);
+		new Thread(new SudokuGeneration(sudoku, callbackObject, random, handle)).start();
 
 		// Initiate new random object
 		random = new Random();
 
-		return true;
+		return handle;
+	}
+
+	/**
+	 * Setzt die maximale Dauer für alle folgenden Generierungen. Laufende
+	 * Generierungen sind davon nicht betroffen.
+	 * 
+	 * @param millis
+	 *            Die maximale Dauer in Millisekunden oder {@link #NO_LIMIT}
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls millis negativ und nicht NO_LIMIT ist
+	 */
+	public void setTimeLimit(long millis) {
+		if (millis < 0 && millis != NO_LIMIT)
+			throw new IllegalArgumentException("time limit < 0 : " + millis);
+		this.timeLimit = millis;
+	}
+
+	/**
+	 * Setzt die maximale Anzahl an Validierungen für alle folgenden
+	 * Generierungen. Laufende Generierungen sind davon nicht betroffen.
+	 * 
+	 * @param validations
+	 *            Die maximale Anzahl an Validierungen oder {@link #NO_LIMIT}
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls validations negativ und nicht NO_LIMIT
+	 *             ist
+	 */
+	public void setIterationLimit(long validations) {
+		if (validations < 0 && validations != NO_LIMIT)
+			throw new IllegalArgumentException("iteration limit < 0 : " + validations);
+		this.iterationLimit = validations;
 	}
 
 	/**
@@ -161,18 +231,124 @@ public class Generator {
 		 * Dimension von Sudoku in Y-Richtung
 		 */
 		protected int sudokuSizeY;
+
+		/**
+		 * Das Handle, über welches die Generierung abgebrochen werden kann
+		 */
+		protected GenerationHandle handle;
 		
-		public SudokuGenerationTopClass(Sudoku sudoku, GeneratorCallback callbackObject, Random random) {
+		public SudokuGenerationTopClass(Sudoku sudoku, GeneratorCallback callbackObject, Random random, GenerationHandle handle) {
 			this.sudoku = sudoku;
 			this.callbackObject = callbackObject;
 			this.solver = new Solver(sudoku);
 			this.freeFields = new ArrayList<Position>();
 			this.definedFields = new ArrayList<Position>();
 			this.random = random;
+			this.handle = handle;
 			this.sudokuSizeX = sudoku.getSudokuType().getSize().getX();
 			this.sudokuSizeY = sudoku.getSudokuType().getSize().getY();
 			
 		}
+
+		/**
+		 * Führt die Generierung aus und ruft danach die passende
+		 * Callback-Methode auf.
+		 */
+		public final void run() {
+			Sudoku res;
+			try {
+				res = generate();
+			} catch (GenerationAbortedException e) {
+				fail(e.reason);
+				return;
+			} catch (RuntimeException e) {
+				fail(GenerationFailure.ERROR);
+				if (!(callbackObject instanceof GeneratorProgressCallback))
+					throw e;
+				return;
+			}
+			handle.setFinished();
+			callbackObject.generationFinished(res);
+		}
+
+		/**
+		 * Die Methode, die die tatsächliche Generierung eines Sudokus mit der
+		 * gewünschten Komplexität ausführt.
+		 * 
+		 * @return Das generierte Sudoku
+		 * @throws GenerationAbortedException
+		 *             Wird geworfen, falls das Budget überschritten oder die
+		 *             Generierung abgebrochen wurde
+		 */
+		protected abstract Sudoku generate();
+
+		/**
+		 * Bricht die Generierung ab, falls das Budget überschritten oder die
+		 * Generierung über das Handle abgebrochen wurde.
+		 * 
+		 * @throws GenerationAbortedException
+		 *             Wird geworfen, falls die Generierung nicht fortgesetzt
+		 *             werden darf
+		 */
+		protected void checkBudget() {
+			GenerationFailure reason = handle.checkBudget();
+			if (reason != null)
+				throw new GenerationAbortedException(reason);
+		}
+
+		/**
+		 * Validiert das Sudoku mit dem Solver, zählt die Validierung und meldet
+		 * den Fortschritt an das Callback-Objekt.
+		 * 
+		 * @see Solver#validate(PositionMap, boolean)
+		 */
+		protected ComplexityRelation validate(PositionMap<Integer> solution, boolean in) {
+			checkBudget();
+			handle.countValidation();
+			ComplexityRelation rel = solver.validate(solution, in);
+			if (callbackObject instanceof GeneratorProgressCallback)
+				((GeneratorProgressCallback) callbackObject).generationProgress(handle, definedFields.size(), rel);
+			return rel;
+		}
+
+		/**
+		 * Löst das Sudoku ohne es zu verändern und zählt dies als Validierung.
+		 * 
+		 * @see Solver#solveAll(boolean, boolean)
+		 */
+		protected boolean solveAll() {
+			checkBudget();
+			handle.countValidation();
+			return solver.solveAll(false, false);
+		}
+
+		/**
+		 * Markiert die Generierung als beendet und benachrichtigt, falls
+		 * möglich, das Callback-Objekt über den Abbruch.
+		 */
+		private void fail(GenerationFailure reason) {
+			handle.setFinished();
+			if (callbackObject instanceof GeneratorProgressCallback)
+				((GeneratorProgressCallback) callbackObject).generationFailed(handle, reason);
+		}
+	}
+
+	/**
+	 * Wird innerhalb des Generierungs-Threads geworfen, um eine Generierung
+	 * abzubrechen.
+	 */
+	private static class GenerationAbortedException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Der Grund des Abbruchs
+		 */
+		private final GenerationFailure reason;
+
+		GenerationAbortedException(GenerationFailure reason) {
+			this.reason = reason;
+		}
 	}
 	
 	/**
@@ -200,16 +376,17 @@ public class Generator {
 		 *            der Generierung aufgerufen werden soll
 		 * @param random
 		 *            Das Zufallsobjekt zur Erzeugung des Sudokus
+		 * @param handle
+		 *            Das Handle, über das die Generierung abgebrochen wird
 		 */
-		public SudokuGenerationStandardType(Sudoku sudoku, GeneratorCallback callbackObject, Random random) {
-			super(sudoku, callbackObject, random);
+		public SudokuGenerationStandardType(Sudoku sudoku, GeneratorCallback callbackObject, Random random, GenerationHandle handle) {
+			super(sudoku, callbackObject, random, handle);
 		}
 
 		/**
-		 * Die Methode, die die tatsächliche Generierung eines Sudokus mit der
-		 * gewünschten Komplexität generiert.
+		 * {@inheritDoc}
 		 */
-		public void run() {
+		protected Sudoku generate() {
 			
 			
 			// Reset, if it takes too long
@@ -251,8 +428,8 @@ public class Generator {
 			/* For every Constraint
 			 *   if there is no position empty
 			 *       set one random position empty    */
-			ArrayList<Constraint> constraints = sudoku.getSudokuType().getConstraints();
-			ArrayList<Position> positions;
+			List<Constraint> constraints = sudoku.getSudokuType().getConstraints();
+			List<Position> positions;
 			boolean emptyOne;
 			for (Constraint c:constraints){
 				positions = c.getPositions();
@@ -285,6 +462,7 @@ public class Generator {
 
 			SolverSudoku solverSudoku = (SolverSudoku) solver.getSudoku();
 			while (counter >= 0 && definedFields.size() > constr.getAverageFields()) {
+				checkBudget();
 				counter--;
 				Position currentFieldPos = definedFields.get(nr);
 				sudoku.getField(currentFieldPos).setCurrentValue(Field.EMPTYVAL, false);
@@ -306,7 +484,7 @@ public class Generator {
 			ComplexityRelation rel = ComplexityRelation.INVALID;
 			while (rel != ComplexityRelation.CONSTRAINT_SATURATION) {
 			
-				rel = solver.validate(solutionMap, true);
+				rel = validate(solutionMap, true);
 
 				switch (rel) {
 				case MUCH_TO_EASY:
@@ -352,8 +530,7 @@ public class Generator {
 			Sudoku res = sudokuBuilder.createSudoku();           //the final sudoku
 			res.setComplexity(sudoku.getComplexity());
 
-			// Call the callback
-			callbackObject.generationFinished(res);
+			return res;
 		}
 
 		
@@ -425,9 +602,11 @@ public class Generator {
 		 *            der Generierung aufgerufen werden soll
 		 * @param random
 		 *            Das Zufallsobjekt zur Erzeugung des Sudokus
+		 * @param handle
+		 *            Das Handle, über das die Generierung abgebrochen wird
 		 */
-		public SudokuGeneration(Sudoku sudoku, GeneratorCallback callbackObject, Random random) {
-			super(sudoku, callbackObject, random);
+		public SudokuGeneration(Sudoku sudoku, GeneratorCallback callbackObject, Random random, GenerationHandle handle) {
+			super(sudoku, callbackObject, random, handle);
 
 			this.currentConstraint = sudoku.getSudokuType().buildComplexityConstraint(sudoku.getComplexity());
 
@@ -441,10 +620,9 @@ public class Generator {
 		}
 
 		/**
-		 * Die Methode, die die tatsächliche Generierung eines Sudokus mit der
-		 * gewünschten Komplexität generiert.
+		 * {@inheritDoc}
 		 */
-		public void run() {
+		protected Sudoku generate() {
 			// Calculate the number of fields to be filled
 			int fieldsByType = (int) (sudokuSizeX * sudokuSizeY * sudoku.getSudokuType().getStandardAllocationFactor()); //TODO wäre freeFields.size nicht passender?
 			int fieldsByComp = currentConstraint.getAverageFields();
@@ -465,6 +643,7 @@ public class Generator {
 				
 				// Define average number of fields
 				while (definedFields.size() < fieldsToDefine) {
+					checkBudget();
 					if (addDefinedField() == null) {								
 						for (int j = 0; j < 5 && definedFields.size() > 0; j++) {
 							removeDefinedField();
@@ -475,13 +654,13 @@ public class Generator {
 					System.out.println("direkt davor");
 					System.out.println("  defined:"+definedFields.size()+", "+"toDefine: "+fieldsToDefine);
 					}
-			}while(!solver.solveAll(false, false));
+			}while(!solveAll());
 			
 			System.out.println("Found one");
 
 			Complexity saveCompl = solver.getSudoku().getComplexity();
 			solver.getSudoku().setComplexity(Complexity.arbitrary);
-			solver.validate(solution, false);
+			validate(solution, false);
 			solver.getSudoku().setComplexity(saveCompl);
 
 			// Create the sudoku template generated before
@@ -513,7 +692,7 @@ public class Generator {
 
 			ComplexityRelation rel = ComplexityRelation.INVALID;
 			while (rel != ComplexityRelation.CONSTRAINT_SATURATION) {
-				rel = solver.validate(null, false);
+				rel = validate(null, false);
 
 				if (rel == ComplexityRelation.MUCH_TO_EASY) {
 					for (int i = 0; i < allocationFactor; i++)
@@ -531,7 +710,7 @@ public class Generator {
 				}
 			}
 
-			// Call the callback
+			// Create the final sudoku
 			SudokuBuilder suBi = new SudokuBuilder(sudoku.getSudokuType());
 			Position currentPos;
 			for (int x = 0; x < sudokuSizeX; x++) {
@@ -548,7 +727,7 @@ public class Generator {
 			}
 			Sudoku res = suBi.createSudoku();
 			res.setComplexity(sudoku.getComplexity());
-			callbackObject.generationFinished(res);
+			return res;
 		}
 
 		/**
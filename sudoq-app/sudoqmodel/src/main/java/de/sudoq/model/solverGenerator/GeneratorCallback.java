@@ -14,6 +14,8 @@ import de.sudoq.model.sudoku.Sudoku;
  * Generator zu benutzen. Dieser führt die Generierung in einem anderen Thread
  * aus und ruft die generationFinished-Methode dieses Callback-Objektes auf,
  * sobald er fertig ist.
+ * 
+ * @see GeneratorProgressCallback
  */
 public interface GeneratorCallback {
 	/** Methods */
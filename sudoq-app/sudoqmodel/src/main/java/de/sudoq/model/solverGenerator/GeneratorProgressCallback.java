@@ -0,0 +1,45 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.solverGenerator;
+
+import de.sudoq.model.solverGenerator.solver.ComplexityRelation;
+
+/**
+ * Eine Erweiterung des {@link GeneratorCallback}, über die der Generator den
+ * Fortschritt einer laufenden Generierung meldet und einen Abbruch mitteilt.
+ * Wird dem Generator ein Objekt dieses Typs übergeben, so werden die
+ * zusätzlichen Methoden aus dem Generierungs-Thread heraus aufgerufen.
+ */
+public interface GeneratorProgressCallback extends GeneratorCallback {
+	/** Methods */
+
+	/**
+	 * Diese Methode wird vom Generator nach jeder Validierung des Sudokus
+	 * aufgerufen.
+	 * 
+	 * @param handle
+	 *            Das Handle der laufenden Generierung
+	 * @param definedFields
+	 *            Die Anzahl der aktuell vorgegebenen Felder
+	 * @param lastRelation
+	 *            Das Ergebnis der letzten Validierung
+	 */
+	public void generationProgress(GenerationHandle handle, int definedFields, ComplexityRelation lastRelation);
+
+	/**
+	 * Diese Methode wird vom Generator aufgerufen, falls die Generierung ohne
+	 * Ergebnis beendet wurde. generationFinished wird in diesem Fall nicht
+	 * aufgerufen.
+	 * 
+	 * @param handle
+	 *            Das Handle der abgebrochenen Generierung
+	 * @param reason
+	 *            Der Grund des Abbruchs
+	 */
+	public void generationFailed(GenerationHandle handle, GenerationFailure reason);
+}
@@ -1,8 +1,11 @@
 package de.sudoq.model.solverGenerator.solver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
 
 import de.sudoq.model.actionTree.SolveAction;
@@ -14,6 +17,7 @@ import de.sudoq.model.solverGenerator.solver.helper.Backtracking;
 import de.sudoq.model.solverGenerator.solver.helper.HiddenHelper;
 import de.sudoq.model.solverGenerator.solver.helper.NakedHelper;
 import de.sudoq.model.solverGenerator.solver.helper.SolveHelper;
+import de.sudoq.model.solverGenerator.solver.helper.SubsetHelper;
 import de.sudoq.model.sudoku.Constraint;
 import de.sudoq.model.sudoku.Field;
 import de.sudoq.model.sudoku.Position;
@@ -64,6 +68,12 @@ public class Solver {
 	 */
 	private ComplexityConstraint complConstr;
 
+	/**
+	 * Die Anzahl der Anwendungen je Lösungstechnik beim letzten Lösungsversuch. An Index 0 stehen die NakedSingles, an
+	 * Index i+1 der i-te SolveHelper.
+	 */
+	private int[] helperUsage;
+
 	/** Constructors */
 
 	/**
@@ -97,6 +107,7 @@ public class Solver {
 
 		helper.add(new Backtracking(this.sudoku, 70));
 		numberOfHelpers = helper.size();
+		helperUsage = new int[helper.size() + 1];
 	}
 
 	/**
@@ -316,6 +327,65 @@ public class Solver {
 		return result;
 	}
 
+	/**
+	 * Gibt den Schwierigkeitswert zurück, der beim letzten Lösungsversuch ermittelt wurde. Nach einem Aufruf von
+	 * validate ist dies der Wert, anhand dessen die ComplexityRelation bestimmt wurde.
+	 * 
+	 * @return Der zuletzt ermittelte Schwierigkeitswert
+	 */
+	public int getComplexityValue() {
+		return this.sudoku.getComplexityValue();
+	}
+
+	/**
+	 * Gibt zurück, wie oft welche Lösungstechnik beim letzten Lösungsversuch angewendet wurde. Die Schlüssel sind die
+	 * Namen der Techniken in der Reihenfolge, in der der Solver sie ausprobiert, beginnend mit den NakedSingles.
+	 * Anwendungen in später verworfenen Backtracking-Zweigen werden mitgezählt.
+	 * 
+	 * @return Eine Map von Lösungstechnik auf die Anzahl ihrer Anwendungen
+	 */
+	public Map<String, Integer> getHelperHistogram() {
+		Map<String, Integer> histogram = new LinkedHashMap<String, Integer>();
+		histogram.put("NakedSingle", helperUsage[0]);
+		for (int i = 0; i < helper.size(); i++) {
+			SolveHelper hel = helper.get(i);
+			String name = hel.getClass().getSimpleName();
+			if (hel instanceof SubsetHelper)
+				name += ((SubsetHelper) hel).getLevel();
+			histogram.put(name, helperUsage[i + 1]);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Überprüft unabhängig vom ComplexityConstraint, ob das Sudoku genau eine Lösung besitzt. Das Sudoku wird danach
+	 * in seinen ursprünglichen Zustand zurückversetzt, der zuletzt ermittelte Schwierigkeitswert und das Histogramm
+	 * der Lösungstechniken werden jedoch überschrieben.
+	 * 
+	 * @return true, falls das Sudoku eindeutig lösbar ist, false falls es keine oder mehrere Lösungen gibt
+	 */
+	public boolean hasUniqueSolution() {
+		PositionMap<Integer> copy = new PositionMap<Integer>(this.sudoku.getSudokuType().getSize());
+		for (int i = 0; i < this.sudoku.positions.size(); i++) {
+			copy.put(this.sudoku.positions.get(i), this.sudoku.getField(this.sudoku.positions.get(i)).getCurrentValue());
+		}
+
+		boolean unique = solveAll(false, false, false);
+		if (unique && this.sudoku.hasBranch()) {
+			this.sudoku.killCurrentBranch();
+			if (solveAll(false, false, true))
+				unique = false;
+		}
+
+		// restore initial state
+		for (int i = 0; i < this.sudoku.positions.size(); i++) {
+			this.sudoku.getField(this.sudoku.positions.get(i)).setCurrentValue(copy.get(this.sudoku.positions.get(i)),
+					false);
+		}
+
+		return unique;
+	}
+
 	/**
 	 * Löst das gesamte spezifizierte Sudoku. Die Lösung wird als Liste von Solution-Objekten zurückgeliefert, deren
 	 * Reihenfolge die Reihenfolge der Lösungsschritte des Algorithmus, realisiert durch die SolveHelper, repräsentiert.
@@ -336,8 +406,10 @@ public class Solver {
 	 *             Sudokutyp und die Schwierigkeit vorhanden ist
 	 */
 	private boolean solveAll(boolean buildDerivation, boolean followComplexityConstraints, boolean validation) {
-		if (!validation)
+		if (!validation) {
 			this.sudoku.resetCandidates();
+			Arrays.fill(helperUsage, 0);
+		}
 		candidatesNeeded = false;
 
 		try {
@@ -406,8 +478,10 @@ public class Solver {
 						candidatesNeeded = true;
 					SolveHelper hel = helper.get(i);
 					if (hel.update(buildDerivation)) {
-						if (!validation)
+						if (!validation) {
 							this.sudoku.addComplexityValue(hel.getComplexity(), !(hel instanceof Backtracking));
+							helperUsage[i + 1]++;
+						}
 						if (this.candidatesNeeded)
 							this.sudoku.addComplexityValue(30, !(hel instanceof Backtracking));
 						if (buildDerivation) {
@@ -496,6 +570,7 @@ public class Solver {
 				}
 				sudoku.setSolution(this.sudoku.positions.get(i), b.nextSetBit(0));
 				if (addComplexity) {
+					helperUsage[0]++;
 					this.sudoku.addComplexityValue(18, true);
 					if (this.candidatesNeeded)
 						this.sudoku.addComplexityValue(30, true);
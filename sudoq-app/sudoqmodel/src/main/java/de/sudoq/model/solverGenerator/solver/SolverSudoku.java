@@ -86,8 +86,8 @@ public class SolverSudoku extends Sudoku {
 		}
 
 		// add the constraints each position belongs to to the list
-		ArrayList<Constraint> allConstraints = sudoku.getSudokuType().getConstraints();
-		ArrayList<Position> currentPositions;
+		List<Constraint> allConstraints = sudoku.getSudokuType().getConstraints();
+		List<Position> currentPositions;
 		for (int constrNum = 0; constrNum < allConstraints.size(); constrNum++) {
 			currentPositions = allConstraints.get(constrNum).getPositions();
 			for (int posNum = 0; posNum < currentPositions.size(); posNum++) {
@@ -193,7 +193,7 @@ public class SolverSudoku extends Sudoku {
 	 */
 	void updateCandidates() {
 		ArrayList<Constraint> updatedConstraints;
-		ArrayList<Position> updatedPositions;
+		List<Position> updatedPositions;
 		boolean isInvalid = false;
 
 		for (int posNum = 0; posNum < this.positions.size() && !isInvalid; posNum++) {
@@ -260,7 +260,7 @@ public class SolverSudoku extends Sudoku {
 			return;
 
 		ArrayList<Constraint> updatedConstraints = this.constraints.get(pos);
-		ArrayList<Position> updatedPositions;
+		List<Position> updatedPositions;
 		ArrayList<Constraint> checkedConstraints;
 		for (int constrNum = 0; constrNum < updatedConstraints.size(); constrNum++) {
 			updatedPositions = updatedConstraints.get(constrNum).getPositions();
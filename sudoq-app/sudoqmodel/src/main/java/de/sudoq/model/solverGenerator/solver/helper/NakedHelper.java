@@ -1,7 +1,7 @@
 package de.sudoq.model.solverGenerator.solver.helper;
 
-import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.List;
 
 import de.sudoq.model.solverGenerator.solution.DerivationBlock;
 import de.sudoq.model.solverGenerator.solution.DerivationField;
@@ -45,7 +45,7 @@ public class NakedHelper extends SubsetHelper {
 		boolean foundSubset = false;
 		int subsetCount = 0;
 
-		ArrayList<Position> positions = constraint.getPositions();
+		List<Position> positions = constraint.getPositions();
 		while (nextSetExists) {
 			nextSetExists = false;
 			foundSubset = false;
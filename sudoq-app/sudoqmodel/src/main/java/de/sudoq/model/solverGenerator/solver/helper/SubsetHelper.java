@@ -1,7 +1,7 @@
 package de.sudoq.model.solverGenerator.solver.helper;
 
-import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.List;
 
 import de.sudoq.model.solverGenerator.solver.SolverSudoku;
 import de.sudoq.model.sudoku.Constraint;
@@ -40,7 +40,7 @@ public abstract class SubsetHelper extends SolveHelper {
 	/**
 	 * Speichert alle Constraints des zugrundeliegenden Sudokus.
 	 */
-	protected ArrayList<Constraint> allConstraints;
+	protected List<Constraint> allConstraints;
 
 	/** Constructors */
 
@@ -74,6 +74,15 @@ public abstract class SubsetHelper extends SolveHelper {
 
 	/** Methods */
 
+	/**
+	 * Gibt das level dieses Helpers, also die Größe der gesuchten Symbolmenge zurück.
+	 * 
+	 * @return Das level dieses Helpers
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+
 	/**
 	 * Sucht so lange nach einem NakedSubset mit der im Konstruktor spezifizierten Größe level, bis entweder eines
 	 * gefunden wird oder alle Möglichkeiten abgearbeitet sind. Wird ein Subset gefunden, werden die entsprechenden
@@ -94,7 +103,7 @@ public abstract class SubsetHelper extends SolveHelper {
 		lastDerivation = null;
 		boolean found = false;
 
-		ArrayList<Position> positions;
+		List<Position> positions;
 		for (int constrNum = 0; constrNum < allConstraints.size(); constrNum++) {
 			if (allConstraints.get(constrNum).hasUniqueBehavior()) {
 				// Save the constraint being checked for naked subsets.
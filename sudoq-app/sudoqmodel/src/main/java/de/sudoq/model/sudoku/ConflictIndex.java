@@ -0,0 +1,284 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.sudoku;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.sudoq.model.ModelChangeListener;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+
+/**
+ * Ein Index über die Constraints eines Sudokus. Für jedes Feld ist vorberechnet, in welchen Constraints es liegt und
+ * welche Felder seine Nachbarn sind, für jeden Constraint mit eindeutigen Symbolen wird gezählt, wie oft jedes Symbol
+ * darin eingetragen ist. Der Index hört auf die Änderungen der Felder des Sudokus, sodass die Frage, ob ein Feld im
+ * Konflikt mit einem Nachbarn steht, ohne Durchlaufen der Constraints beantwortet wird.
+ *
+ * Aus denselben Zählern ergibt sich, welche Symbole in einem Feld noch eingetragen werden können, ohne einen Nachbarn
+ * zu verletzen.
+ *
+ * Der Index wird auch während eines Batches des Sudokus sofort benachrichtigt. Werte, die ohne Benachrichtigung gesetzt
+ * werden, sieht er erst, wenn das Feld selbst abgefragt wird.
+ */
+public class ConflictIndex implements ModelChangeListener<Field> {
+	/** Attributes */
+
+	private final Sudoku sudoku;
+
+	/**
+	 * Die Constraints des Typs, in der Reihenfolge des Typs
+	 */
+	private final List<Constraint> constraints;
+
+	/**
+	 * Ob der Constraint mit demselben Index eindeutige Symbole verlangt
+	 */
+	private final boolean[] unique;
+
+	/**
+	 * Die Indizes der Constraints, in denen das Feld mit der jeweiligen id liegt
+	 */
+	private final int[][] memberOf;
+
+	/**
+	 * Die Typen der Constraints jedes Feldes als Bitmaske über die Ordinalzahlen
+	 */
+	private final int[] typeMask;
+
+	/**
+	 * Je Constraint mit eindeutigen Symbolen die Anzahl der Felder je Symbol
+	 */
+	private final int[][] counts;
+
+	/**
+	 * Der zuletzt gezählte Wert jedes Feldes
+	 */
+	private final int[] values;
+
+	/**
+	 * Die Felder, die mit dem jeweiligen Feld einen Constraint mit eindeutigen Symbolen teilen
+	 */
+	private final List<List<Field>> peers;
+
+	/**
+	 * Die Nachbarn je Constraint-Typ, bei Bedarf berechnet
+	 */
+	private final Map<ConstraintType, List<List<Field>>> peersByType;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt den Index zum gegebenen Sudoku. Er muss noch beim Sudoku als Listener registriert werden, siehe
+	 * {@link Sudoku#getConflictIndex()}.
+	 *
+	 * @param sudoku
+	 *            das Sudoku
+	 */
+	ConflictIndex(Sudoku sudoku) {
+		this.sudoku = sudoku;
+		SudokuType type = sudoku.getSudokuType();
+		constraints = type.getConstraints();
+
+		int maxId = 0;
+		for (Field f : sudoku) {
+			maxId = Math.max(maxId, f.getId());
+		}
+		int symbols = type.getNumberOfSymbols();
+
+		unique = new boolean[constraints.size()];
+		counts = new int[constraints.size()][];
+		values = new int[maxId + 1];
+		typeMask = new int[maxId + 1];
+		List<List<Integer>> members = new ArrayList<List<Integer>>(maxId + 1);
+		for (int id = 0; id <= maxId; id++) {
+			members.add(new ArrayList<Integer>());
+			values[id] = Field.EMPTYVAL;
+		}
+
+		for (int c = 0; c < constraints.size(); c++) {
+			Constraint constraint = constraints.get(c);
+			unique[c] = constraint.hasUniqueBehavior();
+			if (unique[c]) {
+				counts[c] = new int[symbols];
+			}
+			for (Position p : constraint) {
+				Field f = sudoku.getField(p);
+				if (f != null) {
+					members.get(f.getId()).add(c);
+					typeMask[f.getId()] |= 1 << constraint.getType().ordinal();
+				}
+			}
+		}
+
+		memberOf = new int[maxId + 1][];
+		for (int id = 0; id <= maxId; id++) {
+			List<Integer> m = members.get(id);
+			memberOf[id] = new int[m.size()];
+			for (int i = 0; i < m.size(); i++) {
+				memberOf[id][i] = m.get(i);
+			}
+		}
+
+		for (Field f : sudoku) {
+			update(f);
+		}
+
+		peers = collectPeers(null);
+		peersByType = new EnumMap<ConstraintType, List<List<Field>>>(ConstraintType.class);
+	}
+
+	/** Methods */
+
+	/**
+	 * Gibt zurück, ob der Wert des gegebenen Feldes einen seiner Constraints verletzt. Das ist der Fall, wenn ein
+	 * Nachbar in einem Constraint mit eindeutigen Symbolen denselben Wert hat. Liegt das Feld in einem Constraint
+	 * anderer Art, etwa einer Summe, gilt es immer als im Konflikt, da dies nicht lokal geprüft werden kann.
+	 *
+	 * @param field
+	 *            das Feld
+	 * @return true, falls das Feld im Konflikt steht
+	 */
+	public boolean isInConflict(Field field) {
+		update(field);
+		int value = field.getCurrentValue();
+		for (int c : memberOf[field.getId()]) {
+			if (!unique[c] || (value != Field.EMPTYVAL && counts[c][value] > 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gibt zurück, ob das gegebene Symbol im gegebenen Feld eingetragen werden kann, ohne dass ein Nachbar in einem
+	 * Constraint mit eindeutigen Symbolen dasselbe Symbol trägt. Der aktuelle Wert des Feldes selbst zählt dabei nicht.
+	 * Constraints anderer Art schränken die Kandidaten nicht ein, da sie nicht lokal geprüft werden können.
+	 *
+	 * @param field
+	 *            das Feld
+	 * @param symbol
+	 *            das Symbol
+	 * @return true, falls das Symbol ein Kandidat des Feldes ist
+	 */
+	public boolean isCandidate(Field field, int symbol) {
+		update(field);
+		int own = values[field.getId()] == symbol ? 1 : 0;
+		for (int c : memberOf[field.getId()]) {
+			if (unique[c] && counts[c][symbol] - own > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gibt zurück, ob das gegebene Feld in einem Constraint des gegebenen Typs liegt.
+	 *
+	 * @param field
+	 *            das Feld
+	 * @param type
+	 *            der Constraint-Typ
+	 * @return true, falls das Feld in einem solchen Constraint liegt
+	 */
+	public boolean isIn(Field field, ConstraintType type) {
+		return (typeMask[field.getId()] & (1 << type.ordinal())) != 0;
+	}
+
+	/**
+	 * Gibt die Felder zurück, die mit dem gegebenen einen Constraint mit eindeutigen Symbolen teilen.
+	 *
+	 * @param field
+	 *            das Feld
+	 * @return die Nachbarn ohne Wiederholungen, nicht veränderbar
+	 */
+	public List<Field> getPeers(Field field) {
+		return peers.get(field.getId());
+	}
+
+	/**
+	 * Gibt die Felder zurück, die mit dem gegebenen einen Constraint des gegebenen Typs teilen, z.B. die Zeile und
+	 * Spalte für {@link ConstraintType#LINE}.
+	 *
+	 * @param field
+	 *            das Feld
+	 * @param type
+	 *            der Constraint-Typ
+	 * @return die Nachbarn ohne Wiederholungen, nicht veränderbar
+	 */
+	public List<Field> getPeers(Field field, ConstraintType type) {
+		List<List<Field>> ofType = peersByType.get(type);
+		if (ofType == null) {
+			ofType = collectPeers(type);
+			peersByType.put(type, ofType);
+		}
+		return ofType.get(field.getId());
+	}
+
+	/**
+	 * Berechnet die Nachbarn aller Felder über die Constraints des gegebenen Typs, für null über alle Constraints mit
+	 * eindeutigen Symbolen.
+	 */
+	private List<List<Field>> collectPeers(ConstraintType type) {
+		List<List<Field>> result = new ArrayList<List<Field>>(memberOf.length);
+		for (int id = 0; id < memberOf.length; id++) {
+			Field field = sudoku.getField(id);
+			Set<Field> set = new LinkedHashSet<Field>();
+			if (field != null) {
+				for (int c : memberOf[id]) {
+					Constraint constraint = constraints.get(c);
+					if (type == null ? unique[c] : constraint.getType() == type) {
+						for (Position p : constraint) {
+							Field peer = sudoku.getField(p);
+							if (peer != null && peer != field) {
+								set.add(peer);
+							}
+						}
+					}
+				}
+			}
+			result.add(Collections.unmodifiableList(new ArrayList<Field>(set)));
+		}
+		return result;
+	}
+
+	/**
+	 * Zählt den aktuellen Wert des gegebenen Feldes, falls er sich seit dem letzten Zählen geändert hat.
+	 */
+	private void update(Field field) {
+		int id = field.getId();
+		int old = values[id];
+		int value = field.getCurrentValue();
+		if (old == value) {
+			return;
+		}
+		for (int c : memberOf[id]) {
+			if (unique[c]) {
+				if (old != Field.EMPTYVAL) {
+					counts[c][old]--;
+				}
+				if (value != Field.EMPTYVAL) {
+					counts[c][value]++;
+				}
+			}
+		}
+		values[id] = value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onModelChanged(Field field) {
+		update(field);
+	}
+}
@@ -7,20 +7,23 @@
  */
 package de.sudoq.model.sudoku;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import de.sudoq.model.xml.PullXmlable;
 import de.sudoq.model.xml.XmlAttribute;
+import de.sudoq.model.xml.XmlPullReader;
 import de.sudoq.model.xml.XmlTree;
-import de.sudoq.model.xml.Xmlable;
 
 /**
  * Ein Constraint-Objekt beschreibt eine Zusammenfassung von Feldern (bzw. dessen Positionen) in einem Sudoku, sodass
  * diese zusammen eine bestimmte Vorgabe erfüllen müssen, die von einem ConstraintBehavior-Objekt beschrieben wird. Im
  * Standardsudoku sind beispielsweise die Zeilen, Spalten und Blöcke Constraint-Objekte.
  */
-public class Constraint implements Iterable<Position>, Xmlable {
+public class Constraint implements Iterable<Position>, PullXmlable {
 	/** Attributes */
 
 	/**
@@ -43,6 +46,11 @@ public class Constraint implements Iterable<Position>, Xmlable {
 	 */
 	private ConstraintType type;
 
+	/**
+	 * Gibt an, ob dieses Constraint nicht mehr verändert werden darf
+	 */
+	private boolean frozen;
+
 	/** Constructors */
 
 	/**
@@ -103,6 +111,7 @@ public class Constraint implements Iterable<Position>, Xmlable {
 	 *            Die Position die diesem Constraint hinzugefügt werden soll
 	 */
 	public void addPosition(Position position) {
+		checkNotFrozen();
 		if (position != null && !positions.contains(position)) {
 			positions.add(position);
 		}
@@ -174,12 +183,32 @@ public class Constraint implements Iterable<Position>, Xmlable {
 
 	/**
 	 * Gibt eine Liste der Positionen, welche zu diesem Constraint gehören zurück. Hinweis: Wenn möglich stattdessen den
-	 * Iterator benutzen.
+	 * Iterator benutzen. Ist das Constraint eingefroren, ist die Liste nicht veränderbar.
 	 * 
 	 * @return Eine Liste der Positionen, welche zu diesem Constraint gehören.
 	 */
-	public ArrayList<Position> getPositions() {
-		return (ArrayList<Position>) this.positions;
+	public List<Position> getPositions() {
+		return this.positions;
+	}
+
+	/**
+	 * Friert dieses Constraint ein, etwa weil es zu einem geteilten Sudokutyp gehört. Danach können keine Positionen
+	 * mehr hinzugefügt oder entfernt werden.
+	 */
+	public void freeze() {
+		if (!frozen) {
+			frozen = true;
+			positions = Collections.unmodifiableList(positions);
+		}
+	}
+
+	/**
+	 * Wirft eine IllegalStateException, falls dieses Constraint eingefroren ist.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("frozen constraint " + name + " can not be changed");
+		}
 	}
 
 	/**
@@ -206,15 +235,8 @@ public class Constraint implements Iterable<Position>, Xmlable {
 	@Override
 	public void fillFromXml(XmlTree xmlTreeRepresentation)
 			throws IllegalArgumentException {
-		String behavior = xmlTreeRepresentation.getAttributeValue("behavior");
-		if (behavior.contains("Unique")) {
-			this.behavior = new UniqueConstraintBehavior();
-		} else {
-			throw new IllegalArgumentException("Undefined constraint behavior");
-		}
-
-		this.name = xmlTreeRepresentation.getAttributeValue("name");
-		this.type = ConstraintType.values()[Integer.parseInt(xmlTreeRepresentation.getAttributeValue("type"))];
+		initFromXml(xmlTreeRepresentation.getAttributeValue("behavior"), xmlTreeRepresentation.getAttributeValue("name"),
+				xmlTreeRepresentation.getAttributeValue("type"));
 
 		for (XmlTree sub : xmlTreeRepresentation) {
 			if (sub.getName().equals("position")) {
@@ -223,4 +245,28 @@ public class Constraint implements Iterable<Position>, Xmlable {
 		}
 	}
 
+	@Override
+	public void fillFromXml(XmlPullReader reader) throws IllegalArgumentException, IOException {
+		initFromXml(reader.getAttributeValue("behavior"), reader.getAttributeValue("name"), reader.getAttributeValue("type"));
+
+		int depth = reader.getDepth();
+		while (reader.nextChild(depth)) {
+			if (reader.getName().equals("position")) {
+				addPosition(Position.get(reader.getIntAttribute("x"), reader.getIntAttribute("y")));
+			}
+		}
+	}
+
+	private void initFromXml(String behavior, String name, String type) {
+		checkNotFrozen();
+		if (behavior.contains("Unique")) {
+			this.behavior = new UniqueConstraintBehavior();
+		} else {
+			throw new IllegalArgumentException("Undefined constraint behavior");
+		}
+
+		this.name = name;
+		this.type = ConstraintType.values()[Integer.parseInt(type)];
+	}
+
 }
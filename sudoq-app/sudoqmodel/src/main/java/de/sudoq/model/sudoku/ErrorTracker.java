@@ -0,0 +1,164 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.sudoku;
+
+import de.sudoq.model.ModelChangeListener;
+
+/**
+ * Zählt die falsch und die korrekt belegten Felder eines Sudokus. Die Zähler hören auf die Änderungen der Felder, sodass
+ * {@link Sudoku#hasErrors()} und {@link Sudoku#isFinished()} ohne Durchlaufen der Felder beantwortet werden.
+ *
+ * Die Zähler werden auch während eines Batches des Sudokus sofort benachrichtigt. Werte, die ohne Benachrichtigung
+ * gesetzt werden, sehen sie nicht.
+ */
+final class ErrorTracker implements ModelChangeListener<Field> {
+	/** Attributes */
+
+	private static final byte OPEN = 0;
+	private static final byte WRONG = 1;
+	private static final byte CORRECT = 2;
+
+	/**
+	 * Ob jede Abfrage die Zähler mit einem vollständigen Durchlauf der Felder vergleicht. Nur für Tests gedacht.
+	 */
+	static boolean selfCheck = false;
+
+	private final Sudoku sudoku;
+
+	/**
+	 * Der zuletzt gezählte Zustand jedes Feldes nach id
+	 */
+	private final byte[] states;
+
+	/**
+	 * Die Anzahl der Felder des Sudokus
+	 */
+	private final int size;
+
+	private int wrong;
+	private int correct;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt die Zähler zum gegebenen Sudoku. Sie müssen noch beim Sudoku als Listener registriert werden.
+	 *
+	 * @param sudoku
+	 *            das Sudoku
+	 */
+	ErrorTracker(Sudoku sudoku) {
+		this.sudoku = sudoku;
+		int maxId = 0;
+		int count = 0;
+		for (Field f : sudoku) {
+			maxId = Math.max(maxId, f.getId());
+			count++;
+		}
+		size = count;
+		states = new byte[maxId + 1];
+		for (Field f : sudoku) {
+			update(f);
+		}
+	}
+
+	/** Methods */
+
+	/**
+	 * Gibt zurück, ob ein Feld einen Wert trägt, der nicht seiner Lösung entspricht.
+	 *
+	 * @return true, falls es falsch belegte Felder gibt
+	 */
+	boolean hasErrors() {
+		checkSelf();
+		return wrong > 0;
+	}
+
+	/**
+	 * Gibt zurück, ob alle Felder korrekt belegt sind.
+	 *
+	 * @return true, falls das Sudoku gelöst ist
+	 */
+	boolean isFinished() {
+		checkSelf();
+		return correct == size;
+	}
+
+	/**
+	 * Prüft im Selbsttest die Zähler.
+	 */
+	private void checkSelf() {
+		if (selfCheck) {
+			verify();
+		}
+	}
+
+	/**
+	 * Vergleicht die Zähler mit einem vollständigen Durchlauf der Felder.
+	 *
+	 * @throws IllegalStateException
+	 *             falls die Zähler nicht mit den Feldern übereinstimmen
+	 */
+	private void verify() {
+		int w = 0;
+		int c = 0;
+		for (Field f : sudoku) {
+			switch (stateOf(f)) {
+			case WRONG:
+				w++;
+				break;
+			case CORRECT:
+				c++;
+				break;
+			}
+		}
+		if (w != wrong || c != correct) {
+			throw new IllegalStateException("counted " + wrong + " wrong and " + correct + " correct fields, found " + w
+					+ " and " + c);
+		}
+	}
+
+	private static byte stateOf(Field field) {
+		if (field.isSolvedCorrect()) {
+			return CORRECT;
+		}
+		return field.isNotWrong() ? OPEN : WRONG;
+	}
+
+	/**
+	 * Zählt den aktuellen Zustand des gegebenen Feldes, falls er sich seit dem letzten Zählen geändert hat.
+	 */
+	private void update(Field field) {
+		int id = field.getId();
+		byte old = states[id];
+		byte state = stateOf(field);
+		if (old == state) {
+			return;
+		}
+		if (old == WRONG) {
+			wrong--;
+		} else if (old == CORRECT) {
+			correct--;
+		}
+		if (state == WRONG) {
+			wrong++;
+		} else if (state == CORRECT) {
+			correct++;
+		}
+		states[id] = state;
+	}
+
+	/**
+	 * {@inheritDoc} Ein inzwischen ersetztes Feld wird nicht mehr gezählt.
+	 */
+	@Override
+	public void onModelChanged(Field field) {
+		if (sudoku.getField(field.getId()) == field) {
+			update(field);
+		}
+	}
+}
@@ -153,6 +153,11 @@ public class Field extends ObservableModelImpl<Field> {
 	 * Setzt den aktuellen Wert dieses Feldes auf den Spezifizierten. Falls editable false ist passiert nichts. Es
 	 * werden hierbei keine Listener benachrichtigt.
 	 * 
+	 * Ohne Benachrichtigung erfährt auch das Sudoku nichts von dem neuen Wert: {@link Sudoku#hasErrors()} und
+	 * {@link Sudoku#isFinished()} zählen die Felder nur über die Benachrichtigungen mit. Wer Werte ohne
+	 * Benachrichtigung setzt, etwa zum Ausprobieren beim Lösen, muss sie vor solchen Abfragen wieder zurücksetzen
+	 * oder das Feld anschließend mit Benachrichtigung setzen.
+	 * 
 	 * @param value
 	 *            Der in dieses Feld als aktuell einzutragende Wert
 	 * @param notify
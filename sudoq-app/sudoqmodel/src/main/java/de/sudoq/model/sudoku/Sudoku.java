@@ -7,8 +7,11 @@
  */
 package de.sudoq.model.sudoku;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import de.sudoq.model.ModelChangeListener;
@@ -16,14 +19,20 @@ import de.sudoq.model.ObservableModelImpl;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.PullXmlable;
 import de.sudoq.model.xml.XmlAttribute;
+import de.sudoq.model.xml.XmlPullReader;
 import de.sudoq.model.xml.XmlTree;
-import de.sudoq.model.xml.Xmlable;
 
 /**
  * Diese Klasse repräsentiert ein Sudoku mit seinem Typ, seinen Feldern und seinem Schwierigkeitsgrad.
+ * 
+ * Das Sudoku hört auf die Änderungen seiner Felder und zählt darüber falsch und korrekt belegte Felder mit. Werte, die
+ * mit {@link Field#setCurrentValue(int, boolean)} ohne Benachrichtigung gesetzt werden, sind darin nicht enthalten;
+ * {@link #hasErrors()} und {@link #isFinished()} gelten erst wieder, wenn alle solchen Werte zurückgesetzt oder mit
+ * Benachrichtigung gesetzt wurden.
  */
-public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field>, Xmlable, ModelChangeListener<Field> {
+public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field>, PullXmlable, ModelChangeListener<Field> {
 	/** Attributes */
 
 	/**
@@ -51,6 +60,21 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 	 */
 	private Complexity complexity;
 
+	/**
+	 * Der Konfliktindex über die Felder, bei Bedarf erzeugt
+	 */
+	private ConflictIndex conflictIndex;
+
+	/**
+	 * Die Felder, die sich während des offenen Batches geändert haben und seinem Batch beigetreten sind
+	 */
+	private List<Field> batchedFields;
+
+	/**
+	 * Die Zähler der falsch und korrekt belegten Felder, bei Bedarf erzeugt
+	 */
+	private ErrorTracker errorTracker;
+
 	/** Constructors */
 
 	/**
@@ -111,7 +135,7 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 
 					fields.put(position, f);
 					fieldPositions.put(fieldIdCounter++, position);
-					f.registerListener(this);
+					f.registerImmediateListener(this);
 				}
 			}
 		}
@@ -152,6 +176,16 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 		transformCount++;
 	}
 
+	/**
+	 * Setzt den transform Counter auf den spezifizierten Wert
+	 * 
+	 * @param transformCount
+	 *            die anzahl der Transformationen
+	 */
+	void setTransformCount(int transformCount) {
+		this.transformCount = transformCount;
+	}
+
 	/**
 	 * Gibt das Feld, welches sich an der spezifizierten Position befindet zurück. Ist position null oder in diesem
 	 * Sudoku unbelegt, so wird null zurückgegeben.
@@ -167,7 +201,8 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 	}
 
 	/**
-	 * Belegt die spezifizierte Position mit einem neuen Field
+	 * Belegt die spezifizierte Position mit einem neuen Field. Das Sudoku hört danach auf das neue statt auf das alte
+	 * Field.
 	 * 
 	 * @param field
 	 *            das neue Field
@@ -177,8 +212,16 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 	public void setField(Field field, Position position) {
 		if (field == null || position == null)
 			return;
-		fields.put(position, field);
+		Field old = fields.put(position, field);
+		if (old != field) {
+			if (old != null) {
+				old.removeListener(this);
+			}
+			field.registerImmediateListener(this);
+		}
 		fieldPositions.put(field.getId(), position);
+		dropConflictIndex();
+		dropErrorTracker();
 	}
 
 	/**
@@ -242,17 +285,14 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 	}
 
 	/**
-	 * Gibt an, ob das Sudoku vollstaendig ausgefuellt und korrekt geloest ist.
+	 * Gibt an, ob das Sudoku vollstaendig ausgefuellt und korrekt geloest ist. Die Antwort kommt aus laufend
+	 * mitgezählten Feldern und durchläuft diese nicht. Ohne Benachrichtigung gesetzte Werte werden daher nicht
+	 * berücksichtigt, siehe {@link Field#setCurrentValue(int, boolean)}.
 	 * 
 	 * @return true, falls das Sudoku ausgefüllt und gelöst ist, sonst false
 	 */
 	public boolean isFinished() {
-		for (Field field : fields.values()) {
-			if (!field.isSolvedCorrect()) {
-				return false;
-			}
-		}
-		return true;
+		return getErrorTracker().isFinished();
 	}
 
 	/**
@@ -292,24 +332,8 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 	 */
 	@Override
 	public void fillFromXml(XmlTree xmlTreeRepresentation) {
-		// initialisation
-
-		fieldIdCounter = 1;
-		fieldPositions = new HashMap<Integer, Position>();
-
-		fields = new HashMap<Position, Field>();
-
-		try {
-			id = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("id"));
-		} catch (NumberFormatException e) {
-			id = -1;
-		}
-		SudokuTypes enumType = SudokuTypes.values()[Integer.parseInt(xmlTreeRepresentation.getAttributeValue("type"))];
-		type = SudokuBuilder.createType(enumType);
-		transformCount = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("transformCount"));
-
-		String compl = xmlTreeRepresentation.getAttributeValue("complexity");
-		complexity = compl == null ? null : Complexity.values()[Integer.parseInt(compl)];
+		initFromXml(xmlTreeRepresentation.getAttributeValue("id"), xmlTreeRepresentation.getAttributeValue("type"),
+				xmlTreeRepresentation.getAttributeValue("transformCount"), xmlTreeRepresentation.getAttributeValue("complexity"));
 
 		// build the fields
 		for (XmlTree sub : xmlTreeRepresentation) {
@@ -327,12 +351,7 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 					x = Integer.parseInt(position.getAttributeValue("x"));
 					y = Integer.parseInt(position.getAttributeValue("y"));
 				}
-				Position pos = Position.get(x, y);
-				Field field = new Field(editable, solution, fieldId, type.getNumberOfSymbols());
-				field.registerListener(this);
-				fields.put(pos, field);
-				fieldPositions.put(Integer.valueOf(fieldId), pos);
-				fieldIdCounter++;
+				addFieldFromXml(fieldId, editable, solution, x, y);
 			}
 		}
 	}
@@ -341,7 +360,143 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 	 * {@inheritDoc}
 	 */
 	@Override
+	public void fillFromXml(XmlPullReader reader) throws IOException {
+		initFromXml(reader.getAttributeValue("id"), reader.getAttributeValue("type"),
+				reader.getAttributeValue("transformCount"), reader.getAttributeValue("complexity"));
+
+		// build the fields
+		int depth = reader.getDepth();
+		while (reader.nextChild(depth)) {
+			if (reader.getName().equals("fieldmap")) {
+				int     fieldId  = reader.getIntAttribute("id");
+				boolean editable = Boolean.parseBoolean(reader.getAttributeValue("editable"));
+				int     solution = reader.getIntAttribute("solution");
+				int x = -1, y = -1;
+				// check if there is only one child element
+				int children = 0;
+				int fieldDepth = reader.getDepth();
+				while (reader.nextChild(fieldDepth)) {
+					if (children++ == 0 && reader.getName().equals("position")) {
+						x = reader.getIntAttribute("x");
+						y = reader.getIntAttribute("y");
+					}
+				}
+				if (children != 1) {
+					throw new IllegalArgumentException();
+				}
+				addFieldFromXml(fieldId, editable, solution, x, y);
+			}
+		}
+	}
+
+	/**
+	 * Setzt das Sudoku zum Laden aus Xml zurück und übernimmt die Attribute des Wurzelelements.
+	 */
+	private void initFromXml(String id, String enumType, String transformCount, String complexity) {
+		dropConflictIndex();
+		dropErrorTracker();
+		fieldIdCounter = 1;
+		fieldPositions = new HashMap<Integer, Position>();
+
+		fields = new HashMap<Position, Field>();
+
+		try {
+			this.id = Integer.parseInt(id);
+		} catch (NumberFormatException e) {
+			this.id = -1;
+		}
+		type = SudokuBuilder.createType(SudokuTypes.values()[Integer.parseInt(enumType)]);
+		this.transformCount = Integer.parseInt(transformCount);
+
+		this.complexity = complexity == null ? null : Complexity.values()[Integer.parseInt(complexity)];
+	}
+
+	/**
+	 * Fügt beim Laden aus Xml ein Feld an der gegebenen Position hinzu.
+	 */
+	private void addFieldFromXml(int fieldId, boolean editable, int solution, int x, int y) {
+		Position pos = Position.get(x, y);
+		Field field = new Field(editable, solution, fieldId, type.getNumberOfSymbols());
+		field.registerImmediateListener(this);
+		fields.put(pos, field);
+		fieldPositions.put(Integer.valueOf(fieldId), pos);
+		fieldIdCounter++;
+	}
+
+	/**
+	 * Gibt den Konfliktindex dieses Sudokus zurück. Er wird beim ersten Aufruf erzeugt und danach über die Änderungen
+	 * der Felder aktuell gehalten.
+	 * 
+	 * @return der Konfliktindex
+	 */
+	public ConflictIndex getConflictIndex() {
+		if (conflictIndex == null) {
+			conflictIndex = new ConflictIndex(this);
+			registerImmediateListener(conflictIndex);
+		}
+		return conflictIndex;
+	}
+
+	/**
+	 * Verwirft den Konfliktindex, nachdem Felder ersetzt wurden.
+	 */
+	private void dropConflictIndex() {
+		if (conflictIndex != null) {
+			removeListener(conflictIndex);
+			conflictIndex = null;
+		}
+	}
+
+	/**
+	 * Gibt die Zähler der falsch und korrekt belegten Felder zurück. Sie werden beim ersten Aufruf durch einmaliges
+	 * Durchlaufen der Felder erzeugt und danach über die Änderungen der Felder aktuell gehalten.
+	 */
+	private ErrorTracker getErrorTracker() {
+		if (errorTracker == null) {
+			errorTracker = new ErrorTracker(this);
+			registerImmediateListener(errorTracker);
+		}
+		return errorTracker;
+	}
+
+	/**
+	 * Verwirft die Zähler, nachdem Felder ersetzt wurden.
+	 */
+	private void dropErrorTracker() {
+		if (errorTracker != null) {
+			removeListener(errorTracker);
+			errorTracker = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc} Ein Feld, das sich während des Batches ändert, tritt dabei dem Batch bei, sodass es seine übrigen
+	 * Listener am Ende nur einmal benachrichtigt. Konfliktindex und Fehlerzähler sind sofort aktuell.
+	 */
+	@Override
+	public void endBatch() {
+		super.endBatch();
+		if (!isInBatch() && batchedFields != null) {
+			List<Field> changed = batchedFields;
+			batchedFields = null;
+			for (Field f : changed) {
+				f.endBatch();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc} Während eines Batches tritt das geänderte Feld dem Batch bei.
+	 */
+	@Override
 	public void onModelChanged(Field changedField) {
+		if (isInBatch() && !changedField.isInBatch()) {
+			if (batchedFields == null) {
+				batchedFields = new ArrayList<Field>();
+			}
+			changedField.beginBatch();
+			batchedFields.add(changedField);
+		}
 		notifyListeners(changedField);
 	}
 
@@ -381,16 +536,12 @@ public class Sudoku extends ObservableModelImpl<Field> implements Iterable<Field
 
 	/**
 	 * Gibt zurück, ob dieses Sudoku in den aktuell gesetzten Werten Fehler enthält, d.h. ob es ein Feld gibt, dessen
-	 * aktueller Wert nicht der korrekten Lösung entspricht.
+	 * aktueller Wert nicht der korrekten Lösung entspricht. Wie bei {@link #isFinished()} werden die Felder dafür nicht
+	 * durchlaufen, ohne Benachrichtigung gesetzte Werte zählen also nicht.
 	 * 
 	 * @return true, falls es in dem Sudoku falsch gelöste Felder gibt, false andernfalls
 	 */
 	public boolean hasErrors() {
-		for (Field f : this.fields.values()) {
-			if (!f.isNotWrong()) {
-				return true;
-			}
-		}
-		return false;
+		return getErrorTracker().hasErrors();
 	}
 }
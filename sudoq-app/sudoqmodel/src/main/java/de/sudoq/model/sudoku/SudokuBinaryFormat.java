@@ -0,0 +1,342 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.sudoku;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+/**
+ * Ein kompaktes Binärformat für Sudoku-Vorlagen als Alternative zum
+ * XML-Format. Eine Vorlage besteht aus:
+ * 
+ * <pre>
+ * 'S' 'Q' 'B' version   4 Byte
+ * id                    int
+ * typ                   byte (Ordinalzahl von SudokuTypes)
+ * schwierigkeit         byte (Ordinalzahl von Complexity, -1 für keine)
+ * transformCount        int
+ * anzahl der felder     short
+ * bits je wert          byte (4 oder 8)
+ * vorgaben              ein Bit je Feld
+ * lösungen              4 oder 8 Bit je Feld, alle Bits gesetzt für keine Lösung
+ * </pre>
+ * 
+ * Die Felder werden in der Reihenfolge abgelegt, in der sie beim Iterieren
+ * über die Constraints des Typs zum ersten Mal vorkommen. Beim Laden werden die
+ * Feld-Ids in dieser Reihenfolge neu vergeben, so wie es auch der Konstruktor
+ * {@link Sudoku#Sudoku(SudokuType, PositionMap, PositionMap)} tut. Notizen und
+ * eingetragene Werte sind nicht Teil einer Vorlage und werden daher nicht
+ * gespeichert.
+ */
+public class SudokuBinaryFormat {
+	/** Attributes */
+
+	/**
+	 * Die Dateiendung für Sudokus im Binärformat
+	 */
+	public static final String FILE_SUFFIX = ".sqb";
+
+	/**
+	 * Die aktuelle Version des Formats
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * Die Länge des Kopfes vor der Vorgaben-Maske in Bytes
+	 */
+	private static final int HEADER_SIZE = 4 + 4 + 1 + 1 + 4 + 2 + 1;
+
+	/** Constructors */
+
+	/**
+	 * Es werden nur statische Methoden angeboten.
+	 */
+	private SudokuBinaryFormat() {
+	}
+
+	/** Methods */
+
+	/**
+	 * Kodiert das spezifizierte Sudoku im Binärformat.
+	 * 
+	 * @param sudoku
+	 *            Das zu kodierende Sudoku
+	 * @return Die kodierte Vorlage
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls das Sudoku null ist
+	 */
+	public static byte[] encode(Sudoku sudoku) {
+		if (sudoku == null)
+			throw new IllegalArgumentException("sudoku was null");
+		SudokuType type = sudoku.getSudokuType();
+		List<Position> positions = fieldOrder(type);
+		int n = positions.size();
+
+		// with 16 symbols a nibble has no spare value to mark a missing solution
+		boolean complete = true;
+		for (Position p : positions) {
+			if (sudoku.getField(p).getSolution() == Field.EMPTYVAL)
+				complete = false;
+		}
+		int symbols = type.getNumberOfSymbols();
+		int bits = symbols < 16 || symbols == 16 && complete ? 4 : 8;
+		int empty = (1 << bits) - 1;
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (n + 7) / 8 + (n * bits + 7) / 8);
+		buffer.put((byte) 'S').put((byte) 'Q').put((byte) 'B').put(VERSION);
+		buffer.putInt(sudoku.getId());
+		buffer.put((byte) type.getEnumType().ordinal());
+		buffer.put((byte) (sudoku.getComplexity() == null ? -1 : sudoku.getComplexity().ordinal()));
+		buffer.putInt(sudoku.getTransformCount());
+		buffer.putShort((short) n);
+		buffer.put((byte) bits);
+
+		byte[] mask = new byte[(n + 7) / 8];
+		byte[] values = new byte[(n * bits + 7) / 8];
+		for (int i = 0; i < n; i++) {
+			Field field = sudoku.getField(positions.get(i));
+			if (!field.isEditable())
+				mask[i >> 3] |= 1 << (i & 7);
+			int value = field.getSolution() == Field.EMPTYVAL ? empty : field.getSolution();
+			if (bits == 8)
+				values[i] = (byte) value;
+			else if ((i & 1) == 0)
+				values[i >> 1] |= value << 4;
+			else
+				values[i >> 1] |= value;
+		}
+		buffer.put(mask).put(values);
+		return buffer.array();
+	}
+
+	/**
+	 * Erzeugt ein Sudoku aus einer Vorlage im Binärformat, die an der
+	 * aktuellen Position des Puffers beginnt. Der Puffer steht danach hinter
+	 * der Vorlage.
+	 * 
+	 * @param buffer
+	 *            Der Puffer mit der Vorlage
+	 * @return Das neue Sudoku
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls der Puffer keine gültige Vorlage enthält
+	 */
+	public static Sudoku decode(ByteBuffer buffer) {
+		try {
+			if (buffer.get() != 'S' || buffer.get() != 'Q' || buffer.get() != 'B' || buffer.get() != VERSION)
+				throw new IllegalArgumentException("not a binary sudoku");
+			int id = buffer.getInt();
+			SudokuTypes enumType = SudokuTypes.values()[buffer.get()];
+			byte complexity = buffer.get();
+			int transformCount = buffer.getInt();
+			int n = buffer.getShort();
+			int bits = buffer.get();
+
+			SudokuType type = SudokuBuilder.createType(enumType);
+			List<Position> positions = fieldOrder(type);
+			if (n != positions.size() || (bits != 4 && bits != 8))
+				throw new IllegalArgumentException("binary sudoku does not match its type");
+			int empty = (1 << bits) - 1;
+			boolean emptyAllowed = type.getNumberOfSymbols() <= empty;
+
+			byte[] mask = new byte[(n + 7) / 8];
+			byte[] values = new byte[(n * bits + 7) / 8];
+			buffer.get(mask).get(values);
+
+			PositionMap<Integer> solutions = new PositionMap<Integer>(type.getSize());
+			PositionMap<Boolean> setValues = new PositionMap<Boolean>(type.getSize());
+			for (int i = 0; i < n; i++) {
+				int value;
+				if (bits == 8)
+					value = values[i] & 0xFF;
+				else if ((i & 1) == 0)
+					value = (values[i >> 1] >> 4) & 0xF;
+				else
+					value = values[i >> 1] & 0xF;
+				if (value == empty && emptyAllowed)
+					continue;
+				if (value >= type.getNumberOfSymbols())
+					throw new IllegalArgumentException("illegal solution " + value);
+				solutions.put(positions.get(i), value);
+				if ((mask[i >> 3] & (1 << (i & 7))) != 0)
+					setValues.put(positions.get(i), true);
+			}
+
+			Sudoku sudoku = new Sudoku(type, solutions, setValues);
+			sudoku.setId(id);
+			sudoku.setComplexity(complexity < 0 ? null : Complexity.values()[complexity]);
+			sudoku.setTransformCount(transformCount);
+			return sudoku;
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("binary sudoku is truncated", e);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("binary sudoku contains an unknown enum constant", e);
+		}
+	}
+
+	/**
+	 * Erzeugt ein Sudoku aus einer Vorlage im Binärformat.
+	 * 
+	 * @param data
+	 *            Die Vorlage
+	 * @return Das neue Sudoku
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls data keine gültige Vorlage ist
+	 */
+	public static Sudoku decode(byte[] data) {
+		return decode(ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Gibt die maximale Länge einer Vorlage des spezifizierten Typs in Bytes
+	 * zurück.
+	 * 
+	 * @param type
+	 *            Der Sudokutyp
+	 * @return Die maximale Länge einer kodierten Vorlage
+	 */
+	public static int maxEncodedSize(SudokuType type) {
+		int n = fieldOrder(type).size();
+		return HEADER_SIZE + (n + 7) / 8 + n;
+	}
+
+	/**
+	 * Gibt zurück, ob die spezifizierte Datei ein Sudoku im Binärformat
+	 * enthält.
+	 * 
+	 * @param file
+	 *            Die zu prüfende Datei
+	 * @return true, falls die Datei die Endung des Binärformates trägt
+	 */
+	public static boolean isBinaryFile(File file) {
+		return file != null && file.getName().endsWith(FILE_SUFFIX);
+	}
+
+	/**
+	 * Lädt ein Sudoku aus der spezifizierten Datei im Binärformat.
+	 * 
+	 * @param file
+	 *            Die zu ladende Datei
+	 * @return Das geladene Sudoku
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die Datei nicht gelesen werden kann oder
+	 *             keine gültige Vorlage enthält
+	 */
+	public static Sudoku load(File file) {
+		byte[] data = new byte[(int) file.length()];
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			int read = 0;
+			while (read < data.length) {
+				int r = in.read(data, read, data.length - read);
+				if (r < 0)
+					break;
+				read += r;
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Something went wrong when reading " + file, e);
+		} finally {
+			close(in);
+		}
+		return decode(data);
+	}
+
+	/**
+	 * Speichert das spezifizierte Sudoku im Binärformat. Ein Sudoku ohne Id
+	 * erhält dabei die nächste freie Id seines Verzeichnisses, sonst wird die
+	 * Datei zu seiner Id überschrieben.
+	 * 
+	 * @param sudoku
+	 *            Das zu speichernde Sudoku
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die Datei nicht geschrieben werden kann
+	 */
+	public static void save(Sudoku sudoku) {
+		if (sudoku.getId() <= 0) {
+			File file = FileManager.getNewSudokuBinaryFile(sudoku);
+			String name = file.getName();
+			sudoku.setId(Integer.parseInt(name.substring(7, name.length() - FILE_SUFFIX.length())));
+			save(sudoku, file);
+		} else {
+			save(sudoku, FileManager.getSudokuBinaryFile(sudoku));
+		}
+	}
+
+	/**
+	 * Speichert das spezifizierte Sudoku im Binärformat in die spezifizierte
+	 * Datei.
+	 * 
+	 * @param sudoku
+	 *            Das zu speichernde Sudoku
+	 * @param file
+	 *            Die Zieldatei
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die Datei nicht geschrieben werden kann
+	 */
+	public static void save(Sudoku sudoku, File file) {
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(file);
+			out.write(encode(sudoku));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Something went wrong when writing " + file, e);
+		} finally {
+			close(out);
+		}
+	}
+
+	/**
+	 * Gibt die Positionen der Felder des spezifizierten Typs in der Reihenfolge
+	 * zurück, in der sie beim Iterieren über die Constraints zum ersten Mal
+	 * vorkommen.
+	 * 
+	 * @param type
+	 *            Der Sudokutyp
+	 * @return Die Positionen aller Felder des Typs
+	 */
+	static List<Position> fieldOrder(SudokuType type) {
+		List<Position> positions = new ArrayList<Position>();
+		Set<Position> seen = new HashSet<Position>();
+		for (Constraint constraint : type) {
+			for (Position position : constraint) {
+				if (seen.add(position))
+					positions.add(position);
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Schließt den spezifizierten Stream, sofern er existiert.
+	 */
+	private static void close(Closeable c) {
+		if (c != null) {
+			try {
+				c.close();
+			} catch (IOException e) {
+				// nothing sensible left to do
+			}
+		}
+	}
+}
@@ -7,6 +7,9 @@
  */
 package de.sudoq.model.sudoku;
 
+import java.io.File;
+import java.io.IOException;
+
 import de.sudoq.model.files.FileManager;
 import de.sudoq.model.solverGenerator.Generator;
 import de.sudoq.model.solverGenerator.GeneratorCallback;
@@ -32,7 +35,20 @@ public class SudokuManager implements GeneratorCallback {
 	 * Das Callback fuer den Generator
 	 */
 	public void generationFinished(Sudoku sudoku) {
-		new SudokuXmlHandler().saveAsXml(sudoku);
+		SudokuPack pack = FileManager.getSudokuPack(sudoku.getSudokuType().getEnumType());
+		if (pack != null) {
+			pack.delete(used.getId());
+			try {
+				pack.append(sudoku);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Something went wrong when writing " + pack.getFile(), e);
+			}
+			return;
+		}
+		if (used != null && SudokuBinaryFormat.isBinaryFile(FileManager.getSudokuFile(used)))
+			SudokuBinaryFormat.save(sudoku);
+		else
+			new SudokuXmlHandler().saveAsXml(sudoku);
 		FileManager.deleteSudoku(used);
 	}
 
@@ -48,22 +64,49 @@ public class SudokuManager implements GeneratorCallback {
 			used = sudoku;
 			generator.generate(sudoku.getSudokuType().getEnumType(), sudoku.getComplexity(), this);
 		} else {
+			SudokuPack pack = FileManager.getSudokuPack(sudoku.getSudokuType().getEnumType());
+			if (pack != null) {
+				Transformer.transform(sudoku);
+				pack.replace(sudoku);
+				return;
+			}
+			boolean binary = SudokuBinaryFormat.isBinaryFile(FileManager.getSudokuFile(sudoku));
 			Transformer.transform(sudoku);
-			new SudokuXmlHandler().saveAsXml(sudoku);
+			if (binary)
+				SudokuBinaryFormat.save(sudoku);
+			else
+				new SudokuXmlHandler().saveAsXml(sudoku);
 		}
 	}
 
 	/**
 	 * Gibt ein neues Sudoku des gewünschten Typs und der gewünschten
-	 * Schwierigkeit zurück
+	 * Schwierigkeit zurück. Existiert ein {@link SudokuPack} für den Typ, so
+	 * wird die Vorlage daraus gewählt. Andernfalls werden Vorlagen im
+	 * Binärformat direkt geladen, alle anderen als XML.
 	 * 
 	 * @param t Typ des Sudokus
 	 * @param c Schwierigkeit des Sudokus
 	 * @return das neue Sudoku
 	 */
 	public static Sudoku getNewSudoku(SudokuTypes t, Complexity c) {
+		SudokuPack pack = FileManager.getSudokuPack(t);
+		if (pack != null) {
+			Sudoku sudoku = pack.getRandom(c);
+			if (sudoku == null)
+				throw new IllegalArgumentException("No sudoku of type " + t + " and complexity " + c);
+			return sudoku;
+		}
+
+		File file = FileManager.getRandomSudoku(t, c);
+		if (SudokuBinaryFormat.isBinaryFile(file))
+			return SudokuBinaryFormat.load(file);
+
 		Sudoku sudoku = getEmptySudokuToFillWithXml();
-		new SudokuXmlHandler(t, c).createObjectFromXml(sudoku);
+		if (file != null)
+			new SudokuXmlHandler(file).createObjectFromXml(sudoku);
+		else
+			new SudokuXmlHandler(t, c).createObjectFromXml(sudoku);
 		return sudoku;
 	}
 
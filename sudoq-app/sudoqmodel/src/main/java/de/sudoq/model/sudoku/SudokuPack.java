@@ -0,0 +1,466 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details. 
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.sudoku;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.SudokuXmlHandler;
+
+/**
+ * Ein Vorrat von Sudoku-Vorlagen eines Typs in einer einzigen Datei. Die Datei
+ * besteht aus einem Kopf und Datensätzen fester Länge, die jeweils eine
+ * Vorlage im {@link SudokuBinaryFormat} enthalten. Sie wird über einen
+ * {@link MappedByteBuffer} gelesen und geschrieben, sodass weder
+ * Verzeichnisse durchsucht noch einzelne Dateien geöffnet werden müssen.
+ * 
+ * <pre>
+ * Kopf:      'S' 'Q' 'P' version, typ, datensatzlänge, anzahl der datensätze,
+ *            anzahl lebender vorlagen je Complexity
+ * Datensatz: status, schwierigkeit, länge, vorlage
+ * </pre>
+ * 
+ * Die Id einer Vorlage ist ihre Datensatznummer plus eins. Gelöschte
+ * Datensätze werden als Grabstein markiert und beim nächsten Anhängen
+ * wiederverwendet. Beim Öffnen werden einmalig die Statusbytes gelesen, danach
+ * sind zufällige Auswahl, Anhängen und Löschen in konstanter Zeit möglich.
+ */
+public class SudokuPack {
+	/** Attributes */
+
+	/**
+	 * Die Dateiendung eines Vorrats
+	 */
+	public static final String FILE_SUFFIX = ".sqp";
+
+	private static final byte VERSION = 1;
+
+	/**
+	 * Die Länge des Kopfes in Bytes
+	 */
+	private static final int HEADER_SIZE = 64;
+
+	private static final int OFFSET_TYPE = 4;
+	private static final int OFFSET_RECORD_SIZE = 8;
+	private static final int OFFSET_RECORD_COUNT = 12;
+	private static final int OFFSET_LIVE_COUNTS = 16;
+
+	/**
+	 * Die Länge des Kopfes eines Datensatzes in Bytes
+	 */
+	private static final int RECORD_HEADER_SIZE = 4;
+
+	private static final byte FREE = 0;
+	private static final byte LIVE = 1;
+	private static final byte TOMBSTONE = 2;
+
+	/**
+	 * Die Anzahl der Datensätze, für die beim Anlegen Platz reserviert wird
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Die Datei dieses Vorrats
+	 */
+	private final File file;
+
+	/**
+	 * Der Typ aller Vorlagen dieses Vorrats
+	 */
+	private final SudokuTypes type;
+
+	/**
+	 * Die Länge eines Datensatzes in Bytes
+	 */
+	private final int recordSize;
+
+	private final RandomAccessFile raf;
+
+	private MappedByteBuffer buffer;
+
+	/**
+	 * Die Anzahl der Datensätze, für die die Abbildung Platz bietet
+	 */
+	private int capacity;
+
+	/**
+	 * Die Anzahl der benutzten Datensätze einschließlich der Grabsteine
+	 */
+	private int recordCount;
+
+	/**
+	 * Die Datensatznummern der lebenden Vorlagen je Complexity. Nur die ersten
+	 * liveCounts[c] Einträge sind gültig.
+	 */
+	private int[][] live;
+
+	private int[] liveCounts;
+
+	/**
+	 * Die Stelle jeder lebenden Vorlage in ihrer Liste in live
+	 */
+	private int[] liveIndex;
+
+	/**
+	 * Die Datensatznummern der Grabsteine, die wiederverwendet werden können
+	 */
+	private int[] tombstones;
+
+	private int tombstoneCount;
+
+	private final Random random = new Random();
+
+	/** Constructors */
+
+	/**
+	 * Öffnet den Vorrat in der spezifizierten Datei und legt ihn an, falls die
+	 * Datei noch nicht existiert.
+	 * 
+	 * @param file
+	 *            Die Datei des Vorrats
+	 * @param type
+	 *            Der Typ der Vorlagen
+	 * @throws IOException
+	 *             Wird geworfen, falls die Datei nicht gelesen oder angelegt
+	 *             werden kann oder beschädigte Datensätze enthält
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die Datei kein Vorrat des
+	 *             spezifizierten Typs ist
+	 */
+	public SudokuPack(File file, SudokuTypes type) throws IOException {
+		this.file = file;
+		this.type = type;
+		boolean exists = file.exists() && file.length() > 0;
+		this.raf = new RandomAccessFile(file, "rw");
+		try {
+			if (exists) {
+				buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+				if (buffer.get(0) != 'S' || buffer.get(1) != 'Q' || buffer.get(2) != 'P' || buffer.get(3) != VERSION
+						|| buffer.get(OFFSET_TYPE) != type.ordinal())
+					throw new IllegalArgumentException(file + " is no sudoku pack of type " + type);
+				recordSize = buffer.getInt(OFFSET_RECORD_SIZE);
+				recordCount = buffer.getInt(OFFSET_RECORD_COUNT);
+				capacity = (int) ((raf.length() - HEADER_SIZE) / recordSize);
+				if (recordCount > capacity)
+					throw new IllegalArgumentException(file + " is truncated");
+			} else {
+				recordSize = RECORD_HEADER_SIZE + SudokuBinaryFormat.maxEncodedSize(SudokuBuilder.createType(type));
+				map(INITIAL_CAPACITY);
+				buffer.put(0, (byte) 'S').put(1, (byte) 'Q').put(2, (byte) 'P').put(3, VERSION);
+				buffer.put(OFFSET_TYPE, (byte) type.ordinal());
+				buffer.putInt(OFFSET_RECORD_SIZE, recordSize);
+				buffer.putInt(OFFSET_RECORD_COUNT, 0);
+			}
+			buildIndex();
+		} catch (RuntimeException e) {
+			raf.close();
+			throw e;
+		} catch (IOException e) {
+			raf.close();
+			throw e;
+		}
+	}
+
+	/** Methods */
+
+	/**
+	 * Gibt die Datei dieses Vorrats zurück.
+	 * 
+	 * @return Die Datei dieses Vorrats
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Gibt den Typ der Vorlagen dieses Vorrats zurück.
+	 * 
+	 * @return Der Typ der Vorlagen
+	 */
+	public SudokuTypes getType() {
+		return type;
+	}
+
+	/**
+	 * Gibt die Anzahl der Vorlagen der spezifizierten Schwierigkeit zurück.
+	 * 
+	 * @param complexity
+	 *            Die Schwierigkeit
+	 * @return Die Anzahl der Vorlagen
+	 */
+	public synchronized int getCount(Complexity complexity) {
+		return liveCounts[complexity.ordinal()];
+	}
+
+	/**
+	 * Gibt eine zufällige Vorlage der spezifizierten Schwierigkeit zurück.
+	 * 
+	 * @param complexity
+	 *            Die Schwierigkeit
+	 * @return Eine zufällige Vorlage oder null, falls keine existiert
+	 */
+	public synchronized Sudoku getRandom(Complexity complexity) {
+		int c = complexity.ordinal();
+		if (liveCounts[c] == 0)
+			return null;
+		return read(live[c][random.nextInt(liveCounts[c])]);
+	}
+
+	/**
+	 * Gibt die Vorlage mit der spezifizierten Id zurück.
+	 * 
+	 * @param id
+	 *            Die Id der Vorlage
+	 * @return Die Vorlage oder null, falls keine mit dieser Id existiert
+	 */
+	public synchronized Sudoku get(int id) {
+		int slot = id - 1;
+		if (slot < 0 || slot >= recordCount || buffer.get(offset(slot)) != LIVE)
+			return null;
+		return read(slot);
+	}
+
+	/**
+	 * Hängt das spezifizierte Sudoku an den Vorrat an. Das Sudoku erhält dabei
+	 * seine neue Id.
+	 * 
+	 * @param sudoku
+	 *            Das anzuhängende Sudoku
+	 * @return Die neue Id des Sudokus
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls das Sudoku einen anderen Typ oder keine
+	 *             Schwierigkeit hat
+	 * @throws IOException
+	 *             Wird geworfen, falls die Datei nicht vergrößert werden kann
+	 */
+	public synchronized int append(Sudoku sudoku) throws IOException {
+		checkSudoku(sudoku);
+		int slot;
+		if (tombstoneCount > 0) {
+			slot = tombstones[--tombstoneCount];
+		} else {
+			if (recordCount == capacity)
+				map(capacity * 2);
+			slot = recordCount++;
+		}
+		sudoku.setId(slot + 1);
+		write(slot, sudoku);
+		buffer.put(offset(slot), LIVE);
+		buffer.putInt(OFFSET_RECORD_COUNT, recordCount);
+		addLive(slot, sudoku.getComplexity().ordinal());
+		return slot + 1;
+	}
+
+	/**
+	 * Überschreibt die Vorlage mit der Id des spezifizierten Sudokus,
+	 * beispielsweise nachdem es transformiert wurde.
+	 * 
+	 * @param sudoku
+	 *            Das zu speichernde Sudoku
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls keine Vorlage mit der Id und
+	 *             Schwierigkeit des Sudokus existiert
+	 */
+	public synchronized void replace(Sudoku sudoku) {
+		checkSudoku(sudoku);
+		int slot = sudoku.getId() - 1;
+		if (slot < 0 || slot >= recordCount || buffer.get(offset(slot)) != LIVE
+				|| buffer.get(offset(slot) + 1) != sudoku.getComplexity().ordinal())
+			throw new IllegalArgumentException("no such sudoku in pack: " + sudoku.getId());
+		write(slot, sudoku);
+	}
+
+	/**
+	 * Löscht die Vorlage mit der spezifizierten Id, indem ihr Datensatz als
+	 * Grabstein markiert wird.
+	 * 
+	 * @param id
+	 *            Die Id der Vorlage
+	 * @return true, falls die Vorlage existierte, false sonst
+	 */
+	public synchronized boolean delete(int id) {
+		int slot = id - 1;
+		if (slot < 0 || slot >= recordCount || buffer.get(offset(slot)) != LIVE)
+			return false;
+		int c = buffer.get(offset(slot) + 1);
+		buffer.put(offset(slot), TOMBSTONE);
+		removeLive(slot, c);
+		addTombstone(slot);
+		return true;
+	}
+
+	/**
+	 * Schreibt alle Änderungen in die Datei und schließt sie. Danach darf der
+	 * Vorrat nicht mehr benutzt werden.
+	 * 
+	 * @throws IOException
+	 *             Wird geworfen, falls die Datei nicht geschlossen werden kann
+	 */
+	public synchronized void close() throws IOException {
+		buffer.force();
+		raf.close();
+	}
+
+	/**
+	 * Gibt die Position des spezifizierten Datensatzes in der Datei zurück.
+	 */
+	private int offset(int slot) {
+		return HEADER_SIZE + slot * recordSize;
+	}
+
+	/**
+	 * Bildet die Datei mit Platz für die spezifizierte Anzahl an Datensätzen
+	 * in den Speicher ab.
+	 */
+	private void map(int newCapacity) throws IOException {
+		if (buffer != null)
+			buffer.force();
+		buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * recordSize);
+		capacity = newCapacity;
+	}
+
+	/**
+	 * Liest die Statusbytes aller Datensätze und baut daraus die Listen der
+	 * lebenden Vorlagen und Grabsteine auf. Der Kopf wird dabei berichtigt,
+	 * falls er nicht zu den Datensätzen passt.
+	 * 
+	 * @throws IOException
+	 *             Wird geworfen, falls ein Datensatz eine ungültige
+	 *             Schwierigkeit trägt
+	 */
+	private void buildIndex() throws IOException {
+		int complexities = Complexity.values().length;
+		live = new int[complexities][16];
+		liveCounts = new int[complexities];
+		liveIndex = new int[Math.max(recordCount, 16)];
+		tombstones = new int[16];
+		tombstoneCount = 0;
+		for (int slot = 0; slot < recordCount; slot++) {
+			byte status = buffer.get(offset(slot));
+			if (status == LIVE) {
+				int c = buffer.get(offset(slot) + 1);
+				if (c < 0 || c >= complexities)
+					throw new IOException(file + " is corrupt: record " + slot + " has complexity " + c);
+				addLive(slot, c);
+			} else {
+				addTombstone(slot);
+			}
+		}
+		for (int c = 0; c < complexities; c++) {
+			buffer.putInt(OFFSET_LIVE_COUNTS + 4 * c, liveCounts[c]);
+		}
+	}
+
+	private void addLive(int slot, int c) {
+		if (liveCounts[c] == live[c].length)
+			live[c] = Arrays.copyOf(live[c], live[c].length * 2);
+		if (slot >= liveIndex.length)
+			liveIndex = Arrays.copyOf(liveIndex, Math.max(liveIndex.length * 2, slot + 1));
+		live[c][liveCounts[c]] = slot;
+		liveIndex[slot] = liveCounts[c]++;
+		buffer.putInt(OFFSET_LIVE_COUNTS + 4 * c, liveCounts[c]);
+	}
+
+	private void removeLive(int slot, int c) {
+		// move the last entry into the gap
+		int last = live[c][--liveCounts[c]];
+		live[c][liveIndex[slot]] = last;
+		liveIndex[last] = liveIndex[slot];
+		buffer.putInt(OFFSET_LIVE_COUNTS + 4 * c, liveCounts[c]);
+	}
+
+	private void addTombstone(int slot) {
+		if (tombstoneCount == tombstones.length)
+			tombstones = Arrays.copyOf(tombstones, tombstones.length * 2);
+		tombstones[tombstoneCount++] = slot;
+	}
+
+	private Sudoku read(int slot) {
+		ByteBuffer record = buffer.duplicate();
+		record.position(offset(slot) + RECORD_HEADER_SIZE);
+		return SudokuBinaryFormat.decode(record);
+	}
+
+	private void write(int slot, Sudoku sudoku) {
+		byte[] data = SudokuBinaryFormat.encode(sudoku);
+		int offset = offset(slot);
+		buffer.put(offset + 1, (byte) sudoku.getComplexity().ordinal());
+		buffer.putShort(offset + 2, (short) data.length);
+		ByteBuffer record = buffer.duplicate();
+		record.position(offset + RECORD_HEADER_SIZE);
+		record.put(data);
+	}
+
+	private void checkSudoku(Sudoku sudoku) {
+		if (sudoku == null || sudoku.getSudokuType().getEnumType() != type || sudoku.getComplexity() == null)
+			throw new IllegalArgumentException("sudoku does not fit into pack of type " + type);
+	}
+
+	/**
+	 * Legt für jeden spezifizierten Typ einen Vorrat &lt;typ&gt;/&lt;typ&gt;.sqp
+	 * im spezifizierten sudokus-Verzeichnis an und übernimmt alle Vorlagen
+	 * aus dessen Unterverzeichnissen &lt;typ&gt;/&lt;schwierigkeit&gt;. Ein
+	 * bestehender Vorrat wird dabei ersetzt.
+	 * 
+	 * @param args
+	 *            &lt;sudokuDir&gt; [typ ...]
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("usage: SudokuPack <sudokuDir> [type ...]");
+			System.exit(1);
+		}
+		File sudokuDir = new File(args[0]);
+		FileManager.initialize(new File(System.getProperty("java.io.tmpdir")), sudokuDir);
+		SudokuTypes[] types = SudokuTypes.values();
+		if (args.length > 1) {
+			types = new SudokuTypes[args.length - 1];
+			for (int i = 1; i < args.length; i++)
+				types[i - 1] = SudokuTypes.valueOf(args[i]);
+		}
+		for (SudokuTypes t : types) {
+			File typeDir = new File(sudokuDir, t.toString());
+			if (!typeDir.isDirectory())
+				continue;
+			File packFile = new File(typeDir, t.toString() + FILE_SUFFIX);
+			packFile.delete();
+			SudokuPack pack = new SudokuPack(packFile, t);
+			SudokuType sudokuType = SudokuBuilder.createType(t);
+			int count = 0;
+			for (Complexity c : Complexity.values()) {
+				File[] files = new File(typeDir, c.toString()).listFiles();
+				if (files == null)
+					continue;
+				Arrays.sort(files);
+				for (File f : files) {
+					Sudoku sudoku;
+					if (SudokuBinaryFormat.isBinaryFile(f)) {
+						sudoku = SudokuBinaryFormat.load(f);
+					} else {
+						sudoku = new Sudoku(sudokuType);
+						new SudokuXmlHandler(f).createObjectFromXml(sudoku);
+					}
+					pack.append(sudoku);
+					count++;
+				}
+			}
+			pack.close();
+			System.out.println(t + ": " + count + " sudokus, " + packFile.length() + " bytes");
+		}
+	}
+}
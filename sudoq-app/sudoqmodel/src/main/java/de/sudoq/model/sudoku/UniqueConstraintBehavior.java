@@ -43,7 +43,7 @@ public class UniqueConstraintBehavior implements ConstraintBehavior {
 		int currentValue;
 		foundNumbers.clear();
 
-		ArrayList<Position> positions = constraint.getPositions();
+		List<Position> positions = constraint.getPositions();
 		for (int i = 0; i < positions.size(); i++) {
 			currentValue = sudoku.getField(positions.get(i)).getCurrentValue();
 			if (currentValue != -1) {
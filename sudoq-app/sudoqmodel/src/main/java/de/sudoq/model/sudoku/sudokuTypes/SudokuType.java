@@ -11,8 +11,12 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 import de.sudoq.model.files.FileManager;
 import de.sudoq.model.solverGenerator.solver.helper.Helpers;
@@ -24,18 +28,29 @@ import de.sudoq.model.sudoku.UniqueConstraintBehavior;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.complexity.ComplexityConstraint;
 import de.sudoq.model.sudoku.complexity.ComplexityFactory;
+import de.sudoq.model.xml.PullXmlable;
 import de.sudoq.model.xml.XmlAttribute;
-import de.sudoq.model.xml.XmlHelper;
+import de.sudoq.model.xml.XmlPullReader;
 import de.sudoq.model.xml.XmlTree;
-import de.sudoq.model.xml.Xmlable;
 
 /**
  * Ein SudokuType repräsentiert die Eigenschaften eines spezifischen Sudoku-Typs. Dazu gehören insbesondere die
  * Constraints, die einen Sudoku-Typ beschreiben.
  */
-public class SudokuType implements Iterable<Constraint>, ComplexityFactory, Xmlable {
+public class SudokuType implements Iterable<Constraint>, ComplexityFactory, PullXmlable {
 	/** Attributes */
 
+	/**
+	 * Die bereits geladenen Typen, geteilt von allen Sudokus, und die Dateien, aus denen sie geladen wurden
+	 */
+	private static final Map<SudokuTypes, SudokuType> loadedTypes = new EnumMap<SudokuTypes, SudokuType>(SudokuTypes.class);
+	private static final Map<SudokuTypes, File> loadedFrom = new EnumMap<SudokuTypes, File>(SudokuTypes.class);
+
+	/**
+	 * Gibt an, ob dieser Typ von mehreren Sudokus geteilt wird und deshalb nicht mehr verändert werden darf
+	 */
+	private boolean shared;
+
 	protected SudokuTypes typeName;
 	
 	protected float standardAllocationFactor;
@@ -130,12 +145,13 @@ public class SudokuType implements Iterable<Constraint>, ComplexityFactory, Xmla
 		return blockSize;
 	}
 	/**
-	 * Gibt eine Liste mit zulässigen Transformationen an diesem Sudoku aus.
+	 * Gibt eine Liste mit zulässigen Transformationen an diesem Sudoku aus. Bei einem geteilten Typ ist die Liste nicht
+	 * veränderbar.
 	 * 
 	 * @return eine Liste mit zulässigen Transformationen an diesem Sudoku
 	 */
 	public List<PermutationProperties> getPermutationProperties() {
-		return setOfPermutationProperties;
+		return shared ? Collections.unmodifiableList(setOfPermutationProperties) : setOfPermutationProperties;
 	}
 
 	/**
@@ -226,19 +242,23 @@ public class SudokuType implements Iterable<Constraint>, ComplexityFactory, Xmla
 	 * @param type Typ
 	 */
 	public void setTypeName(SudokuTypes type) {
+		checkNotShared();
 		if (type != null) 
 			this.typeName = type;
 	}
 	
 	public void setDimensions(Position p) {
+		checkNotShared();
 		this.dimensions = p;
 	}
 
 	public void setBlockDimensions(Position p) {
+		checkNotShared();
 		this.blockSize = p;
 	}
 	
 	public void setNumberOfSymbols(int numberOfSymbols) {
+		checkNotShared();
 		if (numberOfSymbols > 0) 
 			this.numberOfSymbols = numberOfSymbols;
 	}
@@ -254,36 +274,65 @@ public class SudokuType implements Iterable<Constraint>, ComplexityFactory, Xmla
 
 	/**
 	 * Gibt eine Liste der Constraints, welche zu diesem Sudokutyp gehören zurück. Hinweis: Wenn möglich stattdessen den
-	 * Iterator benutzen.
+	 * Iterator benutzen. Bei einem geteilten Typ sind weder die Liste noch die Constraints veränderbar.
 	 * 
 	 * @return Eine Liste der Constraints dieses Sudokutyps.
 	 */
-	public ArrayList<Constraint> getConstraints() {
-		return (ArrayList<Constraint>) this.constraints;
+	public List<Constraint> getConstraints() {
+		return this.constraints;
 	}
 	
 	
 	//make a method that returns an iterator over all positions !=null. I think we need this a lot
 	
 	public void addConstraint(Constraint c) {
+		checkNotShared();
 		if (c != null) {
 			this.constraints.add(c);
 		}
 	}
 	
+	/**
+	 * Gibt den Typ zum spezifizierten Enum zurück. Jeder Typ wird nur beim ersten Aufruf aus seiner Datei geladen und
+	 * danach von allen Aufrufern geteilt; der zurückgegebene Typ darf daher nicht verändert werden. Ändert sich das
+	 * Sudoku-Verzeichnis des FileManagers, wird der Typ neu geladen.
+	 * 
+	 * @param type
+	 *            das Enum des Typs
+	 * @return der Typ oder null, falls type null ist oder der Typ nicht geladen werden kann
+	 */
 	public static SudokuType getSudokuType(SudokuTypes type) {
 		if (type == null ) {
 			return null;
 		}
 		File f = FileManager.getSudokuTypeFile(type);
+		synchronized (loadedTypes) {
+			SudokuType t = loadedTypes.get(type);
+			if (t != null && f.equals(loadedFrom.get(type))) {
+				return t;
+			}
+			t = loadSudokuType(f);
+			if (t != null) {
+				t.share();
+				loadedTypes.put(type, t);
+				loadedFrom.put(type, f);
+			}
+			return t;
+		}
+	}
+
+	private static SudokuType loadSudokuType(File f) {
 		if (!f.exists()) {
 			return null;
 		}
-		XmlHelper helper = new XmlHelper();
 		try {
 			SudokuType t = new SudokuType();
-			XmlTree xt = helper.loadXml(f);
-			t.fillFromXml(xt);
+			XmlPullReader reader = XmlPullReader.open(f);
+			try {
+				t.fillFromXml(reader);
+			} finally {
+				reader.close();
+			}
 			return t;
 		} catch (FileNotFoundException e) {
 			// TODO Auto-generated catch block
@@ -336,9 +385,8 @@ public class SudokuType implements Iterable<Constraint>, ComplexityFactory, Xmla
 
 	@Override
 	public void fillFromXml(XmlTree xmlTreeRepresentation) throws IllegalArgumentException {
-		typeName = SudokuTypes.values()[Integer.parseInt(xmlTreeRepresentation.getAttributeValue("typename"))];
-		numberOfSymbols = Integer.parseInt(xmlTreeRepresentation.getAttributeValue("numberOfSymbols")); 
-		standardAllocationFactor = Float.parseFloat(xmlTreeRepresentation.getAttributeValue("standardAllocationFactor"));
+		initFromXml(xmlTreeRepresentation.getAttributeValue("typename"), xmlTreeRepresentation.getAttributeValue("numberOfSymbols"),
+				xmlTreeRepresentation.getAttributeValue("standardAllocationFactor"));
 		for (XmlTree sub : xmlTreeRepresentation) {
 			switch (sub.getName()) {
 			case "size":
@@ -355,40 +403,108 @@ public class SudokuType implements Iterable<Constraint>, ComplexityFactory, Xmla
 				constraints.add(c);
 				break;
 				
-			case SetOfPermutationProperties.SET_OF_PERMUTATION_PROPERTIES:
-				setOfPermutationProperties = new SetOfPermutationProperties();
-				((SetOfPermutationProperties) setOfPermutationProperties).fillFromXml(sub);  //cast neccessary because setOPP is defined as 
+			default:
+				fillPartFromXml(sub);
 				break;
-				
-			case "helperList":
-				helperList = new ArrayList<Helpers>(sub.getNumberOfAttributes());
-				for(Iterator<XmlAttribute> jterator = sub.getAttributes(); jterator.hasNext();){
-					XmlAttribute xa = jterator.next();
-					int index = Integer.parseInt(xa.getName());
-					Helpers h = Helpers.values()[Integer.parseInt(xa.getValue())];
-					helperList.set(index, h);
-				}
+			}
+		}
+		initPositionsList();
+	}
+
+	@Override
+	public void fillFromXml(XmlPullReader reader) throws IllegalArgumentException, IOException {
+		initFromXml(reader.getAttributeValue("typename"), reader.getAttributeValue("numberOfSymbols"),
+				reader.getAttributeValue("standardAllocationFactor"));
+		int depth = reader.getDepth();
+		while (reader.nextChild(depth)) {
+			switch (reader.getName()) {
+			case "size":
+				dimensions = Position.get(reader.getIntAttribute("x"), reader.getIntAttribute("y"));
 				break;
-				
-			case ComplexityConstraintBuilder.TITLE:
-				ccb = new ComplexityConstraintBuilder();
-				ccb.fillFromXml(sub);
+
+			case "blockSize":
+				blockSize = Position.get(reader.getIntAttribute("x"), reader.getIntAttribute("y"));
 				break;
-				
+
+			case "constraint":
+				Constraint c = new Constraint(new UniqueConstraintBehavior(), ConstraintType.LINE);
+				c.fillFromXml(reader);
+				constraints.add(c);
+				break;
+
 			default:
+				// the remaining parts are small, they are read as trees
+				fillPartFromXml(reader.readTree());
 				break;
 			}
 		}
 		initPositionsList();
 	}
 
+	private void initFromXml(String typename, String numberOfSymbols, String standardAllocationFactor) {
+		checkNotShared();
+		typeName = SudokuTypes.values()[Integer.parseInt(typename)];
+		this.numberOfSymbols = Integer.parseInt(numberOfSymbols); 
+		this.standardAllocationFactor = Float.parseFloat(standardAllocationFactor);
+	}
+
+	/**
+	 * Lädt die Permutationseigenschaften, die Helferliste oder die Komplexitätsvorgaben aus dem gegebenen Teilbaum.
+	 * Andere Teilbäume werden ignoriert.
+	 */
+	private void fillPartFromXml(XmlTree sub) {
+		switch (sub.getName()) {
+		case SetOfPermutationProperties.SET_OF_PERMUTATION_PROPERTIES:
+			setOfPermutationProperties = new SetOfPermutationProperties();
+			((SetOfPermutationProperties) setOfPermutationProperties).fillFromXml(sub);  //cast neccessary because setOPP is defined as 
+			break;
+			
+		case "helperList":
+			helperList = new ArrayList<Helpers>(sub.getNumberOfAttributes());
+			for(Iterator<XmlAttribute> jterator = sub.getAttributes(); jterator.hasNext();){
+				XmlAttribute xa = jterator.next();
+				int index = Integer.parseInt(xa.getName());
+				Helpers h = Helpers.values()[Integer.parseInt(xa.getValue())];
+				helperList.set(index, h);
+			}
+			break;
+			
+		case ComplexityConstraintBuilder.TITLE:
+			ccb = new ComplexityConstraintBuilder();
+			ccb.fillFromXml(sub);
+			break;
+			
+		default:
+			break;
+		}
+	}
+
 
 	private void initPositionsList() {
-		positions = new ArrayList<Position>();
+		LinkedHashSet<Position> unique = new LinkedHashSet<Position>();
 		for(Constraint c: constraints)
 			for(Position p: c)
-				if(!positions.contains(p))
-					positions.add(p);
-		
+				unique.add(p);
+		positions = new ArrayList<Position>(unique);
+	}
+
+	/**
+	 * Markiert diesen Typ als geteilt. Danach können weder der Typ noch seine Constraints verändert werden.
+	 */
+	private void share() {
+		shared = true;
+		for (Constraint c : constraints) {
+			c.freeze();
+		}
+		constraints = Collections.unmodifiableList(constraints);
+	}
+
+	/**
+	 * Wirft eine IllegalStateException, falls dieser Typ geteilt wird.
+	 */
+	private void checkNotShared() {
+		if (shared) {
+			throw new IllegalStateException("shared type " + typeName + " can not be changed");
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.xml;
+
+import java.io.IOException;
+
+/**
+ * Erweitert {@link Xmlable} um das direkte Laden aus einem {@link XmlPullReader}, ohne vorher einen XmlTree
+ * aufzubauen. {@link XmlHandler} nutzt diesen Weg automatisch, wenn ein Objekt ihn anbietet.
+ */
+public interface PullXmlable extends Xmlable {
+
+	/** Methods */
+
+	/**
+	 * Lädt Daten aus dem Element, auf dessen Starttag der gegebene Leser steht. Das Element wird bis einschließlich
+	 * seines Endtags gelesen.
+	 * 
+	 * @param reader
+	 *            der Leser, der auf dem Starttag des Elements steht
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls die Xml Repräsentation eine nicht unterstützte Struktur aufweist.
+	 * @throws IOException
+	 *             Wird geworfen, falls der Leser nicht lesen kann oder das Xml nicht wohlgeformt ist
+	 */
+	public void fillFromXml(XmlPullReader reader) throws IllegalArgumentException, IOException;
+
+}
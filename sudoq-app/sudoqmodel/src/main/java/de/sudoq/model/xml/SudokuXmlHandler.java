@@ -21,6 +21,7 @@ public class SudokuXmlHandler extends XmlHandler<Sudoku> {
 
 	private Complexity complexity;
 	private SudokuTypes type;
+	private File source;
 
 	/**
 	 * Erzeugt einen SudokuXmlHandler, der ein neues sudoku file anlegt
@@ -43,12 +44,26 @@ public class SudokuXmlHandler extends XmlHandler<Sudoku> {
 		this.complexity = complexity;
 	}
 
+	/**
+	 * Erzeugt einen SudokuXmlHandler zum Laden des Sudokus aus der gegebenen
+	 * Datei
+	 * 
+	 * @param source
+	 *            die zu ladende Datei
+	 */
+	public SudokuXmlHandler(File source) {
+		this(null, null);
+		this.source = source;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected File getFileFor(Sudoku s) {
-		if (type != null && complexity != null) {
+		if (source != null) {
+			return source;
+		} else if (type != null && complexity != null) {
 			return FileManager.getRandomSudoku(type, complexity);
 		} else if (s.getId() <= 0) {
 			return FileManager.getNewSudokuFile(s);
@@ -61,7 +61,9 @@ public abstract class XmlHandler<T extends Xmlable> {
 	}
 
 	/**
-	 * Lädt ein Objekt, das Xmlable implementiert, aus einer XML Datei.
+	 * Lädt ein Objekt, das Xmlable implementiert, aus einer XML Datei. Bietet
+	 * es {@link PullXmlable} an, wird die Datei ohne Umweg über einen XmlTree
+	 * gelesen.
 	 * 
 	 * @param obj
 	 *            leeres Objekt, das Xmlable implementiert
@@ -70,7 +72,16 @@ public abstract class XmlHandler<T extends Xmlable> {
 	 */
 	public T createObjectFromXml(T obj) {
 		try {
-			obj.fillFromXml(helper.loadXml(getFileFor(obj)));
+			if (obj instanceof PullXmlable) {
+				XmlPullReader reader = XmlPullReader.open(getFileFor(obj));
+				try {
+					((PullXmlable) obj).fillFromXml(reader);
+				} finally {
+					reader.close();
+				}
+			} else {
+				obj.fillFromXml(helper.loadXml(getFileFor(obj)));
+			}
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Something went wrong when reading xml " + getFileFor(obj), e);
 		}
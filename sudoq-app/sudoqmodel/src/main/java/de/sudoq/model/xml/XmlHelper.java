@@ -7,11 +7,14 @@
  */
 package de.sudoq.model.xml;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.Stack;
 
@@ -161,17 +164,46 @@ public class XmlHelper {
 			throw new IllegalArgumentException("XmlTree Object is of an unsupported type.");
 		}
 
-		FileOutputStream oustream = new FileOutputStream(xmlFile);
-		OutputStreamWriter osw = new OutputStreamWriter(oustream);
-
-		osw.write(XmlPREAMBLE);
-		osw.write("<!DOCTYPE " + xmlTree.getName() + " SYSTEM \"" + XmlDTDPATH + xmlTree.getName() + ".dtd\">\n");
-
-		osw.write(buildXmlStructure(xmlTree));
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(xmlFile), "UTF-8"));
+		try {
+			writer.write(XmlPREAMBLE);
+			writer.write("<!DOCTYPE " + xmlTree.getName() + " SYSTEM \"" + XmlDTDPATH + xmlTree.getName() + ".dtd\">\n");
+			writeXml(xmlTree, writer);
+		} finally {
+			writer.close();
+		}
 
-		osw.flush();
-		osw.close();
+	}
 
+	/**
+	 * Speichert ein XmlTree Objekt wie {@link #saveXml(XmlTree, File)}, schreibt
+	 * dabei aber zuerst in eine temporäre Datei neben der Zieldatei und
+	 * benennt diese dann um. Die Zieldatei enthält so auch bei einem Abbruch
+	 * während des Schreibens immer einen vollständigen Stand.
+	 * 
+	 * @param xmlTree
+	 *            Xml Baum, der die zu schreibenden Daten enthält
+	 * @param xmlFile
+	 *            Xml Datei in die geschrieben werden soll
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, falls eines der Argumente null ist
+	 * @throws IOException
+	 *             Wird geworfen, wenn Probleme beim Schreiben der Datei
+	 *             auftraten
+	 */
+	public void saveXmlAtomically(XmlTree xmlTree, File xmlFile) throws IllegalArgumentException, IOException {
+		if (xmlFile == null) {
+			throw new IllegalArgumentException();
+		}
+		File tmp = new File(xmlFile.getPath() + ".tmp");
+		saveXml(xmlTree, tmp);
+		if (!tmp.renameTo(xmlFile)) {
+			// some platforms do not replace existing files on rename
+			if (!xmlFile.delete() || !tmp.renameTo(xmlFile)) {
+				tmp.delete();
+				throw new IOException("could not replace " + xmlFile);
+			}
+		}
 	}
 
 	/**
@@ -187,37 +219,97 @@ public class XmlHelper {
 		if (tree == null) {
 			throw new IllegalArgumentException();
 		}
+		StringWriter writer = new StringWriter();
+		try {
+			writeXml(tree, writer);
+		} catch (IOException e) {
+			// a StringWriter does not throw
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Schreibt die Xml Darstellung des gegebenen Baumes in einem Durchgang in
+	 * den gegebenen Writer. Attributwerte und Inhalte werden dabei maskiert.
+	 * Der Writer wird weder geleert noch geschlossen.
+	 * 
+	 * @param tree
+	 *            der zu schreibende XmlBaum
+	 * @param writer
+	 *            der Writer, in den geschrieben wird
+	 * @throws IllegalArgumentException
+	 *             Wird geworfen, wenn eines der Argumente null ist
+	 * @throws IOException
+	 *             Wird geworfen, wenn der Writer nicht schreiben kann
+	 */
+	public void writeXml(XmlTree tree, Writer writer) throws IllegalArgumentException, IOException {
+		if (tree == null || writer == null) {
+			throw new IllegalArgumentException();
+		}
 		// write the opening tag
-		StringBuilder sb = new StringBuilder();
-		sb.append("<");
-		sb.append(tree.getName());
+		writer.write('<');
+		writer.write(tree.getName());
 		// write attributes
 		for (Iterator<XmlAttribute> i = tree.getAttributes(); i.hasNext();) {
 			XmlAttribute attribute = i.next();
-			sb.append(" ");
-			sb.append(attribute.getName());
-			sb.append("=\"");
-			sb.append(attribute.getValue());
-			sb.append("\"");
+			writer.write(' ');
+			writer.write(attribute.getName());
+			writer.write("=\"");
+			writeEscaped(attribute.getValue(), writer);
+			writer.write('"');
 		}
 
 		// check if there are subtree elements
 		if (!tree.getChildren().hasNext()) {
 			// write the content if there is any
-			sb.append(">");
-			sb.append(tree.getContent());
+			writer.write('>');
+			writeEscaped(tree.getContent(), writer);
 		} else {
-			sb.append(">\n");
+			writer.write(">\n");
 			// write the subtree elements
 			for (XmlTree sub : tree) {
-				sb.append(buildXmlStructure(sub));
+				writeXml(sub, writer);
 			}
 		}
 		// close the tag again
-		sb.append("</");
-		sb.append(tree.getName());
-		sb.append(">\n");
-		return sb.toString();
+		writer.write("</");
+		writer.write(tree.getName());
+		writer.write(">\n");
+	}
+
+	/**
+	 * Schreibt den gegebenen Text so in den Writer, dass er als Attributwert
+	 * oder Inhalt eines Elements gültiges Xml ergibt.
+	 */
+	private static void writeEscaped(String text, Writer writer) throws IOException {
+		if (text == null) {
+			return;
+		}
+		int start = 0;
+		for (int i = 0; i < text.length(); i++) {
+			String replacement;
+			switch (text.charAt(i)) {
+			case '&':
+				replacement = "&amp;";
+				break;
+			case '<':
+				replacement = "&lt;";
+				break;
+			case '>':
+				replacement = "&gt;";
+				break;
+			case '"':
+				replacement = "&quot;";
+				break;
+			default:
+				continue;
+			}
+			writer.write(text, start, i - start);
+			writer.write(replacement);
+			start = i + 1;
+		}
+		writer.write(text, start, text.length() - start);
 	}
 
 	/**
@@ -0,0 +1,478 @@
+/*
+ * SudoQ is a Sudoku-App for Adroid Devices with Version 2.2 at least.
+ * Copyright (C) 2012  Heiko Klare, Julian Geppert, Jan-Bernhard Kordaß, Jonathan Kieling, Tim Zeitz, Timo Abele
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.sudoq.model.xml;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Ein einfacher Pull-Leser für die von {@link XmlHelper} geschriebenen Xml Dateien. Er liefert nacheinander die Start-
+ * und Endtags eines Dokuments samt Attributen, ohne einen {@link XmlTree} aufzubauen. Text, Kommentare,
+ * Verarbeitungsanweisungen und die Doctype-Deklaration werden überlesen. Die Attribute des aktuellen Tags liegen in
+ * wiederverwendeten Arrays, sodass pro Element nur dessen Name und Attributwerte angelegt werden.
+ *
+ * Ein typischer Lesevorgang eines Elements sieht so aus:
+ *
+ * <pre>
+ * int depth = reader.getDepth();
+ * while (reader.nextChild(depth)) {
+ * 	if (reader.getName().equals(&quot;child&quot;)) {
+ * 		...
+ * 	}
+ * }
+ * </pre>
+ *
+ * Nicht gelesene Kindelemente werden dabei automatisch übersprungen.
+ */
+public class XmlPullReader {
+	/** Attributes */
+
+	/**
+	 * Ereignis: ein Starttag wurde gelesen
+	 */
+	public static final int START_TAG = 1;
+
+	/**
+	 * Ereignis: ein Endtag wurde gelesen. Leere Elemente der Form &lt;a/&gt; liefern Start- und Endtag.
+	 */
+	public static final int END_TAG = 2;
+
+	/**
+	 * Ereignis: das Ende des Dokuments ist erreicht
+	 */
+	public static final int END_DOCUMENT = 3;
+
+	private final Reader in;
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int limit;
+
+	/**
+	 * Das zuletzt gelesene Zeichen
+	 */
+	private int lastRead;
+
+	/**
+	 * Puffer für Namen und Attributwerte
+	 */
+	private char[] text = new char[64];
+	private int textLength;
+
+	private String name;
+	private String[] attributeNames = new String[8];
+	private String[] attributeValues = new String[8];
+	private int attributeCount;
+
+	private int event;
+	private int depth;
+	private boolean pendingEnd;
+
+	/** Constructors */
+
+	/**
+	 * Erzeugt einen Leser über den gegebenen Zeichenstrom.
+	 *
+	 * @param in
+	 *            der zu lesende Strom
+	 * @throws IllegalArgumentException
+	 *             falls in null ist
+	 */
+	public XmlPullReader(Reader in) {
+		if (in == null) {
+			throw new IllegalArgumentException();
+		}
+		this.in = in;
+	}
+
+	/** Methods */
+
+	/**
+	 * Öffnet die gegebene UTF-8 kodierte Xml Datei und setzt den Leser auf ihr Wurzelelement.
+	 *
+	 * @param xmlFile
+	 *            die zu lesende Datei
+	 * @return der Leser, der auf dem Starttag des Wurzelelements steht
+	 * @throws IllegalArgumentException
+	 *             falls xmlFile null ist
+	 * @throws IOException
+	 *             falls die Datei nicht gelesen werden kann oder kein Element enthält
+	 */
+	public static XmlPullReader open(File xmlFile) throws IOException {
+		if (xmlFile == null) {
+			throw new IllegalArgumentException();
+		}
+		XmlPullReader reader = new XmlPullReader(new BufferedReader(new InputStreamReader(new FileInputStream(xmlFile),
+				"UTF-8")));
+		try {
+			if (reader.next() != START_TAG) {
+				throw new IOException("no root element in " + xmlFile);
+			}
+		} catch (IOException e) {
+			reader.close();
+			throw e;
+		}
+		return reader;
+	}
+
+	/**
+	 * Schließt den zugrundeliegenden Strom.
+	 *
+	 * @throws IOException
+	 *             falls das Schließen fehlschlägt
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Liest bis zum nächsten Start- oder Endtag.
+	 *
+	 * @return {@link #START_TAG}, {@link #END_TAG} oder {@link #END_DOCUMENT}
+	 * @throws IOException
+	 *             falls der Strom nicht gelesen werden kann oder kein wohlgeformtes Xml enthält
+	 */
+	public int next() throws IOException {
+		if (event == END_TAG) {
+			depth--;
+		}
+		if (pendingEnd) {
+			pendingEnd = false;
+			attributeCount = 0;
+			return event = END_TAG;
+		}
+		attributeCount = 0;
+
+		int c;
+		while (true) {
+			// skip text up to the next tag
+			do {
+				c = read();
+			} while (c != -1 && c != '<');
+			if (c == -1) {
+				if (depth > 0) {
+					throw new IOException("unexpected end of document");
+				}
+				return event = END_DOCUMENT;
+			}
+
+			c = read();
+			if (c == '?') {
+				skipPast("?>");
+			} else if (c == '!') {
+				c = read();
+				if (c == '-') {
+					skipPast("-->");
+				} else if (c == '[') {
+					skipPast("]]>");
+				} else {
+					skipDeclaration();
+				}
+			} else if (c == '/') {
+				name = readName(skipWhitespace(read()));
+				if (skipWhitespace(lastRead) != '>') {
+					throw new IOException("malformed end tag " + name);
+				}
+				return event = END_TAG;
+			} else {
+				readStartTag(c);
+				depth++;
+				return event = START_TAG;
+			}
+		}
+	}
+
+	/**
+	 * Liest bis zum nächsten direkten Kindelement des Elements der gegebenen Tiefe. Tiefer verschachtelte Elemente
+	 * werden übersprungen.
+	 *
+	 * @param parentDepth
+	 *            die Tiefe des Elternelements, wie sie {@link #getDepth()} auf dessen Starttag liefert
+	 * @return true, falls der Leser auf dem Starttag eines Kindelements steht, false falls er auf dem Endtag des
+	 *         Elternelements steht
+	 * @throws IOException
+	 *             falls der Strom nicht gelesen werden kann oder vorzeitig endet
+	 */
+	public boolean nextChild(int parentDepth) throws IOException {
+		while (true) {
+			int e = next();
+			if (e == START_TAG && depth == parentDepth + 1) {
+				return true;
+			} else if (e == END_TAG && depth == parentDepth) {
+				return false;
+			} else if (e == END_DOCUMENT) {
+				throw new IOException("unexpected end of document");
+			}
+		}
+	}
+
+	/**
+	 * Liest das Element, auf dessen Starttag der Leser steht, bis einschließlich seines Endtags in einen XmlTree. Für
+	 * kleine Teilbäume, deren Klassen nur {@link Xmlable#fillFromXml(XmlTree)} anbieten.
+	 *
+	 * @return der gelesene Teilbaum
+	 * @throws IOException
+	 *             falls der Strom nicht gelesen werden kann oder vorzeitig endet
+	 */
+	public XmlTree readTree() throws IOException {
+		XmlTree tree = new XmlTree(name);
+		for (int i = 0; i < attributeCount; i++) {
+			tree.addAttribute(new XmlAttribute(attributeNames[i], attributeValues[i]));
+		}
+		int d = depth;
+		while (nextChild(d)) {
+			tree.addChild(readTree());
+		}
+		return tree;
+	}
+
+	/**
+	 * Gibt die Tiefe des aktuellen Tags zurück. Das Wurzelelement hat die Tiefe 1, Start- und Endtag eines Elements
+	 * haben dieselbe Tiefe.
+	 *
+	 * @return die Tiefe
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Gibt den Namen des aktuellen Tags zurück.
+	 *
+	 * @return der Name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gibt die Anzahl der Attribute des aktuellen Starttags zurück.
+	 *
+	 * @return die Anzahl der Attribute
+	 */
+	public int getAttributeCount() {
+		return attributeCount;
+	}
+
+	/**
+	 * Gibt den Namen des Attributs mit dem gegebenen Index zurück.
+	 *
+	 * @param index
+	 *            der Index, kleiner als {@link #getAttributeCount()}
+	 * @return der Name
+	 */
+	public String getAttributeName(int index) {
+		return attributeNames[index];
+	}
+
+	/**
+	 * Gibt den Wert des Attributs mit dem gegebenen Index zurück.
+	 *
+	 * @param index
+	 *            der Index, kleiner als {@link #getAttributeCount()}
+	 * @return der Wert
+	 */
+	public String getAttributeValue(int index) {
+		return attributeValues[index];
+	}
+
+	/**
+	 * Gibt den Wert des Attributs mit dem gegebenen Namen im aktuellen Starttag zurück.
+	 *
+	 * @param attributeName
+	 *            der Name des Attributs
+	 * @return der Wert oder null, falls es kein solches Attribut gibt
+	 */
+	public String getAttributeValue(String attributeName) {
+		for (int i = 0; i < attributeCount; i++) {
+			if (attributeNames[i].equals(attributeName)) {
+				return attributeValues[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gibt den Wert des Attributs mit dem gegebenen Namen als Zahl zurück.
+	 *
+	 * @param attributeName
+	 *            der Name des Attributs
+	 * @return der Wert
+	 * @throws NumberFormatException
+	 *             falls das Attribut fehlt oder keine Zahl ist
+	 */
+	public int getIntAttribute(String attributeName) {
+		return Integer.parseInt(getAttributeValue(attributeName));
+	}
+
+	private int read() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return lastRead = -1;
+			}
+		}
+		return lastRead = buffer[position++];
+	}
+
+	private int skipWhitespace(int c) throws IOException {
+		while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+			c = read();
+		}
+		return c;
+	}
+
+	private void skipPast(String end) throws IOException {
+		int matched = 0;
+		while (matched < end.length()) {
+			int c = read();
+			if (c == -1) {
+				throw new IOException("unexpected end of document");
+			} else if (c == end.charAt(matched)) {
+				matched++;
+			} else {
+				matched = c == end.charAt(0) ? 1 : 0;
+			}
+		}
+	}
+
+	private void skipDeclaration() throws IOException {
+		int brackets = 0;
+		int c;
+		while ((c = read()) != '>' || brackets > 0) {
+			if (c == -1) {
+				throw new IOException("unexpected end of document");
+			} else if (c == '[') {
+				brackets++;
+			} else if (c == ']') {
+				brackets--;
+			}
+		}
+	}
+
+	/**
+	 * Liest einen Namen beginnend mit dem gegebenen Zeichen. Danach enthält lastRead das erste Zeichen nach dem Namen.
+	 * Ein Anführungszeichen gehört nie zu einem Namen, sondern deutet auf ein fehlerhaftes Attribut hin.
+	 */
+	private String readName(int c) throws IOException {
+		textLength = 0;
+		while (c != -1 && c != '=' && c != '>' && c != '/' && c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+			if (c == '"' || c == '\'') {
+				throw new IOException("unexpected quote in name " + new String(text, 0, textLength));
+			}
+			append(c);
+			c = read();
+		}
+		if (textLength == 0) {
+			throw new IOException("missing name");
+		}
+		return new String(text, 0, textLength);
+	}
+
+	private void readStartTag(int c) throws IOException {
+		name = readName(c);
+		c = skipWhitespace(lastRead);
+		while (c != '>') {
+			if (c == '/') {
+				if (read() != '>') {
+					throw new IOException("malformed empty element " + name);
+				}
+				pendingEnd = true;
+				return;
+			}
+			String attributeName = readName(c);
+			if (skipWhitespace(lastRead) != '=') {
+				throw new IOException("missing value of attribute " + attributeName);
+			}
+			int quote = skipWhitespace(read());
+			if (quote != '"' && quote != '\'') {
+				throw new IOException("unquoted value of attribute " + attributeName);
+			}
+			addAttribute(attributeName, readValue(quote));
+			c = skipWhitespace(read());
+		}
+	}
+
+	private String readValue(int quote) throws IOException {
+		textLength = 0;
+		int c;
+		while ((c = read()) != quote) {
+			if (c == -1 || c == '<') {
+				throw new IOException("malformed attribute value");
+			} else if (c == '&') {
+				for (char part : Character.toChars(readEntity())) {
+					append(part);
+				}
+			} else {
+				append(c);
+			}
+		}
+		return new String(text, 0, textLength);
+	}
+
+	/**
+	 * Liest eine Entität nach dem einleitenden '&' und gibt das bezeichnete Zeichen als Unicode-Codepoint zurück.
+	 */
+	private int readEntity() throws IOException {
+		StringBuilder entity = new StringBuilder(8);
+		int c;
+		while ((c = read()) != ';') {
+			if (c == -1 || entity.length() > 10) {
+				throw new IOException("malformed entity");
+			}
+			entity.append((char) c);
+		}
+		String e = entity.toString();
+		if (e.equals("amp")) {
+			return '&';
+		} else if (e.equals("lt")) {
+			return '<';
+		} else if (e.equals("gt")) {
+			return '>';
+		} else if (e.equals("quot")) {
+			return '"';
+		} else if (e.equals("apos")) {
+			return '\'';
+		} else if (e.startsWith("#")) {
+			int codePoint;
+			try {
+				codePoint = e.startsWith("#x") ? Integer.parseInt(e.substring(2), 16) : Integer.parseInt(e.substring(1));
+			} catch (NumberFormatException ex) {
+				throw new IOException("malformed entity &" + e + ";");
+			}
+			if (!Character.isValidCodePoint(codePoint)) {
+				throw new IOException("invalid character &" + e + ";");
+			}
+			return codePoint;
+		}
+		throw new IOException("unknown entity &" + e + ";");
+	}
+
+	private void append(int c) {
+		if (textLength == text.length) {
+			text = Arrays.copyOf(text, text.length * 2);
+		}
+		text[textLength++] = (char) c;
+	}
+
+	private void addAttribute(String attributeName, String value) {
+		if (attributeCount == attributeNames.length) {
+			attributeNames = Arrays.copyOf(attributeNames, attributeCount * 2);
+			attributeValues = Arrays.copyOf(attributeValues, attributeCount * 2);
+		}
+		attributeNames[attributeCount] = attributeName;
+		attributeValues[attributeCount] = value;
+		attributeCount++;
+	}
+}
@@ -1,8 +1,13 @@
 package de.sudoq.model;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
 import de.sudoq.model.ModelChangeListener;
@@ -39,12 +44,71 @@ public class ObservableModelTest {
 		assertTrue(listener.callCount == 1);
 	}
 
+	@Test
+	public void testBatchCoalescesPerObject() {
+		ObservableModelImpl<String> observable = new ObservableModelImpl<String>() {
+		};
+		Listener<String> listener = new Listener<String>();
+		observable.registerListener(listener);
+		String a = "a";
+		String b = "b";
+
+		observable.beginBatch();
+		observable.notifyListeners(a);
+		observable.beginBatch();
+		observable.notifyListeners(b);
+		observable.notifyListeners(a);
+		observable.endBatch();
+		assertTrue(observable.isInBatch());
+		assertEquals(0, listener.callCount);
+
+		observable.endBatch();
+		assertFalse(observable.isInBatch());
+		assertEquals(2, listener.callCount);
+		assertEquals(a, listener.changed.get(0));
+		assertEquals(b, listener.changed.get(1));
+
+		observable.notifyListeners(a);
+		assertEquals(3, listener.callCount);
+	}
+
+	@Test
+	public void testImmediateListenerIgnoresBatch() {
+		ObservableModelImpl<String> observable = new ObservableModelImpl<String>() {
+		};
+		Listener<String> immediate = new Listener<String>();
+		Listener<String> deferred = new Listener<String>();
+		observable.registerImmediateListener(immediate);
+		observable.registerListener(deferred);
+
+		observable.beginBatch();
+		observable.notifyListeners("a");
+		observable.notifyListeners("a");
+		assertEquals(2, immediate.callCount);
+		assertEquals(0, deferred.callCount);
+		observable.endBatch();
+		assertEquals(2, immediate.callCount);
+		assertEquals(1, deferred.callCount);
+
+		observable.removeListener(immediate);
+		observable.notifyListeners("b");
+		assertEquals(2, immediate.callCount);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testEndBatchWithoutBegin() {
+		new ObservableModelImpl<String>() {
+		}.endBatch();
+	}
+
 	class Listener<T> implements ModelChangeListener<T> {
 		int callCount = 0;
+		List<T> changed = new ArrayList<T>();
 
 		@Override
 		public void onModelChanged(T obj) {
 			callCount++;
+			changed.add(obj);
 		}
 
 	}
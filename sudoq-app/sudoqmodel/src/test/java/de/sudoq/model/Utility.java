@@ -4,8 +4,10 @@ import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
 
 import de.sudoq.model.files.FileManager;
+import de.sudoq.model.profile.Profile;
 
 /**
  * abstract utility class for operations shared by several tests
@@ -21,19 +23,65 @@ public abstract class Utility {
     * */
     public static void copySudokus() {
         String res = "res" + File.separator;
-        sudokus = new File(res  + "tmp_suds");
-        profiles = new File(res + "tmp_profiles");
+        copySudokus(new File(res + "tmp_suds"), new File(res + "tmp_profiles"));
+    }
+
+    /*
+    * Copy files from assets to the given temporary dirs for testing
+    * also init Filemanager
+    * */
+    public static void copySudokus(File sudokuDir, File profileDir) {
+        sudokus = sudokuDir;
+        profiles = profileDir;
         sudokus.mkdir();
 
         try {
             String path = "sudoqapp/src/main/assets/sudokus/".replaceAll("/",File.separator);
             FileUtils.copyDirectory(new File(path), sudokus);
             System.out.println("path:");
-            System.out.println((new File(res)).getAbsolutePath());
+            System.out.println(sudokus.getParentFile().getAbsolutePath());
         } catch (IOException e) {
             e.printStackTrace();
         }
         profiles.mkdir();
         FileManager.initialize(profiles, sudokus);
     }
-}
\ No newline at end of file
+
+    /*
+    * Remember the directories of the FileManager and the Profile instance,
+    * so a test class can put them back when it is done
+    * */
+    public static Object[] saveState() {
+        return new Object[] { get(FileManager.class, "profiles"), get(FileManager.class, "sudokus"),
+                get(Profile.class, "instance") };
+    }
+
+    /*
+    * Put back the state from saveState
+    * */
+    public static void restoreState(Object[] state) {
+        set(FileManager.class, "profiles", state[0]);
+        set(FileManager.class, "sudokus", state[1]);
+        set(Profile.class, "instance", state[2]);
+    }
+
+    private static Object get(Class<?> c, String name) {
+        try {
+            Field f = c.getDeclaredField(name);
+            f.setAccessible(true);
+            return f.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void set(Class<?> c, String name, Object value) {
+        try {
+            Field f = c.getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(null, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.sudoq.model.actionTree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.sudoq.model.sudoku.Field;
+
+public class ActionTreeLayoutTests {
+
+	private final ActionFactory factory = new SolveActionFactory();
+	private final Field field = new Field(-1, 1);
+
+	/**
+	 * Berechnet die Zeilen aller Elemente wie die frühere Ansicht von der
+	 * Wurzel aus.
+	 */
+	private static int reference(ActionTreeElement element, int row, Map<ActionTreeElement, Integer> rows) {
+		rows.put(element, row);
+		int height = 0;
+		for (ActionTreeElement child : element) {
+			height += reference(child, row + height, rows);
+		}
+		return Math.max(height, 1);
+	}
+
+	private static void assertMatchesReference(ActionTree tree) {
+		ActionTreeLayout layout = tree.getLayout();
+		Map<ActionTreeElement, Integer> rows = new HashMap<ActionTreeElement, Integer>();
+		int height = reference(tree.getRoot(), 0, rows);
+		assertEquals(height, layout.getRowCount());
+
+		int elements = 0;
+		for (int column = 0; column < layout.getColumnCount(); column++) {
+			int previous = -1;
+			for (int i = 0; i < layout.getColumnSize(column); i++) {
+				ActionTreeElement element = layout.getElement(column, i);
+				int row = layout.getRow(element);
+				assertEquals(rows.get(element).intValue(), row);
+				assertEquals(element.getDepth(), column);
+				assertEquals(element, layout.getElementAt(column, row));
+				assertTrue(row > previous);
+				previous = row;
+				elements++;
+			}
+		}
+		assertEquals(tree.getSize(), elements);
+	}
+
+	@Test
+	public void testBranchesShiftLaterSiblings() {
+		ActionTree tree = new ActionTree();
+		ActionTreeElement root = tree.add(factory.createAction(1, field), null);
+		ActionTreeLayout layout = tree.getLayout();
+		ActionTreeElement a = tree.add(factory.createAction(1, field), root);
+		ActionTreeElement a1 = tree.add(factory.createAction(1, field), a);
+		ActionTreeElement b = tree.add(factory.createAction(2, field), root);
+		assertEquals(0, layout.getRow(a1));
+		assertEquals(1, layout.getRow(b));
+
+		ActionTreeElement a2 = tree.add(factory.createAction(2, field), a);
+		assertEquals(1, layout.getRow(a2));
+		assertEquals(2, layout.getRow(b));
+		assertEquals(3, layout.getRowCount());
+		assertEquals(3, layout.getColumnCount());
+		assertNull(layout.getElementAt(2, 2));
+		assertMatchesReference(tree);
+	}
+
+	@Test
+	public void testRedundantActionShiftsNothing() {
+		ActionTree tree = new ActionTree();
+		ActionTreeElement root = tree.add(factory.createAction(1, field), null);
+		ActionTreeElement a = tree.add(factory.createAction(1, field), root);
+		tree.add(factory.createAction(2, field), root);
+		ActionTreeLayout layout = tree.getLayout();
+
+		assertSame(a, tree.add(factory.createAction(1, field), root));
+		assertEquals(2, layout.getRowCount());
+		assertEquals(2, layout.getColumnSize(1));
+		assertMatchesReference(tree);
+	}
+
+	@Test
+	public void testIncrementalMatchesReference() {
+		Random random = new Random(42);
+		ActionTree tree = new ActionTree();
+		List<ActionTreeElement> elements = new ArrayList<ActionTreeElement>();
+		elements.add(tree.add(factory.createAction(1, field), null));
+		tree.getLayout();
+		for (int i = 0; i < 500; i++) {
+			// mostly extend the last move, sometimes branch off an earlier one
+			ActionTreeElement mount = random.nextInt(4) == 0 ? elements.get(random.nextInt(elements.size()))
+					: elements.get(elements.size() - 1);
+			elements.add(tree.add(factory.createAction(random.nextInt(5), field), mount));
+		}
+		assertMatchesReference(tree);
+	}
+
+	@Test
+	public void testRestoredTreeIsLaidOutAgain() {
+		ActionTree tree = new ActionTree();
+		ActionTreeElement root = tree.restore(1, factory.createAction(1, field), null);
+		ActionTreeLayout layout = tree.getLayout();
+		ActionTreeElement a = tree.restore(2, factory.createAction(1, field), root);
+		tree.restore(3, factory.createAction(2, field), root);
+		tree.restore(4, factory.createAction(1, field), a);
+		tree.restore(5, factory.createAction(2, field), a);
+
+		assertNotSame(layout, tree.getLayout());
+		assertEquals(3, tree.getLayout().getRowCount());
+		assertMatchesReference(tree);
+	}
+}
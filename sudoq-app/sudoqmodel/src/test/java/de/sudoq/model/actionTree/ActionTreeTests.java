@@ -156,4 +156,66 @@ public class ActionTreeTests {
 		List<ActionTreeElement> a = ActionTree.findPath(ate2, ate4);
 		assertNull(a);
 	}
+
+	@Test
+	public void testDepthAndElementIndex() {
+		ActionTree at = new ActionTree();
+		ActionFactory factory = new SolveActionFactory();
+		Field field = new Field(-1, 1);
+
+		ActionTreeElement ate1 = at.add(factory.createAction(1, field), null);
+		ActionTreeElement ate2 = at.add(factory.createAction(2, field), ate1);
+		ActionTreeElement ate3 = at.add(factory.createAction(3, field), ate1);
+		ActionTreeElement ate4 = at.add(factory.createAction(4, field), ate3);
+
+		assertEquals(0, ate1.getDepth());
+		assertEquals(1, ate2.getDepth());
+		assertEquals(1, ate3.getDepth());
+		assertEquals(2, ate4.getDepth());
+
+		assertTrue(at.getElement(1) == ate1);
+		assertTrue(at.getElement(4) == ate4);
+		assertNull(at.getElement(5));
+
+		assertTrue(ActionTree.findLowestCommonAncestor(ate2, ate4) == ate1);
+		assertTrue(ActionTree.findLowestCommonAncestor(ate4, ate3) == ate3);
+		assertTrue(ActionTree.findLowestCommonAncestor(ate4, ate4) == ate4);
+	}
+
+	@Test(timeout = 10000)
+	public void testFindPathInDeepTree() {
+		ActionTree at = new ActionTree();
+		ActionFactory factory = new SolveActionFactory();
+		Field field = new Field(-1, 1);
+
+		ActionTreeElement root = at.add(factory.createAction(1, field), null);
+		ActionTreeElement fork = root;
+		ActionTreeElement left = root;
+		for (int i = 0; i < 100000; i++) {
+			left = at.add(factory.createAction(i % 9 + 2, field), left);
+			if (i == 49999) {
+				fork = left;
+			}
+		}
+		ActionTreeElement right = fork;
+		for (int i = 0; i < 1000; i++) {
+			right = at.add(factory.createAction(i % 9 + 12, field), right);
+		}
+
+		assertEquals(100000, left.getDepth());
+		assertEquals(101001, at.getSize());
+		for (int i = 0; i < 100000; i += 997) {
+			ActionTreeElement ancestor = at.getElement(i + 2);
+			assertEquals(i + 1, ancestor.getDepth());
+			assertTrue(ActionTree.findLowestCommonAncestor(left, ancestor) == ancestor);
+		}
+		assertTrue(ActionTree.findLowestCommonAncestor(left, right) == fork);
+		assertTrue(ActionTree.findLowestCommonAncestor(right, left) == fork);
+
+		List<ActionTreeElement> path = ActionTree.findPath(left, right);
+		assertEquals(50000 + 1000 + 1, path.size());
+		assertTrue(path.get(0) == left);
+		assertTrue(path.get(50000) == fork);
+		assertTrue(path.get(path.size() - 1) == right);
+	}
 }
@@ -0,0 +1,70 @@
+package de.sudoq.model.files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TemplateArchiveTests {
+
+	private static final File assets = new File("sudoqapp/src/main/assets/sudokus".replaceAll("/", File.separator));
+
+	private File tmp;
+
+	@Before
+	public void init() {
+		tmp = new File("res" + File.separator + "tmp_archive");
+		tmp.mkdirs();
+	}
+
+	@After
+	public void clean() throws IOException {
+		FileManager.deleteDir(tmp);
+	}
+
+	@Test
+	public void testPackAndExtract() throws IOException {
+		File archive = new File(tmp, TemplateArchive.FILE_NAME);
+		File target = new File(tmp, "sudokus");
+
+		int packed = TemplateArchive.pack(assets, archive);
+		assertEquals(FileUtils.listFiles(assets, null, true).size(), packed);
+		assertEquals(packed, TemplateArchive.extract(new FileInputStream(archive), target));
+
+		for (Object o : FileUtils.listFiles(assets, null, true)) {
+			File f = (File) o;
+			String relative = f.getPath().substring(assets.getPath().length());
+			assertTrue(relative, FileUtils.contentEquals(f, new File(target, relative)));
+		}
+	}
+
+	@Test
+	public void testExtractRejectsEntriesOutsideTarget() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ZipOutputStream zip = new ZipOutputStream(bytes);
+		zip.putNextEntry(new ZipEntry("../evil.xml"));
+		zip.write(1);
+		zip.closeEntry();
+		zip.close();
+
+		try {
+			TemplateArchive.extract(new ByteArrayInputStream(bytes.toByteArray()), new File(tmp, "sudokus"));
+			fail("No Exception thrown");
+		} catch (IOException e) {
+			// expected
+		}
+		assertTrue(!new File(tmp, "evil.xml").exists());
+	}
+}
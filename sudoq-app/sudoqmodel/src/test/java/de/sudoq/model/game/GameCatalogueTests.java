@@ -0,0 +1,102 @@
+package de.sudoq.model.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.XmlHelper;
+import de.sudoq.model.xml.XmlTree;
+
+public class GameCatalogueTests {
+
+	private File file = new File("res" + File.separator + "tmp_catalogue_games.xml");
+
+	@After
+	public void clean() {
+		file.delete();
+	}
+
+	private static GameData data(int id, long playedAt, boolean finished, SudokuTypes type) {
+		return new GameData(id, playedAt, finished, type, Complexity.easy);
+	}
+
+	private static void assertIds(List<GameData> list, int... ids) {
+		assertEquals(ids.length, list.size());
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(ids[i], list.get(i).getId());
+		}
+	}
+
+	@Test
+	public void testSortedViews() {
+		GameCatalogue c = new GameCatalogue(file);
+		c.put(data(1, 1000, false, SudokuTypes.standard9x9));
+		c.put(data(2, 3000, true, SudokuTypes.samurai));
+		c.put(data(3, 2000, false, SudokuTypes.samurai));
+		c.put(data(4, 2000, false, SudokuTypes.standard9x9));
+		c.put(data(5, 500, true, SudokuTypes.standard9x9));
+
+		assertEquals(5, c.size());
+		assertIds(c.list(), 4, 3, 1, 2, 5);
+		assertIds(c.list(false), 4, 3, 1);
+		assertIds(c.list(true), 2, 5);
+		assertIds(c.list(SudokuTypes.samurai), 3, 2);
+		assertIds(c.list(SudokuTypes.Xsudoku));
+
+		// playing a game moves it to the front, finishing it to the finished ones
+		c.update(1, 4000, false);
+		c.update(3, 5000, true);
+		assertIds(c.list(), 1, 4, 3, 2, 5);
+		assertIds(c.list(SudokuTypes.samurai), 3, 2);
+
+		assertEquals(4, c.remove(4).getId());
+		assertNull(c.remove(4));
+		assertNull(c.get(4));
+		assertIds(c.list(SudokuTypes.standard9x9), 1, 5);
+	}
+
+	@Test
+	public void testWriteAndLoad() throws IOException {
+		GameCatalogue c = new GameCatalogue(file);
+		c.put(data(1, 1000000, false, SudokuTypes.standard9x9));
+		c.put(data(2, 2000000, true, SudokuTypes.samurai));
+		assertTrue(c.isDirty());
+		long version = c.getVersion();
+		new XmlHelper().saveXml(c.toXmlTree(), file);
+		c.markWritten(version);
+		assertFalse(c.isDirty());
+		assertTrue(c.isCurrentFor(file));
+
+		GameCatalogue loaded = GameCatalogue.load(file);
+		assertFalse(loaded.isDirty());
+		assertIds(loaded.list(), 1, 2);
+		assertEquals(SudokuTypes.samurai, loaded.get(2).getType());
+		assertTrue(loaded.get(2).isFinished());
+		assertEquals(1000000, loaded.get(1).getPlayedAt().getTime());
+	}
+
+	@Test
+	public void testExternalChangeIsDetected() throws IOException {
+		new XmlHelper().saveXml(new XmlTree("games"), file);
+		GameCatalogue c = GameCatalogue.load(file);
+		assertTrue(c.isCurrentFor(file));
+		assertFalse(c.isCurrentFor(new File("res" + File.separator + "other.xml")));
+
+		file.delete();
+		assertFalse(c.isCurrentFor(file));
+
+		// unwritten changes take precedence over the file
+		c.put(data(1, 1000, false, SudokuTypes.standard9x9));
+		assertTrue(c.isCurrentFor(file));
+	}
+}
@@ -0,0 +1,210 @@
+package de.sudoq.model.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.actionTree.NoteActionFactory;
+import de.sudoq.model.actionTree.SolveActionFactory;
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.profile.Profile;
+import de.sudoq.model.sudoku.Field;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class GameJournalTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		sudokus = new File(res + "tmp_journal_suds");
+		profiles = new File(res + "tmp_journal_profiles");
+
+		FileUtils.copyDirectory(new File(res + "sudokus" + File.separator), sudokus);
+		profiles.mkdir();
+		FileManager.initialize(profiles, sudokus);
+		Profile.getInstance();
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	@After
+	public void deleteAllGames() {
+		// ids are not reused, so they may exceed the number of files
+		for (File f : FileManager.getGamesDir().listFiles()) {
+			f.delete();
+		}
+		GameManager.getInstance().updateGamesList();
+	}
+
+	private static List<Field> emptyFields(Game game) {
+		List<Field> fields = new ArrayList<Field>();
+		for (Field f : game.getSudoku()) {
+			if (f.isEmpty()) {
+				fields.add(f);
+			}
+		}
+		return fields;
+	}
+
+	private static void assertSameGame(Game expected, Game actual) {
+		assertTrue(expected.equals(actual));
+		assertEquals(expected.getTime(), actual.getTime());
+		assertEquals(expected.getAssistancesCost(), actual.getAssistancesCost());
+		for (Field f : expected.getSudoku()) {
+			Field other = actual.getSudoku().getField(f.getId());
+			assertEquals(f.getCurrentValue(), other.getCurrentValue());
+			for (int v = 0; v < f.getNumberOfValues(); v++) {
+				assertEquals(f.isNoteSet(v), other.isNoteSet(v));
+			}
+		}
+	}
+
+	@Test
+	public void testSaveAppendsWithoutRewritingXml() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		File xml = FileManager.getGameFile(game.getId());
+		File journal = FileManager.getGameJournalFile(game.getId());
+		byte[] snapshot = FileUtils.readFileToByteArray(xml);
+		assertTrue(journal.exists());
+
+		List<Field> fields = emptyFields(game);
+		game.addAndExecute(new SolveActionFactory().createAction(fields.get(0).getSolution(), fields.get(0)));
+		game.addAndExecute(new NoteActionFactory().createAction(2, fields.get(1)));
+		game.getStateHandler().markCurrentState();
+		game.addTime(42);
+		gm.save(game);
+		long length = journal.length();
+
+		game.addAndExecute(new SolveActionFactory().createAction(fields.get(2).getSolution(), fields.get(2)));
+		game.checkSudoku();
+		gm.save(game);
+
+		assertArrayEquals(snapshot, FileUtils.readFileToByteArray(xml));
+		assertTrue(journal.length() > length);
+
+		Game loaded = gm.load(game.getId());
+		assertSameGame(game, loaded);
+		assertEquals(game.getCurrentState().getId(), loaded.getCurrentState().getId());
+		assertTrue(loaded.getStateHandler().getActionTree().getElement(3).isMarked());
+		assertTrue(loaded.getCurrentState().isCorrect());
+	}
+
+	@Test
+	public void testRemovedBookmarkStaysRemoved() {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		List<Field> fields = emptyFields(game);
+
+		game.addAndExecute(new SolveActionFactory().createAction(fields.get(0).getSolution(), fields.get(0)));
+		game.markCurrentState();
+		gm.save(game);
+		assertTrue(gm.load(game.getId()).getCurrentState().isMarked());
+
+		game.unmarkCurrentState();
+		gm.save(game);
+		assertFalse(gm.load(game.getId()).getCurrentState().isMarked());
+	}
+
+	@Test
+	public void testBranchesSurviveReload() {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		List<Field> fields = emptyFields(game);
+
+		for (int i = 0; i < 5; i++) {
+			game.addAndExecute(new SolveActionFactory().createAction(fields.get(i).getSolution(), fields.get(i)));
+		}
+		gm.save(game);
+		game.undo();
+		game.undo();
+		game.addAndExecute(new NoteActionFactory().createAction(1, fields.get(5)));
+		gm.save(game);
+		game.undo();
+		gm.save(game);
+
+		Game loaded = gm.load(game.getId());
+		assertSameGame(game, loaded);
+		assertEquals(game.getCurrentState().getId(), loaded.getCurrentState().getId());
+
+		// saving the loaded game continues the same journal
+		loaded.addAndExecute(new SolveActionFactory().createAction(fields.get(6).getSolution(),
+				loaded.getSudoku().getField(fields.get(6).getId())));
+		gm.save(loaded);
+		assertSameGame(loaded, gm.load(game.getId()));
+	}
+
+	@Test
+	public void testTruncatedJournalKeepsCompleteSaves() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		File journal = FileManager.getGameJournalFile(game.getId());
+		List<Field> fields = emptyFields(game);
+
+		game.addAndExecute(new SolveActionFactory().createAction(fields.get(0).getSolution(), fields.get(0)));
+		gm.save(game);
+		int firstState = game.getCurrentState().getId();
+		long complete = journal.length();
+		game.addAndExecute(new SolveActionFactory().createAction(fields.get(1).getSolution(), fields.get(1)));
+		gm.save(game);
+
+		RandomAccessFile raf = new RandomAccessFile(journal, "rw");
+		raf.setLength(complete + 5);
+		raf.close();
+
+		Game loaded = gm.load(game.getId());
+		assertEquals(firstState, loaded.getCurrentState().getId());
+		assertEquals(fields.get(0).getSolution(), loaded.getSudoku().getField(fields.get(0).getId()).getCurrentValue());
+		assertTrue(loaded.getSudoku().getField(fields.get(1).getId()).isEmpty());
+
+		// the damaged journal is replaced by a new snapshot on the next save
+		gm.save(loaded);
+		assertSameGame(loaded, gm.load(game.getId()));
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		File xml = FileManager.getGameFile(game.getId());
+		File journal = FileManager.getGameJournalFile(game.getId());
+		byte[] snapshot = FileUtils.readFileToByteArray(xml);
+		Field field = emptyFields(game).get(0);
+
+		long longest = 0;
+		for (int i = 0; i < GameJournal.MIN_COMPACTION_RECORDS + 10; i++) {
+			game.addAndExecute(new NoteActionFactory().createAction(i % 9, field));
+			gm.save(game);
+			longest = Math.max(longest, journal.length());
+		}
+
+		assertFalse(java.util.Arrays.equals(snapshot, FileUtils.readFileToByteArray(xml)));
+		assertTrue(journal.length() < longest);
+		assertSameGame(game, gm.load(game.getId()));
+	}
+}
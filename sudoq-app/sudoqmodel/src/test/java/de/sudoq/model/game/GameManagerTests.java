@@ -24,6 +24,8 @@ import de.sudoq.model.profile.Profile;
 import de.sudoq.model.sudoku.Field;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.XmlHelper;
+import de.sudoq.model.xml.XmlTree;
 
 public class GameManagerTests {
 
@@ -72,8 +74,9 @@ public class GameManagerTests {
 
 	@After
 	public void deleteAllGames() {
-		for (int i = 1; i <= FileManager.getGamesDir().list().length; i++) {
-			FileManager.deleteGame(i);
+		// ids are not reused, so they may exceed the number of files
+		for (File f : FileManager.getGamesDir().listFiles()) {
+			f.delete();
 		}
 		GameManager.getInstance().updateGamesList();
 	}
@@ -140,6 +143,34 @@ public class GameManagerTests {
 		assertEquals(GameManager.getInstance().getGameList().size(), 1);
 	}
 
+	@Test
+	public void testIdsAreNotReused() {
+		GameManager gm = GameManager.getInstance();
+		Game first = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		Game second = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		assertTrue(second.getId() > first.getId());
+		gm.deleteGame(second.getId());
+		assertTrue(gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings()).getId() > second.getId());
+	}
+
+	@Test
+	public void testGameListIsWrittenBehind() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game1 = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		Game game2 = gm.newGame(SudokuTypes.standard4x4, Complexity.easy, new GameSettings());
+		game2.solveAll();
+		gm.save(game2);
+
+		assertEquals(2, gm.getGameCount());
+		assertEquals(1, gm.getGameList(SudokuTypes.standard4x4).size());
+		assertEquals(game1.getId(), gm.getGameList(false).get(0).getId());
+		assertEquals(game2.getId(), gm.getGameList(true).get(0).getId());
+
+		GameSaveService.getInstance().flush();
+		XmlTree games = new XmlHelper().loadXml(FileManager.getGamesFile());
+		assertEquals(2, games.getNumberOfChildren());
+	}
+
 	@Test
 	public void testSudokuLoading() {
 		GameManager gm = GameManager.getInstance();
@@ -0,0 +1,115 @@
+package de.sudoq.model.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.actionTree.SolveActionFactory;
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.profile.Profile;
+import de.sudoq.model.sudoku.Field;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class GameSaveServiceTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		sudokus = new File(res + "tmp_saver_suds");
+		profiles = new File(res + "tmp_saver_profiles");
+
+		FileUtils.copyDirectory(new File(res + "sudokus" + File.separator), sudokus);
+		profiles.mkdir();
+		FileManager.initialize(profiles, sudokus);
+		Profile.getInstance();
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	@After
+	public void deleteAllGames() {
+		// ids are not reused, so they may exceed the number of files
+		for (File f : FileManager.getGamesDir().listFiles()) {
+			f.delete();
+		}
+		GameManager.getInstance().updateGamesList();
+	}
+
+	@Test
+	public void testRequestedSavesAreWrittenOnFlush() {
+		GameManager gm = GameManager.getInstance();
+		GameSaveService service = GameSaveService.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+
+		List<Field> fields = new ArrayList<Field>();
+		for (Field f : game.getSudoku()) {
+			if (f.isEmpty()) {
+				fields.add(f);
+			}
+		}
+		for (int i = 0; i < 20; i++) {
+			game.addAndExecute(new SolveActionFactory().createAction(fields.get(i).getSolution(), fields.get(i)));
+			game.addTime(1);
+			service.requestSave(game);
+		}
+		game.undo();
+		service.requestSave(game);
+		service.flush();
+
+		Game loaded = gm.load(game.getId());
+		assertTrue(game.equals(loaded));
+		assertEquals(game.getTime(), loaded.getTime());
+		assertEquals(game.getCurrentState().getId(), loaded.getCurrentState().getId());
+		assertTrue(fields.get(19).isEmpty());
+		assertTrue(loaded.getSudoku().getField(fields.get(19).getId()).isEmpty());
+	}
+
+	@Test
+	public void testSaveIfDue() {
+		GameManager gm = GameManager.getInstance();
+		GameSaveService service = GameSaveService.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+
+		try {
+			service.setInterval(0);
+			assertTrue(service.saveIfDue(game));
+			service.setInterval(60000);
+			game.addTime(3);
+			assertFalse(service.saveIfDue(game));
+			service.setInterval(0);
+			assertTrue(service.saveIfDue(game));
+		} finally {
+			service.setInterval(GameSaveService.DEFAULT_INTERVAL);
+		}
+		service.flush();
+		assertEquals(3, gm.load(game.getId()).getTime());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeInterval() {
+		GameSaveService.getInstance().setInterval(-1);
+	}
+}
@@ -8,10 +8,15 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import de.sudoq.model.ModelChangeListener;
 import de.sudoq.model.actionTree.ActionTreeElement;
 import de.sudoq.model.actionTree.NoteActionFactory;
 import de.sudoq.model.actionTree.SolveActionFactory;
@@ -145,6 +150,59 @@ public class GameTests {
 		assertTrue(game.equals(game2));
 	}
 
+	@Test
+	public void testGameXMLRestoresBranchesAndCurrentState() {
+		Game game = new Game(2, new SudokuBuilder(SudokuTypes.standard9x9).createSudoku());
+		Field a = game.getSudoku().getField(Position.get(0, 0));
+		Field b = game.getSudoku().getField(Position.get(4, 4));
+
+		game.addAndExecute(new SolveActionFactory().createAction(1, a));
+		ActionTreeElement fork = game.getCurrentState();
+		game.addAndExecute(new SolveActionFactory().createAction(2, b));
+		game.addAndExecute(new NoteActionFactory().createAction(6, a));
+		game.markCurrentState();
+		game.getCurrentState().markWrong();
+		game.goToState(fork);
+		game.addAndExecute(new SolveActionFactory().createAction(7, b));
+		game.addAndExecute(new SolveActionFactory().createAction(3, a));
+		game.undo();
+
+		Game game2 = new Game();
+		game2.fillFromXml(game.toXmlTree());
+		assertTrue(game.equals(game2));
+		assertEquals(game.getCurrentState().getId(), game2.getCurrentState().getId());
+		assertEquals(1, game2.getSudoku().getField(Position.get(0, 0)).getCurrentValue());
+		assertEquals(7, game2.getSudoku().getField(Position.get(4, 4)).getCurrentValue());
+		assertFalse(game2.getSudoku().getField(Position.get(0, 0)).isNoteSet(6));
+
+		// the other branch is still reachable with its notes and marks
+		ActionTreeElement marked = null;
+		for (ActionTreeElement ate : game2.getStateHandler().getActionTree()) {
+			if (ate.isMarked())
+				marked = ate;
+		}
+		assertNotNull(marked);
+		assertTrue(marked.isMistake());
+		game2.goToState(marked);
+		assertEquals(1, game2.getSudoku().getField(Position.get(0, 0)).getCurrentValue());
+		assertEquals(2, game2.getSudoku().getField(Position.get(4, 4)).getCurrentValue());
+		assertTrue(game2.getSudoku().getField(Position.get(0, 0)).isNoteSet(6));
+	}
+
+	@Test(timeout = 10000)
+	public void testGameXMLLongHistory() {
+		Game game = new Game(2, new SudokuBuilder(SudokuTypes.standard9x9).createSudoku());
+		Field f = game.getSudoku().getField(Position.get(2, 3));
+		for (int i = 0; i < 20000; i++) {
+			game.addAndExecute(new SolveActionFactory().createAction(i % 9, f));
+		}
+
+		Game game2 = new Game();
+		game2.fillFromXml(game.toXmlTree());
+		assertEquals(game.getCurrentState().getId(), game2.getCurrentState().getId());
+		assertEquals(f.getCurrentValue(), game2.getSudoku().getField(Position.get(2, 3)).getCurrentValue());
+	}
+
 	// Regression Test for Issue-89
 	@Test
 	public void testFinishedAttributeConsistency() {
@@ -271,6 +329,54 @@ public class GameTests {
 		assertFalse(game.getSudoku().getField(Position.get(1, 0)).isNoteSet(2));
 	}
 
+	@Test
+	public void testMoveNotifiesViewsOnce() {
+		Game game = new Game(2, new SudokuBuilder(SudokuTypes.standard9x9).createSudoku());
+		GameSettings as = new GameSettings();
+		as.setAssistance(Assistances.autoAdjustNotes);
+		game.setAssistances(as);
+		Field a = game.getSudoku().getField(Position.get(1, 0));
+		Field b = game.getSudoku().getField(Position.get(0, 1));
+		game.addAndExecute(new NoteActionFactory().createAction(2, a));
+		game.addAndExecute(new NoteActionFactory().createAction(2, b));
+
+		final List<ActionTreeElement> states = new ArrayList<ActionTreeElement>();
+		final List<ActionTreeElement> added = new ArrayList<ActionTreeElement>();
+		game.getStateHandler().registerListener(new ModelChangeListener<ActionTreeElement>() {
+			public void onModelChanged(ActionTreeElement obj) {
+				states.add(obj);
+			}
+		});
+		final List<ActionTreeElement> immediate = new ArrayList<ActionTreeElement>();
+		game.getStateHandler().registerImmediateListener(new ModelChangeListener<ActionTreeElement>() {
+			public void onModelChanged(ActionTreeElement obj) {
+				immediate.add(obj);
+			}
+		});
+		game.getStateHandler().getActionTree().registerListener(new ModelChangeListener<ActionTreeElement>() {
+			public void onModelChanged(ActionTreeElement obj) {
+				added.add(obj);
+			}
+		});
+		final List<Field> changed = new ArrayList<Field>();
+		a.registerListener(new ModelChangeListener<Field>() {
+			public void onModelChanged(Field obj) {
+				changed.add(obj);
+			}
+		});
+
+		// the move and the two notes it removes
+		game.addAndExecute(new SolveActionFactory().createAction(2, game.getSudoku().getField(Position.get(0, 0))));
+		assertFalse(a.isNoteSet(2));
+		assertFalse(b.isNoteSet(2));
+		assertEquals(1, states.size());
+		assertEquals(game.getCurrentState(), states.get(0));
+		assertEquals(3, immediate.size());
+		assertEquals(game.getCurrentState(), immediate.get(2));
+		assertEquals(3, added.size());
+		assertEquals(1, changed.size());
+	}
+
 	@Test
 	public void testScore() {
 		for (Complexity c : Complexity.values()) {
@@ -446,4 +552,98 @@ public class GameTests {
 			}
 		}
 	}
+
+	private static String describe(Sudoku sudoku) {
+		StringBuilder sb = new StringBuilder();
+		for (Field f : sudoku) {
+			sb.append(f.getCurrentValue()).append(':');
+			for (int s = 0; s < f.getNumberOfValues(); s++) {
+				sb.append(f.isNoteSet(s) ? '1' : '0');
+			}
+			sb.append(' ');
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void testJumpsMatchRecordedStates() {
+		Game game = new Game(2, new SudokuBuilder(SudokuTypes.standard9x9).createSudoku());
+		Random random = new Random(7);
+		Map<ActionTreeElement, String> states = new HashMap<ActionTreeElement, String>();
+		List<ActionTreeElement> elements = new ArrayList<ActionTreeElement>();
+		states.put(game.getCurrentState(), describe(game.getSudoku()));
+		elements.add(game.getCurrentState());
+
+		for (int i = 0; i < 600; i++) {
+			if (random.nextInt(50) == 0) {
+				game.goToState(elements.get(random.nextInt(elements.size())));
+			}
+			Field field = game.getSudoku().getField(Position.get(random.nextInt(9), random.nextInt(9)));
+			if (random.nextBoolean()) {
+				game.addAndExecute(new SolveActionFactory().createAction(random.nextInt(9), field));
+			} else {
+				game.addAndExecute(new NoteActionFactory().createAction(random.nextInt(9), field));
+			}
+			if (!states.containsKey(game.getCurrentState())) {
+				states.put(game.getCurrentState(), describe(game.getSudoku()));
+				elements.add(game.getCurrentState());
+			}
+		}
+
+		for (int i = 0; i < 200; i++) {
+			ActionTreeElement target = elements.get(random.nextInt(elements.size()));
+			game.goToState(target);
+			assertEquals(target, game.getCurrentState());
+			assertEquals(states.get(target), describe(game.getSudoku()));
+		}
+		game.goToState(game.getStateHandler().getActionTree().getRoot());
+		assertEquals(states.get(game.getCurrentState()), describe(game.getSudoku()));
+	}
+
+	@Test
+	public void testLastCorrectStateAfterCorrection() {
+		SudokuBuilder sb = new SudokuBuilder(SudokuTypes.standard9x9);
+		for (int i = 0; i < 9; i++) {
+			for (int j = 0; j < 9; j++) {
+				sb.addSolution(Position.get(i, j), 1);
+			}
+		}
+		Game game = new Game(2, sb.createSudoku());
+		Field a = game.getSudoku().getField(Position.get(0, 0));
+		Field b = game.getSudoku().getField(Position.get(1, 0));
+		Field c = game.getSudoku().getField(Position.get(5, 5));
+
+		game.addAndExecute(new SolveActionFactory().createAction(2, a));
+		ActionTreeElement wrong = game.getCurrentState();
+		game.addAndExecute(new SolveActionFactory().createAction(1, a));
+		ActionTreeElement corrected = game.getCurrentState();
+		for (int i = 0; i < 100; i++) {
+			game.addAndExecute(new NoteActionFactory().createAction(i % 9, c));
+		}
+		game.addAndExecute(new SolveActionFactory().createAction(3, b));
+		ActionTreeElement last = game.getCurrentState();
+		game.addAndExecute(new NoteActionFactory().createAction(4, b));
+
+		game.goToLastCorrectState();
+		assertEquals(last.getParent(), game.getCurrentState());
+		assertTrue(game.getCurrentState().isCorrect());
+		assertTrue(last.isMistake());
+		assertEquals(Field.EMPTYVAL, b.getCurrentValue());
+
+		game.goToState(wrong);
+		game.goToLastCorrectState();
+		assertEquals(wrong.getParent(), game.getCurrentState());
+		assertEquals(Field.EMPTYVAL, a.getCurrentValue());
+
+		game.goToState(last);
+		game.markCurrentState();
+		game.goToState(corrected);
+		game.goToLastBookmark();
+		assertEquals(game.getStateHandler().getActionTree().getRoot(), game.getCurrentState());
+		game.goToState(last.getChildren().next());
+		game.goToLastBookmark();
+		assertEquals(last, game.getCurrentState());
+		assertEquals(1, a.getCurrentValue());
+		assertEquals(3, b.getCurrentValue());
+	}
 }
@@ -0,0 +1,140 @@
+package de.sudoq.model.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.actionTree.SolveActionFactory;
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.profile.Profile;
+import de.sudoq.model.sudoku.Field;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class GameThumbnailTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		sudokus = new File(res + "tmp_thumbnail_suds");
+		profiles = new File(res + "tmp_thumbnail_profiles");
+
+		FileUtils.copyDirectory(new File(res + "sudokus" + File.separator), sudokus);
+		profiles.mkdir();
+		FileManager.initialize(profiles, sudokus);
+		Profile.getInstance();
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	@After
+	public void deleteAllGames() {
+		// ids are not reused, so they may exceed the number of files
+		for (File f : FileManager.getGamesDir().listFiles()) {
+			f.delete();
+		}
+		GameManager.getInstance().updateGamesList();
+	}
+
+	private static void assertMatches(Sudoku sudoku, GameThumbnail thumbnail) {
+		assertEquals(sudoku.getSudokuType().getEnumType(), thumbnail.getType());
+		assertEquals(sudoku.getSudokuType().getSize().getX(), thumbnail.getWidth());
+		assertEquals(sudoku.getSudokuType().getSize().getY(), thumbnail.getHeight());
+		for (int y = 0; y < thumbnail.getHeight(); y++) {
+			for (int x = 0; x < thumbnail.getWidth(); x++) {
+				Field f = sudoku.getField(Position.get(x, y));
+				int expected = f == null ? GameThumbnail.NO_FIELD : !f.isEditable() ? GameThumbnail.GIVEN
+						: f.isEmpty() ? GameThumbnail.EMPTY : GameThumbnail.FILLED;
+				assertEquals(expected, thumbnail.getState(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testThumbnailIsSavedWithTheGame() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.samurai, Complexity.easy, new GameSettings());
+		File file = FileManager.getGameThumbnailDataFile(game.getId());
+		assertMatches(game.getSudoku(), GameThumbnail.read(file));
+		assertEquals(GameThumbnail.NO_FIELD, GameThumbnail.read(file).getState(9, 0));
+		// two bits per position
+		assertTrue(file.length() < 12 + 21 * 21 / 4 + 1);
+
+		for (Field f : game.getSudoku()) {
+			if (f.isEmpty()) {
+				game.solveField(f);
+				break;
+			}
+		}
+		gm.save(game);
+		assertMatches(game.getSudoku(), GameThumbnail.read(file));
+
+		gm.deleteGame(game.getId());
+		assertTrue(!file.exists());
+	}
+
+	@Test
+	public void testMissingThumbnailIsGenerated() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		gm.save(game);
+		// a game of an older version, which only has an image
+		File file = FileManager.getGameThumbnailDataFile(game.getId());
+		assertTrue(file.delete());
+		assertTrue(FileManager.getGameThumbnailFile(game.getId()).createNewFile());
+
+		assertMatches(game.getSudoku(), gm.getThumbnail(game.getId()));
+		assertMatches(game.getSudoku(), GameThumbnail.read(file));
+		assertTrue(!FileManager.getGameThumbnailFile(game.getId()).exists());
+	}
+
+	@Test
+	public void testMissingThumbnailLeavesGameFiles() throws IOException {
+		GameManager gm = GameManager.getInstance();
+		Game game = gm.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings());
+		for (Field f : game.getSudoku()) {
+			if (f.isEmpty()) {
+				game.addAndExecute(new SolveActionFactory().createAction(f.getSolution(), f));
+				break;
+			}
+		}
+		gm.save(game);
+		File xml = FileManager.getGameFile(game.getId());
+		File journal = FileManager.getGameJournalFile(game.getId());
+		byte[] snapshot = FileUtils.readFileToByteArray(xml);
+		byte[] changes = FileUtils.readFileToByteArray(journal);
+		assertTrue(FileManager.getGameThumbnailDataFile(game.getId()).delete());
+
+		assertEquals(SudokuTypes.standard9x9, gm.getThumbnail(game.getId()).getType());
+		assertArrayEquals(snapshot, FileUtils.readFileToByteArray(xml));
+		assertArrayEquals(changes, FileUtils.readFileToByteArray(journal));
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidFile() throws IOException {
+		GameThumbnail.read(FileManager.getGameFile(GameManager.getInstance()
+				.newGame(SudokuTypes.standard9x9, Complexity.easy, new GameSettings()).getId()));
+	}
+}
@@ -0,0 +1,120 @@
+package de.sudoq.model.solverGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.SudokuBinaryFormat;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class BatchGeneratorTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		Utility.copySudokus(new File(res + "tmp_batch_suds"), new File(res + "tmp_batch_profiles"));
+		profiles = Utility.profiles;
+		sudokus = Utility.sudokus;
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	private static int countFiles(Complexity complexity, String suffix) {
+		File dir = new File(sudokus, SudokuTypes.standard9x9 + File.separator + complexity);
+		int n = 0;
+		for (File f : dir.listFiles()) {
+			if (f.getName().endsWith(suffix))
+				n++;
+		}
+		return n;
+	}
+
+	private static BatchGenerator batch(int count, Complexity complexity) {
+		return new BatchGenerator(count, Arrays.asList(SudokuTypes.standard9x9), Arrays.asList(complexity), 2,
+				Generator.NO_LIMIT);
+	}
+
+	@Test
+	public void testGenerateXml() throws InterruptedException {
+		int before = countFiles(Complexity.easy, ".xml");
+		BatchGenerator batch = batch(3, Complexity.easy);
+		List<BatchGenerator.Result> results = batch.run();
+
+		assertEquals(1, results.size());
+		BatchGenerator.Result result = results.get(0);
+		assertEquals(3, result.getGenerated());
+		assertEquals(0, result.getFailed());
+		assertEquals(0, result.getMissing());
+		assertEquals(3, result.getComplexityValues().size());
+		assertTrue(batch.isComplete());
+		assertEquals(before + 3, countFiles(Complexity.easy, ".xml"));
+	}
+
+	@Test
+	public void testGenerateBinary() throws InterruptedException {
+		int before = countFiles(Complexity.medium, SudokuBinaryFormat.FILE_SUFFIX);
+		BatchGenerator batch = batch(2, Complexity.medium);
+		batch.setBinary(true);
+		batch.run();
+
+		assertTrue(batch.isComplete());
+		assertEquals(before + 2, countFiles(Complexity.medium, SudokuBinaryFormat.FILE_SUFFIX));
+		File dir = new File(sudokus, SudokuTypes.standard9x9 + File.separator + Complexity.medium);
+		for (File f : dir.listFiles()) {
+			if (f.getName().endsWith(SudokuBinaryFormat.FILE_SUFFIX))
+				assertNotNull(SudokuBinaryFormat.load(f));
+		}
+	}
+
+	@Test
+	public void testFailedGenerationsAreRetriedAndReported() throws InterruptedException {
+		int before = countFiles(Complexity.difficult, ".xml");
+		BatchGenerator batch = batch(2, Complexity.difficult);
+		batch.setIterationLimit(0);
+		BatchGenerator.Result result = batch.run().get(0);
+
+		assertEquals(0, result.getGenerated());
+		assertEquals(2 * BatchGenerator.MAX_ATTEMPTS, result.getFailed());
+		assertEquals(2 * BatchGenerator.MAX_ATTEMPTS, result.getFailed(GenerationFailure.ITERATION_LIMIT_EXCEEDED));
+		assertEquals(0, result.getFailed(GenerationFailure.TIME_LIMIT_EXCEEDED));
+		assertEquals(2, result.getMissing());
+		assertFalse(batch.isComplete());
+		assertEquals(before, countFiles(Complexity.difficult, ".xml"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		batch.printReport(new PrintStream(out), 1000);
+		String report = out.toString();
+		assertTrue(report.contains("ITERATION_LIMIT_EXCEEDED=" + 2 * BatchGenerator.MAX_ATTEMPTS));
+		assertTrue(report.contains("2 missing"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNothingToGenerate() {
+		batch(0, Complexity.easy);
+	}
+}
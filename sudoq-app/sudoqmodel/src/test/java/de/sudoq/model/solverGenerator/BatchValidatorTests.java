@@ -0,0 +1,81 @@
+package de.sudoq.model.solverGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+import de.sudoq.model.sudoku.sudokuTypes.TypeBuilder;
+
+public class BatchValidatorTests {
+
+	private static final String GRID = "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......";
+
+	private static SudokuType type;
+	private static List<Position> positions;
+
+	@BeforeClass
+	public static void init() {
+		type = TypeBuilder.get99();
+		positions = BatchValidator.gridPositions(type);
+	}
+
+	@Test
+	public void testGridPositions() {
+		assertEquals(81, positions.size());
+		assertEquals(Position.get(0, 0), positions.get(0));
+		assertEquals(Position.get(1, 0), positions.get(1));
+		assertEquals(Position.get(0, 1), positions.get(9));
+	}
+
+	@Test
+	public void testParseGrid() {
+		Sudoku sudoku = BatchValidator.parseGrid(type, positions, GRID);
+		assertEquals(3, sudoku.getField(Position.get(0, 0)).getCurrentValue());
+		assertTrue(!sudoku.getField(Position.get(0, 0)).isEditable());
+		assertTrue(sudoku.getField(Position.get(1, 0)).isEmpty());
+		assertEquals(4, sudoku.getField(Position.get(8, 0)).getCurrentValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseGridWrongLength() {
+		BatchValidator.parseGrid(type, positions, "123");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseGridIllegalSymbol() {
+		BatchValidator.parseGrid(type, positions, GRID.replace('4', 'A'));
+	}
+
+	@Test
+	public void testValidate() {
+		Sudoku sudoku = BatchValidator.parseGrid(type, positions, GRID);
+		sudoku.setComplexity(Complexity.infernal);
+		String[] columns = BatchValidator.validate("line 1", sudoku, false).split("\t");
+
+		assertEquals(6, columns.length);
+		assertEquals("line 1", columns[0]);
+		assertEquals("infernal", columns[1]);
+		assertEquals("unique", columns[2]);
+		assertTrue(columns[5].startsWith("NakedSingle="));
+	}
+
+	@Test
+	public void testValidateAmbiguous() {
+		Sudoku sudoku = BatchValidator.parseGrid(type, positions, GRID.substring(0, 40).replace('4', '.')
+				+ GRID.substring(40).replace('8', '.'));
+		sudoku.setComplexity(Complexity.infernal);
+		String[] columns = BatchValidator.validate("line 1", sudoku, false).split("\t");
+
+		assertEquals("ambiguous", columns[2]);
+		assertEquals("INVALID", columns[3]);
+	}
+
+}
@@ -1,14 +1,19 @@
 package de.sudoq.model.solverGenerator;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import de.sudoq.model.solverGenerator.Generator;
 import de.sudoq.model.solverGenerator.GeneratorCallback;
+import de.sudoq.model.solverGenerator.solver.ComplexityRelation;
 import de.sudoq.model.sudoku.Sudoku;
 import de.sudoq.model.sudoku.complexity.Complexity;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.sudoku.sudokuTypes.TypeBuilder;
 
 public class GeneratorUnitTests implements GeneratorCallback {
 
@@ -17,6 +22,91 @@ public class GeneratorUnitTests implements GeneratorCallback {
 		assertFalse(new Generator().generate(null, Complexity.arbitrary, this));
 		assertFalse(new Generator().generate(SudokuTypes.standard9x9, null, this));
 		assertFalse(new Generator().generate(SudokuTypes.standard9x9, Complexity.arbitrary, null));
+		assertNull(new Generator().startGeneration(null, Complexity.arbitrary, this));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalTimeLimit() {
+		new Generator().setTimeLimit(-2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalIterationLimit() {
+		new Generator().setIterationLimit(-2);
+	}
+
+	@Test
+	public void testIterationLimit() throws InterruptedException {
+		TypeBuilder.get99();
+		Generator generator = new Generator();
+		generator.setIterationLimit(0);
+		RecordingCallback callback = new RecordingCallback(false);
+		GenerationHandle handle = generator.startGeneration(SudokuTypes.samurai, Complexity.infernal, callback);
+		callback.await();
+
+		assertEquals(GenerationFailure.ITERATION_LIMIT_EXCEEDED, callback.failure);
+		assertNull(callback.sudoku);
+		assertTrue(handle.isFinished());
+		assertEquals(0, handle.getValidations());
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		TypeBuilder.get99();
+		Generator generator = new Generator();
+		RecordingCallback callback = new RecordingCallback(true);
+		GenerationHandle handle = generator.startGeneration(SudokuTypes.standard9x9, Complexity.infernal, callback);
+		callback.await();
+
+		assertEquals(GenerationFailure.CANCELLED, callback.failure);
+		assertNull(callback.sudoku);
+		assertTrue(handle.isCancelled());
+		assertTrue(handle.isFinished());
+		assertEquals(1, callback.progressEvents);
+		assertTrue(handle.getValidations() >= 1);
+	}
+
+	/**
+	 * Merkt sich die Aufrufe des Generators und bricht die Generierung auf
+	 * Wunsch beim ersten Fortschritt ab.
+	 */
+	private static class RecordingCallback implements GeneratorProgressCallback {
+
+		private boolean cancelOnProgress;
+		private int progressEvents;
+		private GenerationFailure failure;
+		private Sudoku sudoku;
+		private boolean done;
+
+		RecordingCallback(boolean cancelOnProgress) {
+			this.cancelOnProgress = cancelOnProgress;
+		}
+
+		synchronized void await() throws InterruptedException {
+			while (!done)
+				wait();
+		}
+
+		@Override
+		public synchronized void generationFinished(Sudoku sudoku) {
+			this.sudoku = sudoku;
+			done = true;
+			notifyAll();
+		}
+
+		@Override
+		public synchronized void generationProgress(GenerationHandle handle, int definedFields, ComplexityRelation lastRelation) {
+			progressEvents++;
+			if (cancelOnProgress)
+				handle.cancel();
+		}
+
+		@Override
+		public synchronized void generationFailed(GenerationHandle handle, GenerationFailure reason) {
+			failure = reason;
+			done = true;
+			notifyAll();
+		}
 	}
 
 	@Override
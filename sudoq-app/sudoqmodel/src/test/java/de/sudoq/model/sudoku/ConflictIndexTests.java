@@ -0,0 +1,109 @@
+package de.sudoq.model.sudoku;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.Utility;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class ConflictIndexTests {
+
+	@BeforeClass
+	public static void beforeClass() {
+		Utility.copySudokus();
+	}
+
+	private static Sudoku sudoku(SudokuTypes type) {
+		return new Sudoku(SudokuType.getSudokuType(type));
+	}
+
+	@Test
+	public void testConflictsFollowFieldChanges() {
+		Sudoku sudoku = sudoku(SudokuTypes.standard9x9);
+		ConflictIndex index = sudoku.getConflictIndex();
+		Field a = sudoku.getField(Position.get(0, 0));
+		Field b = sudoku.getField(Position.get(1, 1));
+		Field c = sudoku.getField(Position.get(8, 8));
+
+		assertFalse(index.isInConflict(a));
+		a.setCurrentValue(4);
+		c.setCurrentValue(4);
+		assertFalse(index.isInConflict(a));
+		assertFalse(index.isInConflict(c));
+
+		b.setCurrentValue(4);
+		assertTrue(index.isInConflict(a));
+		assertTrue(index.isInConflict(b));
+		assertFalse(index.isInConflict(c));
+
+		b.setCurrentValue(5);
+		assertFalse(index.isInConflict(a));
+		b.clearCurrentValue();
+		assertFalse(index.isInConflict(b));
+		assertSame(index, sudoku.getConflictIndex());
+	}
+
+	@Test
+	public void testSilentChangeIsSeenOnQuery() {
+		Sudoku sudoku = sudoku(SudokuTypes.standard9x9);
+		ConflictIndex index = sudoku.getConflictIndex();
+		Field a = sudoku.getField(Position.get(0, 0));
+		Field b = sudoku.getField(Position.get(0, 5));
+
+		a.setCurrentValue(2);
+		b.setCurrentValue(2, false);
+		assertTrue(index.isInConflict(b));
+		assertTrue(index.isInConflict(a));
+	}
+
+	@Test
+	public void testPeersAndMembership() {
+		Sudoku sudoku = sudoku(SudokuTypes.standard9x9);
+		ConflictIndex index = sudoku.getConflictIndex();
+		Field center = sudoku.getField(Position.get(4, 4));
+
+		assertEquals(20, index.getPeers(center).size());
+		assertEquals(16, index.getPeers(center, ConstraintType.LINE).size());
+		assertEquals(8, index.getPeers(center, ConstraintType.BLOCK).size());
+		assertFalse(index.getPeers(center).contains(center));
+		assertTrue(index.isIn(center, ConstraintType.BLOCK));
+		assertFalse(index.isIn(center, ConstraintType.EXTRA));
+
+		Sudoku x = sudoku(SudokuTypes.Xsudoku);
+		ConflictIndex xIndex = x.getConflictIndex();
+		assertTrue(xIndex.isIn(x.getField(Position.get(0, 0)), ConstraintType.EXTRA));
+		assertFalse(xIndex.isIn(x.getField(Position.get(1, 0)), ConstraintType.EXTRA));
+	}
+
+	@Test
+	public void testCandidates() {
+		Sudoku sudoku = sudoku(SudokuTypes.standard9x9);
+		ConflictIndex index = sudoku.getConflictIndex();
+		Field a = sudoku.getField(Position.get(0, 0));
+		Field rowPeer = sudoku.getField(Position.get(7, 0));
+		Field other = sudoku.getField(Position.get(4, 4));
+
+		rowPeer.setCurrentValue(3);
+		assertFalse(index.isCandidate(a, 3));
+		assertTrue(index.isCandidate(a, 4));
+		assertTrue(index.isCandidate(other, 3));
+
+		// the own value does not block itself
+		a.setCurrentValue(4);
+		assertTrue(index.isCandidate(a, 4));
+		assertFalse(index.isCandidate(rowPeer, 4));
+
+		// changes inside a batch have not been announced yet
+		sudoku.beginBatch();
+		rowPeer.clearCurrentValue();
+		assertTrue(index.isCandidate(a, 3));
+		sudoku.endBatch();
+		assertTrue(index.isCandidate(a, 3));
+	}
+}
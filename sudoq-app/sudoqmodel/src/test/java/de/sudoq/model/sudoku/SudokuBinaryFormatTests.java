@@ -0,0 +1,134 @@
+package de.sudoq.model.sudoku;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.xml.SudokuXmlHandler;
+
+public class SudokuBinaryFormatTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		Utility.copySudokus(new File(res + "tmp_binary_suds"), new File(res + "tmp_binary_profiles"));
+		profiles = Utility.profiles;
+		sudokus = Utility.sudokus;
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	@Test
+	public void testRoundTripAllTypes() {
+		for (SudokuTypes t : SudokuTypes.values()) {
+			if (FileManager.getSudokuCountOf(t, Complexity.easy) == 0)
+				continue;
+			Sudoku xml = SudokuManager.getNewSudoku(t, Complexity.easy);
+			xml.increaseTransformCount();
+			Sudoku binary = SudokuBinaryFormat.decode(SudokuBinaryFormat.encode(xml));
+			assertSameTemplate(xml, binary);
+		}
+	}
+
+	@Test
+	public void testSamuraiIsCompact() {
+		Sudoku samurai = SudokuManager.getNewSudoku(SudokuTypes.samurai, Complexity.infernal);
+		byte[] data = SudokuBinaryFormat.encode(samurai);
+		// 369 fields: 47 bytes of mask and 185 bytes of nibbles
+		assertEquals(17 + 47 + 185, data.length);
+	}
+
+	@Test
+	public void testMissingSolutions() {
+		Sudoku sudoku = new Sudoku(SudokuBuilder.createType(SudokuTypes.standard16x16));
+		sudoku.setComplexity(null);
+		Sudoku decoded = SudokuBinaryFormat.decode(SudokuBinaryFormat.encode(sudoku));
+
+		assertEquals(null, decoded.getComplexity());
+		for (Field f : decoded) {
+			assertEquals(Field.EMPTYVAL, f.getSolution());
+			assertTrue(f.isEditable());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTruncated() {
+		Sudoku sudoku = SudokuManager.getNewSudoku(SudokuTypes.standard9x9, Complexity.easy);
+		byte[] data = SudokuBinaryFormat.encode(sudoku);
+		SudokuBinaryFormat.decode(Arrays.copyOf(data, data.length - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoMagic() {
+		SudokuBinaryFormat.decode(new byte[] { '<', '?', 'x', 'm', 'l' });
+	}
+
+	@Test
+	public void testManagerLoadsAndKeepsBinaryFormat() {
+		// convert every medium 6x6 template to the binary format
+		File dir = new File(sudokus, SudokuTypes.standard6x6 + File.separator + Complexity.medium);
+		for (File file : dir.listFiles()) {
+			Sudoku sudoku = new Sudoku(SudokuBuilder.createType(SudokuTypes.standard6x6));
+			new SudokuXmlHandler(file).createObjectFromXml(sudoku);
+			SudokuBinaryFormat.save(sudoku, FileManager.getSudokuBinaryFile(sudoku));
+			assertTrue(file.delete());
+		}
+		int count = FileManager.getSudokuCountOf(SudokuTypes.standard6x6, Complexity.medium);
+
+		Sudoku sudoku = SudokuManager.getNewSudoku(SudokuTypes.standard6x6, Complexity.medium);
+		assertEquals(Complexity.medium, sudoku.getComplexity());
+		assertTrue(SudokuBinaryFormat.isBinaryFile(FileManager.getSudokuFile(sudoku)));
+
+		int transformCount = sudoku.getTransformCount();
+		if (transformCount < 10) {
+			new SudokuManager().usedSudoku(sudoku);
+			Sudoku reloaded = SudokuBinaryFormat.load(FileManager.getSudokuBinaryFile(sudoku));
+			assertEquals(transformCount + 1, reloaded.getTransformCount());
+		}
+		assertEquals(count, FileManager.getSudokuCountOf(SudokuTypes.standard6x6, Complexity.medium));
+		assertFalse(FileManager.getSudokuFile(sudoku).getName().endsWith(".xml"));
+	}
+
+	private static void assertSameTemplate(Sudoku expected, Sudoku actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getSudokuType().getEnumType(), actual.getSudokuType().getEnumType());
+		assertEquals(expected.getComplexity(), actual.getComplexity());
+		assertEquals(expected.getTransformCount(), actual.getTransformCount());
+		int fields = 0;
+		for (Field f : expected) {
+			fields++;
+		}
+		for (Field f : actual) {
+			fields--;
+		}
+		assertEquals(0, fields);
+		for (Position p : SudokuBinaryFormat.fieldOrder(expected.getSudokuType())) {
+			assertEquals(expected.getField(p).getSolution(), actual.getField(p).getSolution());
+			assertEquals(expected.getField(p).isEditable(), actual.getField(p).isEditable());
+			assertEquals(expected.getField(p).getCurrentValue(), actual.getField(p).getCurrentValue());
+		}
+	}
+
+}
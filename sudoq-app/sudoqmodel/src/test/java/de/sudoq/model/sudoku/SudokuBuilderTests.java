@@ -6,6 +6,7 @@ import static org.junit.Assert.fail;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.junit.BeforeClass;
 import org.junit.Test;
 
 import de.sudoq.model.sudoku.Field;
@@ -13,6 +14,7 @@ import de.sudoq.model.sudoku.Position;
 import de.sudoq.model.sudoku.Sudoku;
 import de.sudoq.model.sudoku.SudokuBuilder;
 import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+import de.sudoq.model.sudoku.sudokuTypes.TypeBuilder;
 
 public class SudokuBuilderTests {
 
@@ -26,6 +28,11 @@ public class SudokuBuilderTests {
 		specialParam.put(SudokuTypes.standard6x6, 6);
 		specialParam.put(SudokuTypes.standard4x4, 4);
 	}
+
+	@BeforeClass
+	public static void init() {
+		TypeBuilder.get99(); // initialises the FileManager
+	}
 	
 	@Test
 	public void testInitialisation() {
@@ -0,0 +1,161 @@
+package de.sudoq.model.sudoku;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class SudokuPackTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		Utility.copySudokus(new File(res + "tmp_pack_suds"), new File(res + "tmp_pack_profiles"));
+		profiles = Utility.profiles;
+		sudokus = Utility.sudokus;
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	private static File tempPack() throws IOException {
+		File file = File.createTempFile("pack", SudokuPack.FILE_SUFFIX, profiles);
+		file.delete();
+		return file;
+	}
+
+	@Test
+	public void testAppendGetDelete() throws IOException {
+		File file = tempPack();
+		SudokuPack pack = new SudokuPack(file, SudokuTypes.standard9x9);
+		assertEquals(0, pack.getCount(Complexity.easy));
+		assertNull(pack.getRandom(Complexity.easy));
+
+		Sudoku easy = SudokuManager.getNewSudoku(SudokuTypes.standard9x9, Complexity.easy);
+		Sudoku infernal = SudokuManager.getNewSudoku(SudokuTypes.standard9x9, Complexity.infernal);
+		assertEquals(1, pack.append(easy));
+		assertEquals(2, pack.append(infernal));
+		assertEquals(1, easy.getId());
+		assertEquals(1, pack.getCount(Complexity.easy));
+		assertEquals(1, pack.getCount(Complexity.infernal));
+		assertEquals(Complexity.easy, pack.getRandom(Complexity.easy).getComplexity());
+		assertEquals(Complexity.infernal, pack.get(2).getComplexity());
+
+		assertTrue(pack.delete(1));
+		assertFalse(pack.delete(1));
+		assertNull(pack.get(1));
+		assertEquals(0, pack.getCount(Complexity.easy));
+
+		// the tombstone is reused
+		assertEquals(1, pack.append(easy));
+		pack.close();
+	}
+
+	@Test
+	public void testGrowAndReopen() throws IOException {
+		File file = tempPack();
+		SudokuPack pack = new SudokuPack(file, SudokuTypes.standard4x4);
+		Sudoku sudoku = SudokuManager.getNewSudoku(SudokuTypes.standard4x4, Complexity.medium);
+		for (int i = 0; i < 200; i++) {
+			pack.append(sudoku);
+		}
+		for (int id = 2; id <= 200; id += 2) {
+			assertTrue(pack.delete(id));
+		}
+		pack.close();
+
+		pack = new SudokuPack(file, SudokuTypes.standard4x4);
+		assertEquals(100, pack.getCount(Complexity.medium));
+		assertNull(pack.get(2));
+		assertNotNull(pack.get(199));
+		assertEquals(199, pack.get(199).getId());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, pack.append(sudoku) % 2);
+		}
+		assertEquals(201, pack.append(sudoku));
+		pack.close();
+	}
+
+	@Test
+	public void testReplace() throws IOException {
+		File file = tempPack();
+		SudokuPack pack = new SudokuPack(file, SudokuTypes.standard9x9);
+		Sudoku sudoku = SudokuManager.getNewSudoku(SudokuTypes.standard9x9, Complexity.difficult);
+		pack.append(sudoku);
+		sudoku.increaseTransformCount();
+		pack.replace(sudoku);
+		assertEquals(sudoku.getTransformCount(), pack.get(sudoku.getId()).getTransformCount());
+		pack.close();
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorruptComplexity() throws IOException {
+		File file = tempPack();
+		SudokuPack pack = new SudokuPack(file, SudokuTypes.standard9x9);
+		pack.append(SudokuManager.getNewSudoku(SudokuTypes.standard9x9, Complexity.easy));
+		pack.close();
+
+		// the complexity byte of the first record, right after its status
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(64 + 1);
+		raf.write(-3);
+		raf.close();
+		new SudokuPack(file, SudokuTypes.standard9x9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongType() throws IOException {
+		File file = tempPack();
+		SudokuPack pack = new SudokuPack(file, SudokuTypes.standard9x9);
+		pack.close();
+		new SudokuPack(file, SudokuTypes.samurai);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAppendWrongType() throws IOException {
+		SudokuPack pack = new SudokuPack(tempPack(), SudokuTypes.standard9x9);
+		pack.append(SudokuManager.getNewSudoku(SudokuTypes.standard4x4, Complexity.easy));
+	}
+
+	@Test
+	public void testManagerUsesPack() throws IOException {
+		SudokuPack.main(new String[] { sudokus.getPath(), SudokuTypes.standard6x6.toString() });
+		SudokuPack pack = FileManager.getSudokuPack(SudokuTypes.standard6x6);
+		assertNotNull(pack);
+		assertSame(pack, FileManager.getSudokuPack(SudokuTypes.standard6x6));
+		assertEquals(FileManager.getSudokuCountOf(SudokuTypes.standard6x6, Complexity.easy), pack.getCount(Complexity.easy));
+
+		Sudoku sudoku = SudokuManager.getNewSudoku(SudokuTypes.standard6x6, Complexity.easy);
+		assertEquals(Complexity.easy, sudoku.getComplexity());
+		int transformCount = sudoku.getTransformCount();
+		if (transformCount < 10) {
+			new SudokuManager().usedSudoku(sudoku);
+			assertEquals(transformCount + 1, pack.get(sudoku.getId()).getTransformCount());
+		}
+	}
+
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.Random;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -213,6 +214,119 @@ public class SudokuTests {
 		assertEquals(listener.callCount, 1);
 	}
 
+	@Test
+	public void testBatchNotifiesOncePerField() {
+		Sudoku sudoku = new Sudoku(TypeBuilder.getType(SudokuTypes.standard9x9));
+		Field a = sudoku.getField(Position.get(0, 0));
+		Field b = sudoku.getField(Position.get(4, 4));
+		Listener sudokuListener = new Listener();
+		Listener fieldListener = new Listener();
+		sudoku.registerListener(sudokuListener);
+		a.registerListener(fieldListener);
+
+		sudoku.beginBatch();
+		a.setCurrentValue(1);
+		a.toggleNote(2);
+		a.toggleNote(3);
+		b.setCurrentValue(4);
+		assertEquals(0, sudokuListener.callCount);
+		assertEquals(0, fieldListener.callCount);
+		sudoku.endBatch();
+
+		assertEquals(2, sudokuListener.callCount);
+		assertEquals(1, fieldListener.callCount);
+		assertFalse(a.isInBatch());
+
+		a.setCurrentValue(5);
+		assertEquals(3, sudokuListener.callCount);
+		assertEquals(2, fieldListener.callCount);
+	}
+
+	@Test
+	public void testBatchKeepsModelCurrent() {
+		PositionMap<Integer> solutions = new PositionMap<Integer>(Position.get(9, 9));
+		for (int x = 0; x < 9; x++) {
+			for (int y = 0; y < 9; y++) {
+				solutions.put(Position.get(x, y), Integer.valueOf((x + 3 * y + y / 3) % 9));
+			}
+		}
+		Sudoku sudoku = new Sudoku(TypeBuilder.getType(SudokuTypes.standard9x9), solutions, null);
+		Field a = sudoku.getField(Position.get(0, 0));
+		Field b = sudoku.getField(Position.get(1, 0));
+		Field untouched = sudoku.getField(Position.get(8, 8));
+		assertFalse(sudoku.hasErrors());
+		ConflictIndex index = sudoku.getConflictIndex();
+
+		sudoku.beginBatch();
+		a.setCurrentValue(5);
+		b.setCurrentValue(5);
+		// the index and the error counters see every change immediately, views only at the end
+		assertTrue(sudoku.hasErrors());
+		assertTrue(index.isInConflict(a));
+		assertFalse(index.isCandidate(sudoku.getField(Position.get(0, 8)), 5));
+		assertTrue(a.isInBatch());
+		assertFalse(untouched.isInBatch());
+		sudoku.endBatch();
+
+		assertFalse(a.isInBatch());
+		assertTrue(index.isInConflict(b));
+	}
+
+	@Test
+	public void testErrorCountersFollowChanges() {
+		ErrorTracker.selfCheck = true;
+		try {
+			SudokuType sudokuType = TypeBuilder.getType(SudokuTypes.standard9x9);
+			PositionMap<Integer> solutions = new PositionMap<Integer>(Position.get(9, 9));
+			for (int x = 0; x < 9; x++) {
+				for (int y = 0; y < 9; y++) {
+					solutions.put(Position.get(x, y), Integer.valueOf((x + 3 * y + y / 3) % 9));
+				}
+			}
+			final Sudoku sudoku = new Sudoku(sudokuType, solutions, null);
+			assertFalse(sudoku.hasErrors());
+			assertFalse(sudoku.isFinished());
+
+			Random random = new Random(3);
+			for (int i = 0; i < 500; i++) {
+				Field f = sudoku.getField(Position.get(random.nextInt(9), random.nextInt(9)));
+				if (random.nextInt(4) == 0) {
+					f.clearCurrentValue();
+				} else {
+					f.setCurrentValue(random.nextInt(9));
+				}
+				// the self check compares the counters with a full scan
+				sudoku.hasErrors();
+			}
+
+			final boolean[] finishedDuringFlush = new boolean[1];
+			Field first = sudoku.getField(Position.get(0, 0));
+			first.registerListener(new ModelChangeListener<Field>() {
+				@Override
+				public void onModelChanged(Field obj) {
+					finishedDuringFlush[0] = sudoku.isFinished();
+				}
+			});
+			sudoku.beginBatch();
+			for (Field f : sudoku) {
+				f.setCurrentValue(f.getSolution());
+			}
+			assertFalse(sudoku.hasErrors());
+			assertTrue(sudoku.isFinished());
+			sudoku.endBatch();
+			assertTrue(finishedDuringFlush[0]);
+			assertTrue(sudoku.isFinished());
+
+			Field wrong = new Field(true, 1, 1000, 9);
+			wrong.setCurrentValue(2);
+			sudoku.setField(wrong, Position.get(4, 4));
+			assertTrue(sudoku.hasErrors());
+			assertFalse(sudoku.isFinished());
+		} finally {
+			ErrorTracker.selfCheck = false;
+		}
+	}
+
 	class Listener implements ModelChangeListener<Field> {
 		int callCount = 0;
 
@@ -0,0 +1,94 @@
+package de.sudoq.model.sudoku.sudokuTypes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.sudoq.model.sudoku.Constraint;
+import de.sudoq.model.sudoku.ConstraintType;
+import de.sudoq.model.sudoku.Position;
+import de.sudoq.model.sudoku.SudokuBuilder;
+import de.sudoq.model.sudoku.UniqueConstraintBehavior;
+
+public class SudokuTypeTests {
+
+	@Test
+	public void testTypeIsShared() {
+		SudokuType type = TypeBuilder.getType(SudokuTypes.standard9x9);
+		assertSame(type, SudokuType.getSudokuType(SudokuTypes.standard9x9));
+		assertSame(type, SudokuBuilder.createType(SudokuTypes.standard9x9));
+	}
+
+	@Test
+	public void testSharedTypeIsImmutable() {
+		SudokuType type = TypeBuilder.getType(SudokuTypes.standard4x4);
+		try {
+			type.addConstraint(new Constraint(new UniqueConstraintBehavior(), ConstraintType.LINE));
+			fail("No Exception thrown");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			type.setNumberOfSymbols(9);
+			fail("No Exception thrown");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(4, type.getNumberOfSymbols());
+
+		// types that are not shared can still be built up
+		SudokuType own = new SudokuType(4, 4, 4);
+		own.addConstraint(new Constraint(new UniqueConstraintBehavior(), ConstraintType.LINE));
+	}
+
+	@Test
+	public void testSharedTypeExposesNoMutableState() {
+		SudokuType type = TypeBuilder.getType(SudokuTypes.standard4x4);
+		int constraints = type.getConstraints().size();
+		try {
+			type.getConstraints().clear();
+			fail("No Exception thrown");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			type.getPermutationProperties().clear();
+			fail("No Exception thrown");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		Constraint c = type.getConstraints().get(0);
+		int positions = c.getSize();
+		try {
+			c.addPosition(Position.get(3, 3));
+			fail("No Exception thrown");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			c.getPositions().remove(0);
+			fail("No Exception thrown");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertEquals(constraints, type.getConstraints().size());
+		assertEquals(positions, c.getSize());
+		assertTrue(type.getPermutationProperties().size() > 0);
+	}
+
+	@Test
+	public void testValidPositionsAreUnique() {
+		SudokuType samurai = TypeBuilder.getType(SudokuTypes.samurai);
+		Set<Position> seen = new HashSet<Position>();
+		for (Position p : samurai.getValidPositions()) {
+			assertTrue(seen.add(p));
+		}
+		assertEquals(369, seen.size());
+	}
+}
@@ -2,6 +2,7 @@ package de.sudoq.model.xml;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -146,6 +147,40 @@ public class XmlHelperTests {
 		helper.saveXml(new XmlTree("sudoku", ""), file);
 	}
 
+	@Test
+	public void testAttributeEscaping() throws IllegalArgumentException, IOException {
+		File file = new File("res/tmp_escaping.xml");
+		String name = "Tom & \"Jerry\" <3 > you";
+		XmlTree tree = new XmlTree("profile");
+		tree.addAttribute(new XmlAttribute("name", name));
+		XmlTree child = new XmlTree("gameSettings");
+		child.addAttribute(new XmlAttribute("umlaut", "\u00e4\u00f6\u00fc\u00df"));
+		tree.addChild(child);
+
+		assertEquals("<profile name=\"Tom &amp; &quot;Jerry&quot; &lt;3 &gt; you\">\n<gameSettings umlaut=\"\u00e4\u00f6\u00fc\u00df\"></gameSettings>\n</profile>\n",
+				helper.buildXmlStructure(tree));
+
+		helper.saveXml(tree, file);
+		XmlTree loaded = helper.loadXml(file);
+		assertEquals(name, loaded.getAttributeValue("name"));
+		assertEquals("\u00e4\u00f6\u00fc\u00df", loaded.getChildren().next().getAttributeValue("umlaut"));
+		assertTrue(file.delete());
+	}
+
+	@Test
+	public void testSaveXmlAtomically() throws IllegalArgumentException, IOException {
+		File file = new File("res/tmp_atomic.xml");
+		XmlTree tree = new XmlTree("sudoku");
+		tree.addAttribute(new XmlAttribute("id", "1"));
+		helper.saveXmlAtomically(tree, file);
+		tree.updateAttribute(new XmlAttribute("id", "2"));
+		helper.saveXmlAtomically(tree, file);
+
+		assertEquals("2", helper.loadXml(file).getAttributeValue("id"));
+		assertFalse(new File("res/tmp_atomic.xml.tmp").exists());
+		assertTrue(file.delete());
+	}
+
 	@Test
 	public void testSaveXmlIllegalArgumentException1() throws IllegalArgumentException, IOException {
 		thrown.expect(IllegalArgumentException.class);
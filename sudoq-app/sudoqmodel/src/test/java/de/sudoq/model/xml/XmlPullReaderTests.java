@@ -0,0 +1,174 @@
+package de.sudoq.model.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.sudoq.model.Utility;
+import de.sudoq.model.files.FileManager;
+import de.sudoq.model.sudoku.Sudoku;
+import de.sudoq.model.sudoku.complexity.Complexity;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuType;
+import de.sudoq.model.sudoku.sudokuTypes.SudokuTypes;
+
+public class XmlPullReaderTests {
+
+	private static File profiles;
+	private static File sudokus;
+	private static Object[] previousState;
+
+	@BeforeClass
+	public static void init() throws IOException {
+		previousState = Utility.saveState();
+		String res = "res" + File.separator;
+		Utility.copySudokus(new File(res + "tmp_pull_suds"), new File(res + "tmp_pull_profiles"));
+		profiles = Utility.profiles;
+		sudokus = Utility.sudokus;
+	}
+
+	@AfterClass
+	public static void clean() throws IOException {
+		FileManager.deleteDir(profiles);
+		FileManager.deleteDir(sudokus);
+		Utility.restoreState(previousState);
+	}
+
+	private static XmlPullReader reader(String xml) {
+		return new XmlPullReader(new StringReader(xml));
+	}
+
+	@Test
+	public void testEvents() throws IOException {
+		XmlPullReader r = reader("<?xml version=\"1.0\"?>\n<!DOCTYPE a SYSTEM \"a.dtd\">\n<!-- <b/> -->"
+				+ "<a x=\"1\" y='&lt;&amp;&quot;&#65;&gt;'><b/>text<c z = \"2\"></c></a>");
+
+		assertEquals(XmlPullReader.START_TAG, r.next());
+		assertEquals("a", r.getName());
+		assertEquals(1, r.getDepth());
+		assertEquals(2, r.getAttributeCount());
+		assertEquals("x", r.getAttributeName(0));
+		assertEquals(1, r.getIntAttribute("x"));
+		assertEquals("<&\"A>", r.getAttributeValue("y"));
+		assertEquals(null, r.getAttributeValue("z"));
+
+		assertEquals(XmlPullReader.START_TAG, r.next());
+		assertEquals("b", r.getName());
+		assertEquals(2, r.getDepth());
+		assertEquals(XmlPullReader.END_TAG, r.next());
+		assertEquals("b", r.getName());
+		assertEquals(2, r.getDepth());
+
+		assertEquals(XmlPullReader.START_TAG, r.next());
+		assertEquals("2", r.getAttributeValue("z"));
+		assertEquals(XmlPullReader.END_TAG, r.next());
+		assertEquals(XmlPullReader.END_TAG, r.next());
+		assertEquals("a", r.getName());
+		assertEquals(1, r.getDepth());
+		assertEquals(XmlPullReader.END_DOCUMENT, r.next());
+	}
+
+	@Test
+	public void testNextChildSkipsGrandchildren() throws IOException {
+		XmlPullReader r = reader("<a><b><x/><y><z/></y></b><c/></a>");
+		r.next();
+		int depth = r.getDepth();
+
+		assertTrue(r.nextChild(depth));
+		assertEquals("b", r.getName());
+		assertTrue(r.nextChild(depth));
+		assertEquals("c", r.getName());
+		assertFalse(r.nextChild(depth));
+		assertEquals("a", r.getName());
+	}
+
+	@Test
+	public void testReadTree() throws IOException {
+		String xml = "<a k=\"v\"><b i=\"1\"/><c><d/></c></a>";
+		XmlPullReader r = reader(xml);
+		r.next();
+		XmlTree tree = r.readTree();
+
+		assertEquals("a", tree.getName());
+		assertEquals("v", tree.getAttributeValue("k"));
+		assertEquals(2, tree.getNumberOfChildren());
+		assertEquals(XmlPullReader.END_DOCUMENT, r.next());
+	}
+
+	@Test
+	public void testSupplementaryEntity() throws IOException {
+		XmlPullReader r = reader("<a x=\"&#x1F600;&#128512;\"/>");
+		r.next();
+		String smiley = new String(Character.toChars(0x1F600));
+		assertEquals(smiley + smiley, r.getAttributeValue("x"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testQuoteInAttributeName() throws IOException {
+		reader("<a x=\"1\" \"y\"=\"2\"/>").next();
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidCodePoint() throws IOException {
+		reader("<a x=\"&#x110000;\"/>").next();
+	}
+
+	@Test
+	public void testUnexpectedEnd() throws IOException {
+		XmlPullReader r = reader("<a><b>");
+		r.next();
+		try {
+			r.nextChild(1);
+			r.nextChild(2);
+			fail("No Exception thrown");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSudokuTypesEqualTreePath() throws IOException {
+		XmlHelper helper = new XmlHelper();
+		for (SudokuTypes t : SudokuTypes.values()) {
+			File file = FileManager.getSudokuTypeFile(t);
+			if (!file.exists())
+				continue;
+			SudokuType fromTree = new SudokuType();
+			fromTree.fillFromXml(helper.loadXml(file));
+			SudokuType fromPull = SudokuType.getSudokuType(t);
+
+			assertEquals(helper.buildXmlStructure(fromTree.toXmlTree()), helper.buildXmlStructure(fromPull.toXmlTree()));
+		}
+	}
+
+	@Test
+	public void testSudokusEqualTreePath() throws IOException {
+		XmlHelper helper = new XmlHelper();
+		for (SudokuTypes t : SudokuTypes.values()) {
+			File dir = new File(sudokus, t.toString() + File.separator + Complexity.easy.toString());
+			File file = new File(dir, "sudoku_1.xml");
+			if (!file.exists())
+				continue;
+			SudokuType type = SudokuType.getSudokuType(t);
+			Sudoku fromTree = new Sudoku(type);
+			fromTree.fillFromXml(helper.loadXml(file));
+			Sudoku fromPull = new Sudoku(type);
+			XmlPullReader reader = XmlPullReader.open(file);
+			try {
+				fromPull.fillFromXml(reader);
+			} finally {
+				reader.close();
+			}
+
+			assertEquals(helper.buildXmlStructure(fromTree.toXmlTree()), helper.buildXmlStructure(fromPull.toXmlTree()));
+		}
+	}
+}